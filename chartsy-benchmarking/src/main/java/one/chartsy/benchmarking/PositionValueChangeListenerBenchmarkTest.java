@@ -33,6 +33,9 @@ public class PositionValueChangeListenerBenchmarkTest {
 
     double positionResult = 0;
 
+    @Param({"PROXY", "SPECIALIZED"})
+    String fireMode;
+
     private EquityInformation.Builder equityBuilder = EquityInformation.builder(BalanceState.ZERO);
 
     @Benchmark
@@ -71,7 +74,10 @@ public class PositionValueChangeListenerBenchmarkTest {
             SymbolIdentity symb = SymbolIdentity.of("S." + i);
             positions[i] = new Position(1, symb, Direction.LONG, 1.0, 2.0, new Order(symb, OrderType.MARKET, Order.Side.BUY), 0.0, -1);
         }
-        listeners = ListenerList.of(LegacyPositionValueChangeListener.class);
+        listeners = switch (fireMode) {
+            case "SPECIALIZED" -> ListenerList.specialized(LegacyPositionValueChangeListener.class);
+            default -> ListenerList.of(LegacyPositionValueChangeListener.class);
+        };
         listeners.addListener(equityBuilder);
 //        ByteBufferMutableHLCDataset equityDS = new ByteBufferMutableHLCDataset(1L, ByteBuffer.allocate(256_000));
 //        listeners.addListener(new PositionValueChangeListener2() {
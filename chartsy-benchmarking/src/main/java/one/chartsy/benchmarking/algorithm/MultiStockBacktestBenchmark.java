@@ -62,7 +62,7 @@ public class MultiStockBacktestBenchmark {
             algoFactory = MyAlgorithm::new;
 
             LocalDate start = LocalDate.parse(startDate, DateTimeFormatter.ISO_LOCAL_DATE);
-            marketFactory = () -> new FlatFileDataMarketSupplier(
+            marketFactory = FlatFileDataMarketSupplier.factory(
                     provider,
                     subscription,
                     start.atStartOfDay().atZone(ZoneOffset.UTC).toInstant()
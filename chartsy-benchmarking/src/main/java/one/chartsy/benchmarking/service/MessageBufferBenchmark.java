@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.benchmarking.service;
+
+import one.chartsy.data.stream.Message;
+import one.chartsy.data.stream.MessageBuffer;
+import one.chartsy.data.stream.MessageChannel;
+import one.chartsy.data.stream.MessageHandler;
+import one.chartsy.data.stream.MpscMessageBuffer;
+import one.chartsy.data.stream.QueuedMessageBuffer;
+import one.chartsy.data.stream.SpscMessageBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Compares the {@code ArrayBlockingQueue}-backed {@link QueuedMessageBuffer} with the lock-free
+ * ring buffers, both when the messages are sent and read by the same thread (as in a backtest)
+ * and when they are handed over from a producer thread to a consumer thread.
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class MessageBufferBenchmark {
+
+    record TestMessage(long time) implements Message { }
+
+    @Param({"QUEUED", "SPSC", "MPSC"})
+    String bufferType;
+
+    @Param({"1024"})
+    int capacity;
+
+    @Param({"64"})
+    int pollLimit;
+
+    private MessageBuffer buffer;
+    private MessageChannel<TestMessage> channel;
+    private Predicate<TestMessage> offer;
+    private final TestMessage message = new TestMessage(1L);
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        switch (bufferType) {
+            case "QUEUED" -> {
+                var queue = new ArrayBlockingQueue<TestMessage>(capacity);
+                use(new QueuedMessageBuffer<>(queue), queue::offer);
+            }
+            case "SPSC" -> {
+                var ring = new SpscMessageBuffer<TestMessage>(capacity);
+                use(ring, ring::offer);
+            }
+            case "MPSC" -> {
+                var ring = new MpscMessageBuffer<TestMessage>(capacity);
+                use(ring, ring::offer);
+            }
+            default -> throw new IllegalArgumentException(bufferType);
+        }
+    }
+
+    private <B extends MessageBuffer & MessageChannel<TestMessage>> void use(B buffer, Predicate<TestMessage> offer) {
+        this.buffer = buffer;
+        this.channel = buffer;
+        this.offer = offer;
+    }
+
+    @State(Scope.Thread)
+    public static class ConsumerState {
+        long timeSum;
+        final MessageHandler handler = msg -> timeSum += msg.time();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public int sameThreadSendAndRead(ConsumerState consumer) {
+        for (int i = 0; i < 64; i++)
+            channel.send(message);
+        return buffer.read(consumer.handler, pollLimit);
+    }
+
+    @Benchmark
+    @Group("handOver")
+    @GroupThreads(1)
+    public boolean producer() {
+        boolean accepted = offer.test(message);
+        if (!accepted)
+            Thread.onSpinWait();
+        return accepted;
+    }
+
+    @Benchmark
+    @Group("handOver")
+    @GroupThreads(1)
+    public int consumer(ConsumerState consumer) {
+        int count = buffer.read(consumer.handler, pollLimit);
+        if (count == 0)
+            Thread.onSpinWait();
+        return count;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(MessageBufferBenchmark.class.getSimpleName())
+                .build();
+        new Runner(opt).run();
+    }
+}
@@ -1,6 +1,7 @@
 package one.chartsy.benchmarking.service.invoker;
 
 import one.chartsy.core.event.AbstractInvoker;
+import one.chartsy.core.event.ListenerList;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.profile.JavaFlightRecorderProfiler;
@@ -60,9 +61,21 @@ public class AbstractInvoker1Benchmark {
         }
     }
 
+    public static class DispatchingTestInvoker extends TestInvoker {
+        public DispatchingTestInvoker(Object primaryService) {
+            super(primaryService);
+        }
+
+        @Override
+        protected ListenerList<?> createListenerList(Class<?> type) {
+            return ListenerList.specialized(type);
+        }
+    }
+
     @State(Scope.Benchmark)
     public static class BenchmarkState {
         public TestInvoker invoker;
+        public TestInvoker dispatchingInvoker;
         public TestService1 service1;
         public TestService2 service2;
         public String testMessage = "test message";
@@ -74,6 +87,9 @@ public class AbstractInvoker1Benchmark {
             invoker = new TestInvoker(service1);
             invoker.addService(service1);
             invoker.addService(service2);
+            dispatchingInvoker = new DispatchingTestInvoker(service1);
+            dispatchingInvoker.addService(service1);
+            dispatchingInvoker.addService(service2);
         }
     }
 
@@ -84,6 +100,13 @@ public class AbstractInvoker1Benchmark {
         state.invoker.invokeHandler(state.testMessage, blackhole);
     }
 
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public void benchmarkDispatchingInvokerMethodCall(BenchmarkState state, Blackhole blackhole) {
+        state.dispatchingInvoker.invokeHandler(state.testMessage, blackhole);
+    }
+
     @Benchmark
     @BenchmarkMode(Mode.AverageTime)
     @OutputTimeUnit(TimeUnit.NANOSECONDS)
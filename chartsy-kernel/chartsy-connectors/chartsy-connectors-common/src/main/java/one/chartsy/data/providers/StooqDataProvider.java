@@ -2,9 +2,9 @@
  * SPDX-License-Identifier: Apache-2.0 */
 package one.chartsy.data.providers;
 
-import java.io.ByteArrayInputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.UncheckedIOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
 import java.net.http.HttpClient;
@@ -13,9 +13,11 @@ import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.net.http.HttpResponse.BodyHandlers;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -23,6 +25,7 @@ import java.util.HexFormat;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.regex.Pattern;
@@ -36,6 +39,12 @@ import one.chartsy.data.provider.AbstractDataProvider;
 import one.chartsy.data.provider.DataProvider;
 import one.chartsy.data.provider.DataProviderException;
 import one.chartsy.data.provider.SymbolProposalProvider;
+import one.chartsy.data.provider.cache.CachingCandleFetcher;
+import one.chartsy.data.provider.cache.CandleCache;
+import one.chartsy.data.provider.cache.CandleFetcher;
+import one.chartsy.data.provider.fetch.HostLimits;
+import one.chartsy.data.provider.fetch.RetryPolicy;
+import one.chartsy.data.provider.fetch.TransientFetchException;
 import one.chartsy.data.provider.file.*;
 import one.chartsy.time.Chronological;
 import org.openide.util.lookup.ServiceProvider;
@@ -60,17 +69,46 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
     private static final String AUTH_COOKIE_PREFIX = "auth=";
     private static final Pattern VERIFICATION_CHALLENGE_PATTERN = Pattern.compile("const\\s+c=\"([^\"]+)\",d=(\\d+)");
 
+    /** The length of the response body prefix searched for the browser verification challenge. */
+    private static final int PEEK_LENGTH = 8192;
+    private static final DateTimeFormatter START_DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    /** The system property naming the directory of the on-disk candle cache, the cache is disabled when not set. */
+    public static final String CACHE_DIRECTORY_PROPERTY = "chartsy.data.cache.dir";
+    /** The limits of concurrent requests sent to the website, unless configured otherwise in the fetch scheduler. */
+    private static final HostLimits HOST_LIMITS = new HostLimits(4, 4.0, 8);
+
     /** The Http Client used to execute the service requests. */
     private final HttpClient httpClient = newHttpClient();
     private final Object verificationLock = new Object();
     private volatile String verificationCookie;
+    private final URI baseUri;
+    private final CandleFetcher candleFetcher;
 
 
     public StooqDataProvider() {
+        this(URI.create("https://stooq.pl/"), defaultCandleCache());
+    }
+
+    /**
+     * Constructs the provider fetching data from the given website.
+     *
+     * @param baseUri the website address
+     * @param candleCache the on-disk candle cache, or {@code null} to fetch the full history on every query
+     */
+    public StooqDataProvider(URI baseUri, CandleCache candleCache) {
         super("Stooq");
+        this.baseUri = Objects.requireNonNull(baseUri, "baseUri");
+        this.candleFetcher = (candleCache == null)? this::fetchRemoteCandles
+                : new CachingCandleFetcher(getName(), this::fetchRemoteCandles, candleCache);
+        getFetchScheduler().setHostLimitsIfAbsent(Objects.requireNonNullElse(baseUri.getHost(), ""), HOST_LIMITS);
         lookupContent.add(this);
     }
 
+    private static CandleCache defaultCandleCache() {
+        String directory = System.getProperty(CACHE_DIRECTORY_PROPERTY);
+        return (directory == null || directory.isBlank())? null : new CandleCache(Path.of(directory));
+    }
+
     protected HttpClient newHttpClient() {
         return newHttpClientBuilder().build();
     }
@@ -125,7 +163,35 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
             if (Currency.USD.equals(query.currency()) && !sym.endsWith(".us"))
                 sym += ".us";
         }
-        sym = URLEncoder.encode(sym, StandardCharsets.UTF_8);
+        if (!sym.equals(resource.symbol().name()))
+            resource = resource.withSymbol(SymbolIdentity.of(sym, resource.symbol().type()));
+
+        List<Candle> items = new ArrayList<>(candleFetcher.fetchCandles(resource, query.startTime()));
+        if (query.startTime() != null) {
+            long startTime = Chronological.toEpochNanos(query.startTime());
+            items.removeIf(item -> item.time() < startTime);
+        }
+        if (query.endTime() != null) {
+            long endTime = Chronological.toEpochNanos(query.endTime());
+            items.removeIf(item -> item.time() > endTime);
+        }
+
+        int itemCount = items.size();
+        int itemLimit = query.limit();
+        if (itemLimit > 0 && itemLimit < itemCount)
+            items = items.subList(itemCount - itemLimit, itemCount);
+
+        return Flux.fromIterable(items);
+    }
+
+    /**
+     * Fetches the candles of the given resource from the website, streaming the response body directly into the parser.
+     *
+     * @param resource the symbol, already in the Stooq notation, and the time frame
+     * @param startTime the time of the first candle needed, or {@code null} for the full history
+     * @return the fetched candles
+     */
+    protected List<Candle> fetchRemoteCandles(SymbolResource<Candle> resource, LocalDateTime startTime) throws IOException, InterruptedException {
         String itv = null;
         TimeFrame baseTimeFrame = null;
         for (Map.Entry<TimeFrame, String> interval : intervals.entrySet())
@@ -137,8 +203,12 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
         if (baseTimeFrame == null)
             throw new IOException("Unsupported time frame: " + resource.timeFrame());
 
-        var uri = URI.create("https://stooq.pl/q/a2/d/?s=" + sym + "&i=" + itv);
-        var response = sendVerified(stooqGet(uri));
+        String sym = URLEncoder.encode(resource.symbol().name().toLowerCase(), StandardCharsets.UTF_8);
+        String query = "q/a2/d/?s=" + sym + "&i=" + itv;
+        if (startTime != null)
+            query += "&d1=" + START_DATE_FORMAT.format(startTime);
+        var body = openVerified(stooqGet(baseUri.resolve(query)));
+
         var execContext = new ExecutionContext();
         var fileFormat = FlatFileFormat.builder()
                 .lineMapper(new SimpleCandleLineMapper.Type(
@@ -153,27 +223,11 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
         FlatFileItemReader<Candle> itemReader = new FlatFileItemReader<>();
         itemReader.setLineMapper((LineMapper<Candle>) fileFormat.getLineMapper().createLineMapper(execContext));
         itemReader.setLinesToSkip(fileFormat.getSkipFirstLines());
-        itemReader.setInputStreamSource(() -> new ByteArrayInputStream(response.body().getBytes(StandardCharsets.UTF_8)));
+        itemReader.setInputStreamSource(() -> body);
 
-        try {
+        try (body) {
             itemReader.open();
-            List<Candle> items = itemReader.readAll();
-
-            //items.sort(Comparator.naturalOrder());
-            if (query.endTime() != null) {
-                long endTime = Chronological.toEpochNanos(query.endTime());
-                items.removeIf(item -> item.time() > endTime);
-            }
-
-            int itemCount = items.size();
-            int itemLimit = query.limit();
-            if (itemLimit > 0 && itemLimit < itemCount)
-                items = items.subList(itemCount - itemLimit, itemCount);
-
-            return Flux.fromIterable(items);
-
-        } catch (IOException e) {
-            throw new UncheckedIOException(e);
+            return itemReader.readAll();
         } finally {
             itemReader.close();
         }
@@ -196,7 +250,7 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
 
     //@Override
     public List<Symbol> getProposals(String p) throws IOException, InterruptedException {
-        var uri = URI.create("https://stooq.pl/cmp/?q=" + URLEncoder.encode(p, StandardCharsets.UTF_8));
+        var uri = baseUri.resolve("cmp/?q=" + URLEncoder.encode(p, StandardCharsets.UTF_8));
         var response = sendVerified(stooqGet(uri));
         return parseAutocompletionResponse(response.body());
     }
@@ -209,23 +263,92 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
                 .build();
     }
 
+    /**
+     * Sends the request and gives the stream of the response body, passing the browser verification if requested by the website.
+     */
+    InputStream openVerified(HttpRequest request) throws IOException, InterruptedException {
+        String cookie = verificationCookie;
+        var body = openStream(withVerificationCookie(request, cookie));
+        var challenge = parseVerificationChallenge(peek(body));
+        if (challenge.isEmpty())
+            return body;
+
+        body.close();
+        cookie = refreshVerificationCookie(request.uri(), challenge.orElseThrow(), cookie);
+        body = openStream(withVerificationCookie(request, cookie));
+        if (parseVerificationChallenge(peek(body)).isPresent()) {
+            body.close();
+            throw new IOException("Stooq browser verification challenge was not accepted");
+        }
+        return body;
+    }
+
+    /**
+     * Opens the stream of the response body, holding the concurrency slot of the website until the stream is closed.
+     */
+    private InputStream openStream(HttpRequest request) throws IOException, InterruptedException {
+        return getFetchScheduler().openStream(request.uri(), () -> {
+            var response = httpClient.send(request, MoreBodyHandlers.decoding(BodyHandlers.ofInputStream()));
+            if (RetryPolicy.isRetryableStatus(response.statusCode())) {
+                response.body().close();
+                throw new TransientFetchException("Stooq responded with HTTP status " + response.statusCode());
+            }
+            return new BufferedInputStream(response.body(), PEEK_LENGTH);
+        });
+    }
+
+    /** Gives the beginning of the response body, leaving the stream positioned at its start, or closed on failure. */
+    private static String peek(InputStream body) throws IOException {
+        try {
+            body.mark(PEEK_LENGTH);
+            byte[] prefix = body.readNBytes(PEEK_LENGTH);
+            body.reset();
+            return new String(prefix, StandardCharsets.UTF_8);
+        } catch (IOException | RuntimeException e) {
+            try {
+                body.close();
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
     HttpResponse<String> sendVerified(HttpRequest request) throws IOException, InterruptedException {
-        var response = send(withVerificationCookie(request));
+        String cookie = verificationCookie;
+        var response = send(withVerificationCookie(request, cookie));
         var challenge = parseVerificationChallenge(response.body());
         if (challenge.isEmpty())
             return response;
 
-        synchronized (verificationLock) {
-            verificationCookie = requestVerificationCookie(request.uri(), challenge.orElseThrow());
-        }
-        response = send(withVerificationCookie(request));
+        cookie = refreshVerificationCookie(request.uri(), challenge.orElseThrow(), cookie);
+        response = send(withVerificationCookie(request, cookie));
         if (parseVerificationChallenge(response.body()).isPresent())
             throw new IOException("Stooq browser verification challenge was not accepted");
         return response;
     }
 
     private HttpResponse<String> send(HttpRequest request) throws IOException, InterruptedException {
-        return httpClient.send(request, MoreBodyHandlers.decoding(BodyHandlers.ofString()));
+        return getFetchScheduler().call(request.uri(), () -> {
+            var response = httpClient.send(request, MoreBodyHandlers.decoding(BodyHandlers.ofString()));
+            if (RetryPolicy.isRetryableStatus(response.statusCode()))
+                throw new TransientFetchException("Stooq responded with HTTP status " + response.statusCode());
+            return response;
+        });
+    }
+
+    /**
+     * Obtains a new verification cookie, unless already refreshed by another thread since the challenged
+     * request was sent with the {@code staleCookie}. Thus, the concurrent requests challenged at the same time
+     * solve the challenge only once.
+     */
+    private String refreshVerificationCookie(URI challengedUri, VerificationChallenge challenge, String staleCookie) throws IOException, InterruptedException {
+        synchronized (verificationLock) {
+            String cookie = verificationCookie;
+            if (cookie != null && !cookie.equals(staleCookie))
+                return cookie;
+            return verificationCookie = requestVerificationCookie(challengedUri, challenge);
+        }
     }
 
     private String requestVerificationCookie(URI challengedUri, VerificationChallenge challenge) throws IOException, InterruptedException {
@@ -237,7 +360,7 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
                 .POST(HttpRequest.BodyPublishers.ofString(verificationForm(challenge, nonce)))
                 .build();
 
-        var verificationResponse = httpClient.send(request, BodyHandlers.discarding());
+        var verificationResponse = getFetchScheduler().call(request.uri(), () -> httpClient.send(request, BodyHandlers.discarding()));
         if (verificationResponse.statusCode() < 200 || verificationResponse.statusCode() >= 300)
             throw new IOException("Stooq browser verification failed with HTTP status " + verificationResponse.statusCode());
 
@@ -250,8 +373,7 @@ public class StooqDataProvider extends AbstractDataProvider implements SymbolPro
                 + "&n=" + nonce;
     }
 
-    private HttpRequest withVerificationCookie(HttpRequest request) {
-        String cookie = verificationCookie;
+    private static HttpRequest withVerificationCookie(HttpRequest request, String cookie) {
         if (cookie == null || request.headers().firstValue("Cookie").isPresent())
             return request;
 
@@ -4,18 +4,26 @@ package one.chartsy.data.providers;
 
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpServer;
+import one.chartsy.Candle;
 import one.chartsy.Symbol;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.data.DataQuery;
+import one.chartsy.data.provider.cache.CandleCache;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.URI;
 import java.net.http.HttpRequest;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.security.MessageDigest;
 import java.time.Duration;
 import java.util.HexFormat;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -56,6 +64,38 @@ class StooqDataProviderTest {
         }
     }
 
+    @Test
+    void fetchCandles_with_cache_requests_only_tail_since_last_cached_candle(@TempDir Path cacheDir) throws Exception {
+        try (TestServer server = new TestServer()) {
+            var provider = new StooqDataProvider(server.uri("/"), new CandleCache(cacheDir));
+            var query = DataQuery.of(SymbolResource.of("AAPL.US", TimeFrame.Period.DAILY));
+            server.candleData = "Date,Time,Open,High,Low,Close,Volume\n20260617,,1,2,1,2,100\n20260618,,2,3,2,3,200\n20260619,,3,4,3,3.5,150\n";
+
+            assertThat(provider.fetchCandles(query).collectList().block()).hasSize(3);
+            server.candleData = "Date,Time,Open,High,Low,Close,Volume\n20260619,,3,4,3,4,300\n20260622,,4,5,4,5,400\n";
+            List<Candle> candles = provider.fetchCandles(query).collectList().block();
+
+            assertThat(candles).extracting(Candle::close).containsExactly(2.0, 3.0, 4.0, 5.0);
+            assertThat(server.dataQueries).containsExactly(
+                    "s=aapl.us&i=d", "s=aapl.us&i=d", "s=aapl.us&i=d&d1=20260619");
+        }
+    }
+
+    @Test
+    void queryAll_concurrent_challenged_requests_solve_verification_once() throws Exception {
+        try (TestServer server = new TestServer()) {
+            var provider = new StooqDataProvider(server.uri("/"), null);
+            List<DataQuery<Candle>> queries = List.of("AAPL.US", "MSFT.US", "IBM.US").stream()
+                    .map(name -> DataQuery.of(SymbolResource.of(name, TimeFrame.Period.DAILY)))
+                    .toList();
+
+            List<List<Candle>> results = provider.queryAll(Candle.class, queries);
+
+            assertThat(results).hasSize(3).allSatisfy(candles -> assertThat(candles).hasSize(1));
+            assertThat(server.verifyRequestCount).isEqualTo(1);
+        }
+    }
+
     @Test
     void parseAutocompletionResponse_current_payload_returns_symbols() {
         StooqDataProvider provider = new StooqDataProvider();
@@ -80,9 +120,11 @@ class StooqDataProviderTest {
 
     private static class TestServer implements AutoCloseable {
         private final HttpServer server;
-        private int dataRequestCount;
-        private int verifyRequestCount;
+        private volatile int dataRequestCount;
+        private volatile int verifyRequestCount;
         private String retryCookieHeader;
+        private String candleData = "Date,Time,Open,High,Low,Close,Volume\n20260619,,1,2,1,2,100\n";
+        private final List<String> dataQueries = new CopyOnWriteArrayList<>();
 
         private TestServer() throws IOException {
             server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
@@ -97,6 +139,7 @@ class StooqDataProviderTest {
 
         private void handleData(HttpExchange exchange) throws IOException {
             dataRequestCount++;
+            dataQueries.add(exchange.getRequestURI().getQuery());
             List<String> cookieHeaders = exchange.getRequestHeaders().getOrDefault("Cookie", List.of());
             if (!cookieHeaders.contains("auth=ok")) {
                 send(exchange, """
@@ -108,7 +151,7 @@ class StooqDataProviderTest {
             }
 
             retryCookieHeader = cookieHeaders.getFirst();
-            send(exchange, "Date,Time,Open,High,Low,Close,Volume\n20260619,,1,2,1,2,100\n");
+            send(exchange, candleData);
         }
 
         private void handleVerify(HttpExchange exchange) throws IOException {
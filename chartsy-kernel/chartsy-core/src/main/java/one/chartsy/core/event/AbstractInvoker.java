@@ -60,12 +60,24 @@ public abstract class AbstractInvoker {
         return handlers.stream()
                 .collect(Collectors.toMap(
                         Function.identity(),
-                        ListenerList::of,
+                        this::createListenerList,
                         (v1, v2) -> v1, // In case of duplicate keys (shouldn't happen with interfaces)
                         IdentityHashMap::new
                 ));
     }
 
+    /**
+     * Creates the listener list for the given handler type. Subclasses may override it to give
+     * a {@link ListenerList#specialized(Class) specialized} list for the handlers invoked on hot paths. The method is called
+     * during the construction of the invoker, thus it must not depend on the subclass state.
+     *
+     * @param type the handler interface
+     * @return the new listener list
+     */
+    protected ListenerList<?> createListenerList(Class<?> type) {
+        return ListenerList.of(type);
+    }
+
     protected Set<Class<?>> findExposedServiceHandlers(Class<?> type, Set<Class<?>> allowlist) {
         Map<Class<?>, Boolean> interfaces = new IdentityHashMap<>();
         Queue<Class<?>> worklist = new LinkedList<>();
@@ -5,11 +5,16 @@
 package one.chartsy.core.event;
 
 import java.io.*;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -43,6 +48,24 @@ import java.util.logging.Logger;
  * </pre>
  * 
  * <p>
+ * By default the {@link #fire()} method gives a {@link Proxy} which calls the
+ * listeners reflectively. On hot paths the list should be created with
+ * {@link #specialized(Class)} instead, which forwards every method of the
+ * listener interface through the cached method handles, specialized for the
+ * lists having no listener, a single listener, or many listeners, e.g.:
+ * </p>
+ *
+ * <pre>{@code
+ * ListenerList<ExecutionListener> executionListeners = ListenerList.specialized(ExecutionListener.class);
+ * }</pre>
+ *
+ * <p>
+ * A custom {@link Dispatcher} may be given for the listener types needing a
+ * hand-written implementation, which then must forward all the methods of the
+ * interface, including the default ones.
+ * </p>
+ *
+ * <p>
  * Serializing an {@link ListenerList} instance will result in any non-
  * {@link Serializable} listeners being silently dropped.
  * </p>
@@ -57,11 +80,17 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
     private static final long serialVersionUID = 3593265990380473632L;
     
     /**
-     * The list used to hold the registered listeners. This list is
-     * intentionally a thread-safe copy-on-write-array so that traversals over
-     * the list of listeners will be atomic.
+     * The array holding the registered listeners. The array is never modified
+     * in place but replaced on every change (copy-on-write), so that traversals
+     * over the listeners will be atomic.
      */
-    private List<L> listeners = new CopyOnWriteArrayList<>();
+    private transient volatile L[] listeners;
+
+    /**
+     * The dispatcher creating the direct-call {@link #fire()} implementation,
+     * or {@code null} if the reflective proxy is used.
+     */
+    private final transient Dispatcher<L> dispatcher;
     
     /**
      * The proxy representing the collection of listeners. Calls to this proxy
@@ -94,6 +123,42 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
         return new ListenerList<>(listenerInterface);
     }
 
+    /**
+     * Creates a ListenerList object which supports the specified listener type
+     * and fires the events using the given direct-call dispatcher.
+     *
+     * @param <T> the type of the listener interface
+     * @param listenerInterface the type of listener interface that will receive
+     *        events posted using this class.
+     * @param dispatcher the dispatcher creating the {@link #fire()} implementation
+     *
+     * @return a ListenerList object which supports the specified listener type.
+     *
+     * @throws IllegalArgumentException if <code>listenerInterface</code> is
+     *         not an interface.
+     */
+    public static <T> ListenerList<T> of(Class<T> listenerInterface, Dispatcher<T> dispatcher) {
+        return new ListenerList<>(listenerInterface, dispatcher);
+    }
+
+    /**
+     * Creates a ListenerList object which supports the specified listener type
+     * and fires the events using the {@link Dispatcher#specializing() specializing}
+     * dispatcher.
+     *
+     * @param <T> the type of the listener interface
+     * @param listenerInterface the type of listener interface that will receive
+     *        events posted using this class.
+     *
+     * @return a ListenerList object which supports the specified listener type.
+     *
+     * @throws IllegalArgumentException if <code>listenerInterface</code> is
+     *         not an interface.
+     */
+    public static <T> ListenerList<T> specialized(Class<T> listenerInterface) {
+        return new ListenerList<>(listenerInterface, Dispatcher.specializing());
+    }
+
     /**
      * Creates an EventListenerSupport object which supports the specified
      * listener type.
@@ -128,12 +193,31 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
      *             if <code>listenerInterface</code> is not an interface.
      */
     public ListenerList(Class<L> listenerType) {
+        this(listenerType, null);
+    }
+
+    /**
+     * Creates a ListenerList object which supports the provided listener
+     * interface and fires the events using the given dispatcher.
+     *
+     * @param listenerType
+     *            the type of listener interface that will receive events posted
+     *            using this class.
+     * @param dispatcher
+     *            the dispatcher creating the {@link #fire()} implementation, or
+     *            {@code null} to use the reflective proxy
+     * @throws IllegalArgumentException
+     *             if <code>listenerInterface</code> is not an interface.
+     */
+    public ListenerList(Class<L> listenerType, Dispatcher<L> dispatcher) {
         if (listenerType == null)
             throw new IllegalArgumentException("Listener interface cannot be null");
         if (!listenerType.isInterface())
             throw new IllegalArgumentException("Class " + listenerType.getName() + " is not an interface");
         
         this.prototypeArray = createPrototypeArray(listenerType);
+        this.listeners = prototypeArray;
+        this.dispatcher = dispatcher;
     }
     
     /**
@@ -146,7 +230,7 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
      */
     public L fire() {
         if (proxy == null)
-            proxy = createProxyInstance();
+            proxy = (dispatcher != null)? dispatcher.create(this) : createProxyInstance();
         return proxy;
     }
     
@@ -163,8 +247,14 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
      *             if the {@code listener} is {@code null}
      */
     public Subscription addListener(L listener) {
-        listeners.add(Objects.requireNonNull(listener, "Listener object cannot be null."));
-        return new Subscription(listeners, listener);
+        Objects.requireNonNull(listener, "Listener object cannot be null.");
+        synchronized (this) {
+            L[] oldListeners = listeners;
+            L[] newListeners = Arrays.copyOf(oldListeners, oldListeners.length + 1);
+            newListeners[oldListeners.length] = listener;
+            listeners = newListeners;
+        }
+        return new Subscription(this, listener);
     }
     
     /**
@@ -176,7 +266,18 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
      *             if the {@code listener} is {@code null}
      */
     public void removeListener(L listener) {
-        listeners.remove(Objects.requireNonNull(listener, "Listener object cannot be null."));
+        Objects.requireNonNull(listener, "Listener object cannot be null.");
+        synchronized (this) {
+            L[] oldListeners = listeners;
+            for (int i = 0; i < oldListeners.length; i++) {
+                if (listener.equals(oldListeners[i])) {
+                    L[] newListeners = Arrays.copyOf(oldListeners, oldListeners.length - 1);
+                    System.arraycopy(oldListeners, i + 1, newListeners, i, newListeners.length - i);
+                    listeners = newListeners;
+                    return;
+                }
+            }
+        }
     }
     
     /**
@@ -185,7 +286,7 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
      * @return the number of registered listeners.
      */
     public int getListenerCount() {
-        return listeners.size();
+        return listeners.length;
     }
     
     /**
@@ -194,7 +295,7 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
      * @return {@code true} if this object contains no listeners.
      */
     public boolean isEmpty() {
-        return listeners.isEmpty();
+        return listeners.length == 0;
     }
     
     /**
@@ -215,7 +316,19 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
      * @return L[]
      */
     public L[] getListeners() {
-        return listeners.toArray(prototypeArray);
+        return listeners.clone();
+    }
+
+    /**
+     * Gives the array of the currently registered listeners without copying it.
+     * The array is replaced, never modified, when listeners are added or removed,
+     * so it can be safely traversed while the listeners change. The caller must not
+     * modify the returned array.
+     *
+     * @return the shared array of the current listeners
+     */
+    public final L[] getListenerArray() {
+        return listeners;
     }
     
     /**
@@ -265,12 +378,12 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
         @SuppressWarnings("unchecked")
         // Will throw CCE here if not correct
         L[] srcListeners = (L[]) objectInputStream.readObject();
-        this.listeners = new CopyOnWriteArrayList<>(srcListeners);
         
         @SuppressWarnings("unchecked")
         // Will throw CCE here if not correct
         Class<L> listenerType = (Class<L>) srcListeners.getClass().getComponentType();
         this.prototypeArray = createPrototypeArray(listenerType);
+        this.listeners = (srcListeners.length == 0)? prototypeArray : srcListeners.clone();
     }
     
     /**
@@ -288,9 +401,13 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
     }
     
     protected L createProxyInstance() {
+        return createProxyInstance(createInvocationHandler());
+    }
+
+    protected L createProxyInstance(InvocationHandler handler) {
         Class<L> listenerType = getListenerType();
         L proxy = listenerType.cast(Proxy.newProxyInstance(listenerType.getClassLoader(),
-                new Class[] {listenerType}, createInvocationHandler()));
+                new Class[] {listenerType}, handler));
         return proxy;
     }
     
@@ -352,6 +469,106 @@ public class ListenerList<L> implements InvocationHandler, Serializable {
         return null;
     }
 
+    /**
+     * Creates the direct-call implementation of the listener interface, used in place of the
+     * reflective proxy given by {@link ListenerList#fire()}.
+     *
+     * @param <L> the listener type
+     */
+    @FunctionalInterface
+    public interface Dispatcher<L> {
+
+        /**
+         * Creates the listener implementation which propagates every call to all listeners of the
+         * given list. The implementation is created once per list, so it must read the
+         * {@link ListenerList#getListenerArray() listener array} on each call, rather than capture it.
+         *
+         * @param listeners the listener list
+         * @return the listener implementation firing events to the list
+         */
+        L create(ListenerList<L> listeners);
+
+        /**
+         * Gives the dispatcher forwarding every method of the listener interface, including the
+         * default methods, to the current listeners. The calls are made through the method handles
+         * resolved once per list, and are specialized by the number of listeners: no listener is
+         * called when the list is empty, and a sole listener is called directly without looping over
+         * the array. The exceptions thrown by the listeners are propagated unwrapped.
+         *
+         * @param <L> the listener type
+         * @return the specializing dispatcher
+         */
+        static <L> Dispatcher<L> specializing() {
+            return listeners -> listeners.createProxyInstance(new SpecializingHandler<>(listeners));
+        }
+    }
+
+    /**
+     * The invocation handler of the {@link Dispatcher#specializing() specializing dispatcher}.
+     */
+    private static final class SpecializingHandler<L> implements InvocationHandler {
+        private final ListenerList<L> list;
+        private final Map<Method, MethodHandle> handles = new HashMap<>();
+
+        SpecializingHandler(ListenerList<L> list) {
+            this.list = list;
+            for (Method method : list.getListenerType().getMethods())
+                if (!Modifier.isStatic(method.getModifiers()))
+                    handles.put(method, spreader(method));
+        }
+
+        private static MethodHandle spreader(Method method) {
+            int parameterCount = method.getParameterCount();
+            try {
+                return MethodHandles.publicLookup().unreflect(method)
+                        .asType(MethodType.genericMethodType(parameterCount + 1))
+                        .asSpreader(Object[].class, parameterCount);
+            } catch (IllegalAccessException e) {
+                // the listener type is not public, the listeners are called reflectively
+                method.setAccessible(true);
+                return null;
+            }
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class)
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "ListenerList.Dispatcher[" + list.getListenerType().getName() + "]";
+                };
+
+            L[] listeners = list.getListenerArray();
+            return switch (listeners.length) {
+                case 0 -> null;
+                case 1 -> call(method, listeners[0], args);
+                default -> {
+                    Object result = null;
+                    for (L listener : listeners)
+                        result = call(method, listener, args);
+                    yield result;
+                }
+            };
+        }
+
+        private Object call(Method method, L listener, Object[] args) throws Throwable {
+            MethodHandle handle = handles.get(method);
+            if (handle != null) {
+                Object[] arguments = (args != null)? args : NO_ARGS;
+                return (Object) handle.invokeExact((Object) listener, arguments);
+            }
+
+            try {
+                return method.invoke(listener, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        private static final Object[] NO_ARGS = new Object[0];
+    }
+
     public static abstract class TypeToken<T> {
         private final Type type;
 
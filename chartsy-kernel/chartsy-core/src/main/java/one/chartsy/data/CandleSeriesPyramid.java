@@ -0,0 +1,331 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data;
+
+import one.chartsy.Candle;
+import one.chartsy.Incomplete;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.TimeFrameAggregator;
+import one.chartsy.base.dataset.ImmutableDataset;
+import one.chartsy.data.market.Tick;
+import one.chartsy.data.packed.PackedCandleSeries;
+import one.chartsy.time.Months;
+import one.chartsy.time.Seconds;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * A materialised pyramid of higher time frame aggregates of a single base candle series.
+ * <p>
+ * Each level of the pyramid is built once, cascading from the coarsest already built level whose
+ * candles nest exactly into the level's candles (e.g. {@code H1} is built from {@code M15} and
+ * {@code MONTHLY} from {@code DAILY}, but never from {@code WEEKLY}). Later base bars are added
+ * incrementally with {@link #add(Candle)}, which costs {@code O(levels)} per bar, and the whole
+ * pyramid may be persisted next to the base data with {@link #writeTo(Path)} and restored with
+ * {@link #readFrom(Path, SymbolResource, List)}. Switching a chart or a study to any of the
+ * pyramid time frames is therefore a lookup, instead of a full re-aggregation of the base series.
+ * <p>
+ * The class is not thread-safe.
+ *
+ * @author Mariusz Bernacki
+ */
+public class CandleSeriesPyramid {
+
+    /** The default pyramid levels: M1, M5, M15, H1, DAILY, WEEKLY and MONTHLY. */
+    public static final List<TimeFrame> DEFAULT_LEVELS = List.of(
+            TimeFrame.Period.M1, TimeFrame.Period.M5, TimeFrame.Period.M15, TimeFrame.Period.H1,
+            TimeFrame.Period.DAILY, TimeFrame.Period.WEEKLY, TimeFrame.Period.MONTHLY);
+
+    /** The file name extension used by {@link #defaultFile(Path)}. */
+    public static final String FILE_EXTENSION = ".pyramid";
+
+    private static final int MAGIC = 0x43535059; // "CSPY"
+    private static final int SERIAL_VERSION = 1;
+    private static final int SECONDS_PER_DAY = 86_400;
+
+    private final SymbolResource<Candle> resource;
+    private final List<Level> levels;
+    private long lastTime;
+
+
+    protected CandleSeriesPyramid(SymbolResource<Candle> resource, List<Level> levels, long lastTime) {
+        this.resource = resource;
+        this.levels = levels;
+        this.lastTime = lastTime;
+    }
+
+    /**
+     * Builds the pyramid of the {@link #DEFAULT_LEVELS default levels} from the given base series.
+     *
+     * @param base the base series
+     * @return the new pyramid
+     */
+    public static CandleSeriesPyramid build(CandleSeries base) {
+        return build(base, DEFAULT_LEVELS);
+    }
+
+    /**
+     * Builds the pyramid of the given levels from the base series. Levels identical to the time frame
+     * of the base series are skipped.
+     *
+     * @param base the base series
+     * @param timeFrames the pyramid levels, preferably ordered from the finest to the coarsest
+     * @return the new pyramid
+     */
+    public static CandleSeriesPyramid build(CandleSeries base, List<? extends TimeFrame> timeFrames) {
+        List<Level> levels = new ArrayList<>(timeFrames.size());
+        for (TimeFrame timeFrame : timeFrames) {
+            if (timeFrame.equals(base.getTimeFrame()))
+                continue;
+
+            Level level = new Level(timeFrame);
+            Level source = findSource(levels, timeFrame);
+            if (source != null) {
+                for (Candle c : source.completed)
+                    level.add(c);
+                if (source.current.isPresent())
+                    level.add(source.current.get());
+            } else {
+                for (int i = base.length() - 1; i >= 0; i--)
+                    level.add(base.get(i));
+            }
+            levels.add(level);
+        }
+        long lastTime = base.isEmpty()? Long.MIN_VALUE : base.getLast().time();
+        return new CandleSeriesPyramid(base.getResource(), levels, lastTime);
+    }
+
+    private static Level findSource(List<Level> levels, TimeFrame timeFrame) {
+        for (int i = levels.size() - 1; i >= 0; i--)
+            if (isNestedIn(levels.get(i).timeFrame, timeFrame))
+                return levels.get(i);
+        return null;
+    }
+
+    /**
+     * Checks whether every candle of the {@code finer} time frame falls entirely within a single
+     * candle of the {@code coarser} time frame, so that the latter can be aggregated from the former.
+     *
+     * @param finer the candidate source time frame
+     * @param coarser the target time frame
+     * @return {@code true} if {@code coarser} candles can be built from {@code finer} candles
+     */
+    public static boolean isNestedIn(TimeFrame finer, TimeFrame coarser) {
+        if (!finer.getTimeZone().equals(coarser.getTimeZone()) || !finer.getDailyAlignment().equals(coarser.getDailyAlignment()))
+            return false;
+
+        Optional<Seconds> finerSeconds = finer.getAsSeconds();
+        if (finerSeconds.isPresent()) {
+            int seconds = finerSeconds.get().getAmount();
+            if (seconds <= 0 || SECONDS_PER_DAY % seconds != 0)
+                return false;
+
+            Optional<Seconds> coarserSeconds = coarser.getAsSeconds();
+            if (coarserSeconds.isPresent())
+                return coarserSeconds.get().getAmount() % seconds == 0;
+            return coarser.getAsMonths().isPresent();
+        }
+
+        Optional<Months> finerMonths = finer.getAsMonths();
+        Optional<Months> coarserMonths = coarser.getAsMonths();
+        return finerMonths.isPresent() && coarserMonths.isPresent()
+                && finerMonths.get().getAmount() > 0
+                && coarserMonths.get().getAmount() % finerMonths.get().getAmount() == 0;
+    }
+
+    /**
+     * Gives the default location of the persisted pyramid of the given data file, i.e. the sibling
+     * file with the {@value #FILE_EXTENSION} extension appended.
+     *
+     * @param dataFile the base data file
+     * @return the pyramid file path
+     */
+    public static Path defaultFile(Path dataFile) {
+        return dataFile.resolveSibling(dataFile.getFileName() + FILE_EXTENSION);
+    }
+
+    public final SymbolResource<Candle> getResource() {
+        return resource;
+    }
+
+    /**
+     * Gives the time of the most recent base bar included in the pyramid.
+     *
+     * @return the last base bar time, or {@code Long.MIN_VALUE} if the pyramid is empty
+     */
+    public final long getLastTime() {
+        return lastTime;
+    }
+
+    public List<TimeFrame> getTimeFrames() {
+        return levels.stream().map(level -> level.timeFrame).toList();
+    }
+
+    public boolean contains(TimeFrame timeFrame) {
+        return getLevel(timeFrame) != null;
+    }
+
+    /**
+     * Gives the series of the given time frame, including the most recent, possibly incomplete candle.
+     * The returned series is cached until the next {@link #add(Candle) update} of the pyramid.
+     *
+     * @param timeFrame the requested time frame
+     * @return the aggregated series
+     * @throws IllegalArgumentException if the time frame is not a level of this pyramid
+     */
+    public CandleSeries get(TimeFrame timeFrame) {
+        Level level = getLevel(timeFrame);
+        if (level == null)
+            throw new IllegalArgumentException("TimeFrame " + timeFrame + " not found in pyramid " + getTimeFrames());
+
+        return level.getSeries(resource.withTimeFrame(timeFrame));
+    }
+
+    protected Level getLevel(TimeFrame timeFrame) {
+        for (Level level : levels)
+            if (level.timeFrame.equals(timeFrame))
+                return level;
+        return null;
+    }
+
+    /**
+     * Adds a new base bar to all pyramid levels.
+     *
+     * @param bar the base bar, not older than the {@link #getLastTime() last bar} already added
+     * @throws IllegalArgumentException if the bar is out of chronological order
+     */
+    public void add(Candle bar) {
+        if (bar.time() < lastTime)
+            throw new IllegalArgumentException("Bar " + bar + " is older than the last pyramid time " + lastTime);
+
+        lastTime = bar.time();
+        for (Level level : levels)
+            level.add(bar);
+    }
+
+    /**
+     * Writes the pyramid into the given file in a compact binary form.
+     *
+     * @param file the target file
+     * @throws IOException if an I/O error occurs
+     */
+    public void writeTo(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(SERIAL_VERSION);
+            out.writeLong(lastTime);
+            out.writeInt(levels.size());
+            for (Level level : levels) {
+                out.writeUTF(level.timeFrame.toString());
+                out.writeInt(level.completed.size());
+                for (Candle c : level.completed)
+                    writeCandle(out, c);
+                out.writeBoolean(level.current.isPresent());
+                if (level.current.isPresent())
+                    writeCandle(out, level.current.get());
+            }
+        }
+    }
+
+    /**
+     * Reads the pyramid previously {@link #writeTo(Path) written} to the given file.
+     *
+     * @param file the source file
+     * @param resource the base series resource
+     * @param timeFrames the expected pyramid levels, as given when the pyramid was built
+     * @return the restored pyramid, ready for further incremental updates
+     * @throws IOException if an I/O error occurs, or if the file is corrupted or holds different levels
+     */
+    public static CandleSeriesPyramid readFrom(Path file, SymbolResource<Candle> resource, List<? extends TimeFrame> timeFrames) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC)
+                throw new StreamCorruptedException("Not a pyramid file: " + file);
+            int version = in.readInt();
+            if (version != SERIAL_VERSION)
+                throw new StreamCorruptedException("Unsupported pyramid file version " + version + ": " + file);
+
+            long lastTime = in.readLong();
+            int levelCount = in.readInt();
+            List<Level> levels = new ArrayList<>(levelCount);
+            for (int i = 0; i < levelCount; i++) {
+                String name = in.readUTF();
+                TimeFrame timeFrame = timeFrames.stream()
+                        .filter(tf -> tf.toString().equals(name))
+                        .findFirst()
+                        .orElseThrow(() -> new StreamCorruptedException("Pyramid level " + name + " not found in " + timeFrames));
+
+                Level level = new Level(timeFrame);
+                int count = in.readInt();
+                level.completed.ensureCapacity(count);
+                for (int k = 0; k < count; k++)
+                    level.completed.add(readCandle(in));
+                if (in.readBoolean())
+                    level.add(readCandle(in));
+                levels.add(level);
+            }
+            return new CandleSeriesPyramid(resource, levels, lastTime);
+        }
+    }
+
+    private static void writeCandle(DataOutputStream out, Candle c) throws IOException {
+        out.writeLong(c.time());
+        out.writeDouble(c.open());
+        out.writeDouble(c.high());
+        out.writeDouble(c.low());
+        out.writeDouble(c.close());
+        out.writeDouble(c.volume());
+    }
+
+    private static Candle readCandle(DataInputStream in) throws IOException {
+        return SimpleCandle.of(in.readLong(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+    }
+
+    @Override
+    public String toString() {
+        return resource + ": " + getTimeFrames();
+    }
+
+    protected static final class Level {
+        private final TimeFrame timeFrame;
+        private final TimeFrameAggregator<Candle, Tick> aggregator;
+        private final ArrayList<Candle> completed = new ArrayList<>();
+        private Incomplete<Candle> current = Incomplete.empty();
+        private CandleSeries series;
+
+        Level(TimeFrame timeFrame) {
+            this.timeFrame = timeFrame;
+            this.aggregator = timeFrame.getAggregator();
+        }
+
+        void add(Candle c) {
+            current = aggregator.addCandle(c, completed::add);
+            series = null;
+        }
+
+        CandleSeries getSeries(SymbolResource<Candle> resource) {
+            if (series == null) {
+                List<Candle> candles = completed;
+                if (current.isPresent()) {
+                    candles = new ArrayList<>(completed.size() + 1);
+                    candles.addAll(completed);
+                    candles.add(current.get());
+                }
+                series = new PackedCandleSeries(resource, ImmutableDataset.ofReversedSameEncounterOrder(candles));
+            }
+            return series;
+        }
+    }
+}
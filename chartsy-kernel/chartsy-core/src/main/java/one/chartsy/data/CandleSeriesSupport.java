@@ -9,7 +9,6 @@ import one.chartsy.SymbolResource;
 import one.chartsy.base.Dataset;
 import one.chartsy.base.dataset.ImmutableDataset;
 import one.chartsy.data.packed.PackedCandleSeries;
-import one.chartsy.time.AbstractTimeline;
 import one.chartsy.time.Chronological;
 import one.chartsy.time.Timeline;
 
@@ -17,9 +16,7 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.TreeSet;
-import java.util.function.Consumer;
-import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -74,19 +71,10 @@ public class CandleSeriesSupport {
 	 *
 	 * @param seriesCollection the collection of series
 	 * @return a unified timeline
+	 * @see SeriesAlignment
 	 */
 	public static Timeline getUnifiedTimeline(Iterable<? extends Series<? extends Chronological>> seriesCollection) {
-		var order = Chronological.ChronoOrder.REVERSE_CHRONOLOGICAL;
-		var times = StreamSupport.stream(seriesCollection.spliterator(), false)
-				.mapMulti((Series<? extends Chronological> series, Consumer<Chronological> result) -> series.forEach(result))
-				.collect(Collectors.toCollection(() -> new TreeSet<>(order.comparator())))
-				.stream()
-				.toList();
-
-		return new AbstractTimeline(order) {
-			@Override public int length() { return times.size(); }
-			@Override public long getTimeAt(int x) { return times.get(x).time(); }
-		};
+		return SeriesAlignment.of(toList(seriesCollection)).getTimeline();
 	}
 
 	/**
@@ -94,20 +82,52 @@ public class CandleSeriesSupport {
 	 * data points in the original series are filled with candles having the previous
 	 * candle's closing price and zero volume.
 	 *
-	 * <p>The method supports efficient streamed calculation without the need to
-	 * materialize the entire series data in memory, however the provided {@code Iterable}
-	 * is processed twice: once to compute the unified timeline and second time to iterate
-	 * through and calculate the aligned series.
+	 * <p>The unified timeline and the mapping of all series onto it are computed upfront
+	 * in a single pass by the {@link SeriesAlignment}, whereas the aligned series are
+	 * materialized lazily, as the resulting stream is consumed. Callers not interested in
+	 * the synthetic filler candles may use the {@code SeriesAlignment} directly instead.
 	 *
 	 * @param seriesCollection a collection of candle series to synchronize
 	 * @return a stream of candle series with synchronized timelines
 	 * @see #getUnifiedTimeline(Iterable)
 	 */
 	public static <E extends Candle> Stream<Series<Candle>> synchronizeTimelines(Iterable<? extends Series<? extends E>> seriesCollection) {
-		Timeline timeline = getUnifiedTimeline(seriesCollection);
+		SeriesAlignment alignment = SeriesAlignment.of(toList(seriesCollection));
+
+		return IntStream.range(0, alignment.size())
+				.mapToObj(seriesIndex -> synchronizeTimeline(alignment, seriesIndex));
+	}
+
+	/**
+	 * Materializes the specified series of the given alignment as a candle series on the
+	 * unified timeline, starting from the first candle of the series.
+	 *
+	 * @param alignment the series alignment
+	 * @param seriesIndex the index of the candle series in the alignment
+	 * @return a new candle series with the unified timeline
+	 */
+	public static Series<Candle> synchronizeTimeline(SeriesAlignment alignment, int seriesIndex) {
+		@SuppressWarnings("unchecked")
+		var series = (Series<? extends Candle>) alignment.getSeries(seriesIndex);
+		var timeline = alignment.getTimeline();
+		int[] indices = alignment.getGatherIndices(seriesIndex);
+		int length = indices.length;
+		while (length > 0 && indices[length - 1] < 0)
+			length--;
+
+		List<Candle> bars = new ArrayList<>(length);
+		for (int x = length - 1; x >= 0; x--) {
+			Candle bar = series.get(indices[x]);
+			long time = timeline.getTimeAt(x);
+			bars.add(bar.time() == time ? bar : Candle.of(time, bar.close()));
+		}
+		return createSeries(series, bars, timeline);
+	}
 
-		return StreamSupport.stream(seriesCollection.spliterator(), false)
-				.map(series -> synchronizeTimeline(series, timeline));
+	private static <T> List<T> toList(Iterable<T> iterable) {
+		if (iterable instanceof List<T> list)
+			return list;
+		return StreamSupport.stream(iterable.spliterator(), false).toList();
 	}
 
 	/**
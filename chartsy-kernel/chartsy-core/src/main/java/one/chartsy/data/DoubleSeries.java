@@ -173,6 +173,44 @@ public interface DoubleSeries extends TimeSeriesAlike {
      */
     DoubleSeries llv(int periods);
 
+    /**
+     * The moving (aka running) window quantile calculated over this {@code Series}.
+     * <p>
+     * The method calculates the {@code p}-quantile of the values in the series over the preceding
+     * {@code periods}, {@code periods} includes the current bar, linearly interpolated between the closest
+     * ranks as by the {@link one.chartsy.math.MovingQuantile#getQuantile(double)}. For example the formula
+     * {@code series.movingQuantile(20, 0.9)} returns the 90th percentiles of the current and previous 19 bars.
+     * <p>
+     * Relative speed is O(n log(periods)), where {@code n} is length of the input {@code Series}.
+     *
+     * @param periods
+     *            width of a moving window, must be a positive integer
+     * @param p
+     *            the probability of the quantile, from {@code 0.0} to {@code 1.0}
+     * @return a moving quantile result, of length {@code this.length()-periods+1}
+     * @throws IllegalArgumentException
+     *             when the {@code periods} argument is not positive, or the {@code p} is outside of
+     *             the {@code [0, 1]} range
+     */
+    DoubleSeries movingQuantile(int periods, double p);
+
+    /**
+     * The moving (aka running) window median calculated over this {@code Series}.
+     * <p>
+     * The method calculates the median of the values in the series over the preceding {@code periods},
+     * {@code periods} includes the current bar, being the mean of the two middle values if the {@code periods}
+     * is even.
+     * <p>
+     * Relative speed is O(n log(periods)), where {@code n} is length of the input {@code Series}.
+     *
+     * @param periods
+     *            width of a moving window, must be a positive integer
+     * @return a moving median result, of length {@code this.length()-periods+1}
+     * @throws IllegalArgumentException
+     *             when the {@code periods} argument is not positive
+     */
+    DoubleSeries movingMedian(int periods);
+
     /**
      * Applies the binary function to each element of both this and the other
      * series to produce a new time series.
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data;
+
+import one.chartsy.Candle;
+
+/**
+ * A mutable, reusable implementation of the {@link Candle} interface.
+ * <p>
+ * The instance is meant to be recycled by the hot paths of a playback, instead of allocating a new
+ * candle for every price record. It should not be retained by the consumers, which should keep its
+ * {@link #toImmutable() immutable copy} instead.
+ * <p>
+ * <strong>Thread Safety:</strong> This class is <b>not thread-safe.</b>
+ * <p>
+ * <strong>Usage in Collections:</strong> Due to its mutable nature, the class does not override the
+ * {@link #equals(Object)} and {@link #hashCode()} methods, and must not be used as a key in Maps.
+ *
+ * @author Mariusz Bernacki
+ */
+public class MutableCandle implements Candle {
+
+    private long time;
+    private double open;
+    private double high;
+    private double low;
+    private double close;
+    private double volume;
+
+
+    /**
+     * Sets all fields of this candle.
+     *
+     * @return this candle
+     */
+    public MutableCandle set(long time, double open, double high, double low, double close, double volume) {
+        this.time = time;
+        this.open = open;
+        this.high = high;
+        this.low = low;
+        this.close = close;
+        this.volume = volume;
+        return this;
+    }
+
+    /**
+     * Sets this candle to the single price, with no volume.
+     *
+     * @return this candle
+     */
+    public MutableCandle set(long time, double price) {
+        return set(time, price, price, price, price, 0.0);
+    }
+
+    /**
+     * Copies all fields of the given candle into this candle.
+     *
+     * @return this candle
+     */
+    public MutableCandle set(Candle c) {
+        return set(c.time(), c.open(), c.high(), c.low(), c.close(), c.volume());
+    }
+
+    @Override
+    public long time() {
+        return time;
+    }
+
+    @Override
+    public double open() {
+        return open;
+    }
+
+    @Override
+    public double high() {
+        return high;
+    }
+
+    @Override
+    public double low() {
+        return low;
+    }
+
+    @Override
+    public double close() {
+        return close;
+    }
+
+    @Override
+    public double volume() {
+        return volume;
+    }
+
+    /**
+     * Gives the immutable copy of the current state of this candle.
+     */
+    public SimpleCandle toImmutable() {
+        return new SimpleCandle(time, open, high, low, close, volume);
+    }
+
+    @Override
+    public String toString() {
+        return toImmutable().toString();
+    }
+}
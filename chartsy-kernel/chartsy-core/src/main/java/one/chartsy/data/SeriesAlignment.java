@@ -0,0 +1,222 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data;
+
+import one.chartsy.time.AbstractTimeline;
+import one.chartsy.time.Chronological;
+import one.chartsy.time.Timeline;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Aligns multiple series to their unified timeline without materializing any new series elements.
+ * <p>
+ * The unified timeline is computed by a single k-way merge over the primitive timestamps of all
+ * series, during which every series element is also mapped to its position on the unified timeline.
+ * From that mapping the alignment derives, lazily and per series, the <i>gather indices</i>: for
+ * each point of the unified timeline, the index of the series element at or immediately preceding
+ * that point (i.e. forward-filled), or {@code -1} if the series has not started yet. The aligned
+ * values can then be read on demand directly from the original series or from their primitive
+ * columns, see {@link #gather(int, DoubleSeries)}.
+ * <p>
+ * Both the unified timeline and the gather indices are in the reverse chronological order, i.e.
+ * the most recent point is at index {@code 0}, consistently with the {@link Series} indexing.
+ *
+ * @author Mariusz Bernacki
+ */
+public class SeriesAlignment {
+
+    private final List<? extends Series<?>> series;
+    private final long[] times;
+    private final int[][] positions;
+    private final int[][] gatherIndices;
+    private final Timeline timeline;
+
+
+    protected SeriesAlignment(List<? extends Series<?>> series, long[] times, int[][] positions) {
+        this.series = series;
+        this.times = times;
+        this.positions = positions;
+        this.gatherIndices = new int[series.size()][];
+        this.timeline = new AbstractTimeline(Chronological.ChronoOrder.REVERSE_CHRONOLOGICAL) {
+            @Override public int length() { return times.length; }
+            @Override public long getTimeAt(int x) { return times[x]; }
+        };
+    }
+
+    /**
+     * Aligns the given series to their unified timeline.
+     *
+     * @param series the series to align
+     * @return the alignment
+     * @throws IllegalArgumentException if any of the series is not chronologically ordered
+     */
+    public static SeriesAlignment of(List<? extends Series<?>> series) {
+        int count = series.size();
+        int[][] positions = new int[count][];
+        int[] next = new int[count];
+        long[] head = new long[count];
+        int[] heap = new int[count];
+        int heapSize = 0, total = 0;
+        for (int k = 0; k < count; k++) {
+            int length = series.get(k).length();
+            positions[k] = new int[length];
+            total += length;
+            if (length > 0) {
+                head[k] = timeAt(series.get(k), 0);
+                heap[heapSize++] = k;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--)
+            siftDown(heap, heapSize, head, i);
+
+        long[] union = new long[total];
+        int last = -1;
+        while (heapSize > 0) {
+            int k = heap[0];
+            long time = head[k];
+            if (last < 0 || union[last] != time)
+                union[++last] = time;
+            positions[k][next[k]++] = last;
+
+            if (next[k] < positions[k].length) {
+                long nextTime = timeAt(series.get(k), next[k]);
+                if (nextTime < time)
+                    throw new IllegalArgumentException("Series " + series.get(k).getResource() + " is not chronologically ordered");
+                head[k] = nextTime;
+            } else {
+                heap[0] = heap[--heapSize];
+            }
+            siftDown(heap, heapSize, head, 0);
+        }
+
+        int length = last + 1;
+        long[] times = new long[length];
+        for (int x = 0; x < length; x++)
+            times[x] = union[length - 1 - x];
+
+        return new SeriesAlignment(List.copyOf(series), times, positions);
+    }
+
+    /**
+     * Gives the time of the {@code i}-th oldest element of the series.
+     */
+    private static long timeAt(Series<?> series, int i) {
+        Timeline timeline = series.getTimeline();
+        return timeline.getTimeAt(timeline.getOrder().isReversed()? series.length() - 1 - i : i);
+    }
+
+    private static void siftDown(int[] heap, int size, long[] keys, int i) {
+        int k = heap[i];
+        long key = keys[k];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2*i + 1, right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]])
+                child = right;
+            if (key <= keys[heap[child]])
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = k;
+    }
+
+    /**
+     * Gives the unified timeline of all aligned series.
+     */
+    public final Timeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Gives the number of aligned series.
+     */
+    public final int size() {
+        return series.size();
+    }
+
+    public final Series<?> getSeries(int seriesIndex) {
+        return series.get(seriesIndex);
+    }
+
+    /**
+     * Gives the gather indices of the specified series. The returned array is shared and must not
+     * be modified by the caller.
+     *
+     * @param seriesIndex the index of the series in this alignment
+     * @return the array of length {@code getTimeline().length()} holding, for each timeline point, the
+     *         index of the series element at or immediately preceding that point, or {@code -1}
+     */
+    public int[] getGatherIndices(int seriesIndex) {
+        int[] indices = gatherIndices[seriesIndex];
+        if (indices == null)
+            gatherIndices[seriesIndex] = indices = computeGatherIndices(seriesIndex);
+        return indices;
+    }
+
+    private int[] computeGatherIndices(int seriesIndex) {
+        int timelineLength = times.length;
+        int[] pos = positions[seriesIndex];
+        int length = pos.length;
+        boolean reversed = getSeries(seriesIndex).getTimeline().getOrder().isReversed();
+
+        int[] indices = new int[timelineLength];
+        int firstPosition = (length == 0)? timelineLength : pos[0];
+        Arrays.fill(indices, timelineLength - firstPosition, timelineLength, -1);
+        for (int j = 0; j < length; j++) {
+            int from = pos[j];
+            int to = (j + 1 < length)? pos[j + 1] : timelineLength;
+            if (from < to)
+                Arrays.fill(indices, timelineLength - to, timelineLength - from, reversed? length - 1 - j : j);
+        }
+        return indices;
+    }
+
+    /**
+     * Gives the index of the element of the specified series aligned to the given timeline point.
+     *
+     * @param seriesIndex the index of the series in this alignment
+     * @param x the timeline point
+     * @return the series element index, or {@code -1} if the series has not started yet at {@code x}
+     */
+    public int getIndex(int seriesIndex, int x) {
+        return getGatherIndices(seriesIndex)[x];
+    }
+
+    /**
+     * Checks whether the specified series has an element exactly at the given timeline point,
+     * as opposed to a forward-filled or missing one.
+     *
+     * @param seriesIndex the index of the series in this alignment
+     * @param x the timeline point
+     * @return {@code true} if the series has an element with time equal to {@code getTimeline().getTimeAt(x)}
+     */
+    public boolean isPresent(int seriesIndex, int x) {
+        int index = getIndex(seriesIndex, x);
+        return index >= 0 && getSeries(seriesIndex).getTimeline().getTimeAt(index) == times[x];
+    }
+
+    /**
+     * Gathers the values of the given primitive column of the specified series onto the unified
+     * timeline. The column must be indexed consistently with the series, such as the columns
+     * given by {@link Series#mapToDouble} or {@link CandleSeries#closes()}. Values are forward-filled,
+     * and the timeline points preceding the series start are set to {@code NaN}.
+     *
+     * @param seriesIndex the index of the series in this alignment
+     * @param column the series column
+     * @return the column aligned to the {@link #getTimeline() unified timeline}
+     */
+    public DoubleSeries gather(int seriesIndex, DoubleSeries column) {
+        int[] indices = getGatherIndices(seriesIndex);
+        double[] values = new double[indices.length];
+        for (int x = 0; x < values.length; x++) {
+            int index = indices[x];
+            values[x] = (index >= 0)? column.get(index) : Double.NaN;
+        }
+        return DoubleSeries.of(values, timeline);
+    }
+}
@@ -0,0 +1,411 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.market;
+
+import one.chartsy.Candle;
+import one.chartsy.Incomplete;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.TimeFrameAggregator;
+import one.chartsy.base.dataset.ImmutableDataset;
+import one.chartsy.data.CandleSeries;
+import one.chartsy.data.SimpleCandle;
+import one.chartsy.data.packed.PackedCandleSeries;
+import one.chartsy.financial.InstrumentRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * A streaming pipeline aggregating the ticks of many symbols into candles of several time frames at once.
+ * <p>
+ * The ticks are {@link #accept(SymbolIdentity, long, double, double) fed} by a single producer, e.g. a reader of
+ * a full-market tick capture, and sharded by the symbol across the worker threads, so that all ticks of a symbol
+ * are aggregated by the same worker, in their original order, without any locking. The ticks are passed to the
+ * workers in recycled primitive batches, and each worker aggregates them with the regular
+ * {@link TimeFrame#getAggregator() time frame aggregators}, one per symbol and time frame, appending the completed
+ * candles to primitive columns. Once the stream is {@link #finish() finished}, the aggregated candles are available
+ * as the {@link PackedCandleSeries}, including the last, possibly incomplete candle of each time frame.
+ * <p>
+ * The ticks of each symbol must be given in chronological order, while the ticks of different symbols may be
+ * interleaved arbitrarily.
+ *
+ * @implNote The {@code accept} and {@code finish} methods must be called from a single thread.
+ *
+ * @author Mariusz Bernacki
+ */
+public class ShardedTickAggregator implements AutoCloseable {
+
+    /** The number of ticks in a batch handed over to a worker. */
+    private static final int BATCH_SIZE = 4096;
+    /** The number of batches a worker may lag behind the producer. */
+    private static final int QUEUE_CAPACITY = 16;
+    /** The end-of-stream marker batch. */
+    private static final Batch END = new Batch(0);
+
+    private final List<TimeFrame> timeFrames;
+    private final InstrumentRegistry symbols = new InstrumentRegistry();
+    private final Shard[] shards;
+    private SymbolIdentity lastSymbol;
+    private int lastSymbolId;
+    private Result result;
+
+
+    /**
+     * Constructs the pipeline with one shard per available processor.
+     *
+     * @param timeFrames the time frames of the candles to aggregate
+     */
+    public ShardedTickAggregator(List<? extends TimeFrame> timeFrames) {
+        this(timeFrames, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs the pipeline with the given number of shards, each aggregated by a dedicated worker thread.
+     *
+     * @param timeFrames the time frames of the candles to aggregate
+     * @param shardCount the number of shards
+     * @throws IllegalArgumentException if the {@code timeFrames} is empty or the {@code shardCount} is not positive
+     */
+    public ShardedTickAggregator(List<? extends TimeFrame> timeFrames, int shardCount) {
+        if (timeFrames.isEmpty())
+            throw new IllegalArgumentException("At least one time frame is required");
+        if (shardCount <= 0)
+            throw new IllegalArgumentException("The shardCount must be positive, but was " + shardCount);
+
+        this.timeFrames = List.copyOf(timeFrames);
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++)
+            shards[i] = new Shard(i);
+        for (Shard shard : shards)
+            shard.worker.start();
+    }
+
+    public final List<TimeFrame> getTimeFrames() {
+        return timeFrames;
+    }
+
+    /**
+     * Adds the tick of the given symbol to the pipeline.
+     *
+     * @param symbol the tick symbol
+     * @param tick   the tick
+     */
+    public void accept(SymbolIdentity symbol, Tick tick) {
+        accept(symbol, tick.time(), tick.price(), tick.size());
+    }
+
+    /**
+     * Adds the tick of the given symbol to the pipeline.
+     *
+     * @param symbol the tick symbol
+     * @param time   the tick time
+     * @param price  the tick price
+     * @param size   the tick volume
+     * @throws IllegalStateException if the pipeline is already finished
+     */
+    public void accept(SymbolIdentity symbol, long time, double price, double size) {
+        if (result != null)
+            throw new IllegalStateException("Pipeline already finished");
+
+        int symbolId;
+        if (symbol == lastSymbol) {
+            symbolId = lastSymbolId;
+        } else {
+            lastSymbolId = symbolId = symbols.register(symbol);
+            lastSymbol = symbol;
+        }
+
+        Shard shard = shards[symbolId % shards.length];
+        Batch batch = shard.batch;
+        int i = batch.size++;
+        batch.symbols[i] = symbolId / shards.length;
+        batch.times[i] = time;
+        batch.prices[i] = price;
+        batch.sizes[i] = size;
+        if (batch.size == BATCH_SIZE)
+            shard.flush();
+    }
+
+    /**
+     * Completes the aggregation, waiting for all workers to process the remaining ticks.
+     *
+     * @return the aggregated candles
+     * @throws IllegalStateException if any of the workers failed
+     */
+    public Result finish() {
+        if (result != null)
+            return result;
+
+        for (Shard shard : shards) {
+            shard.flush();
+            shard.handOver(END);
+        }
+        RuntimeException failure = null;
+        for (Shard shard : shards) {
+            try {
+                shard.worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the aggregation", e);
+            }
+            if (shard.failure != null) {
+                if (failure == null)
+                    failure = new IllegalStateException("Tick aggregation failed", shard.failure);
+                else
+                    failure.addSuppressed(shard.failure);
+            }
+        }
+        if (failure != null)
+            throw failure;
+
+        return result = new Result();
+    }
+
+    /**
+     * Stops the workers, discarding the ticks not aggregated yet if the pipeline is not {@link #finish() finished}.
+     */
+    @Override
+    public void close() {
+        for (Shard shard : shards)
+            shard.worker.interrupt();
+    }
+
+    /**
+     * The candles aggregated by the pipeline.
+     */
+    public final class Result {
+
+        private Result() { }
+
+        /**
+         * Gives the symbols of all ticks, in the order of their first appearance.
+         */
+        public List<SymbolIdentity> getSymbols() {
+            var list = new ArrayList<SymbolIdentity>(symbols.size());
+            for (int id = 0; id < symbols.size(); id++)
+                list.add(symbols.getSymbol(id));
+            return list;
+        }
+
+        /**
+         * Gives the candles of the given symbol and time frame.
+         *
+         * @param symbol    the symbol
+         * @param timeFrame the time frame, one of the {@link ShardedTickAggregator#getTimeFrames() pipeline time frames}
+         * @return the candle series, empty if there were no ticks of the symbol
+         * @throws IllegalArgumentException if the time frame is not aggregated by the pipeline
+         */
+        public CandleSeries get(SymbolIdentity symbol, TimeFrame timeFrame) {
+            int level = timeFrames.indexOf(timeFrame);
+            if (level < 0)
+                throw new IllegalArgumentException("TimeFrame " + timeFrame + " not found in " + timeFrames);
+
+            var resource = SymbolResource.of(symbol, timeFrame);
+            int symbolId = symbols.getId(symbol);
+            if (symbolId < 0)
+                return new PackedCandleSeries(resource, ImmutableDataset.ofReversedSameEncounterOrder(List.of()));
+
+            var columns = shards[symbolId % shards.length].states[symbolId / shards.length].columns[level];
+            return new PackedCandleSeries(resource, ImmutableDataset.ofReversedSameEncounterOrder(columns.toList()));
+        }
+    }
+
+    private final class Shard implements Runnable {
+        private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        private final BlockingQueue<Batch> freeBatches = new ArrayBlockingQueue<>(QUEUE_CAPACITY + 1);
+        private final Thread worker;
+        private final ReusableTick tick = new ReusableTick();
+        private SymbolState[] states = new SymbolState[16];
+        private Batch batch = new Batch(BATCH_SIZE);
+        private volatile Throwable failure;
+
+        Shard(int index) {
+            this.worker = new Thread(this, "TickAggregator-" + index);
+            this.worker.setDaemon(true);
+        }
+
+        void flush() {
+            if (batch.size > 0) {
+                handOver(batch);
+                Batch free = freeBatches.poll();
+                batch = (free != null)? free : new Batch(BATCH_SIZE);
+            }
+        }
+
+        void handOver(Batch batch) {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while feeding the aggregation", e);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Batch batch;
+                while ((batch = queue.take()) != END) {
+                    if (failure == null) {
+                        try {
+                            aggregate(batch);
+                        } catch (Throwable e) {
+                            failure = e;
+                        }
+                    }
+                    batch.size = 0;
+                    freeBatches.offer(batch);
+                }
+                if (failure == null)
+                    for (SymbolState state : states)
+                        if (state != null)
+                            state.complete();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+
+        private void aggregate(Batch batch) {
+            for (int i = 0; i < batch.size; i++) {
+                tick.time = batch.times[i];
+                tick.price = batch.prices[i];
+                tick.size = batch.sizes[i];
+                getState(batch.symbols[i]).addTick(tick);
+            }
+        }
+
+        private SymbolState getState(int localId) {
+            if (localId >= states.length)
+                states = Arrays.copyOf(states, Math.max(localId + 1, states.length * 2));
+            SymbolState state = states[localId];
+            if (state == null)
+                state = states[localId] = new SymbolState(timeFrames);
+            return state;
+        }
+    }
+
+    private static final class SymbolState {
+        private final TimeFrameAggregator<Candle, Tick>[] aggregators;
+        private final Incomplete<Candle>[] current;
+        private final CandleColumns[] columns;
+
+        @SuppressWarnings("unchecked")
+        SymbolState(List<TimeFrame> timeFrames) {
+            int count = timeFrames.size();
+            aggregators = new TimeFrameAggregator[count];
+            current = new Incomplete[count];
+            columns = new CandleColumns[count];
+            for (int i = 0; i < count; i++) {
+                aggregators[i] = timeFrames.get(i).getAggregator();
+                current[i] = Incomplete.empty();
+                columns[i] = new CandleColumns();
+            }
+        }
+
+        void addTick(Tick tick) {
+            for (int i = 0; i < aggregators.length; i++)
+                current[i] = aggregators[i].addTick(tick, columns[i]);
+        }
+
+        void complete() {
+            for (int i = 0; i < aggregators.length; i++) {
+                if (current[i].isPresent())
+                    columns[i].accept(current[i].get());
+                current[i] = Incomplete.empty();
+            }
+        }
+    }
+
+    /**
+     * The primitive, append-only columns of the candles of a single symbol and time frame.
+     */
+    private static final class CandleColumns implements Consumer<Candle> {
+        private long[] times = new long[64];
+        private double[] opens = new double[64];
+        private double[] highs = new double[64];
+        private double[] lows = new double[64];
+        private double[] closes = new double[64];
+        private double[] volumes = new double[64];
+        private int size;
+
+        @Override
+        public void accept(Candle c) {
+            int i = size;
+            if (i == times.length) {
+                int capacity = i * 2;
+                times = Arrays.copyOf(times, capacity);
+                opens = Arrays.copyOf(opens, capacity);
+                highs = Arrays.copyOf(highs, capacity);
+                lows = Arrays.copyOf(lows, capacity);
+                closes = Arrays.copyOf(closes, capacity);
+                volumes = Arrays.copyOf(volumes, capacity);
+            }
+            times[i] = c.time();
+            opens[i] = c.open();
+            highs[i] = c.high();
+            lows[i] = c.low();
+            closes[i] = c.close();
+            volumes[i] = c.volume();
+            size = i + 1;
+        }
+
+        List<Candle> toList() {
+            var list = new ArrayList<Candle>(size);
+            for (int i = 0; i < size; i++)
+                list.add(SimpleCandle.of(times[i], opens[i], highs[i], lows[i], closes[i], volumes[i]));
+            return list;
+        }
+    }
+
+    private static final class Batch {
+        private final int[] symbols;
+        private final long[] times;
+        private final double[] prices;
+        private final double[] sizes;
+        private int size;
+
+        Batch(int capacity) {
+            symbols = new int[capacity];
+            times = new long[capacity];
+            prices = new double[capacity];
+            sizes = new double[capacity];
+        }
+    }
+
+    /**
+     * The flyweight tick recycled by a worker, never retained by the aggregators.
+     */
+    private static final class ReusableTick implements Tick {
+        private long time;
+        private double price;
+        private double size;
+
+        @Override
+        public long time() {
+            return time;
+        }
+
+        @Override
+        public double price() {
+            return price;
+        }
+
+        @Override
+        public double size() {
+            return size;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "ShardedTickAggregator" + timeFrames + "[shards=" + shards.length + "]";
+    }
+}
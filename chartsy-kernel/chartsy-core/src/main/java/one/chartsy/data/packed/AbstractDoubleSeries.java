@@ -57,4 +57,10 @@ public abstract class AbstractDoubleSeries<DS extends AbstractDoubleSeries<DS>>
 
     @Override
     public abstract DS llv(int periods);
+
+    @Override
+    public abstract DS movingQuantile(int periods, double p);
+
+    @Override
+    public abstract DS movingMedian(int periods);
 }
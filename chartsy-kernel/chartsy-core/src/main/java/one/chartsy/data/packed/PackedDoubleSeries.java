@@ -5,9 +5,11 @@ package one.chartsy.data.packed;
 import one.chartsy.base.DoubleDataset;
 import one.chartsy.base.dataset.ImmutableDoubleDataset;
 import one.chartsy.data.DoubleSeries;
+import one.chartsy.math.MovingQuantile;
 import one.chartsy.time.Timeline;
 
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.ToDoubleFunction;
 
 public class PackedDoubleSeries extends AbstractDoubleSeries<PackedDoubleSeries> implements DoubleSeries {
 
@@ -231,6 +233,35 @@ public class PackedDoubleSeries extends AbstractDoubleSeries<PackedDoubleSeries>
         return DoubleSeries.of(z, getTimeline());
     }
 
+    @Override
+    public PackedDoubleSeries movingQuantile(int periods, double p) {
+        if (!(p >= 0.0 && p <= 1.0))
+            throw new IllegalArgumentException("The probability " + p + " must be in [0, 1] range");
+        return moving(periods, quantile -> quantile.getQuantile(p));
+    }
+
+    @Override
+    public PackedDoubleSeries movingMedian(int periods) {
+        return moving(periods, MovingQuantile::getMedian);
+    }
+
+    private PackedDoubleSeries moving(int periods, ToDoubleFunction<MovingQuantile> statistic) {
+        if (periods <= 0)
+            throw new IllegalArgumentException("The periods argument must be positive, but was " + periods);
+        int newLength = length() - periods + 1;
+        if (newLength <= 0)
+            return empty(getTimeline());
+
+        MovingQuantile window = new MovingQuantile(periods);
+        double[] z = new double[newLength];
+        for (int i = length() - 1; i >= 0; i--) {
+            window.accept(get(i));
+            if (i < newLength)
+                z[i] = statistic.applyAsDouble(window);
+        }
+        return DoubleSeries.of(z, getTimeline());
+    }
+
     @Override
     public String toString() {
         return values.toString();
@@ -88,7 +88,7 @@ public class PackedSeries<E extends Chronological> implements Series<E>, Timelin
     }
 
     @Override
-    public final long getTimeAt(int index) {
+    public long getTimeAt(int index) {
         return get(index).time();
     }
 
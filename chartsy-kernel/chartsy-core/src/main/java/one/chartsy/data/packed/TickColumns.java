@@ -0,0 +1,532 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.packed;
+
+import one.chartsy.SymbolResource;
+import one.chartsy.base.DoubleDataset;
+import one.chartsy.base.dataset.AbstractDataset;
+import one.chartsy.base.dataset.AbstractDoubleDataset;
+import one.chartsy.data.DoubleSeries;
+import one.chartsy.data.TickSeries;
+import one.chartsy.data.market.Tick;
+import one.chartsy.misc.BinarySearch;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * An append-only, columnar and block-compressed storage of a chronological stream of {@link Tick}s.
+ * <p>
+ * The ticks are kept in blocks of a fixed {@link #getBlockSize() size}. The most recent, open block is kept
+ * in plain primitive arrays, while every completed block is sealed into a compact byte array, in which:
+ * <ul>
+ *     <li>the times are encoded as variable-length deltas from the previous tick,</li>
+ *     <li>the prices are encoded as variable-length deltas of the integers scaled by the
+ *     {@link #getPriceScale() price scale} (e.g. {@code 100} for the prices quoted in cents), provided that all
+ *     prices of the block are representable exactly in that scale, or as raw {@code double}s otherwise,</li>
+ *     <li>the sizes are encoded as variable-length integers if all sizes of the block are integral,
+ *     or as raw {@code double}s otherwise.</li>
+ * </ul>
+ * The ticks are never stored as objects. Any row may be accessed randomly, at the cost of decoding its block,
+ * the recently decoded blocks being cached in a few slots selected by the block index. The stored ticks may be
+ * viewed as a {@link TickSeries} with the {@link #toSeries(SymbolResource)}, whose {@link TickSeries#prices() prices},
+ * {@link TickSeries#volumes() volumes} and timeline are read directly from the columns.
+ *
+ * @implNote This implementation is not thread-safe for appending. Once filled, it may be read concurrently,
+ * the readers of different blocks mostly hitting different cache slots.
+ *
+ * @author Mariusz Bernacki
+ */
+public class TickColumns {
+
+    /** The default number of ticks in a block. */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private static final int SCALED_PRICES = 1;
+    private static final int INTEGRAL_SIZES = 2;
+    /** The largest magnitude of an integral {@code double} representable exactly as a {@code long}. */
+    private static final double MAX_EXACT_INTEGER = 0x1p53;
+    /** The number of the decoded block cache slots, a power of two. */
+    private static final int DECODED_CACHE_SLOTS = 8;
+
+    private final double priceScale;
+    private final int blockSize;
+    private byte[][] blocks = new byte[16][];
+    private long[] blockFirstTimes = new long[16];
+    private int sealedBlockCount;
+    private long sealedBytes;
+    private final long[] openTimes;
+    private final double[] openPrices;
+    private final double[] openSizes;
+    private int openCount;
+    private long lastTime = Long.MIN_VALUE;
+    /** The recently decoded blocks, immutable and thus safely shared between the readers without locking. */
+    private final Block[] decoded = new Block[DECODED_CACHE_SLOTS];
+
+
+    /**
+     * Constructs the columns storing the prices as raw {@code double}s.
+     */
+    public TickColumns() {
+        this(0.0);
+    }
+
+    /**
+     * Constructs the columns storing the prices as the integers scaled by the given factor, when possible.
+     *
+     * @param priceScale the price scale, e.g. {@code 100} for the prices quoted in cents, or {@code 0} to store
+     *                   the prices as raw {@code double}s
+     */
+    public TickColumns(double priceScale) {
+        this(priceScale, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * Constructs the columns with the given price scale and block size.
+     *
+     * @param priceScale the price scale, or {@code 0} to store the prices as raw {@code double}s
+     * @param blockSize  the number of ticks in a block
+     * @throws IllegalArgumentException if the {@code priceScale} is negative or the {@code blockSize} is not positive
+     */
+    public TickColumns(double priceScale, int blockSize) {
+        if (!(priceScale >= 0.0) || Double.isInfinite(priceScale))
+            throw new IllegalArgumentException("The priceScale must be non-negative, but was " + priceScale);
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("The blockSize must be positive, but was " + blockSize);
+
+        this.priceScale = priceScale;
+        this.blockSize = blockSize;
+        this.openTimes = new long[blockSize];
+        this.openPrices = new double[blockSize];
+        this.openSizes = new double[blockSize];
+    }
+
+    public final double getPriceScale() {
+        return priceScale;
+    }
+
+    public final int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Appends the tick to the columns.
+     *
+     * @param tick the tick
+     */
+    public void add(Tick tick) {
+        add(tick.time(), tick.price(), tick.size());
+    }
+
+    /**
+     * Appends the tick to the columns.
+     *
+     * @param time  the tick time
+     * @param price the tick price
+     * @param size  the tick volume
+     * @throws IllegalArgumentException if the tick is older than the last tick already added
+     */
+    public void add(long time, double price, double size) {
+        if (time < lastTime)
+            throw new IllegalArgumentException("Tick time " + time + " is older than the last time " + lastTime);
+
+        lastTime = time;
+        int i = openCount++;
+        openTimes[i] = time;
+        openPrices[i] = price;
+        openSizes[i] = size;
+        if (openCount == blockSize)
+            seal();
+    }
+
+    private void seal() {
+        if (sealedBlockCount == blocks.length) {
+            blocks = Arrays.copyOf(blocks, sealedBlockCount * 2);
+            blockFirstTimes = Arrays.copyOf(blockFirstTimes, sealedBlockCount * 2);
+        }
+        byte[] encoded = encode(openTimes, openPrices, openSizes, blockSize);
+        blocks[sealedBlockCount] = encoded;
+        blockFirstTimes[sealedBlockCount] = openTimes[0];
+        sealedBlockCount++;
+        sealedBytes += encoded.length;
+        openCount = 0;
+    }
+
+    /** Gives the number of stored ticks. */
+    public int size() {
+        return sealedBlockCount * blockSize + openCount;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /** Gives the number of blocks, including the open block, if not empty. */
+    public int getBlockCount() {
+        return sealedBlockCount + (openCount > 0? 1 : 0);
+    }
+
+    /** Gives the index of the block holding the given row. */
+    public int getBlockIndex(int row) {
+        return checkRow(row) / blockSize;
+    }
+
+    /**
+     * Gives the approximate number of bytes occupied by the stored ticks.
+     */
+    public long getStoredBytes() {
+        return sealedBytes + openCount * (long) (Long.BYTES + 2 * Double.BYTES);
+    }
+
+    /**
+     * Gives the decoded block of the given index.
+     *
+     * @param blockIndex the block index
+     * @return the block
+     * @throws IndexOutOfBoundsException if the block index is out of range
+     */
+    public Block getBlock(int blockIndex) {
+        if (blockIndex < 0 || blockIndex >= getBlockCount())
+            throw new IndexOutOfBoundsException("Block " + blockIndex + " out of range [0, " + getBlockCount() + ")");
+        if (blockIndex == sealedBlockCount)
+            return new Block(blockIndex * blockSize, Arrays.copyOf(openTimes, openCount),
+                    Arrays.copyOf(openPrices, openCount), Arrays.copyOf(openSizes, openCount));
+        return decode(blockIndex);
+    }
+
+    /** Gives the time of the tick at the given row. */
+    public long time(int row) {
+        int block = getBlockIndex(row);
+        return (block == sealedBlockCount)? openTimes[row - block * blockSize] : decode(block).time(row - block * blockSize);
+    }
+
+    /** Gives the price of the tick at the given row. */
+    public double price(int row) {
+        int block = getBlockIndex(row);
+        return (block == sealedBlockCount)? openPrices[row - block * blockSize] : decode(block).price(row - block * blockSize);
+    }
+
+    /** Gives the volume of the tick at the given row. */
+    public double size(int row) {
+        int block = getBlockIndex(row);
+        return (block == sealedBlockCount)? openSizes[row - block * blockSize] : decode(block).size(row - block * blockSize);
+    }
+
+    /**
+     * Gives the tick at the given row, as a new object.
+     */
+    public Tick get(int row) {
+        int block = getBlockIndex(row);
+        int i = row - block * blockSize;
+        if (block == sealedBlockCount)
+            return Tick.of(openTimes[i], openPrices[i], openSizes[i]);
+
+        Block decoded = decode(block);
+        return Tick.of(decoded.time(i), decoded.price(i), decoded.size(i));
+    }
+
+    /**
+     * Gives the first row of the tick not older than the given time, found by the binary search of the blocks.
+     *
+     * @param time the time to search for
+     * @return the row index, or {@link #size()} if all ticks are older than the given time
+     */
+    public int indexOf(long time) {
+        int lo = 0, hi = sealedBlockCount - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            if (blockFirstTimes[mid] < time)
+                lo = mid + 1;
+            else
+                hi = mid - 1;
+        }
+        // the tick lies in the block preceding the first block starting at or after the time, if any
+        int block = Math.max(0, lo - 1);
+        int row = block * blockSize, size = size();
+        while (row < size && time(row) < time)
+            row++;
+        return row;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size())
+            throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + size() + ")");
+        return row;
+    }
+
+    /**
+     * Gives the view of the ticks stored so far as the {@code TickSeries}. The view is not affected by the ticks
+     * appended later.
+     *
+     * @param resource the series resource
+     * @return the tick series
+     */
+    public TickSeries toSeries(SymbolResource<Tick> resource) {
+        return new ColumnarTickSeries(resource, new TickDataset(this, size()));
+    }
+
+    private Block decode(int blockIndex) {
+        int slot = blockIndex & (DECODED_CACHE_SLOTS - 1);
+        Block block = decoded[slot];
+        if (block == null || block.firstRow != blockIndex * blockSize)
+            decoded[slot] = block = decode(blockIndex * blockSize, blocks[blockIndex], blockFirstTimes[blockIndex], blockSize);
+        return block;
+    }
+
+    private byte[] encode(long[] times, double[] prices, double[] sizes, int count) {
+        boolean scaledPrices = priceScale > 0.0;
+        for (int i = 0; i < count && scaledPrices; i++)
+            scaledPrices = isScalable(prices[i]);
+        boolean integralSizes = true;
+        for (int i = 0; i < count && integralSizes; i++)
+            integralSizes = (sizes[i] == Math.rint(sizes[i]) && Math.abs(sizes[i]) <= MAX_EXACT_INTEGER);
+
+        var out = new ByteWriter(count * 6);
+        out.writeByte((scaledPrices? SCALED_PRICES : 0) | (integralSizes? INTEGRAL_SIZES : 0));
+        for (int i = 1; i < count; i++)
+            out.writeVarLong(times[i] - times[i - 1]);
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            if (scaledPrices) {
+                long scaled = Math.round(prices[i] * priceScale);
+                out.writeVarLong(zigZag(scaled - previous));
+                previous = scaled;
+            } else {
+                out.writeLong(Double.doubleToRawLongBits(prices[i]));
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if (integralSizes)
+                out.writeVarLong(zigZag((long) sizes[i]));
+            else
+                out.writeLong(Double.doubleToRawLongBits(sizes[i]));
+        }
+        return out.toByteArray();
+    }
+
+    private boolean isScalable(double price) {
+        double scaled = price * priceScale;
+        return Math.abs(scaled) <= MAX_EXACT_INTEGER && Math.round(scaled) / priceScale == price;
+    }
+
+    private Block decode(int firstRow, byte[] bytes, long firstTime, int count) {
+        long[] times = new long[count];
+        double[] prices = new double[count];
+        double[] sizes = new double[count];
+        var in = new ByteReader(bytes);
+        int flags = in.readByte();
+        times[0] = firstTime;
+        for (int i = 1; i < count; i++)
+            times[i] = times[i - 1] + in.readVarLong();
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            if ((flags & SCALED_PRICES) != 0) {
+                previous += unZigZag(in.readVarLong());
+                prices[i] = previous / priceScale;
+            } else {
+                prices[i] = Double.longBitsToDouble(in.readLong());
+            }
+        }
+        for (int i = 0; i < count; i++) {
+            if ((flags & INTEGRAL_SIZES) != 0)
+                sizes[i] = unZigZag(in.readVarLong());
+            else
+                sizes[i] = Double.longBitsToDouble(in.readLong());
+        }
+        return new Block(firstRow, times, prices, sizes);
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * The decoded block of ticks. The block is a read-only snapshot and must not be modified.
+     */
+    public static final class Block {
+        private final int firstRow;
+        private final long[] times;
+        private final double[] prices;
+        private final double[] sizes;
+
+        Block(int firstRow, long[] times, double[] prices, double[] sizes) {
+            this.firstRow = firstRow;
+            this.times = times;
+            this.prices = prices;
+            this.sizes = sizes;
+        }
+
+        /** Gives the row of the first tick of the block. */
+        public int firstRow() {
+            return firstRow;
+        }
+
+        /** Gives the number of ticks in the block. */
+        public int length() {
+            return times.length;
+        }
+
+        public long time(int i) {
+            return times[i];
+        }
+
+        public double price(int i) {
+            return prices[i];
+        }
+
+        public double size(int i) {
+            return sizes[i];
+        }
+    }
+
+    /**
+     * The reverse-chronological {@code Dataset} view of the first {@code length} ticks, creating the tick objects
+     * on access only.
+     */
+    private static final class TickDataset extends AbstractDataset<Tick> {
+        private final TickColumns columns;
+        private final int length;
+
+        TickDataset(TickColumns columns, int length) {
+            super(Order.INDEX_DESC);
+            this.columns = columns;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public Tick get(int index) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException("Index " + index + " out of range [0, " + length + ")");
+            return columns.get(length - 1 - index);
+        }
+
+        @Override
+        public Stream<Tick> stream() {
+            return getOrder().indexes(this).mapToObj(this::get);
+        }
+
+        long time(int index) {
+            if (index < 0 || index >= length)
+                throw new IndexOutOfBoundsException("Index " + index + " out of range [0, " + length + ")");
+            return columns.time(length - 1 - index);
+        }
+
+        DoubleDataset prices() {
+            return AbstractDoubleDataset.from(this, (data, index) -> data.columns.price(data.length - 1 - index));
+        }
+
+        DoubleDataset volumes() {
+            return AbstractDoubleDataset.from(this, (data, index) -> data.columns.size(data.length - 1 - index));
+        }
+    }
+
+    private static final class ColumnarTickSeries extends PackedTickSeries {
+        private final TickDataset data;
+
+        ColumnarTickSeries(SymbolResource<Tick> resource, TickDataset data) {
+            super(resource, data);
+            this.data = data;
+        }
+
+        @Override
+        public long getTimeAt(int index) {
+            return data.time(index);
+        }
+
+        @Override
+        public int getTimeLocation(long time) {
+            return BinarySearch.binarySearchReversed(data::time, 0, data.length(), time);
+        }
+
+        @Override
+        public DoubleSeries prices() {
+            return new PackedDoubleSeries(getTimeline(), data.prices());
+        }
+
+        @Override
+        public DoubleSeries volumes() {
+            return new PackedDoubleSeries(getTimeline(), data.volumes());
+        }
+    }
+
+    private static final class ByteWriter {
+        private byte[] buf;
+        private int pos;
+
+        ByteWriter(int capacity) {
+            buf = new byte[Math.max(16, capacity)];
+        }
+
+        private void ensureCapacity(int extra) {
+            if (pos + extra > buf.length)
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+        }
+
+        void writeByte(int value) {
+            ensureCapacity(1);
+            buf[pos++] = (byte) value;
+        }
+
+        void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void writeLong(long value) {
+            ensureCapacity(Long.BYTES);
+            for (int shift = 56; shift >= 0; shift -= 8)
+                buf[pos++] = (byte) (value >>> shift);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class ByteReader {
+        private final byte[] buf;
+        private int pos;
+
+        ByteReader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        int readByte() {
+            return buf[pos++] & 0xFF;
+        }
+
+        long readVarLong() {
+            long value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < Long.BYTES; i++)
+                value = (value << 8) | (buf[pos++] & 0xFF);
+            return value;
+        }
+    }
+}
@@ -4,14 +4,20 @@ package one.chartsy.data.provider;
 
 import one.chartsy.SymbolGroup;
 import one.chartsy.SymbolIdentity;
+import one.chartsy.data.DataQuery;
+import one.chartsy.data.provider.fetch.FetchScheduler;
+import one.chartsy.time.Chronological;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.AbstractLookup;
 import org.openide.util.lookup.InstanceContent;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
 public abstract class AbstractDataProvider implements DataProvider {
@@ -63,6 +69,51 @@ public abstract class AbstractDataProvider implements DataProvider {
         return List.copyOf(symbols);
     }
 
+    /**
+     * Gives the scheduler of the remote requests issued by this provider.
+     * The default implementation gives the {@link FetchScheduler#getDefault() shared} scheduler.
+     */
+    public FetchScheduler getFetchScheduler() {
+        return FetchScheduler.getDefault();
+    }
+
+    /**
+     * Executes the query asynchronously on the {@link #getFetchScheduler() fetch scheduler}.
+     *
+     * @param type the type of queried data
+     * @param query the query
+     * @return the future list of the queried items
+     */
+    public <T extends Chronological> CompletableFuture<List<T>> queryAsync(Class<T> type, DataQuery<T> query) {
+        return getFetchScheduler().submit(() -> query(type, query).collectList().block());
+    }
+
+    /**
+     * Executes the queries concurrently on the {@link #getFetchScheduler() fetch scheduler} and waits for all of them
+     * to complete, which is the preferred way to load data of many symbols at once from a remote provider.
+     *
+     * @param type the type of queried data
+     * @param queries the queries
+     * @return the lists of the queried items, in the order of the given queries
+     * @throws DataProviderException if any of the queries failed
+     */
+    public <T extends Chronological> List<List<T>> queryAll(Class<T> type, List<DataQuery<T>> queries) {
+        List<CompletableFuture<List<T>>> futures = new ArrayList<>(queries.size());
+        for (DataQuery<T> query : queries)
+            futures.add(queryAsync(type, query));
+
+        List<List<T>> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                results.add(futures.get(i).join());
+            } catch (CompletionException e) {
+                futures.forEach(future -> future.cancel(false));
+                throw new DataProviderException("Query of " + queries.get(i).resource() + " failed", e.getCause());
+            }
+        }
+        return results;
+    }
+
     @Override
     public String toString() {
         return getName();
@@ -12,6 +12,7 @@ import org.openide.util.Lookup;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface DataProvider extends FinancialService {
     /**
@@ -38,6 +39,23 @@ public interface DataProvider extends FinancialService {
 
     <T extends Chronological> Flux<T> query(Class<T> type, DataQuery<T> request);
 
+    /**
+     * Gives the chronological order in which elements are emitted by {@link #query(Class, DataQuery)}
+     * for the given request, if the provider knows it in advance.
+     * <p>
+     * Providers backed by already ordered sources (e.g. flat files or most vendor APIs) may declare
+     * their order here, which allows the loaders to skip sorting and build the reverse-chronological
+     * datasets directly. The loaders still verify the declared order in a single linear pass, thus
+     * an inaccurate declaration costs some performance but never correctness.
+     *
+     * @param type the requested data type
+     * @param request the data query
+     * @return the order of the emitted elements, or empty if the provider gives no guarantees
+     */
+    default Optional<Chronological.ChronoOrder> getDataOrder(Class<?> type, DataQuery<?> request) {
+        return Optional.empty();
+    }
+
     default List<TimeFrame> getAvailableTimeFrames(SymbolIdentity symbol) {
         return List.of(TimeFrame.Period.DAILY, TimeFrame.Period.WEEKLY,
                 TimeFrame.Period.MONTHLY, TimeFrame.Period.QUARTERLY, TimeFrame.Period.YEARLY);
@@ -6,15 +6,21 @@ import one.chartsy.Candle;
 import one.chartsy.SymbolIdentity;
 import one.chartsy.SymbolResource;
 import one.chartsy.TimeFrame;
+import one.chartsy.base.Dataset;
+import one.chartsy.base.dataset.ImmutableDataset;
 import one.chartsy.data.CandleSeries;
 import one.chartsy.data.DataQuery;
 import one.chartsy.data.Series;
+import one.chartsy.data.packed.PackedCandleSeries;
+import one.chartsy.data.packed.PackedSeries;
 import one.chartsy.time.Chronological;
+import one.chartsy.time.Chronological.ChronoOrder;
 import org.openide.util.Lookup;
 import org.openide.util.lookup.ServiceProvider;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.StreamSupport;
 
 public class DataProviders {
@@ -56,16 +62,44 @@ public class DataProviders {
 
         protected CandleSeries getHistoricalCandles(DataProvider provider, SymbolResource<Candle> resource) {
             DataQuery<Candle> query = DataQuery.of(resource);
-            return provider.query(Candle.class, query)
-                    .collectSortedList()
-                    .as(CandleSeries.of(resource));
+            return new PackedCandleSeries(resource, loadDataset(provider, Candle.class, query));
         }
 
         protected <E extends Chronological> Series<E> getSeries(DataProvider provider, Class<E> type, SymbolResource<E> resource) {
             DataQuery<E> query = DataQuery.of(resource);
-            return provider.query(type, query)
-                    .collectSortedList()
-                    .as(Series.of(resource));
+            return new PackedSeries<>(resource, loadDataset(provider, type, query));
+        }
+
+        /**
+         * Loads the queried elements into a dataset indexed in reverse chronological order, as expected
+         * by the packed series.
+         * <p>
+         * If the provider {@link DataProvider#getDataOrder declares} the order of its data, the declaration
+         * is verified with a single linear scan and the dataset is built directly from the loaded elements.
+         * Otherwise, or if the verification fails, the elements are sorted first.
+         *
+         * @param provider the data provider to query
+         * @param type the requested data type
+         * @param query the data query
+         * @return the dataset with the most recent element at index {@code 0}
+         */
+        protected <E extends Chronological> Dataset<E> loadDataset(DataProvider provider, Class<E> type, DataQuery<E> query) {
+            Optional<ChronoOrder> declaredOrder = provider.getDataOrder(type, query);
+            List<E> items = provider.query(type, query)
+                    .collectList()
+                    .block();
+            if (items == null || items.isEmpty())
+                return Dataset.empty();
+
+            if (declaredOrder.isPresent() && declaredOrder.get().isOrdered(items)) {
+                if (declaredOrder.get().isReversed())
+                    return ImmutableDataset.ofReversedSameIndexingOrder(items);
+                else
+                    return ImmutableDataset.ofReversedSameEncounterOrder(items);
+            }
+
+            items.sort(ChronoOrder.CHRONOLOGICAL.comparator());
+            return ImmutableDataset.ofReversedSameEncounterOrder(items);
         }
     }
 }
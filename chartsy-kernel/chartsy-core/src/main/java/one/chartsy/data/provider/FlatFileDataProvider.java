@@ -16,6 +16,7 @@ import one.chartsy.data.provider.file.FlatFileFormat;
 import one.chartsy.data.provider.file.FlatFileItemReader;
 import one.chartsy.data.provider.file.LineMapper;
 import one.chartsy.financial.IdentityType;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.financial.InstrumentType;
 import one.chartsy.financial.SymbolIdentifier;
 import one.chartsy.messaging.MarketEvent;
@@ -42,6 +43,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.TreeMap;
 import java.util.function.Predicate;
 
@@ -120,6 +122,11 @@ public class FlatFileDataProvider extends AbstractDataProvider implements Symbol
             throw new UnsupportedDataQueryException(request, String.format("DataType `%s` not supported", type.getSimpleName()));
     }
 
+    @Override
+    public Optional<Chronological.ChronoOrder> getDataOrder(Class<?> type, DataQuery<?> request) {
+        return Optional.ofNullable(fileFormat.getDataOrder());
+    }
+
     public <T extends Candle> Flux<T> queryForCandles(DataQuery<T> request) {
         SymbolIdentifier identifier = new SymbolIdentifier(request.resource().symbol());
         Path file = getFileTreeMetadata().availableSymbols.get(identifier);
@@ -154,11 +161,26 @@ public class FlatFileDataProvider extends AbstractDataProvider implements Symbol
     }
 
     public MarketMessageSource iterator(DataQuery<?> request, ExecutionContext context) {
+        return iterator(request, context, null);
+    }
+
+    /**
+     * Gives the source of the trade bars of the queried symbol, stamped with the instrument id assigned
+     * by the given registry.
+     *
+     * @param request the data query
+     * @param context the execution context
+     * @param registry the instrument registry of the current run, or {@code null} to leave the events unstamped
+     * @return the market message source
+     */
+    public MarketMessageSource iterator(DataQuery<?> request, ExecutionContext context, InstrumentRegistry registry) {
         SymbolIdentifier identifier = new SymbolIdentifier(request.resource().symbol());
         Path file = getFileTreeMetadata().availableSymbols.get(identifier);
         if (file == null)
             throw new DataProviderException(String.format("Symbol '%s' not found", identifier));
 
+        int instrumentId = (registry != null)? registry.register(identifier) : MarketEvent.UNASSIGNED_ID;
+        SymbolIdentity symbol = (registry != null)? registry.getSymbol(instrumentId) : identifier;
         context.put("TimeFrame", request.resource().timeFrame());
 
         var startTime = (request.startTime() != null)? Chronological.toEpochNanos(request.startTime()): Long.MIN_VALUE;
@@ -181,7 +203,7 @@ public class FlatFileDataProvider extends AbstractDataProvider implements Symbol
                         if (bar.time() < startTime)
                             continue;
 
-                        return new TradeBar.Of(identifier, bar);
+                        return new TradeBar.Of(symbol, bar, instrumentId);
                     }
                 }
                 catch (IOException e) {
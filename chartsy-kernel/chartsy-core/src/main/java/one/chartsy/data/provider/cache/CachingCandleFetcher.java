@@ -0,0 +1,82 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.cache;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolResource;
+import one.chartsy.time.Chronological;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A {@link CandleFetcher} decorator keeping the fetched candles in a {@link CandleCache}.
+ * <p>
+ * When the cache already holds candles of the requested resource, only the missing tail is fetched,
+ * starting at the time of the last cached candle, which is fetched again because it might have been
+ * incomplete at the time it was cached. The fetched candles are merged into the cache and the full
+ * history is returned. If the remote source ignores the requested start time and returns the full
+ * history, the result is still correct, only the transfer savings are lost.
+ *
+ * @author Mariusz Bernacki
+ */
+public class CachingCandleFetcher implements CandleFetcher {
+
+    private final String provider;
+    private final CandleFetcher delegate;
+    private final CandleCache cache;
+
+
+    /**
+     * Constructs a caching fetcher.
+     *
+     * @param provider the name of the data provider, used to separate the cached candles of different providers
+     * @param delegate the fetcher of the remote candles
+     * @param cache the cache
+     */
+    public CachingCandleFetcher(String provider, CandleFetcher delegate, CandleCache cache) {
+        this.provider = Objects.requireNonNull(provider, "provider");
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.cache = Objects.requireNonNull(cache, "cache");
+    }
+
+    public final CandleCache getCache() {
+        return cache;
+    }
+
+    /**
+     * Gives the cached history of the resource completed with the candles fetched from the remote source.
+     *
+     * @param resource the symbol and time frame to fetch
+     * @param startTime the time of the first candle needed, or {@code null} for the full history
+     * @return the candles at or after {@code startTime} in the chronological order
+     */
+    @Override
+    public List<Candle> fetchCandles(SymbolResource<Candle> resource, LocalDateTime startTime) throws IOException, InterruptedException {
+        Optional<Candle> lastCached = cache.getLastCandle(provider, resource);
+        LocalDateTime fetchStartTime = lastCached.map(c -> Chronological.toDateTime(c.time())).orElse(null);
+
+        List<Candle> fetched = delegate.fetchCandles(resource, fetchStartTime);
+        if (lastCached.isPresent() && !fetched.isEmpty() && fetched.getFirst().time() < lastCached.get().time())
+            fetched = tailOf(fetched, lastCached.get().time());
+        cache.merge(provider, resource, fetched);
+
+        List<Candle> candles = cache.load(provider, resource);
+        if (startTime != null)
+            candles = tailOf(candles, Chronological.toEpochNanos(startTime));
+        return candles;
+    }
+
+    private static List<Candle> tailOf(List<Candle> candles, long time) {
+        int index = 0;
+        while (index < candles.size() && candles.get(index).time() < time)
+            index++;
+        return (index == 0)? candles : new ArrayList<>(candles.subList(index, candles.size()));
+    }
+}
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.cache;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolResource;
+import one.chartsy.data.provider.DataProviderException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A persistent, on-disk store of decoded candles, kept separately for every provider, symbol and time frame.
+ * <p>
+ * The candles of a single resource are stored in a binary file {@code <directory>/<provider>/<timeFrame>/<symbol>.candles}
+ * as fixed-length records, which makes both the full load and the lookup of the {@link #getLastCandle last cached
+ * candle} cheap. New candles are {@link #merge merged} into the file by truncating it at the time of the first new
+ * candle and appending the rest, so that the last, possibly still incomplete, candle is replaced when fetched again.
+ * <p>
+ * The cache is safe for concurrent use by multiple threads of the same JVM, updates of the same resource are serialized.
+ *
+ * @author Mariusz Bernacki
+ */
+public class CandleCache {
+
+    private static final int MAGIC = 0x4348_4343; // "CHCC"
+    private static final int VERSION = 1;
+    private static final int HEADER_LENGTH = 8;
+    private static final int RECORD_LENGTH = 48;
+    private static final String FILE_EXTENSION = ".candles";
+
+    private final Path directory;
+    private final ConcurrentHashMap<Path, Object> locks = new ConcurrentHashMap<>();
+
+
+    /**
+     * Constructs a candle cache stored in the given directory.
+     *
+     * @param directory the cache directory, created lazily when the first candles are stored
+     */
+    public CandleCache(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+    }
+
+    public final Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Gives the file storing the candles of the given resource.
+     *
+     * @param provider the name of the data provider
+     * @param resource the symbol and time frame
+     * @return the cache file path
+     */
+    public Path getFile(String provider, SymbolResource<?> resource) {
+        return directory.resolve(fileName(provider))
+                .resolve(fileName(resource.timeFrame().toString()))
+                .resolve(fileName(resource.symbol().name()) + FILE_EXTENSION);
+    }
+
+    private static String fileName(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    private Object lock(Path file) {
+        return locks.computeIfAbsent(file, __ -> new Object());
+    }
+
+    /**
+     * Loads all cached candles of the given resource.
+     *
+     * @param provider the name of the data provider
+     * @param resource the symbol and time frame
+     * @return the cached candles in the chronological order, or an empty list if nothing is cached
+     * @throws DataProviderException if the cache file cannot be read
+     */
+    public List<Candle> load(String provider, SymbolResource<?> resource) {
+        Path file = getFile(provider, resource);
+        synchronized (lock(file)) {
+            if (!Files.exists(file))
+                return List.of();
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                int count = recordCount(channel, file);
+                ByteBuffer buf = ByteBuffer.allocate(count * RECORD_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, buf, HEADER_LENGTH);
+                buf.flip();
+                List<Candle> candles = new ArrayList<>(count);
+                while (buf.hasRemaining())
+                    candles.add(getCandle(buf));
+                return candles;
+            } catch (IOException e) {
+                throw new DataProviderException("Failed to read candle cache " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Gives the last cached candle of the given resource.
+     *
+     * @param provider the name of the data provider
+     * @param resource the symbol and time frame
+     * @return the last cached candle, or an empty optional if nothing is cached
+     * @throws DataProviderException if the cache file cannot be read
+     */
+    public Optional<Candle> getLastCandle(String provider, SymbolResource<?> resource) {
+        Path file = getFile(provider, resource);
+        synchronized (lock(file)) {
+            if (!Files.exists(file))
+                return Optional.empty();
+
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                int count = recordCount(channel, file);
+                if (count == 0)
+                    return Optional.empty();
+
+                ByteBuffer buf = ByteBuffer.allocate(RECORD_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+                readFully(channel, buf, HEADER_LENGTH + (long) (count - 1) * RECORD_LENGTH);
+                return Optional.of(getCandle(buf.flip()));
+            } catch (IOException e) {
+                throw new DataProviderException("Failed to read candle cache " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Merges the given candles into the cache. The cached candles at or after the time of the first given
+     * candle are replaced by the given ones, the older cached candles are retained.
+     *
+     * @param provider the name of the data provider
+     * @param resource the symbol and time frame
+     * @param candles the candles to store, in the chronological order
+     * @return the number of cached candles that were retained
+     * @throws DataProviderException if the cache file cannot be written
+     */
+    public int merge(String provider, SymbolResource<?> resource, List<? extends Candle> candles) {
+        Path file = getFile(provider, resource);
+        synchronized (lock(file)) {
+            try {
+                Files.createDirectories(file.getParent());
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                    int retained = (channel.size() == 0)? 0 : recordCount(channel, file);
+                    if (!candles.isEmpty())
+                        retained = Math.min(retained, indexOf(channel, retained, candles.getFirst().time()));
+
+                    ByteBuffer buf = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+                    writeFully(channel, buf.putInt(MAGIC).putInt(VERSION).flip(), 0);
+                    long position = HEADER_LENGTH + (long) retained * RECORD_LENGTH;
+                    channel.truncate(position);
+
+                    buf = ByteBuffer.allocate(Math.min(candles.size(), 1024) * RECORD_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+                    for (Candle c : candles) {
+                        if (!buf.hasRemaining()) {
+                            position += writeFully(channel, buf.flip(), position);
+                            buf.clear();
+                        }
+                        buf.putLong(c.time()).putDouble(c.open()).putDouble(c.high()).putDouble(c.low()).putDouble(c.close()).putDouble(c.volume());
+                    }
+                    writeFully(channel, buf.flip(), position);
+                    return retained;
+                }
+            } catch (IOException e) {
+                throw new DataProviderException("Failed to write candle cache " + file, e);
+            }
+        }
+    }
+
+    /**
+     * Removes the cached candles of the given resource.
+     *
+     * @param provider the name of the data provider
+     * @param resource the symbol and time frame
+     * @return {@code true} if the cached candles existed and were removed
+     * @throws DataProviderException if the cache file cannot be deleted
+     */
+    public boolean invalidate(String provider, SymbolResource<?> resource) {
+        Path file = getFile(provider, resource);
+        synchronized (lock(file)) {
+            try {
+                return Files.deleteIfExists(file);
+            } catch (IOException e) {
+                throw new DataProviderException("Failed to delete candle cache " + file, e);
+            }
+        }
+    }
+
+    /** Finds the index of the first cached candle at or after the given time using binary search. */
+    private static int indexOf(FileChannel channel, int count, long time) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(Long.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        int low = 0, high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            readFully(channel, buf.clear(), HEADER_LENGTH + (long) mid * RECORD_LENGTH);
+            if (buf.getLong(0) < time)
+                low = mid + 1;
+            else
+                high = mid;
+        }
+        return low;
+    }
+
+    private static int recordCount(FileChannel channel, Path file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        long size = channel.size();
+        if (size < HEADER_LENGTH || channel.read(header, 0) < HEADER_LENGTH
+                || header.getInt(0) != MAGIC || header.getInt(4) != VERSION)
+            throw new DataProviderException("Not a valid candle cache file: " + file);
+
+        long count = (size - HEADER_LENGTH) / RECORD_LENGTH;
+        if (count > Integer.MAX_VALUE / RECORD_LENGTH)
+            throw new DataProviderException("Candle cache file too large: " + file);
+        return (int) count;
+    }
+
+    private static Candle getCandle(ByteBuffer buf) {
+        return Candle.of(buf.getLong(), buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble(), buf.getDouble());
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            int n = channel.read(buf, position);
+            if (n < 0)
+                throw new IOException("Unexpected end of file");
+            position += n;
+        }
+    }
+
+    private static int writeFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        int written = 0;
+        while (buf.hasRemaining())
+            written += channel.write(buf, position + written);
+        return written;
+    }
+
+    @Override
+    public String toString() {
+        return "CandleCache[" + directory + "]";
+    }
+}
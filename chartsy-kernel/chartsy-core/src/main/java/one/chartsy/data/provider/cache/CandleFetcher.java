@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.cache;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolResource;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fetches the candle history of a symbol from a remote source, such as a web service.
+ *
+ * @author Mariusz Bernacki
+ */
+@FunctionalInterface
+public interface CandleFetcher {
+
+    /**
+     * Fetches the candles of the given resource, starting at the given time if the remote source
+     * allows narrowing the request. Implementations unable to narrow the request may return the full
+     * history, in which case the older candles are simply discarded by the caller.
+     *
+     * @param resource the symbol and time frame to fetch
+     * @param startTime the time of the first candle needed, or {@code null} to fetch the full history
+     * @return the fetched candles in the chronological order
+     * @throws IOException if the remote source cannot be reached or responds with an error
+     * @throws InterruptedException if the calling thread is interrupted while waiting for the response
+     */
+    List<Candle> fetchCandles(SymbolResource<Candle> resource, LocalDateTime startTime) throws IOException, InterruptedException;
+}
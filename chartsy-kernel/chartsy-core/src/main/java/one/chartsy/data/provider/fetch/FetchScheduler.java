@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.fetch;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Schedules the requests of remote data providers, applying per-host limits and retries.
+ * <p>
+ * Every request is executed through {@link #call(String, FetchTask)}, which waits for a free slot among the
+ * {@link HostLimits#maxConcurrency() concurrent requests} allowed for the host, and then for a permit of the host
+ * {@link TokenBucket rate limiter}. A request failing with a {@link RetryPolicy#isRetryable(IOException) transient}
+ * {@link IOException} is retried according to the {@link RetryPolicy}, its concurrency slot is released for the
+ * time of the back-off. The slot is held only while
+ * the request runs, so the request should consume the response entirely; the response bodies read lazily by the
+ * caller are {@link #openStream(String, FetchTask) opened} instead, holding the slot until the stream is closed.
+ * <p>
+ * Independent requests, e.g. the history of every symbol of a watchlist, can be {@link #submit submitted} to run
+ * concurrently on virtual threads, so that the throughput of a bulk load is bounded by the remote quota
+ * rather than by the round-trip latency of the sequential requests.
+ *
+ * @author Mariusz Bernacki
+ */
+public class FetchScheduler implements AutoCloseable {
+
+    private final HostLimits defaultLimits;
+    private final RetryPolicy retryPolicy;
+    private final ConcurrentHashMap<String, Host> hosts = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+
+    public FetchScheduler() {
+        this(HostLimits.DEFAULT, RetryPolicy.DEFAULT);
+    }
+
+    /**
+     * Constructs a fetch scheduler.
+     *
+     * @param defaultLimits the limits of hosts without limits configured explicitly
+     * @param retryPolicy the retry policy of the failed requests
+     */
+    public FetchScheduler(HostLimits defaultLimits, RetryPolicy retryPolicy) {
+        this.defaultLimits = Objects.requireNonNull(defaultLimits, "defaultLimits");
+        this.retryPolicy = Objects.requireNonNull(retryPolicy, "retryPolicy");
+    }
+
+    /**
+     * Gives the scheduler shared by the data providers by default.
+     */
+    public static FetchScheduler getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    private static final class DefaultHolder {
+        private static final FetchScheduler INSTANCE = new FetchScheduler();
+    }
+
+    public final RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
+    /**
+     * Configures the limits of the given host. The requests already in flight are not affected.
+     *
+     * @param host the host name
+     * @param limits the limits
+     */
+    public void setHostLimits(String host, HostLimits limits) {
+        hosts.put(normalize(host), new Host(limits));
+    }
+
+    /**
+     * Configures the limits of the given host, unless already configured.
+     *
+     * @param host the host name
+     * @param limits the limits
+     */
+    public void setHostLimitsIfAbsent(String host, HostLimits limits) {
+        hosts.putIfAbsent(normalize(host), new Host(limits));
+    }
+
+    /**
+     * Gives the limits applied to the given host.
+     */
+    public HostLimits getHostLimits(String host) {
+        return host(host).limits;
+    }
+
+    private Host host(String host) {
+        return hosts.computeIfAbsent(normalize(host), __ -> new Host(defaultLimits));
+    }
+
+    private static String normalize(String host) {
+        return Objects.requireNonNull(host, "host").toLowerCase();
+    }
+
+    /**
+     * Executes the request to the host of the given URI on the calling thread.
+     *
+     * @see #call(String, FetchTask)
+     */
+    public <T> T call(URI uri, FetchTask<T> task) throws IOException, InterruptedException {
+        return call(Objects.requireNonNullElse(uri.getHost(), ""), task);
+    }
+
+    /**
+     * Executes the request to the given host on the calling thread, within the host limits and retrying
+     * on transient failures. The concurrency slot is released as soon as the request returns, hence the request is expected
+     * to consume the response entirely, e.g. to read the response body, rather than to give a stream of it.
+     *
+     * @param host the host name
+     * @param task the request
+     * @return the result of the request
+     * @throws IOException the failure of the last attempt, with the failures of the earlier attempts suppressed
+     * @throws InterruptedException if the calling thread is interrupted
+     * @see #openStream(String, FetchTask)
+     */
+    public <T> T call(String host, FetchTask<T> task) throws IOException, InterruptedException {
+        return execute(host(host), task, false);
+    }
+
+    /**
+     * Opens the stream of the response of the host of the given URI on the calling thread.
+     *
+     * @see #openStream(String, FetchTask)
+     */
+    public InputStream openStream(URI uri, FetchTask<? extends InputStream> task) throws IOException, InterruptedException {
+        return openStream(Objects.requireNonNullElse(uri.getHost(), ""), task);
+    }
+
+    /**
+     * Opens the stream of the response of the given host on the calling thread, within the host limits and retrying
+     * on transient failures to open it. Unlike {@link #call(String, FetchTask)}, the concurrency slot is held until the
+     * returned stream is closed, so that the transfer of the response body counts towards the host limits.
+     * The caller must close the stream, otherwise the slot is never released.
+     *
+     * @param host the host name
+     * @param task the request giving the stream of the response body
+     * @return the stream of the response body, releasing the concurrency slot when closed
+     * @throws IOException the failure of the last attempt, with the failures of the earlier attempts suppressed
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    public InputStream openStream(String host, FetchTask<? extends InputStream> task) throws IOException, InterruptedException {
+        Host target = host(host);
+        return execute(target, () -> new PermitInputStream(task.call(), target.concurrency), true);
+    }
+
+    private <T> T execute(Host target, FetchTask<T> task, boolean holdOnSuccess) throws IOException, InterruptedException {
+        IOException failure = null;
+        for (int attempt = 1; ; attempt++) {
+            target.concurrency.acquire();
+            boolean held = false;
+            try {
+                if (target.rateLimiter != null)
+                    target.rateLimiter.acquire();
+                T result = task.call();
+                held = holdOnSuccess;
+                return result;
+            } catch (IOException e) {
+                if (failure != null)
+                    e.addSuppressed(failure);
+                failure = e;
+                if (!retryPolicy.isRetryable(e))
+                    throw e;
+            } finally {
+                if (!held)
+                    target.concurrency.release();
+            }
+
+            if (attempt >= retryPolicy.maxAttempts())
+                throw failure;
+            TimeUnit.NANOSECONDS.sleep(retryPolicy.backoffNanos(attempt));
+        }
+    }
+
+    /**
+     * Submits the job to be executed concurrently on a virtual thread. The job is expected to perform
+     * its remote requests through {@link #call(String, FetchTask)}.
+     *
+     * @param job the job
+     * @return the future result of the job, completed exceptionally if the job fails
+     */
+    public <T> CompletableFuture<T> submit(FetchTask<T> job) {
+        Objects.requireNonNull(job, "job");
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return job.call();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Shuts down the scheduler, the submitted jobs already running are allowed to complete.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * The response stream holding the concurrency slot of its host until closed.
+     */
+    private static final class PermitInputStream extends FilterInputStream {
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        PermitInputStream(InputStream in, Semaphore permits) {
+            super(Objects.requireNonNull(in, "in"));
+            this.permits = permits;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (released.compareAndSet(false, true))
+                    permits.release();
+            }
+        }
+    }
+
+    private static final class Host {
+        private final HostLimits limits;
+        private final Semaphore concurrency;
+        private final TokenBucket rateLimiter;
+
+        Host(HostLimits limits) {
+            this.limits = Objects.requireNonNull(limits, "limits");
+            this.concurrency = new Semaphore(limits.maxConcurrency(), true);
+            this.rateLimiter = limits.isRateLimited()? new TokenBucket(limits.permitsPerSecond(), limits.burst()) : null;
+        }
+    }
+}
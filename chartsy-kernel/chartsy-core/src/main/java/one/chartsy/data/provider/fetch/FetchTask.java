@@ -0,0 +1,28 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.fetch;
+
+import java.io.IOException;
+
+/**
+ * A single remote request executed by the {@link FetchScheduler}, such as an HTTP call.
+ *
+ * @param <T> the type of the result
+ * @author Mariusz Bernacki
+ */
+@FunctionalInterface
+public interface FetchTask<T> {
+
+    /**
+     * Executes the request.
+     *
+     * @return the result
+     * @throws IOException if the request failed, the scheduler retries the task according to its {@link RetryPolicy}
+     *         if the failure is {@link RetryPolicy#isRetryable(IOException) transient}, e.g. a
+     *         {@link TransientFetchException}
+     * @throws InterruptedException if the calling thread is interrupted
+     */
+    T call() throws IOException, InterruptedException;
+}
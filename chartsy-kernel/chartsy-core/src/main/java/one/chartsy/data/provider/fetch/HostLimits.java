@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.fetch;
+
+/**
+ * The limits of requests sent to a single remote host.
+ *
+ * @param maxConcurrency the maximum number of requests in flight at the same time
+ * @param permitsPerSecond the sustained request rate, or {@code 0} for no rate limit
+ * @param burst the number of requests that can be sent at once after an idle period, at least {@code 1}
+ * @author Mariusz Bernacki
+ */
+public record HostLimits(int maxConcurrency, double permitsPerSecond, int burst) {
+
+    /** The limits applied to the hosts without limits configured explicitly. */
+    public static final HostLimits DEFAULT = of(8);
+
+    public HostLimits {
+        if (maxConcurrency < 1)
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        if (!(permitsPerSecond >= 0) || permitsPerSecond == Double.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("permitsPerSecond must be finite and not negative: " + permitsPerSecond);
+        if (burst < 1)
+            throw new IllegalArgumentException("burst must be positive: " + burst);
+    }
+
+    public static HostLimits of(int maxConcurrency) {
+        return new HostLimits(maxConcurrency, 0, 1);
+    }
+
+    public static HostLimits of(int maxConcurrency, double permitsPerSecond) {
+        return new HostLimits(maxConcurrency, permitsPerSecond, 1);
+    }
+
+    public boolean isRateLimited() {
+        return permitsPerSecond > 0;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.fetch;
+
+import java.io.IOException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+
+/**
+ * Describes how many times and how soon the failed {@link FetchTask}s are retried. The back-off grows
+ * exponentially with every attempt, up to the given maximum. Only the {@link #isRetryable(IOException) transient}
+ * failures are retried, i.e. the timeouts, the connection failures and resets, and the
+ * {@link TransientFetchException}s reported for the {@link #isRetryableStatus(int) HTTP status} 429 or 5xx.
+ * Any other failure, e.g. a missing resource or a malformed response, is thrown at once.
+ *
+ * @param maxAttempts the maximum number of attempts, including the first one
+ * @param initialBackoff the delay before the first retry
+ * @param maxBackoff the maximum delay between retries
+ * @param multiplier the factor by which the delay grows with every retry
+ * @author Mariusz Bernacki
+ */
+public record RetryPolicy(int maxAttempts, Duration initialBackoff, Duration maxBackoff, double multiplier) {
+
+    /** The default policy with 3 attempts and the back-off starting at 250 milliseconds. */
+    public static final RetryPolicy DEFAULT = new RetryPolicy(3, Duration.ofMillis(250), Duration.ofSeconds(5), 2.0);
+    /** The policy executing each task only once. */
+    public static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO, 1.0);
+
+    public RetryPolicy {
+        if (maxAttempts < 1)
+            throw new IllegalArgumentException("maxAttempts must be positive: " + maxAttempts);
+        if (initialBackoff.isNegative() || maxBackoff.compareTo(initialBackoff) < 0)
+            throw new IllegalArgumentException("Invalid back-off range: " + initialBackoff + ".." + maxBackoff);
+        if (!(multiplier >= 1.0))
+            throw new IllegalArgumentException("multiplier must be at least 1: " + multiplier);
+    }
+
+    /**
+     * Tells whether the failure, or any of its causes, is transient and thus worth retrying.
+     *
+     * @param failure the failure of the request
+     * @return {@code true} for the timeouts, the connection failures and the {@link TransientFetchException}s
+     */
+    public boolean isRetryable(IOException failure) {
+        for (Throwable e = failure; e != null; e = e.getCause())
+            if (e instanceof TransientFetchException || e instanceof SocketTimeoutException
+                    || e instanceof HttpTimeoutException || e instanceof SocketException)
+                return true;
+        return false;
+    }
+
+    /**
+     * Tells whether the given HTTP status code reports a transient failure, i.e. {@code 429 Too Many Requests}
+     * or a server error.
+     *
+     * @param statusCode the HTTP status code
+     * @return {@code true} if the request should be retried later
+     */
+    public static boolean isRetryableStatus(int statusCode) {
+        return statusCode == 429 || statusCode >= 500 && statusCode < 600;
+    }
+
+    /**
+     * Gives the delay before the given retry.
+     *
+     * @param retry the retry number, starting at {@code 1}
+     * @return the back-off delay in nanoseconds
+     */
+    public long backoffNanos(int retry) {
+        double backoff = initialBackoff.toNanos() * Math.pow(multiplier, retry - 1);
+        return (long) Math.min(backoff, maxBackoff.toNanos());
+    }
+}
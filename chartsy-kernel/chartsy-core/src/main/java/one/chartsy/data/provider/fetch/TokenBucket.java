@@ -0,0 +1,101 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.fetch;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * A token-bucket rate limiter. The bucket is refilled at a constant rate up to its capacity,
+ * and every permit takes a single token.
+ * <p>
+ * When the bucket is empty, {@link #acquire()} reserves the next token in advance and waits for it outside
+ * of the lock, thus the waiting callers are served at the configured rate in the order of their arrival.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private double tokens;
+    private long lastRefillTime;
+
+
+    /**
+     * Constructs a full token bucket.
+     *
+     * @param permitsPerSecond the refill rate
+     * @param capacity the capacity, i.e. the maximum burst of permits
+     */
+    public TokenBucket(double permitsPerSecond, int capacity) {
+        this(permitsPerSecond, capacity, System::nanoTime);
+    }
+
+    TokenBucket(double permitsPerSecond, int capacity, LongSupplier nanoClock) {
+        if (!(permitsPerSecond > 0) || permitsPerSecond == Double.POSITIVE_INFINITY)
+            throw new IllegalArgumentException("permitsPerSecond must be positive and finite: " + permitsPerSecond);
+        if (capacity < 1)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.lastRefillTime = nanoClock.getAsLong();
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - lastRefillTime) * permitsPerNano);
+        lastRefillTime = now;
+    }
+
+    /**
+     * Takes a permit if available immediately.
+     *
+     * @return {@code true} if the permit was taken
+     */
+    public boolean tryAcquire() {
+        lock.lock();
+        try {
+            refill(nanoClock.getAsLong());
+            if (tokens < 1.0)
+                return false;
+            tokens -= 1.0;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reserves a permit and gives the time the caller needs to wait until the permit becomes valid.
+     *
+     * @return the waiting time in nanoseconds, or {@code 0} if the permit is available immediately
+     */
+    public long reserve() {
+        lock.lock();
+        try {
+            refill(nanoClock.getAsLong());
+            tokens -= 1.0;
+            return (tokens >= 0.0)? 0L : (long) Math.ceil(-tokens / permitsPerNano);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes a permit, waiting until it becomes available.
+     *
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0)
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+    }
+}
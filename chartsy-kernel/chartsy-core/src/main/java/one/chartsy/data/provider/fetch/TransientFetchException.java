@@ -0,0 +1,25 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.provider.fetch;
+
+import java.io.IOException;
+
+/**
+ * Signals a failure of the remote request that is expected to go away when the request is repeated later,
+ * such as the HTTP status {@code 429 Too Many Requests} or any {@code 5xx} server error. Such failures are
+ * retried by the {@link FetchScheduler} according to its {@link RetryPolicy}.
+ *
+ * @author Mariusz Bernacki
+ */
+public class TransientFetchException extends IOException {
+
+    public TransientFetchException(String message) {
+        super(message);
+    }
+
+    public TransientFetchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream;
+
+/**
+ * A {@link RingMessageBuffer} accepting messages from multiple concurrent producer threads and
+ * drained by a single consumer thread. Producers claim their slots with a compare-and-set on the
+ * producer sequence and publish the message into the claimed slot with a release store; the
+ * consumer stops draining at the first slot which has been claimed but not yet published.
+ *
+ * @param <T> the type of messages this buffer handles
+ * @author Mariusz Bernacki
+ */
+public class MpscMessageBuffer<T extends Message> extends RingMessageBuffer<T> {
+
+    public MpscMessageBuffer(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    protected boolean offer0(T msg) {
+        long index;
+        do {
+            index = producerIndex;
+            if (index >= producerLimit) {
+                long limit = (long) CONSUMER_INDEX.getAcquire(this) + elements.length;
+                if (index >= limit)
+                    return false;
+                producerLimit = limit;
+            }
+        } while (!PRODUCER_INDEX.compareAndSet(this, index, index + 1));
+
+        ELEMENTS.setRelease(elements, (int) index & mask, msg);
+        return true;
+    }
+
+    @Override
+    protected int drain(MessageHandler handler, int limit) {
+        Object[] elements = this.elements;
+        long head = (long) CONSUMER_INDEX.getOpaque(this);
+        int processed = 0;
+        try {
+            while (processed < limit) {
+                int slot = (int) (head + processed) & mask;
+                Object msg = ELEMENTS.getAcquire(elements, slot);
+                if (msg == null)
+                    break;
+                elements[slot] = null;
+                processed++;
+                handler.handleMessage((Message) msg);
+            }
+        } finally {
+            if (processed > 0)
+                CONSUMER_INDEX.setRelease(this, head + processed);
+        }
+        return processed;
+    }
+}
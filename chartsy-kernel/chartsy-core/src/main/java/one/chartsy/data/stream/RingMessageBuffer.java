@@ -0,0 +1,219 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A bounded, lock-free {@link MessageBuffer} backed by a ring buffer, which also serves as a
+ * {@link MessageChannel} for adding new messages to the buffer.
+ * <p>
+ * The buffer is meant to be drained by a single consumer thread, while the number of producer
+ * threads depends on the implementation: use {@link #singleProducer(int)} when messages are sent
+ * from a single thread only, or {@link #multiProducer(int)} otherwise. The producer and consumer
+ * sequences are padded against false sharing, and {@link #read(MessageHandler, int)} drains the
+ * available messages in a batch, publishing the consumer progress once per call.
+ * <p>
+ * The full and closed conditions are explicit:
+ * <ul>
+ *     <li>{@link #offer(Message)} returns {@code false} if the buffer is full,</li>
+ *     <li>{@link #send(Message)} throws {@code IllegalStateException} if the buffer is full,</li>
+ *     <li>both methods throw {@code IllegalStateException} once the buffer is {@link #close() closed},</li>
+ *     <li>after closing, {@link #read(MessageHandler, int) read} discards any remaining messages
+ *     without handling them and returns {@code 0}.</li>
+ * </ul>
+ * The capacity is rounded up to the nearest power of two.
+ *
+ * @param <T> the type of messages this buffer handles
+ * @author Mariusz Bernacki
+ */
+public abstract class RingMessageBuffer<T extends Message> extends RingMessageBufferPad2 implements MessageBuffer, MessageChannel<T> {
+
+    protected static final VarHandle ELEMENTS = MethodHandles.arrayElementVarHandle(Object[].class);
+
+    protected final Object[] elements;
+    protected final int mask;
+    private volatile boolean closed;
+
+
+    protected RingMessageBuffer(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        if (capacity > 1 << 30)
+            throw new IllegalArgumentException("capacity is too large: " + capacity);
+
+        int size = (capacity == 1)? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        this.elements = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Creates a ring buffer accepting messages from a single producer thread.
+     *
+     * @param capacity the minimum number of messages the buffer can hold
+     * @return the new message buffer
+     */
+    public static <T extends Message> RingMessageBuffer<T> singleProducer(int capacity) {
+        return new SpscMessageBuffer<>(capacity);
+    }
+
+    /**
+     * Creates a ring buffer accepting messages from multiple concurrent producer threads.
+     *
+     * @param capacity the minimum number of messages the buffer can hold
+     * @return the new message buffer
+     */
+    public static <T extends Message> RingMessageBuffer<T> multiProducer(int capacity) {
+        return new MpscMessageBuffer<>(capacity);
+    }
+
+    /**
+     * Gives the number of messages the buffer can hold.
+     */
+    public final int capacity() {
+        return elements.length;
+    }
+
+    /**
+     * Gives the approximate number of messages currently held by the buffer.
+     */
+    public final int size() {
+        long consumer = consumerIndex, producer = producerIndex;
+        return (int) Math.max(0, Math.min(producer - consumer, elements.length));
+    }
+
+    public final boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * @return {@code true} if the message buffer is closed, {@code false} otherwise
+     */
+    public final boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Closes the message buffer, preventing it from accepting new messages. The messages that remain
+     * in the buffer are discarded by the consumer on its next {@link #read(MessageHandler, int) read}.
+     */
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Adds the message to the buffer if there is room for it.
+     *
+     * @param msg the message to be added to the buffer
+     * @return {@code true} if the message was added, {@code false} if the buffer is full
+     * @throws IllegalStateException if the buffer is closed
+     */
+    public final boolean offer(T msg) {
+        if (closed)
+            throw new IllegalStateException("Message buffer is closed");
+        return offer0(msg);
+    }
+
+    /**
+     * Sends a message to the buffer.
+     *
+     * @param msg the message to be added to the buffer
+     * @throws IllegalStateException if the buffer is full or closed
+     */
+    @Override
+    public final void send(T msg) {
+        if (!offer(msg))
+            throw new IllegalStateException("Message buffer is full");
+    }
+
+    @Override
+    public final int read(MessageHandler handler, int pollLimit) {
+        if (closed) {
+            discard();
+            return 0;
+        }
+        return drain(handler, pollLimit);
+    }
+
+    /**
+     * Adds the non-null message to the ring, or returns {@code false} if the ring is full.
+     */
+    protected abstract boolean offer0(T msg);
+
+    /**
+     * Hands over up to {@code limit} available messages to the handler, in the order of their arrival.
+     */
+    protected abstract int drain(MessageHandler handler, int limit);
+
+    private void discard() {
+        while (drain(msg -> { }, elements.length) > 0) {
+            // drained messages are dropped
+        }
+    }
+}
+
+/**
+ * Padding before the producer sequence, separating it from the object header and neighbouring objects.
+ */
+abstract class RingMessageBufferPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+/**
+ * The producer sequence along with the producer's cached view of the consumer progress.
+ */
+abstract class RingMessageBufferProducerFields extends RingMessageBufferPad0 {
+    static final VarHandle PRODUCER_INDEX, PRODUCER_LIMIT;
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+            PRODUCER_INDEX = lookup.findVarHandle(RingMessageBufferProducerFields.class, "producerIndex", long.class);
+            PRODUCER_LIMIT = lookup.findVarHandle(RingMessageBufferProducerFields.class, "producerLimit", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The sequence of the next message to be added. */
+    volatile long producerIndex;
+    /** The sequence up to which the producer may add messages without re-reading the consumer sequence. */
+    volatile long producerLimit;
+}
+
+/**
+ * Padding between the producer and consumer sequences.
+ */
+abstract class RingMessageBufferPad1 extends RingMessageBufferProducerFields {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
+
+/**
+ * The consumer sequence.
+ */
+abstract class RingMessageBufferConsumerFields extends RingMessageBufferPad1 {
+    static final VarHandle CONSUMER_INDEX;
+    static {
+        try {
+            CONSUMER_INDEX = MethodHandles.lookup().findVarHandle(RingMessageBufferConsumerFields.class, "consumerIndex", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The sequence of the next message to be read. */
+    volatile long consumerIndex;
+}
+
+/**
+ * Padding after the consumer sequence.
+ */
+abstract class RingMessageBufferPad2 extends RingMessageBufferConsumerFields {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+    long p10, p11, p12, p13, p14, p15, p16;
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream;
+
+/**
+ * A {@link RingMessageBuffer} accepting messages from a single producer thread and drained by a
+ * single consumer thread. Neither side performs any atomic read-modify-write operation: each side
+ * owns its sequence, and publishes it to the other side with a release store.
+ *
+ * @param <T> the type of messages this buffer handles
+ * @author Mariusz Bernacki
+ */
+public class SpscMessageBuffer<T extends Message> extends RingMessageBuffer<T> {
+
+    public SpscMessageBuffer(int capacity) {
+        super(capacity);
+    }
+
+    @Override
+    protected boolean offer0(T msg) {
+        long index = (long) PRODUCER_INDEX.getOpaque(this);
+        if (index >= producerLimit) {
+            long limit = (long) CONSUMER_INDEX.getAcquire(this) + elements.length;
+            if (index >= limit)
+                return false;
+            PRODUCER_LIMIT.setOpaque(this, limit);
+        }
+        elements[(int) index & mask] = msg;
+        PRODUCER_INDEX.setRelease(this, index + 1);
+        return true;
+    }
+
+    @Override
+    protected int drain(MessageHandler handler, int limit) {
+        Object[] elements = this.elements;
+        long head = (long) CONSUMER_INDEX.getOpaque(this);
+        long available = (long) PRODUCER_INDEX.getAcquire(this) - head;
+        int count = (int) Math.min(available, limit);
+        int processed = 0;
+        try {
+            while (processed < count) {
+                int slot = (int) (head + processed) & mask;
+                Object msg = elements[slot];
+                elements[slot] = null;
+                processed++;
+                handler.handleMessage((Message) msg);
+            }
+        } finally {
+            if (processed > 0)
+                CONSUMER_INDEX.setRelease(this, head + processed);
+        }
+        return processed;
+    }
+}
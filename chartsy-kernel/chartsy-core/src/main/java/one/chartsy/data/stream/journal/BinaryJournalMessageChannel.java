@@ -0,0 +1,215 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.data.stream.MessageChannel;
+import one.chartsy.data.stream.MessageChannelException;
+import one.chartsy.time.Chronological;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A message channel appending messages to a binary, memory-mapped journal.
+ * <p>
+ * The messages are encoded by the {@link JournalCodec}s registered in the given {@link JournalCodecs},
+ * into records with a fixed header holding the record length, the type id and the message time
+ * (see {@link JournalFormat} for the exact layout). The records are written into memory-mapped segment
+ * files of a fixed size, and a new segment is started whenever the current one is full. Instead of
+ * flushing after every message, the written range is forced to the storage device once every
+ * {@code flushBatchSize} records, when a segment is complete, and when the channel is closed.
+ * <p>
+ * The journal is read back with the {@link BinaryJournalMessageSource}.
+ *
+ * @implNote This implementation is not thread-safe so synchronize it externally if used concurrently.
+ *
+ * @param <T> the type of messages being handled
+ * @author Mariusz Bernacki
+ */
+public class BinaryJournalMessageChannel<T extends Chronological> implements MessageChannel<T> {
+
+    /** The default size of segment files, 64 MiB. */
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    /** The default number of records written between subsequent flushes. */
+    public static final int DEFAULT_FLUSH_BATCH_SIZE = 4096;
+
+    private final Path directory;
+    private final JournalCodecs codecs;
+    private final int segmentSize;
+    private final int flushBatchSize;
+    private final JournalOutput output = new JournalOutput();
+    private final JournalOutput symbolDefinition = new JournalOutput();
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int flushedPosition;
+    private int unflushedRecords;
+    private long recordCount;
+    private boolean closed;
+
+
+    /**
+     * Constructs a journal channel writing into the given directory with the default segment size and flush batch size.
+     *
+     * @param directory the journal directory, created if it does not exist
+     * @param codecs the codecs of the journaled messages
+     */
+    public BinaryJournalMessageChannel(Path directory, JournalCodecs codecs) {
+        this(directory, codecs, DEFAULT_SEGMENT_SIZE, DEFAULT_FLUSH_BATCH_SIZE);
+    }
+
+    /**
+     * Constructs a journal channel writing into the given directory.
+     *
+     * @param directory the journal directory, created if it does not exist
+     * @param codecs the codecs of the journaled messages
+     * @param segmentSize the size of segment files in bytes
+     * @param flushBatchSize the number of records written between subsequent flushes, or {@code 0} to flush
+     *                       only when a segment is complete and when the channel is closed
+     * @throws MessageChannelException if the directory already contains a journal, or cannot be created
+     */
+    public BinaryJournalMessageChannel(Path directory, JournalCodecs codecs, int segmentSize, int flushBatchSize) {
+        if (segmentSize < 1024)
+            throw new IllegalArgumentException("segmentSize is too small: " + segmentSize);
+        if (flushBatchSize < 0)
+            throw new IllegalArgumentException("flushBatchSize must not be negative: " + flushBatchSize);
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.codecs = Objects.requireNonNull(codecs, "codecs");
+        this.segmentSize = segmentSize & -JournalFormat.RECORD_ALIGNMENT;
+        this.flushBatchSize = flushBatchSize;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new MessageChannelException("Failed to create journal directory: " + directory, e);
+        }
+        if (Files.exists(JournalFormat.segmentFile(directory, 0)))
+            throw new MessageChannelException("Journal already exists in: " + directory, null);
+    }
+
+    /**
+     * Gives the number of message records written so far.
+     */
+    public final long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Appends the message to the journal.
+     *
+     * @param message the message to append
+     * @throws MessageChannelException if no codec is registered for the message, or if an I/O error occurs
+     * @throws IllegalStateException if the channel is closed
+     */
+    @Override
+    public void send(T message) {
+        if (closed)
+            throw new IllegalStateException("Journal is closed");
+        JournalCodecs.Entry<T> entry = codecs.forMessage(message);
+        if (entry == null)
+            throw new MessageChannelException("No journal codec registered for " + message.getClass().getName(), null);
+
+        output.reset();
+        entry.codec().encode(message, output);
+        long time = message.time();
+        List<SymbolIdentity> newSymbols = output.newSymbols();
+        if (!newSymbols.isEmpty())
+            appendSymbolDefinitions(newSymbols, time);
+        append(entry.typeId(), time, output.payload());
+        recordCount++;
+    }
+
+    private void appendSymbolDefinitions(List<SymbolIdentity> symbols, long time) {
+        JournalOutput definition = this.symbolDefinition;
+        for (SymbolIdentity symbol : symbols) {
+            definition.reset();
+            definition.putInt(output.symbolId(symbol));
+            definition.putString(symbol.name());
+            definition.putString(((Enum<?>) symbol.type()).getDeclaringClass().getName());
+            definition.putString(symbol.type().name());
+            append(JournalFormat.SYMBOL_DEFINITION, time, definition.payload());
+        }
+        symbols.clear();
+    }
+
+    private void append(int typeId, long time, ByteBuffer payload) {
+        int length = JournalFormat.RECORD_HEADER_LENGTH + payload.remaining();
+        int alignedLength = JournalFormat.align(length);
+        if (alignedLength > segmentSize - JournalFormat.SEGMENT_HEADER_LENGTH - JournalFormat.RECORD_ALIGNMENT)
+            throw new MessageChannelException("Journal record of " + length + " bytes exceeds the segment size", null);
+        if (segment == null || segment.remaining() < alignedLength + JournalFormat.RECORD_ALIGNMENT)
+            nextSegment();
+
+        MappedByteBuffer segment = this.segment;
+        int position = segment.position();
+        segment.putShort(position + 4, (short) typeId);
+        segment.putShort(position + 6, (short) 0);
+        segment.putLong(position + 8, time);
+        segment.put(position + JournalFormat.RECORD_HEADER_LENGTH, payload, payload.position(), payload.remaining());
+        segment.putInt(position, length);
+        segment.position(position + alignedLength);
+
+        if (flushBatchSize > 0 && ++unflushedRecords >= flushBatchSize)
+            flush();
+    }
+
+    private void nextSegment() {
+        try {
+            if (segment != null) {
+                segment.putInt(segment.position(), JournalFormat.END_OF_SEGMENT);
+                segment.position(segment.position() + JournalFormat.RECORD_ALIGNMENT);
+                flush();
+                segmentChannel.close();
+            }
+            Path file = JournalFormat.segmentFile(directory, ++segmentIndex);
+            segmentChannel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = segmentChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            segment.order(JournalFormat.BYTE_ORDER);
+            segment.putInt(JournalFormat.MAGIC).putInt(JournalFormat.VERSION).putLong(segmentIndex);
+            flushedPosition = 0;
+        } catch (IOException e) {
+            throw new MessageChannelException("Failed to open journal segment " + segmentIndex + " in " + directory, e);
+        }
+    }
+
+    /**
+     * Forces the records written since the last flush to the storage device.
+     */
+    public void flush() {
+        if (segment != null) {
+            int position = segment.position();
+            if (position > flushedPosition) {
+                segment.force(flushedPosition, position - flushedPosition);
+                flushedPosition = position;
+            }
+        }
+        unflushedRecords = 0;
+    }
+
+    @Override
+    public void close() {
+        if (closed)
+            return;
+
+        closed = true;
+        if (segment != null) {
+            flush();
+            try {
+                segmentChannel.close();
+            } catch (IOException e) {
+                throw new MessageChannelException("Failed to close journal segment " + segmentIndex, e);
+            } finally {
+                segment = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+import one.chartsy.data.stream.MessageChannelException;
+import one.chartsy.data.stream.MessageSource;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * A message source replaying the journal written by the {@link BinaryJournalMessageChannel}.
+ * <p>
+ * The messages are given in the order in which they were written. Records of the types for which no
+ * codec is registered in the given {@link JournalCodecs} are skipped without being decoded, thus for
+ * instance a replay of market data may skip the order events recorded in the same journal at almost no
+ * cost. Consequently, the caller is responsible for choosing the codecs producing messages of type {@code T}.
+ *
+ * @implNote This implementation is not thread-safe.
+ *
+ * @param <T> the type of messages this source provides
+ * @author Mariusz Bernacki
+ */
+public class BinaryJournalMessageSource<T> implements MessageSource<T> {
+
+    private final Path directory;
+    private final JournalCodecs codecs;
+    private final JournalInput input = new JournalInput();
+    private FileChannel segmentChannel;
+    private MappedByteBuffer segment;
+    private int segmentIndex;
+    private boolean endOfJournal;
+
+
+    /**
+     * Constructs a journal source reading from the given directory.
+     *
+     * @param directory the journal directory
+     * @param codecs the codecs of the replayed messages
+     */
+    public BinaryJournalMessageSource(Path directory, JournalCodecs codecs) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.codecs = Objects.requireNonNull(codecs, "codecs");
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getMessage() {
+        while (!endOfJournal) {
+            if (segment == null && !openSegment())
+                break;
+
+            MappedByteBuffer segment = this.segment;
+            int position = segment.position();
+            int length = (segment.remaining() < JournalFormat.RECORD_HEADER_LENGTH)? 0 : segment.getInt(position);
+            if (length == JournalFormat.END_OF_SEGMENT) {
+                closeSegment();
+                segmentIndex++;
+                continue;
+            }
+            if (length == 0) {
+                endOfJournal = true;
+                break;
+            }
+            if (length < JournalFormat.RECORD_HEADER_LENGTH || length > segment.remaining())
+                throw new MessageChannelException("Corrupted journal record at " + position + " in segment " + segmentIndex, null);
+
+            int typeId = Short.toUnsignedInt(segment.getShort(position + 4));
+            long time = segment.getLong(position + 8);
+            segment.position(position + JournalFormat.align(length));
+
+            if (typeId == JournalFormat.SYMBOL_DEFINITION) {
+                input.reset(segment, position + JournalFormat.RECORD_HEADER_LENGTH, length - JournalFormat.RECORD_HEADER_LENGTH);
+                input.defineSymbol(input.getInt(), input.getString(), input.getString(), input.getString());
+                continue;
+            }
+            JournalCodecs.Entry<?> entry = codecs.forTypeId(typeId);
+            if (entry != null) {
+                input.reset(segment, position + JournalFormat.RECORD_HEADER_LENGTH, length - JournalFormat.RECORD_HEADER_LENGTH);
+                return (T) entry.codec().decode(time, input);
+            }
+        }
+        return null;
+    }
+
+    private boolean openSegment() {
+        Path file = JournalFormat.segmentFile(directory, segmentIndex);
+        if (!Files.exists(file)) {
+            endOfJournal = true;
+            return false;
+        }
+        try {
+            segmentChannel = FileChannel.open(file);
+            segment = segmentChannel.map(FileChannel.MapMode.READ_ONLY, 0, segmentChannel.size());
+            segment.order(JournalFormat.BYTE_ORDER);
+        } catch (IOException e) {
+            throw new MessageChannelException("Failed to open journal segment " + file, e);
+        }
+        if (segment.remaining() < JournalFormat.SEGMENT_HEADER_LENGTH
+                || segment.getInt() != JournalFormat.MAGIC || segment.getInt() != JournalFormat.VERSION
+                || segment.getLong() != segmentIndex)
+            throw new MessageChannelException("Not a valid journal segment: " + file, null);
+        return true;
+    }
+
+    private void closeSegment() {
+        try {
+            if (segmentChannel != null)
+                segmentChannel.close();
+        } catch (IOException e) {
+            throw new MessageChannelException("Failed to close journal segment " + segmentIndex, e);
+        } finally {
+            segmentChannel = null;
+            segment = null;
+        }
+    }
+
+    @Override
+    public void close() {
+        endOfJournal = true;
+        closeSegment();
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+/**
+ * Encodes messages of a single type into the binary journal records, and decodes them back.
+ * <p>
+ * The message time is kept in the fixed record header, thus codecs write only the remaining
+ * message attributes, and receive the time back when decoding.
+ *
+ * @param <T> the message type
+ * @author Mariusz Bernacki
+ */
+public interface JournalCodec<T> {
+
+    /**
+     * Writes the payload of the message.
+     *
+     * @param message the message to encode
+     * @param out the record payload output
+     */
+    void encode(T message, JournalOutput out);
+
+    /**
+     * Reads the message from the record payload.
+     *
+     * @param time the message time from the record header
+     * @param in the record payload input
+     * @return the decoded message
+     */
+    T decode(long time, JournalInput in);
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+import one.chartsy.time.Chronological;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The registry of {@link JournalCodec}s, keyed both by the message type and by the numeric type id
+ * stored in the journal records.
+ * <p>
+ * A codec registered for an interface or a superclass applies to all its implementations. The type
+ * ids are persistent, so once records are written, the id of a message type must not change. Ids below
+ * {@value JournalFormat#MIN_USER_TYPE_ID} are reserved for the journal itself.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class JournalCodecs {
+
+    private final Map<Class<?>, Entry<?>> byType = new LinkedHashMap<>();
+    private final Map<Class<?>, Entry<?>> byMessageClass = new HashMap<>();
+    private final Entry<?>[] byTypeId = new Entry<?>[JournalFormat.MAX_TYPE_ID + 1];
+    private Class<?> lastMessageClass;
+    private Entry<?> lastEntry;
+
+    /**
+     * Registers the codec for the given message type.
+     *
+     * @param typeId the persistent type id, between {@value JournalFormat#MIN_USER_TYPE_ID} and {@value JournalFormat#MAX_TYPE_ID}
+     * @param type the message type
+     * @param codec the codec
+     * @return this registry
+     * @throws IllegalArgumentException if the type id is out of range or already taken
+     */
+    public <E extends Chronological> JournalCodecs register(int typeId, Class<E> type, JournalCodec<E> codec) {
+        if (typeId < JournalFormat.MIN_USER_TYPE_ID || typeId > JournalFormat.MAX_TYPE_ID)
+            throw new IllegalArgumentException("Type id " + typeId + " is out of range");
+        if (byTypeId[typeId] != null)
+            throw new IllegalArgumentException("Type id " + typeId + " is already registered for " + byTypeId[typeId].type().getName());
+        if (byType.containsKey(type))
+            throw new IllegalArgumentException("Codec for " + type.getName() + " is already registered");
+
+        var entry = new Entry<>(typeId, type, codec);
+        byTypeId[typeId] = entry;
+        byType.put(type, entry);
+        byMessageClass.clear();
+        lastMessageClass = null;
+        return this;
+    }
+
+    /**
+     * Gives the codec entry applicable to the given message.
+     *
+     * @param message the message
+     * @return the codec entry, or {@code null} if no codec applies to the message
+     */
+    @SuppressWarnings("unchecked")
+    <E> Entry<E> forMessage(E message) {
+        Class<?> messageClass = message.getClass();
+        if (messageClass != lastMessageClass) {
+            Entry<?> entry = byMessageClass.computeIfAbsent(messageClass, this::lookup);
+            lastMessageClass = messageClass;
+            lastEntry = entry;
+        }
+        return (Entry<E>) lastEntry;
+    }
+
+    private Entry<?> lookup(Class<?> messageClass) {
+        Entry<?> entry = byType.get(messageClass);
+        if (entry == null)
+            for (Entry<?> candidate : byType.values())
+                if (candidate.type().isAssignableFrom(messageClass))
+                    return candidate;
+        return entry;
+    }
+
+    /**
+     * Gives the codec entry registered under the given type id.
+     *
+     * @return the codec entry, or {@code null} if none is registered
+     */
+    Entry<?> forTypeId(int typeId) {
+        return byTypeId[typeId];
+    }
+
+    record Entry<E>(int typeId, Class<?> type, JournalCodec<E> codec) { }
+}
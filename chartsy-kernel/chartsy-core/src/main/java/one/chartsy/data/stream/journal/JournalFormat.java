@@ -0,0 +1,55 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+/**
+ * The layout of the binary journal files.
+ * <p>
+ * A journal is a directory of segment files named {@code 0000000000.journal}, {@code 0000000001.journal},
+ * etc. Each segment starts with a {@value #SEGMENT_HEADER_LENGTH}-byte header: the {@link #MAGIC magic number},
+ * the {@link #VERSION format version} and the segment index. The header is followed by the records, each aligned
+ * to {@value #RECORD_ALIGNMENT} bytes and starting with a fixed {@value #RECORD_HEADER_LENGTH}-byte header:
+ * <pre>
+ *  0: int   record length, including the header and excluding the alignment padding
+ *  4: short type id (unsigned)
+ *  6: short reserved
+ *  8: long  message time
+ * 16: ...   payload
+ * </pre>
+ * A zero record length marks the end of the journal, and {@link #END_OF_SEGMENT} marks the end of the segment,
+ * after which the records continue in the next segment. All values are little-endian.
+ * <p>
+ * The {@link #SYMBOL_DEFINITION symbol definition} payload consists of the symbol id, the symbol name, and the
+ * class name and the constant name of the enum {@link one.chartsy.financial.IdentityType identity type} of the symbol.
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x314A4843; // "CHJ1"
+    static final int VERSION = 2;
+    static final int SEGMENT_HEADER_LENGTH = 16;
+    static final int RECORD_HEADER_LENGTH = 16;
+    static final int RECORD_ALIGNMENT = 8;
+    static final int END_OF_SEGMENT = -1;
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    /** The type id of the internal record assigning a numeric id to a symbol. */
+    static final int SYMBOL_DEFINITION = 1;
+    /** The lowest type id available to the {@link JournalCodecs#register registered} codecs. */
+    static final int MIN_USER_TYPE_ID = 16;
+    static final int MAX_TYPE_ID = 0xFFFF;
+
+    static Path segmentFile(Path directory, int segmentIndex) {
+        return directory.resolve(String.format("%010d.journal", segmentIndex));
+    }
+
+    static int align(int length) {
+        return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+    }
+
+    private JournalFormat() { }
+}
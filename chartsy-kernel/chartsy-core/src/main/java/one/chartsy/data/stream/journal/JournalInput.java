@@ -0,0 +1,97 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.IdentityType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The payload input of a journal record, given to the {@link JournalCodec#decode(long, JournalInput) codecs}.
+ * Values must be read in the order in which they were written by the {@link JournalOutput}.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class JournalInput {
+
+    private ByteBuffer buffer;
+    private final List<SymbolIdentity> symbols = new ArrayList<>();
+
+
+    JournalInput() { }
+
+    void reset(ByteBuffer segment, int offset, int length) {
+        buffer = segment.slice(offset, length).order(JournalFormat.BYTE_ORDER);
+    }
+
+    void defineSymbol(int id, String name, String typeClassName, String typeName) {
+        if (id != symbols.size())
+            throw new IllegalStateException("Symbol id " + id + " is out of sequence, expected " + symbols.size());
+        symbols.add(SymbolIdentity.of(name, identityType(typeClassName, typeName)));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static IdentityType identityType(String typeClassName, String typeName) {
+        Class<?> typeClass;
+        try {
+            typeClass = Class.forName(typeClassName, false, classLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Identity type class `" + typeClassName + "` not found", e);
+        }
+        if (!typeClass.isEnum() || !IdentityType.class.isAssignableFrom(typeClass))
+            throw new IllegalStateException("Class `" + typeClassName + "` is not an enum IdentityType");
+
+        return (IdentityType) Enum.valueOf((Class) typeClass, typeName);
+    }
+
+    private static ClassLoader classLoader() {
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        return (loader != null)? loader : JournalInput.class.getClassLoader();
+    }
+
+    public byte getByte() {
+        return buffer.get();
+    }
+
+    public boolean getBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public int getInt() {
+        return buffer.getInt();
+    }
+
+    public long getLong() {
+        return buffer.getLong();
+    }
+
+    public double getDouble() {
+        return buffer.getDouble();
+    }
+
+    public String getString() {
+        int length = buffer.getInt();
+        if (length < 0)
+            return null;
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public <E extends Enum<E>> E getEnum(Class<E> type) {
+        String name = getString();
+        return (name == null)? null : Enum.valueOf(type, name);
+    }
+
+    public SymbolIdentity getSymbol() {
+        int id = buffer.getInt();
+        return (id < 0)? null : symbols.get(id);
+    }
+}
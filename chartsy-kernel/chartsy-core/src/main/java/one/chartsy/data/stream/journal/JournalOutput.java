@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+import one.chartsy.SymbolIdentity;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The payload output of a journal record, given to the {@link JournalCodec#encode(Object, JournalOutput) codecs}.
+ * <p>
+ * Symbols are written as numeric ids assigned on their first occurrence in the journal, thus a symbol
+ * name is stored once per journal rather than in every record.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class JournalOutput {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(256).order(JournalFormat.BYTE_ORDER);
+    private final Map<SymbolIdentity, Integer> symbolIds = new HashMap<>();
+    private final List<SymbolIdentity> newSymbols = new ArrayList<>();
+
+
+    JournalOutput() { }
+
+    void reset() {
+        buffer.clear();
+    }
+
+    ByteBuffer payload() {
+        return buffer.flip();
+    }
+
+    /**
+     * Gives the symbols which have been assigned ids since the last call, and which are yet to be defined in the journal.
+     */
+    List<SymbolIdentity> newSymbols() {
+        return newSymbols;
+    }
+
+    int symbolId(SymbolIdentity symbol) {
+        return symbolIds.get(symbol);
+    }
+
+    private ByteBuffer ensureRemaining(int length) {
+        if (buffer.remaining() < length) {
+            int capacity = Math.max(buffer.capacity() << 1, buffer.position() + length);
+            buffer = ByteBuffer.allocate(capacity).order(JournalFormat.BYTE_ORDER).put(buffer.flip());
+        }
+        return buffer;
+    }
+
+    public JournalOutput putByte(int value) {
+        ensureRemaining(Byte.BYTES).put((byte) value);
+        return this;
+    }
+
+    public JournalOutput putBoolean(boolean value) {
+        return putByte(value? 1 : 0);
+    }
+
+    public JournalOutput putInt(int value) {
+        ensureRemaining(Integer.BYTES).putInt(value);
+        return this;
+    }
+
+    public JournalOutput putLong(long value) {
+        ensureRemaining(Long.BYTES).putLong(value);
+        return this;
+    }
+
+    public JournalOutput putDouble(double value) {
+        ensureRemaining(Double.BYTES).putDouble(value);
+        return this;
+    }
+
+    /**
+     * Writes the string as its UTF-8 length followed by the UTF-8 bytes; {@code null} is written as a length of {@code -1}.
+     */
+    public JournalOutput putString(String value) {
+        if (value == null)
+            return putInt(-1);
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        ensureRemaining(Integer.BYTES + bytes.length).putInt(bytes.length).put(bytes);
+        return this;
+    }
+
+    /**
+     * Writes the enum constant by its name, which keeps the records readable after the constants are reordered.
+     */
+    public JournalOutput putEnum(Enum<?> value) {
+        return putString((value == null)? null : value.name());
+    }
+
+    /**
+     * Writes the symbol as its journal-wide numeric id; {@code null} is written as {@code -1}.
+     *
+     * @throws IllegalArgumentException if the symbol {@link SymbolIdentity#type() type} is not an enum constant,
+     *         and thus could not be resolved back when the journal is replayed
+     */
+    public JournalOutput putSymbol(SymbolIdentity symbol) {
+        if (symbol == null)
+            return putInt(-1);
+
+        Integer id = symbolIds.get(symbol);
+        if (id == null) {
+            if (!(symbol.type() instanceof Enum<?>))
+                throw new IllegalArgumentException("Identity type `" + symbol.type() + "` of symbol `" + symbol.name() + "` is not an enum constant and cannot be journaled");
+            id = symbolIds.size();
+            symbolIds.put(symbol, id);
+            newSymbols.add(symbol);
+        }
+        return putInt(id);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.data.stream.journal;
+
+import one.chartsy.Candle;
+import one.chartsy.data.market.BestBidOfferQuote;
+import one.chartsy.data.market.Tick;
+import one.chartsy.messaging.data.BestBidOfferEvent;
+import one.chartsy.messaging.data.TradeBar;
+import one.chartsy.messaging.data.TradeTick;
+
+/**
+ * The {@link JournalCodec}s of the standard market events, occupying the type ids 16 to 31.
+ * <p>
+ * The trade conditions of ticks are not journaled.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class MarketEventCodecs {
+
+    public static final int TRADE_BAR = 16;
+    public static final int TRADE_TICK = 17;
+    public static final int BEST_BID_OFFER = 18;
+
+    /**
+     * Registers the market event codecs in the given registry.
+     *
+     * @param codecs the registry
+     * @return the {@code codecs} registry
+     */
+    public static JournalCodecs registerAll(JournalCodecs codecs) {
+        return codecs
+                .register(TRADE_BAR, TradeBar.class, new TradeBarCodec())
+                .register(TRADE_TICK, TradeTick.class, new TradeTickCodec())
+                .register(BEST_BID_OFFER, BestBidOfferEvent.class, new BestBidOfferCodec());
+    }
+
+    /**
+     * Gives the new registry holding the market event codecs only.
+     */
+    public static JournalCodecs create() {
+        return registerAll(new JournalCodecs());
+    }
+
+    static final class TradeBarCodec implements JournalCodec<TradeBar> {
+        @Override
+        public void encode(TradeBar event, JournalOutput out) {
+            Candle bar = event.get();
+            out.putSymbol(event.symbol())
+                    .putDouble(bar.open())
+                    .putDouble(bar.high())
+                    .putDouble(bar.low())
+                    .putDouble(bar.close())
+                    .putDouble(bar.volume());
+        }
+
+        @Override
+        public TradeBar decode(long time, JournalInput in) {
+            return new TradeBar.Of(in.getSymbol(),
+                    Candle.of(time, in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble(), in.getDouble()));
+        }
+    }
+
+    static final class TradeTickCodec implements JournalCodec<TradeTick> {
+        @Override
+        public void encode(TradeTick event, JournalOutput out) {
+            Tick tick = event.get();
+            out.putSymbol(event.symbol())
+                    .putDouble(tick.price())
+                    .putDouble(tick.size());
+        }
+
+        @Override
+        public TradeTick decode(long time, JournalInput in) {
+            return new TradeTick.Of(in.getSymbol(), Tick.of(time, in.getDouble(), in.getDouble()));
+        }
+    }
+
+    static final class BestBidOfferCodec implements JournalCodec<BestBidOfferEvent> {
+        @Override
+        public void encode(BestBidOfferEvent event, JournalOutput out) {
+            BestBidOfferQuote quote = event.get();
+            out.putSymbol(event.symbol())
+                    .putByte((quote.bidChanged()? 1 : 0) | (quote.askChanged()? 2 : 0))
+                    .putDouble(quote.bidPrice())
+                    .putDouble(quote.bidSize())
+                    .putDouble(quote.askPrice())
+                    .putDouble(quote.askSize());
+        }
+
+        @Override
+        public BestBidOfferEvent decode(long time, JournalInput in) {
+            var symbol = in.getSymbol();
+            int changed = in.getByte();
+            return new BestBidOfferEvent.Of(symbol, new BestBidOfferQuote(time,
+                    (changed & 1) != 0, in.getDouble(), in.getDouble(),
+                    (changed & 2) != 0, in.getDouble(), in.getDouble()));
+        }
+    }
+
+    private MarketEventCodecs() { }
+}
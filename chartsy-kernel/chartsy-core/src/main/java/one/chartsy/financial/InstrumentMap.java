@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.financial;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.messaging.MarketEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A map of per-instrument values, kept in an array indexed by the ids of the {@link InstrumentRegistry}.
+ * <p>
+ * The values of the market events carrying the {@link MarketEvent#instrumentId() instrument ids} are
+ * looked up without hashing the symbol identities. The values are iterated in the order of insertion.
+ *
+ * @implNote This implementation is not thread-safe.
+ *
+ * @param <T> the type of values
+ * @author Mariusz Bernacki
+ */
+public class InstrumentMap<T> implements Iterable<T> {
+
+    private final InstrumentRegistry registry;
+    private Object[] values = new Object[16];
+    private final List<T> insertionOrder = new ArrayList<>();
+    private final Collection<T> valuesView = Collections.unmodifiableCollection(insertionOrder);
+
+
+    public InstrumentMap(InstrumentRegistry registry) {
+        this.registry = Objects.requireNonNull(registry, "registry");
+    }
+
+    public final InstrumentRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gives the value of the given instrument id, or {@code null} if none.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int id) {
+        Object[] values = this.values;
+        return (id >= 0 && id < values.length)? (T) values[id] : null;
+    }
+
+    /**
+     * Gives the value of the given instrument, or {@code null} if none.
+     */
+    public T get(SymbolIdentity symbol) {
+        int id = registry.getId(symbol);
+        return (id < 0)? null : get(id);
+    }
+
+    public boolean containsKey(SymbolIdentity symbol) {
+        return get(symbol) != null;
+    }
+
+    /**
+     * Gives the value of the instrument of the given event, creating it if absent.
+     *
+     * @param event the market event
+     * @param factory the function creating the value from the instrument symbol
+     * @return the current or newly created value
+     */
+    public T computeIfAbsent(MarketEvent event, Function<? super SymbolIdentity, ? extends T> factory) {
+        return computeIfAbsent(registry.resolve(event), factory);
+    }
+
+    /**
+     * Gives the value of the given instrument, creating it if absent.
+     *
+     * @param symbol the instrument symbol
+     * @param factory the function creating the value from the instrument symbol
+     * @return the current or newly created value
+     */
+    public T computeIfAbsent(SymbolIdentity symbol, Function<? super SymbolIdentity, ? extends T> factory) {
+        return computeIfAbsent(registry.register(symbol), factory);
+    }
+
+    /**
+     * Gives the value of the given instrument id, creating it if absent.
+     *
+     * @param id the instrument id assigned by the {@link #getRegistry() registry}
+     * @param factory the function creating the value from the instrument symbol
+     * @return the current or newly created value
+     */
+    public T computeIfAbsent(int id, Function<? super SymbolIdentity, ? extends T> factory) {
+        T value = get(id);
+        if (value == null) {
+            value = Objects.requireNonNull(factory.apply(registry.getSymbol(id)), "value");
+            if (id >= values.length)
+                values = Arrays.copyOf(values, Math.max(id + 1, values.length * 2));
+            values[id] = value;
+            insertionOrder.add(value);
+        }
+        return value;
+    }
+
+    public int size() {
+        return insertionOrder.size();
+    }
+
+    public boolean isEmpty() {
+        return insertionOrder.isEmpty();
+    }
+
+    /**
+     * Gives the unmodifiable, live view of the values, in the order of insertion.
+     */
+    public Collection<T> values() {
+        return valuesView;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        return valuesView.iterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        insertionOrder.forEach(action);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.financial;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.messaging.MarketEvent;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Assigns dense integer ids to the instruments of a single run, e.g. a backtest.
+ * <p>
+ * The ids are assigned consecutively from {@code 0} in the order in which the instruments are first
+ * {@link #register(SymbolIdentity) registered}, thus the per-instrument state may be kept in plain arrays,
+ * such as the {@link InstrumentMap}, indexed by the id. The symbols are compared by their name and type,
+ * like the {@link SymbolIdentifier}s, regardless of the {@code SymbolIdentity} implementation.
+ * <p>
+ * The market data suppliers stamp the events with the {@link MarketEvent#instrumentId() instrument ids},
+ * so that the consumers of the events may {@link #resolve(MarketEvent) resolve} them without hashing the
+ * symbol identity. The ids are meaningful only within the registry that assigned them.
+ *
+ * @implNote The registration is synchronized, while the {@link #getSymbol(int)} and the
+ *           {@link #resolve(MarketEvent)} of a stamped event are lock-free.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class InstrumentRegistry {
+
+    private final Map<SymbolIdentifier, Integer> ids = new HashMap<>();
+    /** The ids of the recently looked up symbol instances, sparing the allocation of the {@code SymbolIdentifier} keys. */
+    private final Map<SymbolIdentity, Integer> instanceIds = new IdentityHashMap<>();
+    private volatile SymbolIdentity[] symbols = new SymbolIdentity[16];
+    private volatile int size;
+
+
+    /**
+     * Gives the id of the instrument, registering it if not registered yet.
+     *
+     * @param symbol the instrument symbol
+     * @return the instrument id
+     */
+    public synchronized int register(SymbolIdentity symbol) {
+        Integer id = lookup(symbol);
+        if (id != null)
+            return id;
+
+        var key = (symbol instanceof SymbolIdentifier identifier)? identifier : new SymbolIdentifier(symbol);
+        int newId = size;
+        SymbolIdentity[] symbols = this.symbols;
+        if (newId == symbols.length)
+            this.symbols = symbols = Arrays.copyOf(symbols, newId * 2);
+        symbols[newId] = symbol;
+        ids.put(key, newId);
+        instanceIds.put(symbol, newId);
+        size = newId + 1;
+        return newId;
+    }
+
+    private Integer lookup(SymbolIdentity symbol) {
+        Integer id = instanceIds.get(symbol);
+        if (id == null) {
+            var key = (symbol instanceof SymbolIdentifier identifier)? identifier : new SymbolIdentifier(symbol);
+            if ((id = ids.get(key)) != null) {
+                if (instanceIds.size() >= 4 * size + 64)
+                    instanceIds.clear(); // many transient instances, keep the cache bounded
+                instanceIds.put(symbol, id);
+            }
+        }
+        return id;
+    }
+
+    /**
+     * Gives the id of the instrument, if registered.
+     *
+     * @param symbol the instrument symbol
+     * @return the instrument id, or {@link MarketEvent#UNASSIGNED_ID} if the instrument is not registered
+     */
+    public synchronized int getId(SymbolIdentity symbol) {
+        Integer id = lookup(symbol);
+        return (id != null)? id : MarketEvent.UNASSIGNED_ID;
+    }
+
+    /**
+     * Gives the id of the instrument of the event, registering it if not registered yet. The id carried
+     * by the event is used directly, provided that it refers to the same symbol in this registry.
+     *
+     * @param event the market event
+     * @return the instrument id
+     */
+    public int resolve(MarketEvent event) {
+        int id = event.instrumentId();
+        SymbolIdentity symbol = event.symbol();
+        if (id >= 0 && id < size) {
+            SymbolIdentity registered = symbols[id];
+            if (registered == symbol || registered.name().equals(symbol.name()) && registered.type().equals(symbol.type()))
+                return id;
+        }
+        return register(symbol);
+    }
+
+    /**
+     * Gives the symbol of the given id, as it was first registered.
+     *
+     * @param id the instrument id
+     * @return the instrument symbol
+     * @throws IndexOutOfBoundsException if the id is not assigned
+     */
+    public SymbolIdentity getSymbol(int id) {
+        int size = this.size;
+        if (id < 0 || id >= size)
+            throw new IndexOutOfBoundsException("Instrument id " + id + " out of range [0, " + size + ")");
+        return symbols[id];
+    }
+
+    /**
+     * Gives the number of registered instruments, which is also the exclusive upper bound of the ids.
+     */
+    public int size() {
+        return size;
+    }
+}
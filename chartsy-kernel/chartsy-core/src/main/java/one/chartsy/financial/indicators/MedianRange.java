@@ -6,7 +6,7 @@ package one.chartsy.financial.indicators;
 import one.chartsy.Candle;
 import one.chartsy.data.structures.RingBuffer;
 import one.chartsy.financial.AbstractCandleIndicator;
-import one.chartsy.math.MovingMedian;
+import one.chartsy.math.MovingQuantile;
 import one.chartsy.study.ChartStudy;
 import one.chartsy.study.LinePlotSpec;
 import one.chartsy.study.StudyFactory;
@@ -32,6 +32,7 @@ public class MedianRange extends AbstractCandleIndicator {
 
     private final int periods;
     private final RingBuffer<Candle> window;
+    private final MovingQuantile median;
     private double lastValue = Double.NaN;
 
     @StudyFactory(input = StudyInputKind.CANDLES)
@@ -47,6 +48,7 @@ public class MedianRange extends AbstractCandleIndicator {
 
         this.periods = periods;
         this.window = new RingBuffer<>(periods);
+        this.median = new MovingQuantile(periods);
     }
 
     @Override
@@ -61,7 +63,7 @@ public class MedianRange extends AbstractCandleIndicator {
         double highestHigh = Double.NEGATIVE_INFINITY;
         double lowestLow = Double.POSITIVE_INFINITY;
 
-        MovingMedian.OfDouble median = new MovingMedian.OfDouble(periods);
+        median.clear();
         for (int i = 0; i < periods; i++) {
             Candle bar = window.get(i);
             highestHigh = Math.max(highestHigh, bar.high());
@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.financial.indicators;
+
+import one.chartsy.financial.AbstractDoubleIndicator;
+import one.chartsy.wavelets.StationaryWaveletTransform;
+import one.chartsy.wavelets.Wavelet;
+
+/**
+ * The rolling energy of the wavelet detail coefficients, i.e. the sum of their squares over the last
+ * {@code period} values, per decomposition level.
+ * <p>
+ * The coefficients are given by the {@link StationaryWaveletTransform}, and the rolling sums are updated
+ * incrementally, thus every new value costs {@code O(levels)} regardless of the period.
+ */
+public class WaveletEnergy extends AbstractDoubleIndicator {
+
+    private final StationaryWaveletTransform transform;
+    private final int period;
+    private final double[][] squares;
+    private final double[] energy;
+    private int index;
+    private int size;
+    private double last = Double.NaN;
+
+    public WaveletEnergy(Wavelet wavelet, int levels, int period) {
+        if (period <= 0)
+            throw new IllegalArgumentException("Period " + period + " must be positive");
+        this.transform = new StationaryWaveletTransform(wavelet, levels);
+        this.period = period;
+        this.squares = new double[levels][period];
+        this.energy = new double[levels];
+    }
+
+    @Override
+    public void accept(double value) {
+        transform.accept(value);
+        if (!transform.isReady())
+            return;
+
+        double total = 0.0;
+        for (int j = 0; j < energy.length; j++) {
+            double d = transform.getDetail(j + 1);
+            double square = d * d;
+            energy[j] += square - squares[j][index];
+            squares[j][index] = square;
+            total += energy[j];
+        }
+        if (++index == period) {
+            index = 0;
+            resum();
+        }
+        if (size < period)
+            size++;
+        last = (size == period)? total : Double.NaN;
+    }
+
+    /** Recomputes the rolling sums once per period, to keep the rounding errors from accumulating. */
+    private void resum() {
+        for (int j = 0; j < energy.length; j++) {
+            double sum = 0.0;
+            for (double square : squares[j])
+                sum += square;
+            energy[j] = sum;
+        }
+    }
+
+    /**
+     * Gives the detail energy of the given level.
+     *
+     * @param level the level, from {@code 1} to the number of levels
+     * @return the energy, or {@code NaN} if the indicator is not ready yet
+     */
+    public double getEnergy(int level) {
+        return isReady()? energy[level - 1] : Double.NaN;
+    }
+
+    /**
+     * Gives the total detail energy of all levels.
+     */
+    @Override
+    public double getLast() {
+        return last;
+    }
+
+    @Override
+    public boolean isReady() {
+        return size == period;
+    }
+}
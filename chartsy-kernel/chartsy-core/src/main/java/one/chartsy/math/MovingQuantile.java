@@ -0,0 +1,294 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.math;
+
+import java.util.NoSuchElementException;
+import java.util.function.DoubleConsumer;
+
+/**
+ * A data structure that efficiently computes arbitrary quantiles of a sliding window of {@code double} values.
+ * <p>
+ * Unlike the {@link MovingMedian}, which tracks the median only, this class keeps the whole window ordered,
+ * in a randomized, order-statistic search tree (treap) stored in primitive arrays, so any order statistic,
+ * quantile or a combination of them (e.g. the interquartile range) can be queried at any time. Both the
+ * updates and the queries run in expected {@code O(log n)} time, where {@code n} is the window size, and
+ * the structure does not allocate after construction.
+ * <p>
+ * The values are ordered as by the {@link Double#compare(double, double)}, so the {@code NaN}s, if any, are
+ * treated as greater than all other values.
+ *
+ * @implNote This implementation is not thread-safe.
+ *
+ * @author Mariusz Bernacki
+ */
+public class MovingQuantile implements DoubleConsumer {
+    /** The null node reference. */
+    private static final int NIL = -1;
+
+    /** The circular queue of values, also the tree node keys. */
+    private final double[] data;
+    /** The insertion sequence numbers of the values, breaking ties between the equal values. */
+    private final long[] seqs;
+    /** The left child of each tree node. */
+    private final int[] left;
+    /** The right child of each tree node. */
+    private final int[] right;
+    /** The subtree size of each tree node. */
+    private final int[] sizes;
+    /** The heap priority of each tree node. */
+    private final int[] priorities;
+    /** The allocated size of the moving window. */
+    private final int size;
+    /** The tree root. */
+    private int root = NIL;
+    /** The current position in the circular queue. */
+    private int index;
+    /** The count of items currently in the queue. */
+    private int count;
+    /** The next insertion sequence number. */
+    private long nextSeq;
+    /** The state of the priority generator. */
+    private int seed = 0x9E3779B9;
+
+    /**
+     * Constructs a new {@code MovingQuantile} over a window of {@code windowSize} elements.
+     *
+     * @param windowSize the size of the moving window
+     * @throws IllegalArgumentException if {@code windowSize} is less than 1
+     */
+    public MovingQuantile(int windowSize) {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("Window size must be at least 1");
+        }
+        size = windowSize;
+        data = new double[windowSize];
+        seqs = new long[windowSize];
+        left = new int[windowSize];
+        right = new int[windowSize];
+        sizes = new int[windowSize];
+        priorities = new int[windowSize];
+    }
+
+    @Override
+    public void accept(double v) {
+        int node = index;
+        if (isFull())
+            root = erase(root, node);
+        else
+            count++;
+
+        data[node] = v;
+        seqs[node] = nextSeq++;
+        left[node] = right[node] = NIL;
+        sizes[node] = 1;
+        priorities[node] = nextPriority();
+        root = insert(root, node);
+        index = (index + 1) % size;
+    }
+
+    /**
+     * Removes all values from the window.
+     */
+    public void clear() {
+        root = NIL;
+        index = 0;
+        count = 0;
+    }
+
+    /**
+     * Gives the number of values currently in the window.
+     */
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Gives the allocated size of the window.
+     */
+    public int getWindowSize() {
+        return size;
+    }
+
+    /**
+     * Checks if the window is empty.
+     *
+     * @return {@code true} if the window is empty, {@code false} otherwise
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Checks if the window is full.
+     *
+     * @return {@code true} if the window is full, {@code false} otherwise
+     */
+    public boolean isFull() {
+        return count == size;
+    }
+
+    /**
+     * Gives the order statistic of the window, i.e. the {@code rank}-th smallest value.
+     *
+     * @param rank the zero-based rank, {@code 0} giving the minimum and {@code count()-1} the maximum
+     * @return the value of the given rank
+     * @throws IndexOutOfBoundsException if the {@code rank} is out of the range {@code [0, count())}
+     */
+    public double select(int rank) {
+        if (rank < 0 || rank >= count)
+            throw new IndexOutOfBoundsException("Rank " + rank + " out of range [0, " + count + ")");
+
+        int node = root;
+        while (true) {
+            int leftSize = sizeOf(left[node]);
+            if (rank < leftSize) {
+                node = left[node];
+            } else if (rank == leftSize) {
+                return data[node];
+            } else {
+                rank -= leftSize + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    /**
+     * Gives the quantile of the window, linearly interpolated between the closest ranks, i.e. the
+     * value at the fractional rank {@code (count()-1)*p}.
+     *
+     * @param p the probability, from {@code 0.0} (the minimum) to {@code 1.0} (the maximum)
+     * @return the quantile value
+     * @throws IllegalArgumentException if {@code p} is outside of the {@code [0, 1]} range
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double getQuantile(double p) {
+        if (!(p >= 0.0 && p <= 1.0))
+            throw new IllegalArgumentException("Probability " + p + " must be in [0, 1] range");
+        if (isEmpty())
+            throw new NoSuchElementException("Quantile window is empty");
+
+        double h = (count - 1) * p;
+        int lo = (int) h;
+        double value = select(lo);
+        double fraction = h - lo;
+        if (fraction > 0.0) {
+            double next = select(lo + 1);
+            if (next != value)
+                value += fraction * (next - value);
+        }
+        return value;
+    }
+
+    /**
+     * Gives the median of the window, being the mean of the two middle values if the count is even.
+     *
+     * @return the median value
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double getMedian() {
+        if (isEmpty())
+            throw new NoSuchElementException("Quantile window is empty");
+
+        double value = select(count / 2);
+        if ((count & 1) == 0)
+            value = (value + select(count / 2 - 1)) / 2.0;
+        return value;
+    }
+
+    /**
+     * Gives the interquartile range of the window, i.e. the difference between the 0.75 and 0.25 quantiles.
+     *
+     * @return the interquartile range
+     * @throws NoSuchElementException if the window is empty
+     */
+    public double getInterquartileRange() {
+        return getQuantile(0.75) - getQuantile(0.25);
+    }
+
+    private int nextPriority() {
+        int x = seed;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        return seed = x;
+    }
+
+    private int sizeOf(int node) {
+        return (node == NIL)? 0 : sizes[node];
+    }
+
+    private void update(int node) {
+        sizes[node] = sizeOf(left[node]) + sizeOf(right[node]) + 1;
+    }
+
+    private boolean isLess(int a, int b) {
+        int cmp = Double.compare(data[a], data[b]);
+        return cmp < 0 || cmp == 0 && seqs[a] < seqs[b];
+    }
+
+    private int rotateRight(int node) {
+        int pivot = left[node];
+        left[node] = right[pivot];
+        right[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int rotateLeft(int node) {
+        int pivot = right[node];
+        right[node] = left[pivot];
+        left[pivot] = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private int insert(int tree, int node) {
+        if (tree == NIL)
+            return node;
+
+        if (isLess(node, tree)) {
+            left[tree] = insert(left[tree], node);
+            if (priorities[left[tree]] > priorities[tree])
+                return rotateRight(tree);
+        } else {
+            right[tree] = insert(right[tree], node);
+            if (priorities[right[tree]] > priorities[tree])
+                return rotateLeft(tree);
+        }
+        update(tree);
+        return tree;
+    }
+
+    private int erase(int tree, int node) {
+        if (tree == node)
+            return merge(left[node], right[node]);
+
+        if (isLess(node, tree))
+            left[tree] = erase(left[tree], node);
+        else
+            right[tree] = erase(right[tree], node);
+        update(tree);
+        return tree;
+    }
+
+    private int merge(int a, int b) {
+        if (a == NIL)
+            return b;
+        if (b == NIL)
+            return a;
+
+        if (priorities[a] > priorities[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        } else {
+            left[b] = merge(a, left[b]);
+            update(b);
+            return b;
+        }
+    }
+}
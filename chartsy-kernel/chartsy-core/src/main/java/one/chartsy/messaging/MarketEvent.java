@@ -4,6 +4,7 @@
 package one.chartsy.messaging;
 
 import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.time.Chronological;
 
 /**
@@ -27,6 +28,12 @@ import one.chartsy.time.Chronological;
  * The generality of this interface allows uniform handling of diverse market events within the
  * processing pipeline. {@code MarketEvent}'s are consumed sequentially by {@link MarketMessageHandler}
  * implementations, forming the basis for strategies, analytical modules, and real-time decision-making.
+ * <p>
+ * <b>Copy if you retain:</b> the events are generally immutable, but a playback may recycle mutable,
+ * flyweight events, such as the {@link one.chartsy.messaging.data.MutableTradeBar}, which are valid only
+ * for the duration of the {@link MarketMessageHandler#onMarketMessage(MarketEvent)} call. The handlers
+ * keeping a reference to an event or to its payload beyond that call must keep its {@link #snapshot()}
+ * instead.
  *
  * @see Chronological
  * @see SymbolIdentity
@@ -34,6 +41,9 @@ import one.chartsy.time.Chronological;
  */
 public interface MarketEvent extends Chronological {
 
+    /** The {@link #instrumentId() instrument id} of the events not stamped by an {@link InstrumentRegistry}. */
+    int UNASSIGNED_ID = -1;
+
     /**
      * Returns the {@link SymbolIdentity} associated with this market event.
      * <p>
@@ -44,4 +54,24 @@ public interface MarketEvent extends Chronological {
      * @return the symbol identity for the associated market instrument, never {@code null}
      */
     SymbolIdentity symbol();
+
+    /**
+     * Returns the dense id of the instrument, assigned by the {@link InstrumentRegistry} of the current run,
+     * which lets the consumers keep the per-instrument state in arrays instead of maps keyed by the symbol.
+     *
+     * @return the instrument id, or {@link #UNASSIGNED_ID} if the event carries no id
+     */
+    default int instrumentId() {
+        return UNASSIGNED_ID;
+    }
+
+    /**
+     * Gives the immutable equivalent of this event, safe to retain beyond the current handler call.
+     * The immutable events return themselves.
+     *
+     * @return the immutable event
+     */
+    default MarketEvent snapshot() {
+        return this;
+    }
 }
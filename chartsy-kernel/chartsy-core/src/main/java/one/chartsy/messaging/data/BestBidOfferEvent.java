@@ -9,5 +9,9 @@ import one.chartsy.messaging.MarketDataEvent;
 
 public interface BestBidOfferEvent extends MarketDataEvent<BestBidOfferQuote> {
 
-    record Of(SymbolIdentity symbol, BestBidOfferQuote get) implements BestBidOfferEvent { }
+    record Of(SymbolIdentity symbol, BestBidOfferQuote get, int instrumentId) implements BestBidOfferEvent {
+        public Of(SymbolIdentity symbol, BestBidOfferQuote get) {
+            this(symbol, get, UNASSIGNED_ID);
+        }
+    }
 }
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.messaging.data;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.data.MutableCandle;
+import one.chartsy.messaging.MarketEvent;
+
+/**
+ * A mutable, flyweight {@link TradeBar}, recycled by a playback for all bars it delivers.
+ * <p>
+ * The event, including its {@link #get() candle}, is overwritten with the next bar once the current
+ * {@link one.chartsy.messaging.MarketMessageHandler#onMarketMessage(MarketEvent)} call returns, therefore
+ * the consumers must not retain it. The consumers needing the bar later should keep its {@link #snapshot()}
+ * or copy the required fields.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class MutableTradeBar implements TradeBar {
+
+    private final MutableCandle candle = new MutableCandle();
+    private SymbolIdentity symbol;
+    private int instrumentId = UNASSIGNED_ID;
+
+
+    /**
+     * Sets the instrument of this event.
+     *
+     * @param symbol       the instrument symbol
+     * @param instrumentId the instrument id, or {@link MarketEvent#UNASSIGNED_ID}
+     * @return this event
+     */
+    public MutableTradeBar setInstrument(SymbolIdentity symbol, int instrumentId) {
+        this.symbol = symbol;
+        this.instrumentId = instrumentId;
+        return this;
+    }
+
+    /**
+     * Gives the recycled candle of this event, which may be updated in place.
+     */
+    @Override
+    public MutableCandle get() {
+        return candle;
+    }
+
+    @Override
+    public long time() {
+        return candle.time();
+    }
+
+    @Override
+    public SymbolIdentity symbol() {
+        return symbol;
+    }
+
+    @Override
+    public int instrumentId() {
+        return instrumentId;
+    }
+
+    @Override
+    public TradeBar snapshot() {
+        return new TradeBar.Of(symbol, candle.toImmutable(), instrumentId);
+    }
+
+    @Override
+    public String toString() {
+        return "MutableTradeBar[symbol=" + symbol + ", get=" + candle + ", instrumentId=" + instrumentId + "]";
+    }
+}
@@ -9,5 +9,14 @@ import one.chartsy.messaging.MarketDataEvent;
 
 public interface TradeBar extends MarketDataEvent<Candle> {
 
-    record Of(SymbolIdentity symbol, Candle get) implements TradeBar { }
+    @Override
+    default TradeBar snapshot() {
+        return this;
+    }
+
+    record Of(SymbolIdentity symbol, Candle get, int instrumentId) implements TradeBar {
+        public Of(SymbolIdentity symbol, Candle get) {
+            this(symbol, get, UNASSIGNED_ID);
+        }
+    }
 }
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.messaging.data;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentRegistry;
+
+import java.util.Arrays;
+
+/**
+ * An append-only, columnar storage of a stream of {@link TradeBar}s, possibly of multiple symbols.
+ * <p>
+ * The bars are kept in primitive arrays, one per field, in the order of appending, and the symbols
+ * are kept as the dense indexes into a table of the distinct symbols. The stored bars may be replayed
+ * any number of times without allocations, by {@link #load(int, MutableTradeBar) loading} the rows into a
+ * recycled {@link MutableTradeBar}.
+ *
+ * @implNote This implementation is not thread-safe for appending. Once filled, it may be read concurrently.
+ *
+ * @author Mariusz Bernacki
+ */
+public class TradeBarColumns {
+
+    private final InstrumentRegistry symbols = new InstrumentRegistry();
+    private int[] symbolIndexes = new int[256];
+    private long[] times = new long[256];
+    private double[] opens = new double[256];
+    private double[] highs = new double[256];
+    private double[] lows = new double[256];
+    private double[] closes = new double[256];
+    private double[] volumes = new double[256];
+    private int size;
+
+
+    /**
+     * Appends the bar to the columns.
+     *
+     * @param bar the trade bar
+     */
+    public void add(TradeBar bar) {
+        int row = size;
+        if (row == times.length)
+            grow(row * 2);
+        Candle c = bar.get();
+        symbolIndexes[row] = symbols.resolve(bar);
+        times[row] = c.time();
+        opens[row] = c.open();
+        highs[row] = c.high();
+        lows[row] = c.low();
+        closes[row] = c.close();
+        volumes[row] = c.volume();
+        size = row + 1;
+    }
+
+    private void grow(int capacity) {
+        symbolIndexes = Arrays.copyOf(symbolIndexes, capacity);
+        times = Arrays.copyOf(times, capacity);
+        opens = Arrays.copyOf(opens, capacity);
+        highs = Arrays.copyOf(highs, capacity);
+        lows = Arrays.copyOf(lows, capacity);
+        closes = Arrays.copyOf(closes, capacity);
+        volumes = Arrays.copyOf(volumes, capacity);
+    }
+
+    /** Gives the number of stored bars. */
+    public int size() {
+        return size;
+    }
+
+    /** Gives the number of distinct symbols of the stored bars. */
+    public int symbolCount() {
+        return symbols.size();
+    }
+
+    /**
+     * Gives the symbol of the given index, the indexes being assigned in the order of the first appearance.
+     */
+    public SymbolIdentity symbol(int symbolIndex) {
+        return symbols.getSymbol(symbolIndex);
+    }
+
+    /** Gives the symbol index of the bar at the given row. */
+    public int symbolIndex(int row) {
+        return symbolIndexes[checkRow(row)];
+    }
+
+    /** Gives the time of the bar at the given row. */
+    public long time(int row) {
+        return times[checkRow(row)];
+    }
+
+    /**
+     * Loads the bar at the given row into the given recycled event, without changing its instrument.
+     *
+     * @param row    the row index
+     * @param target the event to overwrite
+     * @return the {@code target} event
+     */
+    public MutableTradeBar load(int row, MutableTradeBar target) {
+        checkRow(row);
+        target.get().set(times[row], opens[row], highs[row], lows[row], closes[row], volumes[row]);
+        return target;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size)
+            throw new IndexOutOfBoundsException("Row " + row + " out of range [0, " + size + ")");
+        return row;
+    }
+}
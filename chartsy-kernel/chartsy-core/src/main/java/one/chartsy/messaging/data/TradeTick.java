@@ -9,5 +9,9 @@ import one.chartsy.messaging.MarketDataEvent;
 
 public interface TradeTick extends MarketDataEvent<Tick> {
 
-    record Of(SymbolIdentity symbol, Tick get) implements TradeTick { }
+    record Of(SymbolIdentity symbol, Tick get, int instrumentId) implements TradeTick {
+        public Of(SymbolIdentity symbol, Tick get) {
+            this(symbol, get, UNASSIGNED_ID);
+        }
+    }
 }
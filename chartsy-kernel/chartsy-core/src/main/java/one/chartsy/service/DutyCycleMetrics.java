@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.service;
+
+/**
+ * The snapshot of duty cycle metrics of a {@link ServiceWorkerRunner}.
+ *
+ * @param cycles the number of duty cycles performed
+ * @param workCount the total amount of work done by the workers
+ * @param idleCycles the number of duty cycles in which no work was done
+ * @param idleNanos the total time spent in the idle strategy
+ * @param maxCycleNanos the longest time spent doing the work of a single duty cycle, excluding idling
+ *
+ * @author Mariusz Bernacki
+ */
+public record DutyCycleMetrics(long cycles, long workCount, long idleCycles, long idleNanos, long maxCycleNanos) {
+
+    /**
+     * Gives the average amount of work done per duty cycle.
+     */
+    public double workPerCycle() {
+        return (cycles == 0)? 0.0 : (double) workCount / cycles;
+    }
+
+    /**
+     * Gives the fraction of duty cycles in which some work was done.
+     */
+    public double busyRatio() {
+        return (cycles == 0)? 0.0 : (double) (cycles - idleCycles) / cycles;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Decides what a {@link ServiceWorkerRunner} thread does between the duty cycles in which no work
+ * was done, trading the reaction latency for the CPU usage.
+ * <p>
+ * The strategies, except {@link #busySpin()}, {@link #yielding()} and {@link #parking(long, TimeUnit)},
+ * are stateful and must not be shared between runners.
+ *
+ * @author Mariusz Bernacki
+ */
+public interface IdleStrategy {
+
+    /**
+     * Called after each duty cycle with the amount of work done in that cycle. The strategy idles
+     * if {@code workCount} is zero, and resets its state otherwise.
+     *
+     * @param workCount the amount of work done in the last duty cycle
+     */
+    default void idle(int workCount) {
+        if (workCount > 0)
+            reset();
+        else
+            idle();
+    }
+
+    /**
+     * Idles for a single period.
+     */
+    void idle();
+
+    /**
+     * Resets the internal state of the strategy, if any, after some work has been done.
+     */
+    default void reset() { }
+
+    /**
+     * Gives the strategy that spins continuously, for the lowest latency at the cost of a fully
+     * consumed CPU core.
+     */
+    static IdleStrategy busySpin() {
+        return BusySpin.INSTANCE;
+    }
+
+    /**
+     * Gives the strategy that yields the thread whenever idle.
+     */
+    static IdleStrategy yielding() {
+        return Yielding.INSTANCE;
+    }
+
+    /**
+     * Gives the strategy that parks the thread for the given period whenever idle.
+     *
+     * @param period the park period
+     * @param unit the unit of {@code period}
+     */
+    static IdleStrategy parking(long period, TimeUnit unit) {
+        return new Parking(unit.toNanos(period));
+    }
+
+    /**
+     * Gives the strategy that spins, then yields, and then parks the thread with exponentially
+     * growing periods, while the worker keeps idling.
+     *
+     * @param maxSpins the number of idle cycles spent spinning
+     * @param maxYields the number of idle cycles spent yielding, after spinning
+     * @param minParkNanos the initial park period
+     * @param maxParkNanos the maximum park period
+     */
+    static IdleStrategy backoff(int maxSpins, int maxYields, long minParkNanos, long maxParkNanos) {
+        return new Backoff(maxSpins, maxYields, minParkNanos, maxParkNanos);
+    }
+
+    /**
+     * Gives the {@link #backoff(int, int, long, long) backoff} strategy with default limits:
+     * 100 spins, 10 yields, and park periods between 1 microsecond and 1 millisecond.
+     */
+    static IdleStrategy backoff() {
+        return backoff(100, 10, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    final class BusySpin implements IdleStrategy {
+        private static final BusySpin INSTANCE = new BusySpin();
+
+        @Override
+        public void idle() {
+            Thread.onSpinWait();
+        }
+    }
+
+    final class Yielding implements IdleStrategy {
+        private static final Yielding INSTANCE = new Yielding();
+
+        @Override
+        public void idle() {
+            Thread.yield();
+        }
+    }
+
+    record Parking(long parkNanos) implements IdleStrategy {
+        public Parking {
+            if (parkNanos <= 0)
+                throw new IllegalArgumentException("parkNanos must be positive: " + parkNanos);
+        }
+
+        @Override
+        public void idle() {
+            LockSupport.parkNanos(parkNanos);
+        }
+    }
+
+    final class Backoff implements IdleStrategy {
+        private final int maxSpins;
+        private final int maxYields;
+        private final long minParkNanos;
+        private final long maxParkNanos;
+        private int spins;
+        private int yields;
+        private long parkNanos;
+
+        public Backoff(int maxSpins, int maxYields, long minParkNanos, long maxParkNanos) {
+            if (maxSpins < 0 || maxYields < 0)
+                throw new IllegalArgumentException("maxSpins and maxYields must not be negative");
+            if (minParkNanos <= 0 || maxParkNanos < minParkNanos)
+                throw new IllegalArgumentException("Invalid park period range: " + minParkNanos + ".." + maxParkNanos);
+            this.maxSpins = maxSpins;
+            this.maxYields = maxYields;
+            this.minParkNanos = minParkNanos;
+            this.maxParkNanos = maxParkNanos;
+            this.parkNanos = minParkNanos;
+        }
+
+        @Override
+        public void idle() {
+            if (spins < maxSpins) {
+                spins++;
+                Thread.onSpinWait();
+            } else if (yields < maxYields) {
+                yields++;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+                parkNanos = Math.min(parkNanos << 1, maxParkNanos);
+            }
+        }
+
+        @Override
+        public void reset() {
+            spins = 0;
+            yields = 0;
+            parkNanos = minParkNanos;
+        }
+    }
+}
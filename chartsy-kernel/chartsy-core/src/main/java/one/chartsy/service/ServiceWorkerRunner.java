@@ -0,0 +1,267 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.service;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the duty cycles of one or more {@link ServiceWorker}s on a single thread.
+ * <p>
+ * Each duty cycle calls {@link ServiceWorker#doWork()} on every worker in turn, which makes the
+ * runner a composite agent: several workers, e.g. an algorithm worker and the trade connector
+ * worker it talks to, may share a single thread without handing messages over between threads.
+ * When a cycle does no work, the runner consults its {@link IdleStrategy}, which decides between
+ * the reaction latency and the CPU usage.
+ * <p>
+ * The lifecycle of the workers is managed by the runner: the workers are {@link ServiceWorker#onOpen() opened}
+ * in the given order when the runner starts, and {@link ServiceWorker#onClose() closed} in the reverse
+ * order when it terminates. The runner terminates when it is {@link #close() closed}, when any of the workers
+ * {@link ServiceWorkerAware#wantsToClose() wants to close}, or when a worker fails. In the first two cases the
+ * workers receive the {@link ServiceWorkerAware#onCloseSignal() close signal} and the duty cycles continue until
+ * all workers are {@link ServiceWorkerAware#readyToClose() ready to close}.
+ * <p>
+ * The runner may be {@link #start() started} on its own platform or {@link #startVirtual() virtual} thread, or
+ * {@link #run() run} directly by the calling thread. While running, it collects the {@link #getMetrics() duty
+ * cycle metrics}, which can be read from any thread.
+ *
+ * @author Mariusz Bernacki
+ */
+public class ServiceWorkerRunner implements Runnable, AutoCloseable {
+
+    private final String name;
+    private final IdleStrategy idleStrategy;
+    private final List<ServiceWorker<?>> workers;
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final CountDownLatch terminated = new CountDownLatch(1);
+    private volatile boolean running = true;
+    private volatile Thread thread;
+    private volatile Throwable failure;
+
+    private final AtomicLong cycles = new AtomicLong();
+    private final AtomicLong workCount = new AtomicLong();
+    private final AtomicLong idleCycles = new AtomicLong();
+    private final AtomicLong idleNanos = new AtomicLong();
+    private final AtomicLong maxCycleNanos = new AtomicLong();
+
+
+    public ServiceWorkerRunner(String name, IdleStrategy idleStrategy, ServiceWorker<?>... workers) {
+        this(name, idleStrategy, List.of(workers));
+    }
+
+    public ServiceWorkerRunner(String name, IdleStrategy idleStrategy, List<? extends ServiceWorker<?>> workers) {
+        if (workers.isEmpty())
+            throw new IllegalArgumentException("At least one ServiceWorker is required");
+        this.name = Objects.requireNonNull(name, "name");
+        this.idleStrategy = Objects.requireNonNull(idleStrategy, "idleStrategy");
+        this.workers = List.copyOf(workers);
+    }
+
+    public final String getName() {
+        return name;
+    }
+
+    public final List<ServiceWorker<?>> getWorkers() {
+        return workers;
+    }
+
+    /**
+     * Starts the runner on a new platform thread named after the runner.
+     *
+     * @return the started thread
+     * @throws IllegalStateException if the runner has already been started
+     */
+    public Thread start() {
+        return start(Thread.ofPlatform().name(name));
+    }
+
+    /**
+     * Starts the runner on a new virtual thread named after the runner.
+     *
+     * @return the started thread
+     * @throws IllegalStateException if the runner has already been started
+     */
+    public Thread startVirtual() {
+        return start(Thread.ofVirtual().name(name));
+    }
+
+    /**
+     * Starts the runner on a new thread created by the given builder.
+     *
+     * @param builder the thread builder
+     * @return the started thread
+     * @throws IllegalStateException if the runner has already been started
+     */
+    public Thread start(Thread.Builder builder) {
+        markStarted();
+        try {
+            Thread thread = builder.unstarted(this::runWorkers);
+            this.thread = thread;
+            thread.start();
+            return thread;
+        } catch (RuntimeException | Error e) {
+            failure = e;
+            terminated.countDown();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs the workers on the calling thread, until the runner terminates.
+     *
+     * @throws IllegalStateException if the runner has already been started
+     */
+    @Override
+    public void run() {
+        markStarted();
+        thread = Thread.currentThread();
+        runWorkers();
+    }
+
+    private void markStarted() {
+        if (!started.compareAndSet(false, true))
+            throw new IllegalStateException("ServiceWorkerRunner `" + name + "` has already been started");
+    }
+
+    private void runWorkers() {
+        int opened = 0;
+        try {
+            for (ServiceWorker<?> worker : workers) {
+                worker.onOpen();
+                opened++;
+            }
+            doWorkLoop();
+        } catch (Throwable x) {
+            failure = x;
+        } finally {
+            closeWorkers(opened);
+            terminated.countDown();
+        }
+    }
+
+    private void closeWorkers(int opened) {
+        for (int i = opened - 1; i >= 0; i--) {
+            try {
+                workers.get(i).onClose();
+            } catch (Throwable x) {
+                if (failure == null)
+                    failure = x;
+                else
+                    failure.addSuppressed(x);
+            }
+        }
+    }
+
+    private void doWorkLoop() {
+        IdleStrategy idleStrategy = this.idleStrategy;
+        long cycles = 0, workCount = 0, idleCycles = 0, idleNanos = 0, maxCycleNanos = 0;
+
+        while (running && !wantsToClose()) {
+            long startTime = System.nanoTime();
+            int work = doCycle();
+            long endTime = System.nanoTime();
+
+            long cycleNanos = endTime - startTime;
+            if (cycleNanos > maxCycleNanos)
+                this.maxCycleNanos.setOpaque(maxCycleNanos = cycleNanos);
+            this.cycles.setOpaque(++cycles);
+            if (work > 0) {
+                this.workCount.setOpaque(workCount += work);
+                idleStrategy.reset();
+            } else {
+                this.idleCycles.setOpaque(++idleCycles);
+                idleStrategy.idle();
+                this.idleNanos.setOpaque(idleNanos += System.nanoTime() - endTime);
+            }
+        }
+
+        for (ServiceWorker<?> worker : workers)
+            worker.workerAware.onCloseSignal();
+        while (!readyToClose())
+            idleStrategy.idle(doCycle());
+    }
+
+    private int doCycle() {
+        int work = 0;
+        for (ServiceWorker<?> worker : workers)
+            work += worker.doWork();
+        return work;
+    }
+
+    private boolean wantsToClose() {
+        for (ServiceWorker<?> worker : workers)
+            if (worker.workerAware.wantsToClose())
+                return true;
+        return false;
+    }
+
+    private boolean readyToClose() {
+        for (ServiceWorker<?> worker : workers)
+            if (!worker.workerAware.readyToClose())
+                return false;
+        return true;
+    }
+
+    /**
+     * Tells whether the runner is still running, i.e. it has been started and has not terminated yet.
+     */
+    public boolean isRunning() {
+        return started.get() && terminated.getCount() > 0;
+    }
+
+    /**
+     * Gives the exception that terminated the runner, if any.
+     */
+    public Optional<Throwable> getFailure() {
+        return Optional.ofNullable(failure);
+    }
+
+    /**
+     * Gives the current duty cycle metrics of the runner.
+     */
+    public DutyCycleMetrics getMetrics() {
+        return new DutyCycleMetrics(cycles.getOpaque(), workCount.getOpaque(), idleCycles.getOpaque(),
+                idleNanos.getOpaque(), maxCycleNanos.getOpaque());
+    }
+
+    /**
+     * Waits for the runner to terminate.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of {@code timeout}
+     * @return {@code true} if the runner has terminated, {@code false} if the timeout elapsed first
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return terminated.await(timeout, unit);
+    }
+
+    /**
+     * Requests the runner to terminate and, unless called from the runner thread itself, waits until
+     * the workers are closed. Has no effect on the runner that has already terminated.
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (started.get() && Thread.currentThread() != thread) {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    terminated.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted)
+                Thread.currentThread().interrupt();
+        }
+    }
+}
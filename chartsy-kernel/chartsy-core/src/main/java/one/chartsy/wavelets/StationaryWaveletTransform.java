@@ -0,0 +1,169 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.wavelets;
+
+import one.chartsy.financial.AbstractDoubleIndicator;
+
+import java.util.Arrays;
+
+/**
+ * A streaming, causal stationary (à-trous) wavelet transform of a series of values.
+ * <p>
+ * Every new value updates the approximation and detail coefficients of all levels in {@code O(levels * taps)}
+ * time. The level {@code j} filters the approximation of the level {@code j-1} with the wavelet filters dilated
+ * by {@code 2^(j-1)}, whose history is kept in a ring buffer per level. No coefficients are decimated, thus every
+ * level yields a new coefficient on every value.
+ * <p>
+ * The coefficients are the same as those of the batch {@link DiscreteWaveletTransform}: for the window of
+ * values starting at time {@code s}, the coefficient {@code i} of the level {@code j} computed by the batch transform
+ * (unless wrapped around the window end) equals the coefficient of the level {@code j} given by this transform
+ * at time {@code s + 2^j * i + (2^j - 1) * (taps - 1)}. In particular, for the Haar wavelet the coefficients given
+ * after every value are the last coefficients of each level of the batch transform of the window ending at that value.
+ * <p>
+ * The {@link #getLast() last} value of the indicator is the approximation at the top level, i.e. a smoothed
+ * series lagging the input by {@link #getLag()} values.
+ *
+ * @author Mariusz Bernacki
+ */
+public class StationaryWaveletTransform extends AbstractDoubleIndicator {
+    private static final double SQRT_2 = 1.4142135623730950488;
+
+    private final Wavelet wavelet;
+    private final int levels;
+    private final double[] lowpass;
+    private final double[] highpass;
+    /** The ring buffers of the input approximations, one per level. */
+    private final double[][] history;
+    private final int[] historyMask;
+    private final int[] historySpan;
+    private final long[] historyCount;
+    private final double[] approximation;
+    private final double[] detail;
+    private int readyLevels;
+    private long count;
+
+
+    /**
+     * Constructs the transform of the given depth.
+     *
+     * @param wavelet the wavelet
+     * @param levels the number of decomposition levels
+     */
+    public StationaryWaveletTransform(Wavelet wavelet, int levels) {
+        if (levels <= 0 || levels > 24)
+            throw new IllegalArgumentException("Refinement level " + levels + " must be in range 1..24");
+        this.wavelet = wavelet;
+        this.levels = levels;
+        this.lowpass = wavelet.getPrimalLowpassCoefficients().clone();
+        double[] primalHighpass = wavelet.getPrimalHighpassCoefficients();
+        this.highpass = new double[lowpass.length];
+        System.arraycopy(primalHighpass, 0, highpass, 0, Math.min(primalHighpass.length, highpass.length));
+
+        this.history = new double[levels][];
+        this.historyMask = new int[levels];
+        this.historySpan = new int[levels];
+        this.historyCount = new long[levels];
+        for (int j = 0; j < levels; j++) {
+            int span = (lowpass.length - 1) * (1 << j) + 1;
+            int capacity = Integer.highestOneBit(span - 1) << 1;
+            history[j] = new double[Math.max(capacity, 1)];
+            historyMask[j] = history[j].length - 1;
+            historySpan[j] = span;
+        }
+        this.approximation = new double[levels];
+        this.detail = new double[levels];
+        Arrays.fill(approximation, Double.NaN);
+        Arrays.fill(detail, Double.NaN);
+    }
+
+    public final Wavelet getWavelet() {
+        return wavelet;
+    }
+
+    public final int getLevels() {
+        return levels;
+    }
+
+    @Override
+    public void accept(double value) {
+        count++;
+        double input = value;
+        for (int j = 0; j < levels; j++) {
+            double[] ring = history[j];
+            int mask = historyMask[j];
+            long n = historyCount[j]++;
+            ring[(int) n & mask] = input;
+            if (n + 1 < historySpan[j])
+                return;
+
+            // filter with the dilated wavelet taps, the oldest sample taking the first tap
+            int dilation = 1 << j;
+            long oldest = n - (long) (lowpass.length - 1) * dilation;
+            double a = 0.0, d = 0.0;
+            for (int k = 0; k < lowpass.length; k++) {
+                double x = ring[(int) (oldest + (long) k * dilation) & mask];
+                a += x * lowpass[k];
+                d += x * highpass[k];
+            }
+            approximation[j] = a * SQRT_2;
+            detail[j] = d * SQRT_2;
+            if (readyLevels <= j)
+                readyLevels = j + 1;
+            input = approximation[j];
+        }
+    }
+
+    /**
+     * Gives the number of levels with the coefficients already available.
+     */
+    public int getReadyLevels() {
+        return readyLevels;
+    }
+
+    /**
+     * Gives the last detail coefficient at the given level.
+     *
+     * @param level the level, from {@code 1} to {@link #getLevels()}
+     * @return the detail coefficient, or {@code NaN} if the level is not ready yet
+     */
+    public double getDetail(int level) {
+        return detail[level - 1];
+    }
+
+    /**
+     * Gives the last approximation coefficient at the given level.
+     *
+     * @param level the level, from {@code 1} to {@link #getLevels()}
+     * @return the approximation coefficient, or {@code NaN} if the level is not ready yet
+     */
+    public double getApproximation(int level) {
+        return approximation[level - 1];
+    }
+
+    /**
+     * Gives the number of values by which the top level coefficients lag the input, i.e. the number of
+     * values needed before the transform is ready, less one.
+     */
+    public int getLag() {
+        return (lowpass.length - 1) * ((1 << levels) - 1);
+    }
+
+    /**
+     * Gives the number of values accepted so far.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public double getLast() {
+        return approximation[levels - 1];
+    }
+
+    @Override
+    public boolean isReady() {
+        return readyLevels == levels;
+    }
+}
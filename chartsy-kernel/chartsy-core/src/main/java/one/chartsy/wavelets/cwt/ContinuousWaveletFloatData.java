@@ -0,0 +1,67 @@
+package one.chartsy.wavelets.cwt;
+
+/**
+ * CWT result with the coefficients stored in the float precision, one row per scale.
+ *
+ * @see ContinuousWaveletTransform#transformToFloat(double[], double[], double[])
+ */
+public class ContinuousWaveletFloatData {
+    private final double[] scales;
+    private final float[][] re;
+    private final float[][] im;
+
+    public ContinuousWaveletFloatData(double[] scales, float[][] re, float[][] im) {
+        if (scales.length != re.length || scales.length != im.length)
+            throw new IllegalArgumentException("Rows number mismatch");
+        this.scales = scales;
+        this.re = re;
+        this.im = im;
+    }
+
+    public double[] getScales() {
+        return scales;
+    }
+
+    /**
+     * Get rows count, i.e. the number of scales
+     */
+    public int rows() {
+        return scales.length;
+    }
+
+    /**
+     * Get columns count, i.e. the signal length
+     */
+    public int cols() {
+        return (re.length == 0)? 0 : re[0].length;
+    }
+
+    /**
+     * Get real coefficients of the given row.
+     */
+    public float[] re(int row) {
+        return re[row];
+    }
+
+    /**
+     * Get imaginary coefficients of the given row.
+     */
+    public float[] im(int row) {
+        return im[row];
+    }
+
+    /**
+     * Get magnitude for given row and column.
+     */
+    public double mag(int row, int col) {
+        double r = re[row][col], i = im[row][col];
+        return Math.sqrt(r*r + i*i);
+    }
+
+    /**
+     * Get angle for given row and column.
+     */
+    public double ang(int row, int col) {
+        return Math.atan2(im[row][col], re[row][col]);
+    }
+}
@@ -1,21 +1,66 @@
 package one.chartsy.wavelets.cwt;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
  * Collection of CWT algorithms (and CWT helpers)
+ * <p>
+ * The transform is computed in the frequency domain: the signal spectrum is multiplied by the spectrum of
+ * the wavelet dilated to every scale, and transformed back. The wavelet spectra, i.e. the filter bank, depend
+ * only on the signal length and the scales, thus they are computed once and cached, along with the Fourier plan
+ * of the given length. The spectrum of a real signal is computed by the half-length {@link RealFourier real transform},
+ * and the lengths other than powers of two are transformed by the mixed-radix algorithm, where possible, thus
+ * the signal need not be padded. The scales are transformed sequentially, or in parallel on the {@link ForkJoinPool}
+ * given explicitly to the constructor, each scale writing directly into its own row of the result.
+ *
+ * @implNote The instances are thread-safe, provided that the wavelet is.
  */
 public final class ContinuousWaveletTransform {
-    
+
+    /** The maximum number of filter banks kept in the cache. */
+    private static final int FILTER_BANK_CACHE_SIZE = 8;
+    /** The minimum amount of work, in complex multiplications, worth to be forked into a separate task. */
+    private static final int PARALLEL_THRESHOLD = 1 << 14;
+
     private final Wavelet wavelet;
-    
+
     private final double sampleRate = 1.;
-    
+
     private final int voices = 4;
-    
+
+    private final ForkJoinPool pool;
+
+    private final Map<FilterBankKey, FilterBank> filterBanks = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<FilterBankKey, FilterBank> eldest) {
+            return size() > FILTER_BANK_CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Constructs the transform computing the scales sequentially, in the calling thread.
+     *
+     * @param wavelet the mother wavelet
+     */
     public ContinuousWaveletTransform(Wavelet wavelet) {
+        this(wavelet, null);
+    }
+
+    /**
+     * Constructs the transform computing the scales in parallel on the given pool.
+     *
+     * @param wavelet the mother wavelet
+     * @param pool the pool running the parallel computations, or {@code null} to compute the scales sequentially
+     */
+    public ContinuousWaveletTransform(Wavelet wavelet, ForkJoinPool pool) {
         this.wavelet = wavelet;
+        this.pool = pool;
     }
-    
+
     protected double[] createScales(int noct, int nvoc) {
         double[] scales = new double[noct * nvoc];
         int k = 0;
@@ -24,20 +69,25 @@ public final class ContinuousWaveletTransform {
                 scales[k++] = createScale(oct, voc, nvoc);
         return scales;
     }
-    
+
     protected double createScale(int oct, int voc, int nvoc) {
         double scale = 1.0 / wavelet.getFourierFactor();
         return scale * Math.pow(2.0, oct + (voc + 1)/(double)nvoc);
     }
-    
+
+    /**
+     * Gives the default scales of the signal of the given length, spanning all octaves up to half of the length.
+     */
+    public double[] createScales(int length) {
+        int octaves = Integer.numberOfTrailingZeros(Integer.highestOneBit(length/2));
+        return createScales(octaves, voices);
+    }
+
     /**
-     * CWT computation using FFT (fast Fourier transform).
+     * CWT computation using FFT (fast Fourier transform) at the {@link #createScales(int) default scales}.
      *
-     *  @param s             source signal need to be transformed;
-     *  @param Scales        functor which provides scales sequence for
-     *                       transform;
-     *  @param MotherWavelet mother wavelet used in computations;
-     *  @param Name          name which will be assigned to result object.
+     *  @param f_re real part of the signal, left unchanged
+     *  @param f_im imaginary part of the signal, left unchanged
      *
      *  @return Returns ContinuousWaveletData obect as a result.
      */
@@ -45,75 +95,222 @@ public final class ContinuousWaveletTransform {
     {
         if (f_re.length != f_im.length)
             throw new IllegalArgumentException("Array size mismatch");
-        
-        // Result
-        ContinuousWaveletData wt;
-        // indexes and dimensions
-        int rows, cols;
-        // signal params
+
         int n = f_re.length;
-        // references to internal data
-        double wt_re[], wt_im[];
-        // variables for wavelet computation
-        double w, W_re, W_im;
-        // precomputed values
-        int dy_cols, dy_cols_dx;
-        double sqrt_a_n;
-        double twoPIn = 2.0 * Math.PI / (double)n;
-        
-        
-        // create result object
         int octaves = Integer.numberOfTrailingZeros(Integer.highestOneBit(n/2));
-        wt = new ContinuousWaveletData(f_re.length, wavelet, octaves, voices, createScales(octaves, voices));
-        
-        // obtain result dimensions and data references
-        rows = wt.rows();
-        cols = wt.cols();
-        
-        // forward Fourier transform of a signal copy
-        Fourier.inverseTransform(f_re, f_im);
-        
-        // Scales
-        for (double a : wt.getScales())
-        {
-            // get current scale
-            //a = Scales.evaluate(dy) * sampleRate;
-            a *= sampleRate;
-            if (a == 0.0) a = Double.MIN_VALUE;
-            
-            sqrt_a_n = Math.sqrt(a) / (double)n; // precompution
-            
-            // precomputed starting index of result row
-            dy_cols = 0;//dy * cols;
-            wt_re = new double[n];
-            wt_im = new double[n];
-            
-            // Convolute
-            for (int dx = 0; dx < cols; dx++)
-            {
-                // calculate wave number w
-                if (dx<=n>>1)
-                    w = +twoPIn * a * (double)(dx);
-                else
-                    w = -twoPIn * a * (double)(n-dx);
-                
-                // calculate wavelet
-                W_re = sqrt_a_n * wavelet.reF(w);
-                W_im = sqrt_a_n * wavelet.imF(w);
-                
-                // index of result point
-                dy_cols_dx = dy_cols + dx;
-                
-                // compute result
-                wt_re[dy_cols_dx] = f_re[dx] * W_re + f_im[dx] * W_im;
-                wt_im[dy_cols_dx] = f_im[dx] * W_re - f_re[dx] * W_im;
+        var wt = new ContinuousWaveletData(n, wavelet, octaves, voices, createScales(octaves, voices));
+
+        var bank = getFilterBank(n, wt.getScales());
+        var spectrum = bank.spectrumOf(f_re, f_im);
+        int rows = wt.rows();
+        double[][] wt_re = new double[rows][n], wt_im = new double[rows][n];
+        forEachScale(bank, (from, to) -> {
+            for (int row = from; row < to; row++)
+                bank.convolve(row, spectrum, wt_re[row], wt_im[row]);
+        });
+        wt.getRealCoeffs().addAll(Arrays.asList(wt_re));
+        wt.getImagCoeffs().addAll(Arrays.asList(wt_im));
+        return wt;
+    }
+
+    /**
+     * CWT computation with the float-precision output at the {@link #createScales(int) default scales}.
+     * The computations are carried out in the double precision, reusing a single pair of work buffers per task,
+     * only the stored coefficients are rounded, which halves the memory footprint of the result.
+     *
+     *  @param f_re real part of the signal, left unchanged
+     *  @param f_im imaginary part of the signal, left unchanged
+     *  @return the transform coefficients
+     */
+    public ContinuousWaveletFloatData transformToFloat(double[] f_re, double[] f_im)
+    {
+        return transformToFloat(f_re, f_im, createScales(f_re.length));
+    }
+
+    /**
+     * CWT computation with the float-precision output at the given scales.
+     *
+     *  @param f_re real part of the signal, left unchanged
+     *  @param f_im imaginary part of the signal, left unchanged
+     *  @param scales the scales of the transform
+     *  @return the transform coefficients
+     */
+    public ContinuousWaveletFloatData transformToFloat(double[] f_re, double[] f_im, double[] scales)
+    {
+        if (f_re.length != f_im.length)
+            throw new IllegalArgumentException("Array size mismatch");
+
+        int n = f_re.length;
+        var bank = getFilterBank(n, scales);
+        var spectrum = bank.spectrumOf(f_re, f_im);
+        float[][] wt_re = new float[scales.length][n], wt_im = new float[scales.length][n];
+        forEachScale(bank, (from, to) -> {
+            double[] work_re = new double[n], work_im = new double[n];
+            for (int row = from; row < to; row++) {
+                bank.convolve(row, spectrum, work_re, work_im);
+                float[] re = wt_re[row], im = wt_im[row];
+                for (int i = 0; i < n; i++) {
+                    re[i] = (float) work_re[i];
+                    im[i] = (float) work_im[i];
+                }
+            }
+        });
+        return new ContinuousWaveletFloatData(bank.scales(), wt_re, wt_im);
+    }
+
+    /**
+     * Gives the filter bank of the given signal length and scales, computing it if not cached already.
+     */
+    FilterBank getFilterBank(int n, double[] scales) {
+        var key = new FilterBankKey(n, scales.clone());
+        FilterBank bank;
+        synchronized (filterBanks) {
+            bank = filterBanks.get(key);
+        }
+        if (bank == null) {
+            var newBank = new FilterBank(n, key.scales());
+            forEachScale(newBank, newBank::computeFilters);
+            synchronized (filterBanks) {
+                bank = filterBanks.putIfAbsent(key, newBank);
+            }
+            if (bank == null)
+                bank = newBank;
+        }
+        return bank;
+    }
+
+    @FunctionalInterface
+    private interface ScaleRangeAction {
+        void compute(int from, int to);
+    }
+
+    private void forEachScale(FilterBank bank, ScaleRangeAction action) {
+        int rows = bank.scales().length;
+        int minRowsPerTask = Math.max(1, PARALLEL_THRESHOLD / bank.length());
+        if (pool == null || rows <= minRowsPerTask)
+            action.compute(0, rows);
+        else
+            pool.invoke(new ScaleRangeTask(action, 0, rows, minRowsPerTask));
+    }
+
+    private static final class ScaleRangeTask extends RecursiveAction {
+        private final ScaleRangeAction action;
+        private final int from, to, minRows;
+
+        ScaleRangeTask(ScaleRangeAction action, int from, int to, int minRows) {
+            this.action = action;
+            this.from = from;
+            this.to = to;
+            this.minRows = minRows;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= minRows) {
+                action.compute(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new ScaleRangeTask(action, from, mid, minRows), new ScaleRangeTask(action, mid, to, minRows));
+            }
+        }
+    }
+
+    private record FilterBankKey(int length, double[] scales) {
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof FilterBankKey that && length == that.length && Arrays.equals(scales, that.scales);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * length + Arrays.hashCode(scales);
+        }
+    }
+
+    /**
+     * The wavelet spectra at the given scales, sampled at the frequency bins of the signal of the given length,
+     * together with the Fourier plan of that length.
+     */
+    final class FilterBank {
+        private final int n;
+        private final double[] scales;
+        private final double[][] filter_re, filter_im;
+        private final Fourier fourier;
+        private final RealFourier realFourier;
+
+        FilterBank(int n, double[] scales) {
+            this.n = n;
+            this.scales = scales;
+            this.filter_re = new double[scales.length][];
+            this.filter_im = new double[scales.length][];
+            this.fourier = new Fourier(n);
+            this.realFourier = new RealFourier(n);
+        }
+
+        int length() {
+            return n;
+        }
+
+        double[] scales() {
+            return scales;
+        }
+
+        void computeFilters(int from, int to) {
+            double twoPIn = 2.0 * Math.PI / (double)n;
+            for (int row = from; row < to; row++) {
+                double a = scales[row] * sampleRate;
+                if (a == 0.0) a = Double.MIN_VALUE;
+
+                double sqrt_a_n = Math.sqrt(a) / (double)n;
+                double[] W_re = new double[n], W_im = new double[n];
+                for (int dx = 0; dx < n; dx++) {
+                    // calculate wave number w
+                    double w = (dx <= n>>1)? +twoPIn * a * (double)(dx) : -twoPIn * a * (double)(n-dx);
+                    W_re[dx] = sqrt_a_n * wavelet.reF(w);
+                    W_im[dx] = sqrt_a_n * wavelet.imF(w);
+                }
+                filter_re[row] = W_re;
+                filter_im[row] = W_im;
+            }
+        }
+
+        /** Gives the spectrum of a copy of the signal, using the half-length transform if the signal is real. */
+        double[][] spectrumOf(double[] f_re, double[] f_im) {
+            if (!isReal(f_im)) {
+                double[] re = f_re.clone(), im = f_im.clone();
+                fourier.inverse(re, im);
+                return new double[][] { re, im };
+            }
+            // the inverse transform of a real signal is the conjugated forward transform
+            double[] re = new double[n], im = new double[n];
+            realFourier.forward(f_re, re, im);
+            int half = n / 2;
+            for (int dx = 0; dx <= half; dx++)
+                im[dx] = -im[dx];
+            for (int dx = half + 1; dx < n; dx++) {
+                re[dx] = re[n - dx];
+                im[dx] = -im[n - dx];
+            }
+            return new double[][] { re, im };
+        }
+
+        private static boolean isReal(double[] f_im) {
+            for (double v : f_im)
+                if (v != 0.0)
+                    return false;
+            return true;
+        }
+
+        /** Convolutes the signal spectrum with the wavelet at the given scale, writing the result into the given arrays. */
+        void convolve(int row, double[][] spectrum, double[] wt_re, double[] wt_im) {
+            double[] f_re = spectrum[0], f_im = spectrum[1];
+            double[] W_re = filter_re[row], W_im = filter_im[row];
+            for (int dx = 0; dx < n; dx++) {
+                wt_re[dx] = f_re[dx] * W_re[dx] + f_im[dx] * W_im[dx];
+                wt_im[dx] = f_im[dx] * W_re[dx] - f_re[dx] * W_im[dx];
             }
             // inverse Fourier transform
-            Fourier.transform(wt_re, wt_im);
-            wt.getRealCoeffs().add(wt_re);
-            wt.getImagCoeffs().add(wt_im);
+            fourier.forward(wt_re, wt_im);
         }
-        
-        return wt;
     }
 }
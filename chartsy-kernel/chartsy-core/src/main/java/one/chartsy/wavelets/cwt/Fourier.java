@@ -4,9 +4,19 @@
  */
 package one.chartsy.wavelets.cwt;
 
-import java.lang.ref.SoftReference;
-import java.util.BitSet;
+import java.util.Arrays;
 
+/**
+ * The fast Fourier transform plan of a fixed length.
+ * <p>
+ * The plan chooses the algorithm by the transform length: the radix-2 decimation-in-time algorithm
+ * for the powers of two, the {@link MixedRadix mixed-radix} algorithm for the lengths having no prime
+ * factors other than 2, 3 and 5, and the Bluestein's algorithm for all other lengths. The trigonometric
+ * tables are computed once, when the plan is created, thus the plan should be reused when transforming
+ * many vectors of the same length. The plans are immutable and may be shared by concurrent threads.
+ * <p>
+ * The real-valued signals are transformed more efficiently by the {@link RealFourier} plan.
+ */
 public class Fourier {
     /** The current object fourier transform length. */
     private final int length;
@@ -20,16 +30,73 @@ public class Fourier {
             throw new IllegalArgumentException("Length parameter " + length + " must be a positive integer");
         if ((length & (length - 1)) == 0) // Is power of 2
             method = new Radix2DIT(length);
+        else if (MixedRadix.isSupported(length))
+            method = new MixedRadix(length);
         else  // More complicated algorithm for arbitrary sizes
             method = new BluesteinFFT(length);
     }
     
     public interface Method {
         
+        /**
+         * Transforms in place the first {@code length} elements of the given arrays, where {@code length}
+         * is the length the method was created for.
+         */
         void fft(double[] re, double[] im);
         
     }
     
+    /**
+     * Gives the smallest length not less than {@code n}, which has no prime factors other than 2, 3 and 5,
+     * i.e. the nearest length transformed without falling back to the Bluestein's algorithm. Padding the
+     * signal to such a length is usually much shorter than padding to the next power of two.
+     *
+     * @param n the minimal length
+     * @return the fast transform length
+     */
+    public static int nextFastLength(int n) {
+        if (n <= 1)
+            return 1;
+        int best = Integer.MAX_VALUE;
+        for (long p5 = 1; p5 < best; p5 *= 5)
+            for (long p35 = p5; p35 < best; p35 *= 3) {
+                long p = p35;
+                while (p < n)
+                    p <<= 1;
+                if (p < best)
+                    best = (int) p;
+            }
+        return best;
+    }
+    
+    private static void checkLength(double[] re, double[] im, int length) {
+        if (re.length < length || im.length < length)
+            throw new IllegalArgumentException("Arrays shorter than the transform length " + length);
+    }
+    
+    /**
+     * Gives the transform length of this plan.
+     */
+    public final int length() {
+        return length;
+    }
+    
+    /**
+     * Computes the forward transform in place, like {@link #transform(double[], double[])}, reusing
+     * the trigonometric tables of this plan. Only the first {@link #length()} elements are transformed.
+     */
+    public void forward(double[] re, double[] im) {
+        method.fft(re, im);
+    }
+    
+    /**
+     * Computes the inverse transform in place, like {@link #inverseTransform(double[], double[])}, reusing
+     * the trigonometric tables of this plan. Only the first {@link #length()} elements are transformed.
+     */
+    public void inverse(double[] re, double[] im) {
+        method.fft(im, re);
+    }
+    
     /**
      * Computes the discrete Fourier transform (DFT) of the given complex vector, storing the result back into the vector.
      * The vector can have any length.
@@ -97,9 +164,8 @@ public class Fourier {
         @Override
         public void fft(double[] re, double[] im) {
             // Initialization
-            if (re.length != im.length)
-                throw new IllegalArgumentException("Mismatched lengths");
-            int n = re.length;
+            int n = length;
+            checkLength(re, im, n);
             int levels = 31 - Integer.numberOfLeadingZeros(n);  // Equal to floor(log2(n))
             if (1 << levels != n)
                 throw new IllegalArgumentException("Length is not a power of 2");
@@ -138,6 +204,10 @@ public class Fourier {
         private final int length;
         /** The trigonometric tables of the transform. */
         private final double[] cosTable, sinTable;
+        /** The power-of-2 convolution plan. */
+        private final Radix2DIT convolution;
+        /** The spectrum of the chirp, scaled by the reciprocal of the convolution length. */
+        private final double[] chirpRe, chirpIm;
         
         BluesteinFFT(int length) {
             if (length >= 0x20000000)
@@ -153,24 +223,38 @@ public class Fourier {
                 cosTable[i] = Math.cos(angle * j);
                 sinTable[i] = Math.sin(angle * j);
             }
+            
+            // Find a power-of-2 convolution length m such that m >= n * 2 + 1
+            int m = Integer.highestOneBit(1 + 2*length) << 1;
+            convolution = new Radix2DIT(m);
+            chirpRe = new double[m];
+            chirpIm = new double[m];
+            chirpRe[0] = cosTable[0];
+            chirpIm[0] = sinTable[0];
+            for (int i = 1; i < length; i++) {
+                chirpRe[i] = chirpRe[m - i] = cosTable[i];
+                chirpIm[i] = chirpIm[m - i] = sinTable[i];
+            }
+            convolution.fft(chirpRe, chirpIm);
+            double scale = 1.0/m;  // Scaling (because this FFT implementation omits it)
+            for (int i = 0; i < m; i++) {
+                chirpRe[i] *= scale;
+                chirpIm[i] *= scale;
+            }
         }
         
         /**
          * Computes the discrete Fourier transform (DFT) of the given complex
          * vector, storing the result back into the vector. The vector can have
-         * any length. This requires the convolution function, which in turn
-         * requires the radix-2 FFT function. Uses Bluestein's chirp z-transform
+         * any length. This requires the circular convolution with the chirp,
+         * computed by the radix-2 FFT function. Uses Bluestein's chirp z-transform
          * algorithm.
          */
         @Override
         public void fft(double[] re, double[] im) {
-            // Find a power-of-2 convolution length m such that m >= n * 2 + 1
-            if (re.length != im.length)
-                throw new IllegalArgumentException("Mismatched lengths");
-            int n = re.length;
-            if (n != this.length)
-                throw new IllegalArgumentException("Expected transform size " + this.length);
-            int m = Integer.highestOneBit(1 + 2*n) << 1;
+            int n = length;
+            checkLength(re, im, n);
+            int m = chirpRe.length;
             
             // Temporary vectors and preprocessing
             double[] re1 = new double[m];
@@ -179,17 +263,15 @@ public class Fourier {
                 re1[i] =  re[i] * cosTable[i] + im[i] * sinTable[i];
                 im1[i] = -re[i] * sinTable[i] + im[i] * cosTable[i];
             }
-            double[] re2 = new double[m];
-            double[] im2 = new double[m];
-            re2[0] = cosTable[0];
-            im2[0] = sinTable[0];
-            for (int i = 1; i < n; i++) {
-                re2[i] = re2[m - i] = cosTable[i];
-                im2[i] = im2[m - i] = sinTable[i];
-            }
             
             // Convolution
-            convolve(re1, im1, re2, im2);
+            convolution.fft(re1, im1);
+            for (int i = 0; i < m; i++) {
+                double r0 = re1[i]*chirpRe[i] - im1[i]*chirpIm[i];
+                im1[i] = im1[i]*chirpRe[i] + re1[i]*chirpIm[i];
+                re1[i] = r0;
+            }
+            convolution.fft(im1, re1);
             
             // Postprocessing
             for (int i = 0; i < n; i++) {
@@ -197,30 +279,184 @@ public class Fourier {
                 im[i] = -re1[i] * sinTable[i] + im1[i] * cosTable[i];
             }
         }
+    }
+    
+    /**
+     * The self-sorting (Stockham) mixed-radix decimation-in-frequency algorithm, for the lengths
+     * having no prime factors other than 2, 3 and 5. The transform is computed in radix-4, radix-2,
+     * radix-3 and radix-5 passes, alternating between the given arrays and a work buffer, which
+     * avoids both the digit-reversal permutation and the padding of the signal.
+     */
+    static class MixedRadix implements Method {
+        private static final double SIN_60 = Math.sqrt(0.75);
+        private static final double COS_72 = Math.cos(2 * Math.PI / 5), SIN_72 = Math.sin(2 * Math.PI / 5);
+        private static final double COS_144 = Math.cos(4 * Math.PI / 5), SIN_144 = Math.sin(4 * Math.PI / 5);
         
-        /**
-         * Computes the circular convolution of the given complex vectors. Each
-         * vector's length must be the same.
-         */
-        protected static void convolve(double[] re1, double[] im1, double[] re2, double[] im2) {
-            if (re1.length != im1.length || re1.length != re2.length || re2.length != im2.length)
-                throw new IllegalArgumentException("Mismatched lengths");
-            
-            int n = re1.length;
-            
-            Fourier fft = new Fourier(n);
-            Fourier.transform(re1, im1);
-            Fourier.transform(re2, im2);
-            for (int i = 0; i < n; i++) {
-                double r0 = re1[i]*re2[i] - im1[i]*im2[i];
-                im1[i] = im1[i]*re2[i] + re1[i]*im2[i];
-                re1[i] = r0;
+        /** Transform length supported by this method. */
+        private final int length;
+        /** The radices of the subsequent passes. */
+        private final int[] radices;
+        /** The trigonometric tables of the transform. */
+        private final double[] cosTable, sinTable;
+        
+        MixedRadix(int length) {
+            if (!isSupported(length))
+                throw new IllegalArgumentException("Length " + length + " has prime factors other than 2, 3 and 5");
+            this.length = length;
+            this.radices = factorize(length);
+            cosTable = new double[length];
+            sinTable = new double[length];
+            double angle = 2 * Math.PI / length;
+            for (int i = 0; i < length; i++) {
+                cosTable[i] = Math.cos(angle * i);
+                sinTable[i] = Math.sin(angle * i);
             }
-            inverseTransform(re1, im1);
-            double scale = 1.0/n;
-            for (int i = 0; i < n; i++) {  // Scaling (because this FFT implementation omits it)
-                re1[i] *= scale;
-                im1[i] *= scale;
+        }
+        
+        static boolean isSupported(int length) {
+            if (length <= 0)
+                return false;
+            for (int p : new int[] { 2, 3, 5 })
+                while (length % p == 0)
+                    length /= p;
+            return length == 1;
+        }
+        
+        private static int[] factorize(int length) {
+            int[] radices = new int[32];
+            int count = 0;
+            for (int p : new int[] { 4, 2, 3, 5 })
+                while (length % p == 0) {
+                    radices[count++] = p;
+                    length /= p;
+                }
+            return Arrays.copyOf(radices, count);
+        }
+        
+        @Override
+        public void fft(double[] re, double[] im) {
+            int n = length;
+            checkLength(re, im, n);
+            double[] xr = re, xi = im, yr = new double[n], yi = new double[n];
+            int stride = 1, len = n;
+            for (int radix : radices) {
+                int m = len / radix, tableStep = n / len;
+                switch (radix) {
+                    case 2 -> pass2(xr, xi, yr, yi, stride, m, tableStep);
+                    case 3 -> pass3(xr, xi, yr, yi, stride, m, tableStep);
+                    case 4 -> pass4(xr, xi, yr, yi, stride, m, tableStep);
+                    case 5 -> pass5(xr, xi, yr, yi, stride, m, tableStep);
+                    default -> throw new AssertionError(radix);
+                }
+                double[] tr = xr, ti = xi;
+                xr = yr; xi = yi;
+                yr = tr; yi = ti;
+                stride *= radix;
+                len = m;
+            }
+            if (xr != re) {
+                System.arraycopy(xr, 0, re, 0, n);
+                System.arraycopy(xi, 0, im, 0, n);
+            }
+        }
+        
+        private void pass2(double[] xr, double[] xi, double[] yr, double[] yi, int s, int m, int tableStep) {
+            for (int p = 0; p < m; p++) {
+                double c1 = cosTable[p * tableStep], s1 = sinTable[p * tableStep];
+                for (int q = 0; q < s; q++) {
+                    int i0 = q + s*p, i1 = i0 + s*m;
+                    int o0 = q + s*2*p, o1 = o0 + s;
+                    double ar = xr[i0] - xr[i1], ai = xi[i0] - xi[i1];
+                    yr[o0] = xr[i0] + xr[i1];
+                    yi[o0] = xi[i0] + xi[i1];
+                    yr[o1] = ar * c1 + ai * s1;
+                    yi[o1] = ai * c1 - ar * s1;
+                }
+            }
+        }
+        
+        private void pass3(double[] xr, double[] xi, double[] yr, double[] yi, int s, int m, int tableStep) {
+            for (int p = 0; p < m; p++) {
+                double c1 = cosTable[p * tableStep], s1 = sinTable[p * tableStep];
+                double c2 = cosTable[2 * p * tableStep], s2 = sinTable[2 * p * tableStep];
+                for (int q = 0; q < s; q++) {
+                    int i0 = q + s*p, i1 = i0 + s*m, i2 = i1 + s*m;
+                    int o0 = q + s*3*p, o1 = o0 + s, o2 = o1 + s;
+                    double t1r = xr[i1] + xr[i2], t1i = xi[i1] + xi[i2];
+                    double t2r = SIN_60 * (xr[i1] - xr[i2]), t2i = SIN_60 * (xi[i1] - xi[i2]);
+                    double mr = xr[i0] - 0.5 * t1r, mi = xi[i0] - 0.5 * t1i;
+                    yr[o0] = xr[i0] + t1r;
+                    yi[o0] = xi[i0] + t1i;
+                    double b1r = mr + t2i, b1i = mi - t2r;
+                    double b2r = mr - t2i, b2i = mi + t2r;
+                    yr[o1] = b1r * c1 + b1i * s1;
+                    yi[o1] = b1i * c1 - b1r * s1;
+                    yr[o2] = b2r * c2 + b2i * s2;
+                    yi[o2] = b2i * c2 - b2r * s2;
+                }
+            }
+        }
+        
+        private void pass4(double[] xr, double[] xi, double[] yr, double[] yi, int s, int m, int tableStep) {
+            for (int p = 0; p < m; p++) {
+                double c1 = cosTable[p * tableStep], s1 = sinTable[p * tableStep];
+                double c2 = cosTable[2 * p * tableStep], s2 = sinTable[2 * p * tableStep];
+                double c3 = cosTable[3 * p * tableStep], s3 = sinTable[3 * p * tableStep];
+                for (int q = 0; q < s; q++) {
+                    int i0 = q + s*p, i1 = i0 + s*m, i2 = i1 + s*m, i3 = i2 + s*m;
+                    int o0 = q + s*4*p, o1 = o0 + s, o2 = o1 + s, o3 = o2 + s;
+                    double t0r = xr[i0] + xr[i2], t0i = xi[i0] + xi[i2];
+                    double t1r = xr[i0] - xr[i2], t1i = xi[i0] - xi[i2];
+                    double t2r = xr[i1] + xr[i3], t2i = xi[i1] + xi[i3];
+                    double t3r = xr[i1] - xr[i3], t3i = xi[i1] - xi[i3];
+                    yr[o0] = t0r + t2r;
+                    yi[o0] = t0i + t2i;
+                    double b1r = t1r + t3i, b1i = t1i - t3r;
+                    double b2r = t0r - t2r, b2i = t0i - t2i;
+                    double b3r = t1r - t3i, b3i = t1i + t3r;
+                    yr[o1] = b1r * c1 + b1i * s1;
+                    yi[o1] = b1i * c1 - b1r * s1;
+                    yr[o2] = b2r * c2 + b2i * s2;
+                    yi[o2] = b2i * c2 - b2r * s2;
+                    yr[o3] = b3r * c3 + b3i * s3;
+                    yi[o3] = b3i * c3 - b3r * s3;
+                }
+            }
+        }
+        
+        private void pass5(double[] xr, double[] xi, double[] yr, double[] yi, int s, int m, int tableStep) {
+            for (int p = 0; p < m; p++) {
+                double c1 = cosTable[p * tableStep], s1 = sinTable[p * tableStep];
+                double c2 = cosTable[2 * p * tableStep], s2 = sinTable[2 * p * tableStep];
+                double c3 = cosTable[3 * p * tableStep], s3 = sinTable[3 * p * tableStep];
+                double c4 = cosTable[4 * p * tableStep], s4 = sinTable[4 * p * tableStep];
+                for (int q = 0; q < s; q++) {
+                    int i0 = q + s*p, i1 = i0 + s*m, i2 = i1 + s*m, i3 = i2 + s*m, i4 = i3 + s*m;
+                    int o0 = q + s*5*p, o1 = o0 + s, o2 = o1 + s, o3 = o2 + s, o4 = o3 + s;
+                    double t1r = xr[i1] + xr[i4], t1i = xi[i1] + xi[i4];
+                    double t2r = xr[i2] + xr[i3], t2i = xi[i2] + xi[i3];
+                    double t3r = xr[i1] - xr[i4], t3i = xi[i1] - xi[i4];
+                    double t4r = xr[i2] - xr[i3], t4i = xi[i2] - xi[i3];
+                    double m1r = xr[i0] + COS_72 * t1r + COS_144 * t2r, m1i = xi[i0] + COS_72 * t1i + COS_144 * t2i;
+                    double m2r = xr[i0] + COS_144 * t1r + COS_72 * t2r, m2i = xi[i0] + COS_144 * t1i + COS_72 * t2i;
+                    // n1 = -i (sin72 t3 + sin144 t4), n2 = -i (sin144 t3 - sin72 t4)
+                    double n1r = SIN_72 * t3i + SIN_144 * t4i, n1i = -(SIN_72 * t3r + SIN_144 * t4r);
+                    double n2r = SIN_144 * t3i - SIN_72 * t4i, n2i = -(SIN_144 * t3r - SIN_72 * t4r);
+                    yr[o0] = xr[i0] + t1r + t2r;
+                    yi[o0] = xi[i0] + t1i + t2i;
+                    double b1r = m1r + n1r, b1i = m1i + n1i;
+                    double b2r = m2r + n2r, b2i = m2i + n2i;
+                    double b3r = m2r - n2r, b3i = m2i - n2i;
+                    double b4r = m1r - n1r, b4i = m1i - n1i;
+                    yr[o1] = b1r * c1 + b1i * s1;
+                    yi[o1] = b1i * c1 - b1r * s1;
+                    yr[o2] = b2r * c2 + b2i * s2;
+                    yi[o2] = b2i * c2 - b2r * s2;
+                    yr[o3] = b3r * c3 + b3i * s3;
+                    yi[o3] = b3i * c3 - b3r * s3;
+                    yr[o4] = b4r * c4 + b4i * s4;
+                    yi[o4] = b4i * c4 - b4r * s4;
+                }
             }
         }
     }
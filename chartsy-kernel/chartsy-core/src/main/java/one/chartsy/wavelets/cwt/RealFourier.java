@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.wavelets.cwt;
+
+/**
+ * The fast Fourier transform plan of real-valued signals of a fixed length.
+ * <p>
+ * The spectrum of a real signal is Hermitian-symmetric, thus only its first {@code length/2 + 1}
+ * {@link #spectrumLength() bins} are computed. For an even length the signal samples are packed pairwise
+ * into a complex vector of half the length, transformed by the {@link Fourier} plan of that half length,
+ * and unpacked into the spectrum, which takes roughly half of the work of the complex transform of the
+ * signal with zero imaginary part. The odd lengths fall back to the full complex transform.
+ * <p>
+ * The transforms follow the sign convention of the {@link Fourier} plans: the {@link #forward forward}
+ * transform uses the negative exponent, and the {@link #inverse inverse} transform does not scale the result,
+ * i.e. it gives the signal multiplied by the {@link #length() length}. The plans are immutable and
+ * may be shared by concurrent threads.
+ *
+ * @author Mariusz Bernacki
+ */
+public class RealFourier {
+    /** The transform length. */
+    private final int length;
+    /** The complex plan of the half length, or of the full length if the length is odd. */
+    private final Fourier complex;
+    /** The trigonometric tables of the unpacking step. */
+    private final double[] cosTable, sinTable;
+
+
+    public RealFourier(int length) {
+        if (length <= 0)
+            throw new IllegalArgumentException("Length parameter " + length + " must be a positive integer");
+        this.length = length;
+        if (length % 2 == 0) {
+            int half = length / 2;
+            complex = new Fourier(half);
+            cosTable = new double[half / 2 + 1];
+            sinTable = new double[half / 2 + 1];
+            double angle = 2 * Math.PI / length;
+            for (int k = 0; k < cosTable.length; k++) {
+                cosTable[k] = Math.cos(angle * k);
+                sinTable[k] = Math.sin(angle * k);
+            }
+        } else {
+            complex = new Fourier(length);
+            cosTable = sinTable = null;
+        }
+    }
+
+    /**
+     * Gives the transform length of this plan.
+     */
+    public final int length() {
+        return length;
+    }
+
+    /**
+     * Gives the number of the spectrum bins computed by this plan, i.e. {@code length/2 + 1}.
+     */
+    public final int spectrumLength() {
+        return length / 2 + 1;
+    }
+
+    /**
+     * Computes the forward transform of the real signal.
+     *
+     * @param x the signal, at least {@link #length()} long, left unchanged
+     * @param re the array receiving the real parts of the {@link #spectrumLength() spectrum bins}
+     * @param im the array receiving the imaginary parts of the spectrum bins
+     */
+    public void forward(double[] x, double[] re, double[] im) {
+        int spectrumLength = spectrumLength();
+        if (x.length < length || re.length < spectrumLength || im.length < spectrumLength)
+            throw new IllegalArgumentException("Arrays shorter than the transform length " + length);
+        if (cosTable == null) {
+            forwardOdd(x, re, im);
+            return;
+        }
+
+        // Pack the even samples into real, and the odd samples into imaginary parts
+        int half = length / 2;
+        for (int j = 0; j < half; j++) {
+            re[j] = x[2*j];
+            im[j] = x[2*j + 1];
+        }
+        complex.forward(re, im);
+
+        // Unpack the spectra E, O of the even and odd samples, X[k] = E[k] + W^k O[k]
+        double z0r = re[0], z0i = im[0];
+        re[0] = z0r + z0i;
+        im[0] = 0.0;
+        re[half] = z0r - z0i;
+        im[half] = 0.0;
+        for (int k = 1, m = half - 1; k <= m; k++, m--) {
+            double zr = re[k], zi = im[k], mr = re[m], mi = im[m];
+            double er = 0.5 * (zr + mr), ei = 0.5 * (zi - mi);
+            double or = 0.5 * (zi + mi), oi = -0.5 * (zr - mr);
+            double c = cosTable[k], s = sinTable[k];
+            double tr = c * or + s * oi, ti = c * oi - s * or;
+            re[m] = er - tr;
+            im[m] = ti - ei;
+            re[k] = er + tr;
+            im[k] = ei + ti;
+        }
+    }
+
+    private void forwardOdd(double[] x, double[] re, double[] im) {
+        double[] wr = new double[length], wi = new double[length];
+        System.arraycopy(x, 0, wr, 0, length);
+        complex.forward(wr, wi);
+        int spectrumLength = spectrumLength();
+        System.arraycopy(wr, 0, re, 0, spectrumLength);
+        System.arraycopy(wi, 0, im, 0, spectrumLength);
+    }
+
+    /**
+     * Computes the unscaled inverse transform of the Hermitian-symmetric spectrum, given by its
+     * first {@link #spectrumLength()} bins.
+     *
+     * @param re the real parts of the spectrum bins, overwritten by the method
+     * @param im the imaginary parts of the spectrum bins, overwritten by the method
+     * @param x the array receiving the signal multiplied by the {@link #length()}
+     */
+    public void inverse(double[] re, double[] im, double[] x) {
+        int spectrumLength = spectrumLength();
+        if (x.length < length || re.length < spectrumLength || im.length < spectrumLength)
+            throw new IllegalArgumentException("Arrays shorter than the transform length " + length);
+        if (cosTable == null) {
+            inverseOdd(re, im, x);
+            return;
+        }
+
+        // Pack the spectra Z[k] = E[k] + i O[k], scaled by 2, where O[k] = (X[k] - conj X[half-k]) conj(W^k)
+        int half = length / 2;
+        double x0r = re[0], x0i = im[0], xhr = re[half], xhi = im[half];
+        double e0r = x0r + xhr, e0i = x0i - xhi, o0r = x0r - xhr, o0i = x0i + xhi;
+        re[0] = e0r - o0i;
+        im[0] = e0i + o0r;
+        for (int k = 1, m = half - 1; k <= m; k++, m--) {
+            double xr = re[k], xi = im[k], mr = re[m], mi = im[m];
+            double er = xr + mr, ei = xi - mi;
+            double dr = xr - mr, di = xi + mi;
+            double c = cosTable[k], s = sinTable[k];
+            double or = dr * c - di * s, oi = di * c + dr * s;
+            re[m] = er + oi;
+            im[m] = or - ei;
+            re[k] = er - oi;
+            im[k] = ei + or;
+        }
+        complex.inverse(re, im);
+
+        for (int j = 0; j < half; j++) {
+            x[2*j] = re[j];
+            x[2*j + 1] = im[j];
+        }
+    }
+
+    private void inverseOdd(double[] re, double[] im, double[] x) {
+        double[] wr = new double[length], wi = new double[length];
+        int spectrumLength = spectrumLength();
+        System.arraycopy(re, 0, wr, 0, spectrumLength);
+        System.arraycopy(im, 0, wi, 0, spectrumLength);
+        for (int k = spectrumLength; k < length; k++) {
+            wr[k] = re[length - k];
+            wi[k] = -im[length - k];
+        }
+        complex.inverse(wr, wi);
+        System.arraycopy(wr, 0, x, 0, length);
+    }
+}
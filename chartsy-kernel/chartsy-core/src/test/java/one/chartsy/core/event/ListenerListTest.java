@@ -0,0 +1,158 @@
+package one.chartsy.core.event;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ListenerListTest {
+
+    interface TestListener {
+        void onEvent(String event);
+    }
+
+    record RecordingListener(String name, List<String> events) implements TestListener {
+        @Override
+        public void onEvent(String event) {
+            events.add(name + ":" + event);
+        }
+    }
+
+    enum Mode { PROXY, DISPATCHER, SPECIALIZED }
+
+    static ListenerList<TestListener> listenerList(Mode mode) {
+        return switch (mode) {
+            case PROXY -> ListenerList.of(TestListener.class);
+            case DISPATCHER -> ListenerList.of(TestListener.class, list -> event -> {
+                for (TestListener listener : list.getListenerArray())
+                    listener.onEvent(event);
+            });
+            case SPECIALIZED -> ListenerList.specialized(TestListener.class);
+        };
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void fire_reaches_listeners_added_and_removed_after_first_call(Mode mode) {
+        var events = new ArrayList<String>();
+        var list = listenerList(mode);
+        var fire = list.fire();
+        fire.onEvent("none");
+
+        var first = new RecordingListener("A", events);
+        var second = new RecordingListener("B", events);
+        list.addListener(first);
+        fire.onEvent("one");
+        list.addListener(second);
+        fire.onEvent("two");
+        list.removeListener(first);
+        fire.onEvent("three");
+
+        assertThat(events).containsExactly("A:one", "A:two", "B:two", "B:three");
+        assertThat(list.fire()).isSameAs(fire);
+        assertThat(list.getListeners()).containsExactly(second);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void unsubscribe_removes_listener(Mode mode) {
+        var events = new ArrayList<String>();
+        var list = listenerList(mode);
+        var subscription = list.addListener(new RecordingListener("A", events));
+        list.addListener(new RecordingListener("B", events));
+
+        new Subscription.Unsubscriber() { }.unsubscribe(subscription);
+        list.fire().onEvent("event");
+
+        assertThat(events).containsExactly("B:event");
+        assertThat(list.getListenerCount()).isEqualTo(1);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Mode.class)
+    void listener_may_remove_itself_while_event_is_fired(Mode mode) {
+        var events = new ArrayList<String>();
+        var list = listenerList(mode);
+        list.addListener(new TestListener() {
+            @Override
+            public void onEvent(String event) {
+                events.add("self-removing:" + event);
+                list.removeListener(this);
+            }
+        });
+        list.addListener(new RecordingListener("B", events));
+
+        list.fire().onEvent("1");
+        list.fire().onEvent("2");
+
+        assertThat(events).containsExactly("self-removing:1", "B:1", "B:2");
+    }
+
+    public interface OrderListener {
+        void orderPlaced(String order);
+
+        default void orderExpired(String order) { }
+
+        default int priority() {
+            return 0;
+        }
+    }
+
+    record RecordingOrderListener(String name, List<String> events) implements OrderListener {
+        @Override
+        public void orderPlaced(String order) {
+            events.add(name + ":placed:" + order);
+        }
+
+        @Override
+        public void orderExpired(String order) {
+            events.add(name + ":expired:" + order);
+        }
+
+        @Override
+        public int priority() {
+            return name.length();
+        }
+    }
+
+    @Test
+    void specialized_list_forwards_every_method_to_none_one_and_many_listeners() {
+        var events = new ArrayList<String>();
+        var list = ListenerList.specialized(OrderListener.class);
+        var fire = list.fire();
+        fire.orderPlaced("0");
+        fire.orderExpired("0");
+
+        list.addListener(new RecordingOrderListener("A", events));
+        fire.orderPlaced("1");
+        fire.orderExpired("1");
+        assertThat(fire.priority()).isEqualTo(1);
+
+        list.addListener(new RecordingOrderListener("BB", events));
+        fire.orderPlaced("2");
+        fire.orderExpired("2");
+        assertThat(fire.priority()).isEqualTo(2);
+
+        assertThat(events).containsExactly("A:placed:1", "A:expired:1",
+                "A:placed:2", "BB:placed:2", "A:expired:2", "BB:expired:2");
+        assertThat(list.fire()).isSameAs(fire).isEqualTo(fire).hasSameHashCodeAs(fire);
+    }
+
+    @Test
+    void specialized_list_propagates_listener_exceptions_unwrapped() {
+        var publicList = ListenerList.specialized(OrderListener.class);
+        publicList.addListener(order -> { throw new IllegalStateException("public " + order); });
+        var packagePrivateList = listenerList(Mode.SPECIALIZED);
+        packagePrivateList.addListener(event -> { throw new IllegalStateException("package-private " + event); });
+
+        assertThatThrownBy(() -> publicList.fire().orderPlaced("1"))
+                .isExactlyInstanceOf(IllegalStateException.class).hasMessage("public 1");
+        assertThatThrownBy(() -> packagePrivateList.fire().onEvent("2"))
+                .isExactlyInstanceOf(IllegalStateException.class).hasMessage("package-private 2");
+    }
+}
@@ -0,0 +1,126 @@
+package one.chartsy.data;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.time.Chronological;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CandleSeriesPyramidTest {
+
+    static final SymbolResource<Candle> TEST_SYMBOL = SymbolResource.of("TEST_SYMBOL", TimeFrame.Period.M1);
+    static final List<TimeFrame> LEVELS = List.of(
+            TimeFrame.Period.M5, TimeFrame.Period.M15, TimeFrame.Period.H1,
+            TimeFrame.Period.DAILY, TimeFrame.Period.WEEKLY, TimeFrame.Period.MONTHLY);
+
+    @Test
+    void levels_are_equal_to_direct_aggregation_of_base_series() {
+        var base = minuteCandles(LocalDateTime.of(2024, 1, 30, 22, 0), 60 * 24 * 10);
+        var pyramid = CandleSeriesPyramid.build(CandleSeries.of(TEST_SYMBOL, base), LEVELS);
+
+        for (TimeFrame timeFrame : LEVELS)
+            assertEquals(aggregate(base, timeFrame), candlesOf(pyramid.get(timeFrame)), timeFrame.toString());
+    }
+
+    @Test
+    void incremental_updates_are_equal_to_full_build() {
+        var base = minuteCandles(LocalDateTime.of(2024, 2, 27, 13, 7), 60 * 24 * 5);
+        var pyramid = CandleSeriesPyramid.build(CandleSeries.of(TEST_SYMBOL, base.subList(0, 3000)), LEVELS);
+        pyramid.get(TimeFrame.Period.H1);
+        for (Candle c : base.subList(3000, base.size()))
+            pyramid.add(c);
+
+        var expected = CandleSeriesPyramid.build(CandleSeries.of(TEST_SYMBOL, base), LEVELS);
+        for (TimeFrame timeFrame : LEVELS)
+            assertEquals(candlesOf(expected.get(timeFrame)), candlesOf(pyramid.get(timeFrame)), timeFrame.toString());
+        assertEquals(base.getLast().time(), pyramid.getLastTime());
+    }
+
+    @Test
+    void can_be_persisted_and_updated_after_restore(@TempDir Path dir) throws IOException {
+        var base = minuteCandles(LocalDateTime.of(2024, 3, 31, 20, 0), 60 * 24 * 3);
+        var pyramid = CandleSeriesPyramid.build(CandleSeries.of(TEST_SYMBOL, base.subList(0, 2000)), LEVELS);
+        var file = CandleSeriesPyramid.defaultFile(dir.resolve("TEST_SYMBOL.csv"));
+        pyramid.writeTo(file);
+
+        var restored = CandleSeriesPyramid.readFrom(file, TEST_SYMBOL, LEVELS);
+        assertEquals(pyramid.getLastTime(), restored.getLastTime());
+        for (Candle c : base.subList(2000, base.size()))
+            restored.add(c);
+
+        var expected = CandleSeriesPyramid.build(CandleSeries.of(TEST_SYMBOL, base), LEVELS);
+        for (TimeFrame timeFrame : LEVELS)
+            assertEquals(candlesOf(expected.get(timeFrame)), candlesOf(restored.get(timeFrame)), timeFrame.toString());
+    }
+
+    @Test
+    void skips_level_equal_to_base_time_frame() {
+        var base = minuteCandles(LocalDateTime.of(2024, 1, 1, 0, 0), 10);
+        var pyramid = CandleSeriesPyramid.build(CandleSeries.of(TEST_SYMBOL, base));
+
+        assertFalse(pyramid.contains(TimeFrame.Period.M1));
+        assertTrue(pyramid.contains(TimeFrame.Period.MONTHLY));
+        assertThatThrownBy(() -> pyramid.get(TimeFrame.Period.M1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejects_bars_out_of_order() {
+        var base = minuteCandles(LocalDateTime.of(2024, 1, 1, 0, 0), 10);
+        var pyramid = CandleSeriesPyramid.build(CandleSeries.of(TEST_SYMBOL, base), LEVELS);
+
+        assertThatThrownBy(() -> pyramid.add(base.getFirst())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void isNestedIn_respects_calendar_boundaries() {
+        assertTrue(CandleSeriesPyramid.isNestedIn(TimeFrame.Period.M15, TimeFrame.Period.H1));
+        assertTrue(CandleSeriesPyramid.isNestedIn(TimeFrame.Period.H1, TimeFrame.Period.DAILY));
+        assertTrue(CandleSeriesPyramid.isNestedIn(TimeFrame.Period.DAILY, TimeFrame.Period.WEEKLY));
+        assertTrue(CandleSeriesPyramid.isNestedIn(TimeFrame.Period.DAILY, TimeFrame.Period.MONTHLY));
+        assertTrue(CandleSeriesPyramid.isNestedIn(TimeFrame.Period.MONTHLY, TimeFrame.Period.QUARTERLY));
+        assertFalse(CandleSeriesPyramid.isNestedIn(TimeFrame.Period.WEEKLY, TimeFrame.Period.MONTHLY));
+        assertFalse(CandleSeriesPyramid.isNestedIn(TimeFrame.Period.M45, TimeFrame.Period.H1));
+    }
+
+    private static List<Candle> minuteCandles(LocalDateTime start, int count) {
+        var random = new SplittableRandom(count);
+        var candles = new ArrayList<Candle>(count);
+        long time = Chronological.toEpochNanos(start);
+        double close = 1000;
+        for (int i = 0; i < count; i++) {
+            time += 60_000_000_000L;
+            double open = close;
+            close = open + random.nextInt(-5, 6);
+            double high = Math.max(open, close) + random.nextInt(3);
+            double low = Math.min(open, close) - random.nextInt(3);
+            candles.add(Candle.of(time, open, high, low, close, random.nextInt(100)));
+        }
+        return candles;
+    }
+
+    private static List<Candle> aggregate(List<Candle> base, TimeFrame timeFrame) {
+        return timeFrame.getAggregator().aggregate(base, true);
+    }
+
+    private static List<Candle> candlesOf(CandleSeries series) {
+        var candles = new ArrayList<Candle>(series.length());
+        for (int i = series.length() - 1; i >= 0; i--)
+            candles.add(series.get(i));
+        assertThat(candles).hasSize(series.length());
+        return candles;
+    }
+}
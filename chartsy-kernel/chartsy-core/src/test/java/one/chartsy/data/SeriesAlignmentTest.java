@@ -0,0 +1,123 @@
+package one.chartsy.data;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.base.dataset.ImmutableDataset;
+import one.chartsy.data.packed.PackedCandleSeries;
+import one.chartsy.time.Timeline;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeriesAlignmentTest {
+
+    static final SymbolResource<Candle> TEST_SYMBOL = SymbolResource.of("TEST_SYMBOL", TimeFrame.Period.DAILY);
+
+    @Test
+    void gives_unified_timeline_and_forward_filled_gather_indices() {
+        var series1 = seriesOf(1, 2, 4);
+        var series2 = seriesOf(2, 3);
+        var empty = seriesOf();
+
+        var alignment = SeriesAlignment.of(List.of(series1, series2, empty));
+
+        assertEquals(3, alignment.size());
+        assertArrayEquals(new long[] {4, 3, 2, 1}, timesOf(alignment.getTimeline()));
+        assertArrayEquals(new int[] {0, 1, 1, 2}, alignment.getGatherIndices(0));
+        assertArrayEquals(new int[] {0, 0, 1, -1}, alignment.getGatherIndices(1));
+        assertArrayEquals(new int[] {-1, -1, -1, -1}, alignment.getGatherIndices(2));
+        assertTrue(alignment.isPresent(0, 0));
+        assertFalse(alignment.isPresent(0, 1));
+        assertFalse(alignment.isPresent(1, 3));
+    }
+
+    @Test
+    void gathers_primitive_columns() {
+        var series1 = seriesOf(1, 2, 4);
+        var series2 = seriesOf(2, 3);
+
+        var alignment = SeriesAlignment.of(List.of(series1, series2));
+        var closes = alignment.gather(1, series2.closes());
+
+        assertSame(alignment.getTimeline(), closes.getTimeline());
+        assertArrayEquals(new double[] {3, 3, 2, Double.NaN}, valuesOf(closes));
+    }
+
+    @Test
+    void handles_duplicate_timestamps_within_series() {
+        var series = seriesOf(1, 2, 2, 3);
+
+        var alignment = SeriesAlignment.of(List.of(series));
+
+        assertArrayEquals(new long[] {3, 2, 1}, timesOf(alignment.getTimeline()));
+        assertArrayEquals(new int[] {0, 1, 3}, alignment.getGatherIndices(0));
+    }
+
+    @Test
+    void agrees_with_sorted_set_union_on_random_series() {
+        var random = new SplittableRandom(42);
+        var seriesList = new ArrayList<CandleSeries>();
+        var expectedTimes = new TreeSet<Long>();
+        for (int k = 0; k < 50; k++) {
+            var times = new TreeSet<Long>();
+            int count = random.nextInt(100);
+            while (times.size() < count)
+                times.add((long) random.nextInt(1, 500));
+            expectedTimes.addAll(times);
+            seriesList.add(seriesOf(times.stream().mapToLong(Long::longValue).toArray()));
+        }
+
+        var alignment = SeriesAlignment.of(seriesList);
+
+        var timeline = alignment.getTimeline();
+        assertThat(timesOf(timeline)).containsExactly(expectedTimes.descendingSet().stream().mapToLong(Long::longValue).toArray());
+        for (int k = 0; k < seriesList.size(); k++) {
+            var series = seriesList.get(k);
+            for (int x = 0; x < timeline.length(); x++) {
+                int index = alignment.getIndex(k, x);
+                int expectedIndex = series.getTimeline().getTimeLocation(timeline.getTimeAt(x));
+                if (expectedIndex < 0)
+                    expectedIndex = -expectedIndex - 1;
+                assertEquals((expectedIndex < series.length())? expectedIndex : -1, index);
+            }
+        }
+    }
+
+    @Test
+    void rejects_unordered_series() {
+        Series<Candle> unordered = new PackedCandleSeries(TEST_SYMBOL,
+                ImmutableDataset.of(List.of(Candle.of(3, 1), Candle.of(1, 1), Candle.of(2, 1), Candle.of(0, 1))));
+
+        assertThatThrownBy(() -> SeriesAlignment.of(List.of(unordered)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static CandleSeries seriesOf(long... times) {
+        var candles = new ArrayList<Candle>();
+        for (long time : times)
+            candles.add(Candle.of(time, time));
+        return CandleSeries.of(TEST_SYMBOL, candles);
+    }
+
+    static long[] timesOf(Timeline timeline) {
+        var times = new long[timeline.length()];
+        for (int x = 0; x < times.length; x++)
+            times[x] = timeline.getTimeAt(x);
+        return times;
+    }
+
+    static double[] valuesOf(DoubleSeries series) {
+        var values = new double[series.length()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = series.get(i);
+        return values;
+    }
+}
@@ -0,0 +1,92 @@
+package one.chartsy.data.market;
+
+import one.chartsy.Candle;
+import one.chartsy.Incomplete;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.TimeFrame;
+import one.chartsy.TimeFrameAggregator;
+import one.chartsy.data.CandleSeries;
+import one.chartsy.data.SimpleCandle;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static one.chartsy.time.Chronological.toEpochNanos;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedTickAggregatorTest {
+
+    static final List<TimeFrame> TIME_FRAMES = List.of(TimeFrame.Period.M1, TimeFrame.Period.M5, TimeFrame.Period.H1);
+    static final List<SymbolIdentity> SYMBOLS = List.of(
+            SymbolIdentity.of("AAA"), SymbolIdentity.of("BBB"), SymbolIdentity.of("CCC"), SymbolIdentity.of("DDD"), SymbolIdentity.of("EEE"));
+
+    @Test
+    void aggregates_interleaved_ticks_same_as_sequential_per_symbol_aggregation() {
+        Map<SymbolIdentity, List<Tick>> ticks = new HashMap<>();
+        var random = new SplittableRandom(1);
+        long time = toEpochNanos(LocalDateTime.of(2026, 1, 5, 9, 30));
+
+        ShardedTickAggregator.Result result;
+        try (var aggregator = new ShardedTickAggregator(TIME_FRAMES, 3)) {
+            for (int i = 0; i < 50_000; i++) {
+                time += random.nextLong(10_000_000_000L);
+                var symbol = SYMBOLS.get(random.nextInt(SYMBOLS.size()));
+                var tick = Tick.of(time, 100 + random.nextDouble(-5, 5), random.nextInt(1, 100));
+                ticks.computeIfAbsent(symbol, __ -> new ArrayList<>()).add(tick);
+                aggregator.accept(symbol, tick);
+            }
+            result = aggregator.finish();
+        }
+
+        assertEquals(SYMBOLS.size(), result.getSymbols().size());
+        for (SymbolIdentity symbol : SYMBOLS) {
+            for (TimeFrame timeFrame : TIME_FRAMES) {
+                var expected = aggregate(ticks.get(symbol), timeFrame);
+                var series = result.get(symbol, timeFrame);
+                assertFalse(expected.isEmpty());
+                assertEquals(expected, candles(series), symbol + " " + timeFrame);
+                assertEquals(timeFrame, series.getTimeFrame());
+            }
+        }
+    }
+
+    @Test
+    void gives_empty_series_for_unknown_symbol() {
+        try (var aggregator = new ShardedTickAggregator(TIME_FRAMES, 2)) {
+            aggregator.accept(SYMBOLS.getFirst(), Tick.of(toEpochNanos(LocalDateTime.of(2026, 1, 5, 9, 30)), 1.0));
+            var result = aggregator.finish();
+
+            assertTrue(result.get(SYMBOLS.getLast(), TimeFrame.Period.M1).isEmpty());
+            assertEquals(1, result.get(SYMBOLS.getFirst(), TimeFrame.Period.M1).length());
+            assertThrows(IllegalArgumentException.class, () -> result.get(SYMBOLS.getFirst(), TimeFrame.Period.DAILY));
+            assertThrows(IllegalStateException.class, () -> aggregator.accept(SYMBOLS.getFirst(), 0L, 1.0, 0.0));
+        }
+    }
+
+    static List<Candle> aggregate(List<Tick> ticks, TimeFrame timeFrame) {
+        List<Candle> candles = new ArrayList<>();
+        TimeFrameAggregator<Candle, Tick> aggregator = timeFrame.getAggregator();
+        Incomplete<Candle> last = Incomplete.empty();
+        for (Tick tick : ticks)
+            last = aggregator.addTick(tick, candles::add);
+        if (last.isPresent())
+            candles.add(last.get());
+        return candles.stream().map(ShardedTickAggregatorTest::copyOf).toList();
+    }
+
+    static Candle copyOf(Candle c) {
+        return SimpleCandle.of(c.time(), c.open(), c.high(), c.low(), c.close(), c.volume());
+    }
+
+    static List<Candle> candles(CandleSeries series) {
+        List<Candle> candles = new ArrayList<>();
+        for (int i = series.length() - 1; i >= 0; i--)
+            candles.add(copyOf(series.get(i)));
+        return candles;
+    }
+}
@@ -0,0 +1,179 @@
+package one.chartsy.data.packed;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.data.market.Tick;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TickColumnsTest {
+
+    static final SymbolResource<Tick> RESOURCE = SymbolResource.of(SymbolIdentity.of("TEST_SYMBOL"), TimeFrame.TICKS, Tick.class);
+
+    @Test
+    void stores_and_gives_back_all_ticks_across_blocks() {
+        var ticks = randomTicks(10_000, true);
+        var columns = new TickColumns(100, 256);
+        ticks.forEach(columns::add);
+
+        assertThat(columns.size()).isEqualTo(ticks.size());
+        assertThat(columns.getBlockCount()).isEqualTo((ticks.size() + 255) / 256);
+        for (int row = 0; row < ticks.size(); row++) {
+            Tick expected = ticks.get(row);
+            assertThat(columns.time(row)).isEqualTo(expected.time());
+            assertThat(columns.price(row)).isEqualTo(expected.price());
+            assertThat(columns.size(row)).isEqualTo(expected.size());
+        }
+    }
+
+    @Test
+    void compresses_scaled_prices_and_integral_sizes() {
+        var ticks = randomTicks(10_000, true);
+        var columns = new TickColumns(100);
+        ticks.forEach(columns::add);
+
+        assertThat(columns.getStoredBytes()).isLessThan(ticks.size() * 24L / 3);
+    }
+
+    @Test
+    void falls_back_to_raw_values_when_not_representable() {
+        var ticks = randomTicks(3_000, false);
+        var columns = new TickColumns(100, 512);
+        ticks.forEach(columns::add);
+
+        for (int row = 0; row < ticks.size(); row++) {
+            assertThat(columns.price(row)).isEqualTo(ticks.get(row).price());
+            assertThat(columns.size(row)).isEqualTo(ticks.get(row).size());
+        }
+    }
+
+    @Test
+    void getBlock_gives_random_access_by_block_index() {
+        var ticks = randomTicks(1_000, true);
+        var columns = new TickColumns(100, 300);
+        ticks.forEach(columns::add);
+
+        var sealed = columns.getBlock(2);
+        assertThat(sealed.firstRow()).isEqualTo(600);
+        assertThat(sealed.length()).isEqualTo(300);
+        assertThat(sealed.time(5)).isEqualTo(ticks.get(605).time());
+
+        var open = columns.getBlock(3);
+        assertThat(open.length()).isEqualTo(100);
+        assertThat(open.price(99)).isEqualTo(ticks.getLast().price());
+        assertThatThrownBy(() -> columns.getBlock(4)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void indexOf_gives_first_row_not_older_than_time() {
+        var ticks = randomTicks(2_000, true);
+        var columns = new TickColumns(100, 128);
+        ticks.forEach(columns::add);
+
+        for (int row : new int[] {0, 1, 127, 128, 129, 1000, 1999}) {
+            long time = ticks.get(row).time();
+            int expected = row;
+            while (expected > 0 && ticks.get(expected - 1).time() >= time)
+                expected--;
+            assertThat(columns.indexOf(time)).isEqualTo(expected);
+        }
+        assertThat(columns.indexOf(ticks.getLast().time() + 1)).isEqualTo(ticks.size());
+    }
+
+    @Test
+    void toSeries_gives_reverse_chronological_view_of_ticks_stored_so_far() {
+        var ticks = randomTicks(1_500, true);
+        var columns = new TickColumns(100, 512);
+        ticks.forEach(columns::add);
+        var series = columns.toSeries(RESOURCE);
+        columns.add(ticks.getLast().time() + 1, 1.0, 1.0);
+
+        assertThat(series.length()).isEqualTo(ticks.size());
+        assertThat(series.getLast().time()).isEqualTo(ticks.getLast().time());
+        assertThat(series.getFirst().price()).isEqualTo(ticks.getFirst().price());
+        var prices = series.prices();
+        var volumes = series.volumes();
+        for (int i = 0; i < series.length(); i++) {
+            Tick expected = ticks.get(ticks.size() - 1 - i);
+            assertThat(prices.get(i)).isEqualTo(expected.price());
+            assertThat(volumes.get(i)).isEqualTo(expected.size());
+        }
+    }
+
+    @Test
+    void toSeries_timeline_is_read_from_time_column() {
+        var ticks = randomTicks(1_500, true);
+        var columns = new TickColumns(100, 512);
+        ticks.forEach(columns::add);
+        var series = columns.toSeries(RESOURCE);
+        columns.add(ticks.getLast().time() + 1, 1.0, 1.0);
+
+        var timeline = series.prices().getTimeline();
+        assertThat(timeline.length()).isEqualTo(ticks.size());
+        for (int i = 0; i < timeline.length(); i++) {
+            long time = ticks.get(ticks.size() - 1 - i).time();
+            assertThat(timeline.getTimeAt(i)).isEqualTo(time);
+            assertThat(timeline.getTimeAt(timeline.getTimeLocation(time))).isEqualTo(time);
+        }
+        assertThat(timeline.getTimeLocation(ticks.getLast().time() + 1)).isEqualTo(-1);
+        assertThat(timeline.getTimeLocation(ticks.getFirst().time() - 1)).isEqualTo(-ticks.size() - 1);
+    }
+
+    @Test
+    void concurrent_readers_give_the_same_ticks() throws Exception {
+        var ticks = randomTicks(8_192, true);
+        var columns = new TickColumns(100, 256);
+        ticks.forEach(columns::add);
+
+        try (var executor = Executors.newFixedThreadPool(4)) {
+            var futures = new ArrayList<Future<?>>();
+            for (int t = 0; t < 4; t++) {
+                int offset = t * 1_000;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ticks.size(); i++) {
+                        int row = (i + offset) % ticks.size();
+                        Tick tick = columns.get(row);
+                        assertThat(tick.time()).isEqualTo(ticks.get(row).time());
+                        assertThat(tick.price()).isEqualTo(ticks.get(row).price());
+                        assertThat(tick.size()).isEqualTo(ticks.get(row).size());
+                    }
+                }));
+            }
+            for (var future : futures)
+                future.get();
+        }
+    }
+
+    @Test
+    void rejects_out_of_order_ticks() {
+        var columns = new TickColumns(100, 2);
+        columns.add(10L, 1.0, 1.0);
+        columns.add(20L, 1.0, 1.0);
+
+        assertThatThrownBy(() -> columns.add(15L, 1.0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    static List<Tick> randomTicks(int count, boolean quoted) {
+        var random = new SplittableRandom(count);
+        var ticks = new ArrayList<Tick>(count);
+        long time = 1_700_000_000_000_000_000L;
+        long cents = 10_000;
+        for (int i = 0; i < count; i++) {
+            time += random.nextLong(5_000_000L);
+            cents += random.nextInt(-3, 4);
+            double price = quoted? cents / 100.0 : cents / 100.0 + random.nextDouble() * 1e-3;
+            double size = quoted? random.nextInt(1, 500) : random.nextDouble(0.1, 10);
+            ticks.add(Tick.of(time, price, size));
+        }
+        return ticks;
+    }
+}
@@ -0,0 +1,99 @@
+package one.chartsy.data.provider;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolGroup;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.data.CandleSeries;
+import one.chartsy.data.DataQuery;
+import one.chartsy.time.Chronological;
+import one.chartsy.time.Chronological.ChronoOrder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import reactor.core.publisher.Flux;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DataProvidersTest {
+
+    static final SymbolResource<Candle> TEST_SYMBOL = SymbolResource.of("TEST_SYMBOL", TimeFrame.Period.DAILY);
+
+    @ParameterizedTest
+    @EnumSource(ChronoOrder.class)
+    void getHistoricalCandles_uses_declared_order_of_provider(ChronoOrder order) {
+        var candles = candles(1, 2, 3, 4, 5);
+        if (order.isReversed())
+            candles = candles.reversed();
+
+        CandleSeries series = DataProviders.getHistoricalCandles(new StubProvider(candles, order), TEST_SYMBOL);
+
+        assertThat(times(series)).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void getHistoricalCandles_sorts_data_when_declared_order_is_violated() {
+        var candles = candles(3, 1, 5, 2, 4);
+
+        CandleSeries series = DataProviders.getHistoricalCandles(new StubProvider(candles, ChronoOrder.CHRONOLOGICAL), TEST_SYMBOL);
+
+        assertThat(times(series)).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void getHistoricalCandles_sorts_data_when_order_is_not_declared() {
+        var candles = candles(2, 5, 1, 4, 3);
+
+        CandleSeries series = DataProviders.getHistoricalCandles(new StubProvider(candles, null), TEST_SYMBOL);
+
+        assertThat(times(series)).containsExactly(5L, 4L, 3L, 2L, 1L);
+    }
+
+    @Test
+    void getHistoricalCandles_gives_empty_series_when_no_data() {
+        CandleSeries series = DataProviders.getHistoricalCandles(new StubProvider(List.of(), ChronoOrder.CHRONOLOGICAL), TEST_SYMBOL);
+
+        assertThat(series.isEmpty()).isTrue();
+    }
+
+    private static List<Candle> candles(long... times) {
+        return Arrays.stream(times)
+                .mapToObj(time -> Candle.of(time, time))
+                .toList();
+    }
+
+    private static List<Long> times(CandleSeries series) {
+        return IntStream.range(0, series.length())
+                .mapToObj(i -> series.get(i).time())
+                .toList();
+    }
+
+    private record StubProvider(List<Candle> candles, ChronoOrder order) implements DataProvider {
+        @Override
+        public String getName() {
+            return "STUB";
+        }
+
+        @Override
+        public List<SymbolIdentity> listSymbols(SymbolGroup group) {
+            return List.of();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T extends Chronological> Flux<T> query(Class<T> type, DataQuery<T> request) {
+            return (Flux<T>) Flux.fromIterable(candles);
+        }
+
+        @Override
+        public Optional<ChronoOrder> getDataOrder(Class<?> type, DataQuery<?> request) {
+            return Optional.ofNullable(order);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package one.chartsy.data.provider.cache;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolResource;
+import one.chartsy.TimeFrame;
+import one.chartsy.time.Chronological;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CachingCandleFetcherTest {
+
+    static final SymbolResource<Candle> RESOURCE = SymbolResource.of("AAPL.US", TimeFrame.Period.DAILY);
+
+    @TempDir
+    Path directory;
+
+    static Candle candle(int day, double close) {
+        return Candle.of(LocalDate.of(2026, 1, day).atStartOfDay(), close, close + 1, close - 1, close, 100 * day);
+    }
+
+    @Test
+    void cache_stores_and_loads_candles() {
+        var cache = new CandleCache(directory);
+        var candles = List.of(candle(1, 10), candle(2, 11), candle(3, 12));
+
+        assertThat(cache.load("Test", RESOURCE)).isEmpty();
+        assertThat(cache.getLastCandle("Test", RESOURCE)).isEmpty();
+        cache.merge("Test", RESOURCE, candles);
+
+        assertThat(cache.load("Test", RESOURCE)).isEqualTo(candles);
+        assertThat(cache.getLastCandle("Test", RESOURCE)).contains(candle(3, 12));
+        assertThat(cache.getFile("Test", RESOURCE)).exists();
+        assertThat(cache.load("Other", RESOURCE)).isEmpty();
+    }
+
+    @Test
+    void merge_replaces_cached_candles_from_first_merged_candle_onwards() {
+        var cache = new CandleCache(directory);
+        cache.merge("Test", RESOURCE, List.of(candle(1, 10), candle(2, 11), candle(3, 12)));
+
+        int retained = cache.merge("Test", RESOURCE, List.of(candle(2, 21), candle(3, 22), candle(4, 23)));
+
+        assertThat(retained).isEqualTo(1);
+        assertThat(cache.load("Test", RESOURCE)).containsExactly(candle(1, 10), candle(2, 21), candle(3, 22), candle(4, 23));
+    }
+
+    @Test
+    void invalid_cache_file_is_rejected() throws Exception {
+        var cache = new CandleCache(directory);
+        Path file = cache.getFile("Test", RESOURCE);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "Date,Open,High,Low,Close");
+
+        assertThatThrownBy(() -> cache.load("Test", RESOURCE)).hasMessageContaining("Not a valid candle cache file");
+        assertThat(cache.invalidate("Test", RESOURCE)).isTrue();
+        assertThat(cache.load("Test", RESOURCE)).isEmpty();
+    }
+
+    @Test
+    void fetches_full_history_first_and_then_only_the_tail_from_last_cached_candle() throws Exception {
+        var remote = new ArrayList<>(List.of(candle(1, 10), candle(2, 11), candle(3, 12)));
+        var requestedStartTimes = new ArrayList<LocalDateTime>();
+        CandleFetcher delegate = (resource, startTime) -> {
+            requestedStartTimes.add(startTime);
+            long start = (startTime == null)? Long.MIN_VALUE : Chronological.toEpochNanos(startTime);
+            return remote.stream().filter(c -> c.time() >= start).toList();
+        };
+        var fetcher = new CachingCandleFetcher("Test", delegate, new CandleCache(directory));
+
+        assertThat(fetcher.fetchCandles(RESOURCE, null)).containsExactlyElementsOf(remote);
+        remote.set(2, candle(3, 13));
+        remote.add(candle(4, 14));
+        var candles = fetcher.fetchCandles(RESOURCE, null);
+
+        assertThat(candles).containsExactly(candle(1, 10), candle(2, 11), candle(3, 13), candle(4, 14));
+        assertThat(requestedStartTimes).containsExactly(null, LocalDate.of(2026, 1, 3).atStartOfDay());
+        assertThat(fetcher.fetchCandles(RESOURCE, LocalDate.of(2026, 1, 3).atStartOfDay()))
+                .containsExactly(candle(3, 13), candle(4, 14));
+    }
+
+    @Test
+    void tolerates_remote_source_ignoring_start_time() throws Exception {
+        var remote = List.of(candle(1, 10), candle(2, 11));
+        var fetcher = new CachingCandleFetcher("Test", (resource, startTime) -> remote, new CandleCache(directory));
+
+        fetcher.fetchCandles(RESOURCE, null);
+        var candles = fetcher.fetchCandles(RESOURCE, null);
+
+        assertThat(candles).containsExactlyElementsOf(remote);
+    }
+}
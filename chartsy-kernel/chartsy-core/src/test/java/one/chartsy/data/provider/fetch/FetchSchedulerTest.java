@@ -0,0 +1,179 @@
+package one.chartsy.data.provider.fetch;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FetchSchedulerTest {
+
+    static final RetryPolicy FAST_RETRY = new RetryPolicy(3, Duration.ofMillis(1), Duration.ofMillis(5), 2.0);
+
+    @Test
+    void concurrent_requests_to_host_are_limited() {
+        try (var scheduler = new FetchScheduler(HostLimits.of(16), RetryPolicy.NONE)) {
+            scheduler.setHostLimits("example.com", HostLimits.of(2));
+            var inFlight = new AtomicInteger();
+            var maxInFlight = new AtomicInteger();
+            FetchTask<Integer> request = () -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                TimeUnit.MILLISECONDS.sleep(10);
+                inFlight.decrementAndGet();
+                return 1;
+            };
+
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++)
+                futures.add(scheduler.submit(() -> scheduler.call("Example.com", request)));
+
+            assertThat(futures.stream().mapToInt(CompletableFuture::join).sum()).isEqualTo(10);
+            assertThat(maxInFlight.get()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void opened_response_streams_hold_host_slot_until_closed() {
+        try (var scheduler = new FetchScheduler(HostLimits.of(16), RetryPolicy.NONE)) {
+            scheduler.setHostLimits("example.com", HostLimits.of(2));
+            var openBodies = new AtomicInteger();
+            var maxOpenBodies = new AtomicInteger();
+            FetchTask<InputStream> request = () -> {
+                maxOpenBodies.accumulateAndGet(openBodies.incrementAndGet(), Math::max);
+                return new ByteArrayInputStream(new byte[] {1, 2, 3}) {
+                    @Override
+                    public void close() {
+                        openBodies.decrementAndGet();
+                    }
+                };
+            };
+
+            List<CompletableFuture<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < 10; i++)
+                futures.add(scheduler.submit(() -> {
+                    try (var body = scheduler.openStream("example.com", request)) {
+                        TimeUnit.MILLISECONDS.sleep(10);
+                        return body.readAllBytes().length;
+                    }
+                }));
+
+            assertThat(futures.stream().mapToInt(CompletableFuture::join).sum()).isEqualTo(30);
+            assertThat(maxOpenBodies.get()).isEqualTo(2);
+            assertThat(openBodies).hasValue(0);
+        }
+    }
+
+    @Test
+    void failed_requests_are_retried_with_backoff() throws Exception {
+        try (var scheduler = new FetchScheduler(HostLimits.DEFAULT, FAST_RETRY)) {
+            var attempts = new AtomicInteger();
+
+            String result = scheduler.call("example.com", () -> {
+                if (attempts.incrementAndGet() < 3)
+                    throw new TransientFetchException("HTTP 503");
+                return "ok";
+            });
+
+            assertThat(result).isEqualTo("ok");
+            assertThat(attempts).hasValue(3);
+        }
+    }
+
+    @Test
+    void last_failure_is_thrown_when_retries_are_exhausted() {
+        try (var scheduler = new FetchScheduler(HostLimits.DEFAULT, FAST_RETRY)) {
+            var attempts = new AtomicInteger();
+
+            assertThatThrownBy(() -> scheduler.call("example.com", () -> {
+                throw new SocketTimeoutException("attempt " + attempts.incrementAndGet());
+            })).isInstanceOf(SocketTimeoutException.class).hasMessage("attempt 3")
+                    .satisfies(e -> assertThat(e.getSuppressed()).hasSize(1));
+        }
+    }
+
+    @Test
+    void non_transient_failures_are_not_retried() {
+        try (var scheduler = new FetchScheduler(HostLimits.DEFAULT, FAST_RETRY)) {
+            for (IOException failure : List.of(new FileNotFoundException("HTTP 404"), new IOException("Malformed response"))) {
+                var attempts = new AtomicInteger();
+
+                assertThatThrownBy(() -> scheduler.call("example.com", () -> {
+                    attempts.incrementAndGet();
+                    throw failure;
+                })).isSameAs(failure);
+                assertThat(attempts).hasValue(1);
+            }
+        }
+    }
+
+    @Test
+    void only_transient_failures_are_retryable() {
+        var policy = RetryPolicy.DEFAULT;
+        assertThat(policy.isRetryable(new TransientFetchException("HTTP 429"))).isTrue();
+        assertThat(policy.isRetryable(new SocketTimeoutException())).isTrue();
+        assertThat(policy.isRetryable(new HttpTimeoutException("request timed out"))).isTrue();
+        assertThat(policy.isRetryable(new ConnectException())).isTrue();
+        assertThat(policy.isRetryable(new IOException(new SocketException("Connection reset")))).isTrue();
+        assertThat(policy.isRetryable(new FileNotFoundException())).isFalse();
+        assertThat(policy.isRetryable(new IOException("Symbol not found"))).isFalse();
+
+        assertThat(RetryPolicy.isRetryableStatus(429)).isTrue();
+        assertThat(RetryPolicy.isRetryableStatus(503)).isTrue();
+        assertThat(RetryPolicy.isRetryableStatus(404)).isFalse();
+        assertThat(RetryPolicy.isRetryableStatus(400)).isFalse();
+        assertThat(RetryPolicy.isRetryableStatus(200)).isFalse();
+    }
+
+    @Test
+    void submitted_job_failure_completes_future_exceptionally() {
+        try (var scheduler = new FetchScheduler()) {
+            var future = scheduler.submit(() -> { throw new IOException("unreachable"); });
+
+            assertThat(future).failsWithin(Duration.ofSeconds(5))
+                    .withThrowableOfType(Exception.class).havingRootCause().withMessage("unreachable");
+        }
+    }
+
+    @Test
+    void token_bucket_allows_burst_and_then_refills_at_constant_rate() {
+        var clock = new AtomicLong();
+        var bucket = new TokenBucket(10.0, 3, clock::get);
+
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+        assertThat(bucket.reserve()).isCloseTo(TimeUnit.MILLISECONDS.toNanos(100), within(1L));
+        assertThat(bucket.reserve()).isCloseTo(TimeUnit.MILLISECONDS.toNanos(200), within(1L));
+
+        clock.set(TimeUnit.SECONDS.toNanos(1));
+        assertThat(bucket.reserve()).isZero();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isTrue();
+        assertThat(bucket.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void host_limits_are_validated() {
+        assertThatThrownBy(() -> new HostLimits(0, 0, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HostLimits(1, -1, 1)).isInstanceOf(IllegalArgumentException.class);
+        assertThat(HostLimits.of(4, 2.5).isRateLimited()).isTrue();
+        assertThat(new FetchScheduler().getHostLimits("unknown.org")).isEqualTo(HostLimits.DEFAULT);
+    }
+}
@@ -0,0 +1,133 @@
+package one.chartsy.data.stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RingMessageBufferTest {
+
+    record TestMessage(long time) implements Message { }
+
+    static Stream<IntFunction<RingMessageBuffer<TestMessage>>> buffers() {
+        return Stream.of(RingMessageBuffer::singleProducer, RingMessageBuffer::multiProducer);
+    }
+
+    @ParameterizedTest
+    @MethodSource("buffers")
+    void capacity_is_rounded_up_to_power_of_two(IntFunction<RingMessageBuffer<TestMessage>> factory) {
+        assertThat(factory.apply(1).capacity()).isEqualTo(1);
+        assertThat(factory.apply(5).capacity()).isEqualTo(8);
+        assertThat(factory.apply(1024).capacity()).isEqualTo(1024);
+        assertThatThrownBy(() -> factory.apply(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @ParameterizedTest
+    @MethodSource("buffers")
+    void full_buffer_rejects_messages_until_drained(IntFunction<RingMessageBuffer<TestMessage>> factory) {
+        var buffer = factory.apply(4);
+        for (int i = 0; i < 4; i++)
+            assertThat(buffer.offer(new TestMessage(i))).isTrue();
+
+        assertThat(buffer.offer(new TestMessage(4))).isFalse();
+        assertThatThrownBy(() -> buffer.send(new TestMessage(4)))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("full");
+        assertThat(buffer.size()).isEqualTo(4);
+
+        var received = new ArrayList<Long>();
+        assertThat(buffer.read(msg -> received.add(msg.time()), 3)).isEqualTo(3);
+        buffer.send(new TestMessage(4));
+        buffer.send(new TestMessage(5));
+        assertThat(buffer.read(msg -> received.add(msg.time()))).isEqualTo(3);
+        assertThat(received).containsExactly(0L, 1L, 2L, 3L, 4L, 5L);
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("buffers")
+    void closed_buffer_rejects_messages_and_discards_remaining(IntFunction<RingMessageBuffer<TestMessage>> factory) {
+        var buffer = factory.apply(4);
+        buffer.send(new TestMessage(1));
+        buffer.close();
+
+        assertThat(buffer.isClosed()).isTrue();
+        assertThatThrownBy(() -> buffer.send(new TestMessage(2)))
+                .isInstanceOf(IllegalStateException.class).hasMessageContaining("closed");
+        assertThatThrownBy(() -> buffer.offer(new TestMessage(2))).isInstanceOf(IllegalStateException.class);
+        assertThat(buffer.read(msg -> { throw new AssertionError("Unexpected " + msg); })).isZero();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("buffers")
+    void messages_handled_before_handler_failure_are_consumed(IntFunction<RingMessageBuffer<TestMessage>> factory) {
+        var buffer = factory.apply(4);
+        for (int i = 0; i < 3; i++)
+            buffer.send(new TestMessage(i));
+
+        assertThatThrownBy(() -> buffer.read(msg -> {
+            if (msg.time() == 1)
+                throw new IllegalArgumentException();
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        var received = new ArrayList<Long>();
+        buffer.read(msg -> received.add(msg.time()));
+        assertThat(received).containsExactly(2L);
+    }
+
+    @ParameterizedTest
+    @MethodSource("buffers")
+    void messages_from_producer_threads_are_received_in_per_producer_order(IntFunction<RingMessageBuffer<TestMessage>> factory) throws InterruptedException {
+        var buffer = factory.apply(64);
+        int producers = (buffer instanceof MpscMessageBuffer)? 4 : 1;
+        int messagesPerProducer = 20_000;
+        var start = new CountDownLatch(1);
+        var threads = new ArrayList<Thread>();
+        for (int p = 0; p < producers; p++) {
+            long producerId = p;
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                for (int i = 0; i < messagesPerProducer; i++) {
+                    var msg = new TestMessage(producerId * messagesPerProducer + i);
+                    while (!buffer.offer(msg))
+                        Thread.yield();
+                }
+            }));
+        }
+
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1);
+        List<String> errors = new ArrayList<>();
+        int[] received = {0};
+        start.countDown();
+        while (received[0] < producers * messagesPerProducer) {
+            int count = buffer.read(msg -> {
+                int producer = (int) (msg.time() / messagesPerProducer);
+                long sequence = msg.time() % messagesPerProducer;
+                if (sequence != lastSeen[producer] + 1)
+                    errors.add("Producer " + producer + " expected " + (lastSeen[producer] + 1) + " but was " + sequence);
+                lastSeen[producer] = sequence;
+                received[0]++;
+            }, 16);
+            if (count == 0)
+                Thread.yield();
+        }
+        for (Thread thread : threads)
+            thread.join();
+
+        assertThat(errors).isEmpty();
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,159 @@
+package one.chartsy.data.stream.journal;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.data.market.BestBidOfferQuote;
+import one.chartsy.data.market.Tick;
+import one.chartsy.data.stream.MessageChannelException;
+import one.chartsy.financial.IdentityType;
+import one.chartsy.financial.MarketEntityType;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.data.BestBidOfferEvent;
+import one.chartsy.messaging.data.TradeBar;
+import one.chartsy.messaging.data.TradeTick;
+import one.chartsy.time.Chronological;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BinaryJournalMessageChannelTest {
+
+    static final SymbolIdentity AAPL = SymbolIdentity.of("AAPL");
+    static final SymbolIdentity MSFT = SymbolIdentity.of("MSFT");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void replays_market_events_in_order_of_recording() {
+        List<MarketEvent> events = List.of(
+                new TradeBar.Of(AAPL, Candle.of(1L, 10, 12, 9, 11, 1000)),
+                new TradeTick.Of(MSFT, Tick.of(2L, 250.5, 300)),
+                new BestBidOfferEvent.Of(AAPL, new BestBidOfferQuote(3L, true, 10.9, 100, false, Double.POSITIVE_INFINITY, 0)),
+                new TradeTick.Of(AAPL, Tick.of(4L, 11.1, 5))
+        );
+        try (var journal = new BinaryJournalMessageChannel<MarketEvent>(dir, MarketEventCodecs.create())) {
+            journal.sendAll(events);
+            assertThat(journal.getRecordCount()).isEqualTo(4);
+        }
+
+        assertThat(readAll(MarketEventCodecs.create())).isEqualTo(events);
+    }
+
+    @Test
+    void rolls_over_to_next_segment_when_full() throws Exception {
+        int count = 10_000;
+        var expected = new ArrayList<MarketEvent>();
+        try (var journal = new BinaryJournalMessageChannel<MarketEvent>(dir, MarketEventCodecs.create(), 4096, 100)) {
+            for (int i = 0; i < count; i++) {
+                var event = new TradeTick.Of((i % 2 == 0)? AAPL : MSFT, Tick.of(i, 100 + i * 0.01, i));
+                journal.send(event);
+                expected.add(event);
+            }
+        }
+
+        try (var files = Files.list(dir)) {
+            assertThat(files.count()).isGreaterThan(10);
+        }
+        assertThat(readAll(MarketEventCodecs.create())).isEqualTo(expected);
+    }
+
+    enum CustomIdentityType implements IdentityType {
+        SYNTHETIC;
+
+        @Override
+        public boolean isTradable() {
+            return true;
+        }
+    }
+
+    @Test
+    void replays_symbols_with_their_original_identity_types() {
+        var exchange = SymbolIdentity.of("XNYS", MarketEntityType.EXCHANGE);
+        var synthetic = SymbolIdentity.of("SPREAD", CustomIdentityType.SYNTHETIC);
+        List<MarketEvent> events = List.of(
+                new TradeTick.Of(exchange, Tick.of(1L, 1.0, 1)),
+                new TradeTick.Of(synthetic, Tick.of(2L, 2.0, 1))
+        );
+        try (var journal = new BinaryJournalMessageChannel<MarketEvent>(dir, MarketEventCodecs.create())) {
+            journal.sendAll(events);
+        }
+
+        var replayed = readAll(MarketEventCodecs.create());
+        assertThat(replayed).isEqualTo(events);
+        assertThat(replayed).extracting(event -> ((MarketEvent) event).symbol().type())
+                .containsExactly(MarketEntityType.EXCHANGE, CustomIdentityType.SYNTHETIC);
+    }
+
+    @Test
+    void rejects_symbols_of_identity_type_that_cannot_be_resolved_on_replay() {
+        IdentityType adHocType = new IdentityType() {
+            @Override
+            public String name() {
+                return "AD_HOC";
+            }
+
+            @Override
+            public boolean isTradable() {
+                return false;
+            }
+        };
+        try (var journal = new BinaryJournalMessageChannel<MarketEvent>(dir, MarketEventCodecs.create())) {
+            assertThatThrownBy(() -> journal.send(new TradeTick.Of(SymbolIdentity.of("X", adHocType), Tick.of(1L, 1.0, 1))))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    void skips_records_without_registered_codec() {
+        record Note(long time, String text) implements Chronological { }
+        var codecs = MarketEventCodecs.create().register(100, Note.class, new JournalCodec<>() {
+            @Override
+            public void encode(Note message, JournalOutput out) {
+                out.putString(message.text());
+            }
+
+            @Override
+            public Note decode(long time, JournalInput in) {
+                return new Note(time, in.getString());
+            }
+        });
+        var tick = new TradeTick.Of(AAPL, Tick.of(2L, 11.0, 1));
+        try (var journal = new BinaryJournalMessageChannel<Chronological>(dir, codecs)) {
+            journal.send(new Note(1L, "start"));
+            journal.send(tick);
+            journal.send(new Note(3L, null));
+        }
+
+        assertThat(readAll(codecs)).containsExactly(new Note(1L, "start"), tick, new Note(3L, null));
+        assertThat(readAll(MarketEventCodecs.create())).containsExactly(tick);
+    }
+
+    @Test
+    void rejects_messages_without_codec_and_existing_journal() {
+        try (var journal = new BinaryJournalMessageChannel<Chronological>(dir, MarketEventCodecs.create())) {
+            assertThatThrownBy(() -> journal.send(Candle.of(1L, 1.0)))
+                    .isInstanceOf(MessageChannelException.class);
+            journal.send(new TradeTick.Of(AAPL, Tick.of(2L, 11.0, 1)));
+        }
+        assertThatThrownBy(() -> new BinaryJournalMessageChannel<>(dir, MarketEventCodecs.create()))
+                .isInstanceOf(MessageChannelException.class);
+    }
+
+    private List<Object> readAll(JournalCodecs codecs) {
+        var result = new ArrayList<>();
+        try (var source = new BinaryJournalMessageSource<>(dir, codecs)) {
+            Object message;
+            while ((message = source.getMessage()) != null)
+                result.add(message);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,64 @@
+package one.chartsy.financial;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.data.TradeBar;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InstrumentRegistryTest {
+
+    final InstrumentRegistry registry = new InstrumentRegistry();
+
+    @Test
+    void assigns_dense_ids_in_registration_order() {
+        var aapl = new SymbolIdentifier("AAPL", InstrumentType.EQUITY);
+        var msft = new SymbolIdentifier("MSFT", InstrumentType.EQUITY);
+
+        assertThat(registry.register(aapl)).isZero();
+        assertThat(registry.register(msft)).isEqualTo(1);
+        assertThat(registry.register(new SymbolIdentifier("AAPL", InstrumentType.EQUITY))).isZero();
+        assertThat(registry.size()).isEqualTo(2);
+        assertThat(registry.getSymbol(1)).isSameAs(msft);
+        assertThat(registry.getId(new SymbolIdentifier("IBM", InstrumentType.EQUITY))).isEqualTo(MarketEvent.UNASSIGNED_ID);
+        assertThatThrownBy(() -> registry.getSymbol(2)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void symbols_of_different_types_get_different_ids() {
+        assertThat(registry.register(new SymbolIdentifier("ES", InstrumentType.EQUITY)))
+                .isNotEqualTo(registry.register(new SymbolIdentifier("ES", InstrumentType.FUTURE)));
+    }
+
+    @Test
+    void resolves_stamped_and_unstamped_events() {
+        var symbol = new SymbolIdentifier("AAPL", InstrumentType.EQUITY);
+        registry.register(new SymbolIdentifier("MSFT", InstrumentType.EQUITY));
+        int id = registry.register(symbol);
+        var candle = Candle.of(1L, 100.0);
+
+        assertThat(registry.resolve(new TradeBar.Of(symbol, candle, id))).isEqualTo(id);
+        assertThat(registry.resolve(new TradeBar.Of(symbol, candle))).isEqualTo(id);
+        assertThat(registry.resolve(new TradeBar.Of(symbol, candle, 0))).as("foreign id").isEqualTo(id);
+    }
+
+    @Test
+    void instrument_map_indexes_values_by_id() {
+        var map = new InstrumentMap<String>(registry);
+        SymbolIdentity aapl = new SymbolIdentifier("AAPL", InstrumentType.EQUITY);
+        SymbolIdentity msft = new SymbolIdentifier("MSFT", InstrumentType.EQUITY);
+        registry.register(msft);
+
+        assertThat(map.computeIfAbsent(new TradeBar.Of(aapl, Candle.of(1L, 1.0)), SymbolIdentity::name)).isEqualTo("AAPL");
+        assertThat(map.computeIfAbsent(msft, s -> "msft")).isEqualTo("msft");
+        assertThat(map.computeIfAbsent(aapl, s -> "other")).isEqualTo("AAPL");
+        assertThat(map.get(0)).isEqualTo("msft");
+        assertThat(map.get(aapl)).isEqualTo("AAPL");
+        assertThat(map.get(new SymbolIdentifier("IBM", InstrumentType.EQUITY))).isNull();
+        assertThat(map.values()).containsExactly("AAPL", "msft");
+        assertThat(map.size()).isEqualTo(2);
+    }
+}
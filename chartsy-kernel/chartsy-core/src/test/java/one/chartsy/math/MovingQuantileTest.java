@@ -0,0 +1,122 @@
+package one.chartsy.math;
+
+import one.chartsy.data.DoubleSeries;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovingQuantileTest {
+
+    private static final int DATA_SIZE = 1000;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 5, 10, 50, 100, 999, 1000, 2000})
+    void select_gives_order_statistics_of_sliding_window(int windowSize) {
+        var random = new SplittableRandom(windowSize);
+        var quantile = new MovingQuantile(windowSize);
+        var window = new ArrayDeque<Double>();
+
+        for (int i = 0; i < DATA_SIZE; i++) {
+            // use a coarse grid of values to exercise the duplicates
+            double value = random.nextInt(200) / 4.0;
+            if (window.size() == windowSize)
+                window.poll();
+            window.offer(value);
+            quantile.accept(value);
+
+            double[] sorted = window.stream().mapToDouble(Double::doubleValue).sorted().toArray();
+            assertEquals(sorted.length, quantile.count());
+            for (int rank = 0; rank < sorted.length; rank++)
+                assertEquals(sorted[rank], quantile.select(rank), "rank " + rank);
+            assertEquals(expectedQuantile(sorted, 0.1), quantile.getQuantile(0.1), 1e-9);
+            assertEquals(expectedQuantile(sorted, 0.9), quantile.getQuantile(0.9), 1e-9);
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 3, 10, 51})
+    void getMedian_matches_MovingMedian(int windowSize) {
+        var random = new SplittableRandom(42);
+        var quantile = new MovingQuantile(windowSize);
+        var median = new MovingMedian.OfDouble(windowSize);
+
+        for (int i = 0; i < DATA_SIZE; i++) {
+            double value = random.nextDouble(-100, 1000);
+            quantile.accept(value);
+            median.accept(value);
+            assertEquals(median.getMedian(), quantile.getMedian());
+        }
+    }
+
+    @Test
+    void getQuantile_interpolates_between_closest_ranks() {
+        var quantile = new MovingQuantile(4);
+        for (double v : new double[] {40, 10, 30, 20})
+            quantile.accept(v);
+
+        assertEquals(10.0, quantile.getQuantile(0.0));
+        assertEquals(40.0, quantile.getQuantile(1.0));
+        assertEquals(25.0, quantile.getQuantile(0.5));
+        assertEquals(25.0, quantile.getMedian());
+        assertEquals(17.5, quantile.getQuantile(0.25));
+        assertEquals(15.0, quantile.getInterquartileRange());
+    }
+
+    @Test
+    void clear_empties_the_window() {
+        var quantile = new MovingQuantile(3);
+        quantile.accept(1.0);
+        quantile.accept(2.0);
+        quantile.clear();
+
+        assertTrue(quantile.isEmpty());
+        assertThrows(NoSuchElementException.class, quantile::getMedian);
+        quantile.accept(5.0);
+        assertEquals(5.0, quantile.getMedian());
+    }
+
+    @Test
+    void invalid_arguments_are_rejected() {
+        assertThrows(IllegalArgumentException.class, () -> new MovingQuantile(0));
+        var quantile = new MovingQuantile(3);
+        quantile.accept(1.0);
+        assertThrows(IllegalArgumentException.class, () -> quantile.getQuantile(1.5));
+        assertThrows(IllegalArgumentException.class, () -> quantile.getQuantile(Double.NaN));
+        assertThrows(IndexOutOfBoundsException.class, () -> quantile.select(1));
+    }
+
+    @Test
+    void DoubleSeries_movingQuantile_gives_quantiles_of_preceding_periods() {
+        double[] values = new SplittableRandom(7).doubles(100, 0, 10).toArray();
+        var series = DoubleSeries.of(values, null);
+        int periods = 9;
+
+        var quantiles = series.movingQuantile(periods, 0.9);
+        var medians = series.movingMedian(periods);
+
+        assertEquals(series.length() - periods + 1, quantiles.length());
+        assertEquals(quantiles.length(), medians.length());
+        for (int i = 0; i < quantiles.length(); i++) {
+            double[] window = new double[periods];
+            for (int k = 0; k < periods; k++)
+                window[k] = series.get(i + k);
+            Arrays.sort(window);
+            assertEquals(expectedQuantile(window, 0.9), quantiles.get(i), 1e-9);
+            assertEquals(window[periods / 2], medians.get(i));
+        }
+    }
+
+    private static double expectedQuantile(double[] sorted, double p) {
+        double h = (sorted.length - 1) * p;
+        int lo = (int) Math.floor(h);
+        int hi = Math.min(lo + 1, sorted.length - 1);
+        return sorted[lo] + (h - lo) * (sorted[hi] - sorted[lo]);
+    }
+}
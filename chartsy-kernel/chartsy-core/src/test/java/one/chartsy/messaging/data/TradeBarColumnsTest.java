@@ -0,0 +1,47 @@
+package one.chartsy.messaging.data;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.data.SimpleCandle;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TradeBarColumnsTest {
+
+    static final SymbolIdentity AAA = SymbolIdentity.of("AAA"), BBB = SymbolIdentity.of("BBB");
+
+    @Test
+    void loads_stored_rows_into_recycled_event() {
+        var columns = new TradeBarColumns();
+        for (int i = 0; i < 300; i++)
+            columns.add(new TradeBar.Of((i % 3 == 0)? BBB : AAA, Candle.of(i, 10 + i, 12 + i, 9 + i, 11 + i, 100 * i)));
+
+        var event = new MutableTradeBar();
+        assertThat(columns.size()).isEqualTo(300);
+        assertThat(columns.symbolCount()).isEqualTo(2);
+        assertThat(columns.symbol(columns.symbolIndex(0))).isEqualTo(BBB);
+        assertThat(columns.symbol(columns.symbolIndex(1))).isEqualTo(AAA);
+
+        assertThat(columns.load(250, event)).isSameAs(event);
+        assertThat(event.time()).isEqualTo(250L);
+        assertThat(event.get().toImmutable()).isEqualTo(SimpleCandle.of(250, 260, 262, 259, 261, 25_000));
+        assertThatThrownBy(() -> columns.load(300, event)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void snapshot_of_recycled_event_survives_its_reuse() {
+        var event = new MutableTradeBar().setInstrument(AAA, 7);
+        event.get().set(1L, 1.0, 2.0, 0.5, 1.5, 10.0);
+
+        TradeBar retained = event.snapshot();
+        event.get().set(2L, 5.0);
+
+        assertThat(retained.symbol()).isEqualTo(AAA);
+        assertThat(retained.instrumentId()).isEqualTo(7);
+        assertThat(retained.get()).isEqualTo(SimpleCandle.of(1L, 1.0, 2.0, 0.5, 1.5, 10.0));
+        assertThat(retained.snapshot()).isSameAs(retained);
+        assertThat(event.time()).isEqualTo(2L);
+    }
+}
@@ -0,0 +1,129 @@
+package one.chartsy.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ServiceWorkerRunnerTest {
+
+    final List<String> events = new CopyOnWriteArrayList<>();
+
+    @Test
+    void opens_workers_in_order_and_closes_them_in_reverse_order() {
+        var first = new CountingWorker(new TestService("first", 3));
+        var second = new CountingWorker(new TestService("second", 5));
+        var runner = new ServiceWorkerRunner("test", IdleStrategy.busySpin(), first, second);
+
+        runner.run();
+
+        assertThat(events).containsExactly("open:first", "open:second", "closeSignal:first", "closeSignal:second", "close:second", "close:first");
+        assertThat(runner.getFailure()).isEmpty();
+        assertThat(runner.isRunning()).isFalse();
+    }
+
+    @Test
+    void collects_duty_cycle_metrics() {
+        var worker = new CountingWorker(new TestService("service", 10));
+        worker.idleCycles = 4;
+        var runner = new ServiceWorkerRunner("test", IdleStrategy.backoff(), worker);
+
+        runner.run();
+
+        var metrics = runner.getMetrics();
+        assertThat(metrics.cycles()).isEqualTo(10 + 4);
+        assertThat(metrics.workCount()).isEqualTo(10);
+        assertThat(metrics.idleCycles()).isEqualTo(4);
+        assertThat(metrics.workPerCycle()).isEqualTo(10.0 / 14);
+        assertThat(metrics.maxCycleNanos()).isPositive();
+    }
+
+    @Test
+    void close_stops_runner_started_on_another_thread() throws InterruptedException {
+        var worker = new CountingWorker(new TestService("service", Integer.MAX_VALUE));
+        worker.idleCycles = Integer.MAX_VALUE;
+        var runner = new ServiceWorkerRunner("test", IdleStrategy.parking(1, TimeUnit.MILLISECONDS), worker);
+
+        runner.startVirtual();
+        assertThat(runner.isRunning()).isTrue();
+        runner.close();
+
+        assertThat(runner.awaitTermination(0, TimeUnit.SECONDS)).isTrue();
+        assertThat(events).endsWith("closeSignal:service", "close:service");
+        assertThatThrownBy(runner::start).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void worker_failure_terminates_runner_and_closes_opened_workers() {
+        var failing = new CountingWorker(new TestService("failing", 1)) {
+            @Override
+            protected int doWorkUnit(int workDone) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        var runner = new ServiceWorkerRunner("test", IdleStrategy.yielding(), new CountingWorker(new TestService("other", 1)), failing);
+
+        runner.run();
+
+        assertThat(runner.getFailure()).get().extracting(Throwable::getMessage).isEqualTo("boom");
+        assertThat(events).containsExactly("open:other", "open:failing", "close:failing", "close:other");
+    }
+
+    class TestService implements Service, ServiceWorkerAware {
+        final String id;
+        final int workToDo;
+        int workDone;
+
+        TestService(String id, int workToDo) {
+            this.id = id;
+            this.workToDo = workToDo;
+        }
+
+        @Override
+        public String getId() {
+            return id;
+        }
+
+        @Override
+        public void open() {
+            events.add("open:" + id);
+        }
+
+        @Override
+        public void close() {
+            events.add("close:" + id);
+        }
+
+        @Override
+        public void onCloseSignal() {
+            events.add("closeSignal:" + id);
+        }
+
+        @Override
+        public boolean wantsToClose() {
+            return workDone >= workToDo;
+        }
+    }
+
+    static class CountingWorker extends ServiceWorker<TestService> {
+        int idleCycles;
+
+        CountingWorker(TestService service) {
+            super(service);
+        }
+
+        @Override
+        protected int doWorkUnit(int workDone) {
+            if (idleCycles > 0 && service.workDone % 3 == 1) {
+                idleCycles--;
+                return 0;
+            }
+            service.workDone++;
+            return 1;
+        }
+    }
+}
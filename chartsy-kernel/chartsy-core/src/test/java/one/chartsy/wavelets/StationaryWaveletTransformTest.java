@@ -0,0 +1,126 @@
+package one.chartsy.wavelets;
+
+import one.chartsy.data.RealVector;
+import one.chartsy.financial.indicators.WaveletEnergy;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class StationaryWaveletTransformTest {
+
+    static Stream<Wavelet> wavelets() {
+        return Stream.of(new HaarWavelet(), new DaubechiesWavelet(2), new DaubechiesWavelet(4), new SymletWavelet(4));
+    }
+
+    static double[] randomWalk(int n, long seed) {
+        var rnd = new Random(seed);
+        double[] x = new double[n];
+        for (int i = 1; i < n; i++)
+            x[i] = x[i - 1] + rnd.nextGaussian();
+        return x;
+    }
+
+    @ParameterizedTest
+    @MethodSource("wavelets")
+    void matches_batch_transform_on_identical_windows(Wavelet wavelet) {
+        int levels = 3, windowLength = 64, taps = wavelet.getPrimalLowpassCoefficients().length;
+        double[] series = randomWalk(200, 7);
+        double[][] detail = new double[levels + 1][series.length], approximation = new double[levels + 1][series.length];
+        var swt = new StationaryWaveletTransform(wavelet, levels);
+        for (int t = 0; t < series.length; t++) {
+            swt.accept(series[t]);
+            for (int j = 1; j <= levels; j++) {
+                detail[j][t] = swt.getDetail(j);
+                approximation[j][t] = swt.getApproximation(j);
+            }
+        }
+        assertThat(swt.isReady()).isTrue();
+        assertThat(swt.getLast()).isEqualTo(approximation[levels][series.length - 1]);
+
+        var dwt = new DiscreteWaveletTransform(wavelet);
+        int compared = 0;
+        for (int start : new int[] { 0, 13, 100, series.length - windowLength }) {
+            double[] window = new double[windowLength];
+            System.arraycopy(series, start, window, 0, windowLength);
+            double[] batch = dwt.transform(RealVector.from(window), levels).values();
+
+            for (int j = 1; j <= levels; j++) {
+                int count = windowLength >> j;
+                for (int i = 0; i < count; i++) {
+                    int time = start + (1 << j) * i + ((1 << j) - 1) * (taps - 1);
+                    if (time >= start + windowLength)
+                        break;
+                    assertThat(detail[j][time]).isCloseTo(batch[count + i], within(1e-9));
+                    if (j == levels)
+                        assertThat(approximation[j][time]).isCloseTo(batch[i], within(1e-9));
+                    compared++;
+                }
+            }
+        }
+        assertThat(compared).isGreaterThan(40);
+    }
+
+    @Test
+    void haar_coefficients_after_each_value_are_last_batch_coefficients_of_window() {
+        int levels = 4, windowLength = 32;
+        double[] series = randomWalk(windowLength, 3);
+        var swt = new StationaryWaveletTransform(new HaarWavelet(), levels);
+        for (double value : series)
+            swt.accept(value);
+
+        double[] batch = new DiscreteWaveletTransform(new HaarWavelet()).transform(RealVector.from(series), levels).values();
+        for (int j = 1; j <= levels; j++)
+            assertThat(swt.getDetail(j)).isCloseTo(batch[(windowLength >> (j - 1)) - 1], within(1e-12));
+        assertThat(swt.getLag()).isEqualTo(15);
+    }
+
+    @Test
+    void levels_become_ready_progressively() {
+        var swt = new StationaryWaveletTransform(new HaarWavelet(), 3);
+        swt.accept(1.0);
+        assertThat(swt.getReadyLevels()).isZero();
+        assertThat(swt.getDetail(1)).isNaN();
+        swt.accept(3.0);
+        assertThat(swt.getReadyLevels()).isEqualTo(1);
+        assertThat(swt.getApproximation(1)).isCloseTo(4.0 / Math.sqrt(2), within(1e-12));
+        for (int i = 0; i < 5; i++)
+            swt.accept(i);
+        assertThat(swt.getReadyLevels()).isEqualTo(2);
+        swt.accept(5.0);
+        assertThat(swt.getReadyLevels()).isEqualTo(3);
+        assertThat(swt.isReady()).isTrue();
+    }
+
+    @Test
+    void wavelet_energy_sums_squared_details_over_period() {
+        int levels = 2, period = 10;
+        double[] series = randomWalk(100, 11);
+        var energy = new WaveletEnergy(new DaubechiesWavelet(2), levels, period);
+        var swt = new StationaryWaveletTransform(new DaubechiesWavelet(2), levels);
+        var squares = new double[series.length][levels + 1];
+        int readyCount = 0;
+        for (int t = 0; t < series.length; t++) {
+            energy.accept(series[t]);
+            swt.accept(series[t]);
+            if (!swt.isReady())
+                continue;
+            readyCount++;
+            for (int j = 1; j <= levels; j++)
+                squares[t][j] = swt.getDetail(j) * swt.getDetail(j);
+            assertThat(energy.isReady()).isEqualTo(readyCount >= period);
+        }
+
+        for (int j = 1; j <= levels; j++) {
+            double expected = 0;
+            for (int t = series.length - period; t < series.length; t++)
+                expected += squares[t][j];
+            assertThat(energy.getEnergy(j)).isCloseTo(expected, within(1e-9));
+        }
+    }
+}
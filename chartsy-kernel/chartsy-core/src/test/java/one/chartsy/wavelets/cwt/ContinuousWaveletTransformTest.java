@@ -0,0 +1,93 @@
+package one.chartsy.wavelets.cwt;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class ContinuousWaveletTransformTest {
+
+    static final Wavelet WAVELET = new MexicanHat();
+
+    static double[] randomWalk(int n, long seed) {
+        var rnd = new Random(seed);
+        double[] x = new double[n];
+        for (int i = 1; i < n; i++)
+            x[i] = x[i - 1] + rnd.nextGaussian();
+        return x;
+    }
+
+    /** The straightforward per-scale computation the transform is expected to reproduce. */
+    static double[][] referenceRow(double[] signal, double a) {
+        int n = signal.length;
+        double[] f_re = signal.clone(), f_im = new double[n];
+        Fourier.inverseTransform(f_re, f_im);
+        double[] wt_re = new double[n], wt_im = new double[n];
+        double sqrt_a_n = Math.sqrt(a) / n, twoPIn = 2.0 * Math.PI / n;
+        for (int dx = 0; dx < n; dx++) {
+            double w = (dx <= n >> 1)? twoPIn * a * dx : -twoPIn * a * (n - dx);
+            double W_re = sqrt_a_n * WAVELET.reF(w), W_im = sqrt_a_n * WAVELET.imF(w);
+            wt_re[dx] = f_re[dx] * W_re + f_im[dx] * W_im;
+            wt_im[dx] = f_im[dx] * W_re - f_re[dx] * W_im;
+        }
+        Fourier.transform(wt_re, wt_im);
+        return new double[][] { wt_re, wt_im };
+    }
+
+    @Test
+    void transform_matches_per_scale_reference_and_leaves_input_unchanged() {
+        double[] signal = randomWalk(256, 1);
+        double[] re = signal.clone(), im = new double[signal.length];
+
+        var wt = new ContinuousWaveletTransform(WAVELET).transform(re, im);
+
+        assertThat(re).isEqualTo(signal);
+        assertThat(im).containsOnly(0.0);
+        assertThat(wt.rows()).isEqualTo(wt.getScales().length).isEqualTo(7 * 4);
+        for (int row = 0; row < wt.rows(); row++) {
+            double[][] expected = referenceRow(signal, wt.getScales()[row]);
+            assertThat(wt.getRealCoeffs().get(row)).containsExactly(expected[0], within(1e-12));
+            assertThat(wt.getImagCoeffs().get(row)).containsExactly(expected[1], within(1e-12));
+        }
+    }
+
+    @Test
+    void parallel_transform_gives_same_result_as_sequential() {
+        double[] signal = randomWalk(4096, 2);
+        var parallel = new ContinuousWaveletTransform(WAVELET, new ForkJoinPool(4)).transform(signal, new double[signal.length]);
+        var sequential = new ContinuousWaveletTransform(WAVELET).transform(signal, new double[signal.length]);
+
+        for (int row = 0; row < sequential.rows(); row++) {
+            assertThat(parallel.getRealCoeffs().get(row)).isEqualTo(sequential.getRealCoeffs().get(row));
+            assertThat(parallel.getImagCoeffs().get(row)).isEqualTo(sequential.getImagCoeffs().get(row));
+        }
+    }
+
+    @Test
+    void float_transform_approximates_double_transform() {
+        double[] signal = randomWalk(300, 3);
+        var cwt = new ContinuousWaveletTransform(WAVELET);
+        var wt = cwt.transform(signal, new double[signal.length]);
+        var fwt = cwt.transformToFloat(signal, new double[signal.length]);
+
+        assertThat(fwt.rows()).isEqualTo(wt.rows());
+        assertThat(fwt.cols()).isEqualTo(300);
+        for (int row = 0; row < wt.rows(); row++) {
+            double[] re = wt.getRealCoeffs().get(row);
+            for (int col = 0; col < re.length; col++)
+                assertThat((double) fwt.re(row)[col]).isCloseTo(re[col], within(1e-5 * (1 + Math.abs(re[col]))));
+        }
+    }
+
+    @Test
+    void filter_bank_is_cached_per_length_and_scales() {
+        var cwt = new ContinuousWaveletTransform(WAVELET);
+        double[] scales = cwt.createScales(512);
+
+        assertThat(cwt.getFilterBank(512, scales)).isSameAs(cwt.getFilterBank(512, scales.clone()));
+        assertThat(cwt.getFilterBank(1024, scales)).isNotSameAs(cwt.getFilterBank(512, scales));
+    }
+}
@@ -0,0 +1,105 @@
+package one.chartsy.wavelets.cwt;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class FourierTest {
+
+    /** The straightforward O(n^2) transform the plans are expected to reproduce. */
+    static double[][] naiveDft(double[] re, double[] im) {
+        int n = re.length;
+        double[] outRe = new double[n], outIm = new double[n];
+        for (int k = 0; k < n; k++) {
+            for (int j = 0; j < n; j++) {
+                double angle = 2 * Math.PI * ((long) j * k % n) / n;
+                outRe[k] += re[j] * Math.cos(angle) + im[j] * Math.sin(angle);
+                outIm[k] += im[j] * Math.cos(angle) - re[j] * Math.sin(angle);
+            }
+        }
+        return new double[][] { outRe, outIm };
+    }
+
+    static double[] random(int n, Random rnd) {
+        double[] x = new double[n];
+        for (int i = 0; i < n; i++)
+            x[i] = rnd.nextGaussian();
+        return x;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 3, 4, 5, 6, 8, 9, 10, 12, 15, 16, 20, 25, 27, 30, 45, 60, 64, 100, 120, 7, 11, 14, 77 })
+    void forward_transform_matches_naive_dft(int n) {
+        var rnd = new Random(n);
+        double[] re = random(n, rnd), im = random(n, rnd);
+        double[][] expected = naiveDft(re, im);
+
+        new Fourier(n).forward(re, im);
+
+        for (int k = 0; k < n; k++) {
+            assertThat(re[k]).isCloseTo(expected[0][k], within(1e-9));
+            assertThat(im[k]).isCloseTo(expected[1][k], within(1e-9));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 6, 48, 75, 360, 13 })
+    void inverse_transform_gives_unscaled_signal(int n) {
+        var rnd = new Random(n);
+        double[] re = random(n, rnd), im = random(n, rnd);
+        double[] re2 = re.clone(), im2 = im.clone();
+
+        var fourier = new Fourier(n);
+        fourier.forward(re2, im2);
+        fourier.inverse(re2, im2);
+
+        for (int j = 0; j < n; j++) {
+            assertThat(re2[j] / n).isCloseTo(re[j], within(1e-12));
+            assertThat(im2[j] / n).isCloseTo(im[j], within(1e-12));
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 2, 4, 6, 8, 10, 12, 18, 30, 64, 90, 98, 5, 9, 15 })
+    void real_transform_matches_complex_transform(int n) {
+        double[] x = random(n, new Random(n));
+        double[][] expected = naiveDft(x, new double[n]);
+        var plan = new RealFourier(n);
+        double[] re = new double[plan.spectrumLength()], im = new double[plan.spectrumLength()];
+
+        plan.forward(x, re, im);
+
+        assertThat(plan.spectrumLength()).isEqualTo(n / 2 + 1);
+        for (int k = 0; k < plan.spectrumLength(); k++) {
+            assertThat(re[k]).isCloseTo(expected[0][k], within(1e-9));
+            assertThat(im[k]).isCloseTo(expected[1][k], within(1e-9));
+        }
+
+        double[] y = new double[n];
+        plan.inverse(re, im, y);
+        for (int j = 0; j < n; j++)
+            assertThat(y[j] / n).isCloseTo(x[j], within(1e-12));
+    }
+
+    @Test
+    void nextFastLength_gives_smallest_5_smooth_length() {
+        assertThat(Fourier.nextFastLength(0)).isEqualTo(1);
+        assertThat(Fourier.nextFastLength(7)).isEqualTo(8);
+        assertThat(Fourier.nextFastLength(13)).isEqualTo(15);
+        assertThat(Fourier.nextFastLength(97)).isEqualTo(100);
+        assertThat(Fourier.nextFastLength(1025)).isEqualTo(1080);
+        assertThat(Fourier.nextFastLength(1024)).isEqualTo(1024);
+    }
+
+    @Test
+    void plan_rejects_arrays_shorter_than_its_length() {
+        assertThatThrownBy(() -> new Fourier(12).forward(new double[6], new double[6]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -19,16 +19,9 @@ import java.util.List;
 public class JdbcSymbolGroupRepository implements SymbolGroupRepository {
 
     private static final String NEXT_ID = "SELECT NEXT VALUE FOR ONE_SYMBOL_GROUP_IDS";
-    private static final String SELECT_ROOTS = """
+    private static final String SELECT_ALL = """
             SELECT id, parent_group_id, name, content_type, stereotype, data_provider_descriptor, created, last_modified
             FROM ONE_SYMBOL_GROUPS
-            WHERE parent_group_id IS NULL
-            ORDER BY id
-            """;
-    private static final String SELECT_BY_PARENT = """
-            SELECT id, parent_group_id, name, content_type, stereotype, data_provider_descriptor, created, last_modified
-            FROM ONE_SYMBOL_GROUPS
-            WHERE parent_group_id = ?
             ORDER BY id
             """;
     private static final String INSERT = """
@@ -57,26 +50,33 @@ public class JdbcSymbolGroupRepository implements SymbolGroupRepository {
 
     private final DataSource dataSource;
     private final ApplicationEventPublisher eventPublisher;
+    private final SymbolGroupTreeIndex treeIndex = new SymbolGroupTreeIndex(this::findAll);
 
     public JdbcSymbolGroupRepository(DataSource dataSource, ApplicationEventPublisher eventPublisher) {
         this.dataSource = dataSource;
         this.eventPublisher = eventPublisher;
     }
 
+    /**
+     * Gives the in-memory index of the symbol group hierarchy serving the {@link #findByParentGroupId} lookups.
+     */
+    public SymbolGroupTreeIndex getTreeIndex() {
+        return treeIndex;
+    }
+
     @Override
     public List<SymbolGroupAggregateData> findByParentGroupId(Long parentId) {
-        var sql = (parentId == null) ? SELECT_ROOTS : SELECT_BY_PARENT;
+        return treeIndex.findByParentGroupId(parentId);
+    }
+
+    public List<SymbolGroupAggregateData> findAll() {
         try (var connection = dataSource.getConnection();
-             var statement = connection.prepareStatement(sql)) {
-            if (parentId != null)
-                statement.setLong(1, parentId);
-
-            try (var resultSet = statement.executeQuery()) {
-                var groups = new ArrayList<SymbolGroupAggregateData>();
-                while (resultSet.next())
-                    groups.add(mapGroup(resultSet));
-                return groups;
-            }
+             var statement = connection.prepareStatement(SELECT_ALL);
+             var resultSet = statement.executeQuery()) {
+            var groups = new ArrayList<SymbolGroupAggregateData>();
+            while (resultSet.next())
+                groups.add(mapGroup(resultSet));
+            return groups;
         } catch (SQLException e) {
             throw new IllegalStateException("Cannot load symbol groups", e);
         }
@@ -90,6 +90,7 @@ public class JdbcSymbolGroupRepository implements SymbolGroupRepository {
             else
                 update(connection, group);
 
+            treeIndex.update(group);
             eventPublisher.publishEvent(group);
             return group;
         } catch (SQLException e) {
@@ -112,6 +113,7 @@ public class JdbcSymbolGroupRepository implements SymbolGroupRepository {
                 throw new IllegalStateException("Expected to delete one symbol group, deleted " + deletedRows);
 
             group.markRemoved();
+            treeIndex.update(group);
             eventPublisher.publishEvent(group);
         } catch (SQLException e) {
             throw new IllegalStateException("Cannot delete symbol group", e);
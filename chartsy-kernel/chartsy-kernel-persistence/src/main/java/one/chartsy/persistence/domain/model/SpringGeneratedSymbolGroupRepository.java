@@ -11,6 +11,7 @@ public class SpringGeneratedSymbolGroupRepository implements SymbolGroupReposito
 
     private final GeneratedSymbolGroupRepository delegate;
     private final ApplicationEventPublisher eventPublisher;
+    private final SymbolGroupTreeIndex treeIndex;
 
     public SpringGeneratedSymbolGroupRepository(
             GeneratedSymbolGroupRepository delegate,
@@ -18,16 +19,22 @@ public class SpringGeneratedSymbolGroupRepository implements SymbolGroupReposito
     ) {
         this.delegate = delegate;
         this.eventPublisher = eventPublisher;
+        this.treeIndex = new SymbolGroupTreeIndex(delegate::findAll);
+    }
+
+    public SymbolGroupTreeIndex getTreeIndex() {
+        return treeIndex;
     }
 
     @Override
     public List<SymbolGroupAggregateData> findByParentGroupId(Long parentId) {
-        return delegate.findByParentGroupId(parentId);
+        return treeIndex.findByParentGroupId(parentId);
     }
 
     @Override
     public SymbolGroupAggregateData save(SymbolGroupAggregateData group) {
         var saved = delegate.save(group);
+        treeIndex.update(saved);
         eventPublisher.publishEvent(saved);
         return saved;
     }
@@ -41,6 +48,7 @@ public class SpringGeneratedSymbolGroupRepository implements SymbolGroupReposito
     public void delete(SymbolGroupAggregateData group) {
         delegate.delete(group);
         group.markRemoved();
+        treeIndex.update(group);
         eventPublisher.publishEvent(group);
     }
 
@@ -0,0 +1,124 @@
+/* Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0 */
+package one.chartsy.persistence.domain.model;
+
+import one.chartsy.persistence.domain.SymbolGroupAggregateData;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * An in-memory parent to children index of the symbol group hierarchy.
+ * <p>
+ * The whole hierarchy is loaded by a single query on the first lookup, and from then on it is kept in sync
+ * with the saved and deleted groups, which the owning repository passes to the index right before publishing
+ * the change as an application event. The index keeps its own copies of the groups, so the later changes made
+ * by the callers to their instances are not visible until saved.
+ */
+public class SymbolGroupTreeIndex {
+
+    private static final Comparator<SymbolGroupAggregateData> BY_ID = Comparator.comparing(SymbolGroupAggregateData::getId);
+
+    private final Supplier<? extends Iterable<SymbolGroupAggregateData>> loader;
+    private Map<Long, List<SymbolGroupAggregateData>> childrenByParentId;
+    private final Map<Long, Long> parentIdById = new HashMap<>();
+
+    /**
+     * Constructs an index loading the hierarchy lazily.
+     *
+     * @param loader the query giving all symbol groups at once
+     */
+    public SymbolGroupTreeIndex(Supplier<? extends Iterable<SymbolGroupAggregateData>> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Gives the children of the given group, ordered by id.
+     *
+     * @param parentId the parent group id, or {@code null} for the root groups
+     * @return the children
+     */
+    public synchronized List<SymbolGroupAggregateData> findByParentGroupId(Long parentId) {
+        return List.copyOf(index().getOrDefault(parentId, List.of()));
+    }
+
+    private Map<Long, List<SymbolGroupAggregateData>> index() {
+        if (childrenByParentId == null) {
+            var index = new HashMap<Long, List<SymbolGroupAggregateData>>();
+            for (var group : loader.get()) {
+                index.computeIfAbsent(group.getParentGroupId(), __ -> new ArrayList<>()).add(group);
+                parentIdById.put(group.getId(), group.getParentGroupId());
+            }
+            index.values().forEach(children -> children.sort(BY_ID));
+            childrenByParentId = index;
+        }
+        return childrenByParentId;
+    }
+
+    /**
+     * Updates the index with the saved, or {@link SymbolGroupAggregateData#getRemoved() removed}, symbol group.
+     * Removing a group removes its whole subtree from the index. Has no effect until the index is loaded, and
+     * applying the same change again is harmless.
+     *
+     * @param group the changed group
+     */
+    public synchronized void update(SymbolGroupAggregateData group) {
+        if (childrenByParentId == null || group.getId() == null)
+            return;
+
+        Long id = group.getId();
+        if (parentIdById.containsKey(id)) {
+            var siblings = childrenByParentId.get(parentIdById.remove(id));
+            if (siblings != null)
+                siblings.removeIf(sibling -> id.equals(sibling.getId()));
+        }
+        if (group.getRemoved() != null) {
+            removeDescendants(id);
+        } else {
+            group = copyOf(group);
+            var siblings = childrenByParentId.computeIfAbsent(group.getParentGroupId(), __ -> new ArrayList<>());
+            int index = Collections.binarySearch(siblings, group, BY_ID);
+            if (index >= 0)
+                siblings.set(index, group);
+            else
+                siblings.add(-index - 1, group);
+            parentIdById.put(id, group.getParentGroupId());
+        }
+    }
+
+    private void removeDescendants(Long id) {
+        var children = childrenByParentId.remove(id);
+        if (children != null) {
+            for (var child : children) {
+                parentIdById.remove(child.getId());
+                removeDescendants(child.getId());
+            }
+        }
+    }
+
+    private static SymbolGroupAggregateData copyOf(SymbolGroupAggregateData group) {
+        var copy = new SymbolGroupAggregateData();
+        copy.setId(group.getId());
+        copy.setParentGroupId(group.getParentGroupId());
+        copy.setName(group.getName());
+        copy.setContentType(group.getContentType());
+        copy.setStereotype(group.getStereotype());
+        copy.setDataProviderDescriptor(group.getDataProviderDescriptor());
+        copy.setCreated(group.getCreated());
+        copy.setLastModified(group.getLastModified());
+        return copy;
+    }
+
+    /**
+     * Discards the index, which is reloaded on the next lookup.
+     */
+    public synchronized void invalidate() {
+        childrenByParentId = null;
+        parentIdById.clear();
+    }
+}
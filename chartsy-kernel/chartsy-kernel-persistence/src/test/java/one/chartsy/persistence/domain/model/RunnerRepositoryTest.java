@@ -81,6 +81,35 @@ class RunnerRepositoryTest {
         }
     }
 
+    @Test
+    void symbol_group_hierarchy_lookups_follow_saves_and_deletes() {
+        try (var context = createContext()) {
+            var repository = context.getBean(SymbolGroupRepository.class);
+            var first = repository.save(newFolder("First", null));
+            var second = repository.save(newFolder("Second", null));
+            var child = repository.save(newFolder("Child", first.getId()));
+
+            assertThat(repository.findByParentGroupId(first.getId())).extracting(SymbolGroupAggregateData::getName).containsExactly("Child");
+
+            child.setParentGroupId(second.getId());
+            repository.save(child);
+            assertThat(repository.findByParentGroupId(first.getId())).isEmpty();
+            assertThat(repository.findByParentGroupId(second.getId())).extracting(SymbolGroupAggregateData::getName).containsExactly("Child");
+
+            repository.delete(child);
+            assertThat(repository.findByParentGroupId(second.getId())).isEmpty();
+            assertThat(repository.findByParentGroupId(null)).extracting(SymbolGroupAggregateData::getId).contains(first.getId(), second.getId());
+        }
+    }
+
+    private static SymbolGroupAggregateData newFolder(String name, Long parentId) {
+        var group = new SymbolGroupAggregateData();
+        group.setParentGroupId(parentId);
+        group.setName(name);
+        group.setContentType(SymbolGroupContent.Type.FOLDER);
+        return group;
+    }
+
     private AnnotationConfigApplicationContext createContext() {
         var context = new AnnotationConfigApplicationContext();
         context.registerBean(KernelConfiguration.class, KernelConfiguration::new);
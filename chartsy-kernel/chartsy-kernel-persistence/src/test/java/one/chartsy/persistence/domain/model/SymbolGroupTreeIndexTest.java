@@ -0,0 +1,59 @@
+/* Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0 */
+package one.chartsy.persistence.domain.model;
+
+import one.chartsy.persistence.domain.SymbolGroupAggregateData;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SymbolGroupTreeIndexTest {
+
+    static SymbolGroupAggregateData group(long id, Long parentId, String name) {
+        var group = new SymbolGroupAggregateData();
+        group.setId(id);
+        group.setParentGroupId(parentId);
+        group.setName(name);
+        return group;
+    }
+
+    static SymbolGroupAggregateData removed(SymbolGroupAggregateData group) {
+        group.markRemoved();
+        return group;
+    }
+
+    @Test
+    void keeps_own_copy_of_updated_group() {
+        var index = new SymbolGroupTreeIndex(() -> List.of(group(1, null, "Root")));
+        index.findByParentGroupId(null);
+
+        var child = group(2, 1L, "Child");
+        index.update(child);
+        child.setName("Renamed but not saved");
+        child.setParentGroupId(null);
+
+        assertThat(index.findByParentGroupId(1L)).singleElement()
+                .extracting(SymbolGroupAggregateData::getName).isEqualTo("Child");
+        assertThat(index.findByParentGroupId(null)).extracting(SymbolGroupAggregateData::getId).containsExactly(1L);
+    }
+
+    @Test
+    void removing_group_purges_its_subtree() {
+        var index = new SymbolGroupTreeIndex(() -> List.of(
+                group(1, null, "Root"), group(2, 1L, "Child"), group(3, 2L, "Grandchild"), group(4, 1L, "Sibling")));
+        index.findByParentGroupId(null);
+
+        index.update(removed(group(2, 1L, "Child")));
+
+        assertThat(index.findByParentGroupId(1L)).extracting(SymbolGroupAggregateData::getId).containsExactly(4L);
+        assertThat(index.findByParentGroupId(2L)).isEmpty();
+        assertThat(index.findByParentGroupId(3L)).isEmpty();
+
+        // the purged grandchild is re-added as a new entry, not moved away from its stale parent
+        index.update(group(3, 4L, "Grandchild"));
+        assertThat(index.findByParentGroupId(4L)).extracting(SymbolGroupAggregateData::getId).containsExactly(3L);
+        assertThat(index.findByParentGroupId(2L)).isEmpty();
+    }
+}
@@ -3,7 +3,8 @@
  */
 package one.chartsy.simulation.engine;
 
-import one.chartsy.data.stream.QueuedMessageBuffer;
+import one.chartsy.data.stream.RingMessageBuffer;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.simulation.engine.price.PlaybackMarketPriceService;
 import one.chartsy.simulation.reporting.BacktestReport;
 import one.chartsy.simulation.time.PlaybackClock;
@@ -16,7 +17,6 @@ import one.chartsy.trade.service.AlgorithmEngine;
 import one.chartsy.trade.service.connector.TradeConnectorContext;
 import one.chartsy.trade.service.connector.TradeConnectorProxy;
 
-import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -33,6 +33,8 @@ import java.util.concurrent.atomic.AtomicInteger;
  *     <li>Creates a bounded message queue to manage sequential market events efficiently.</li>
  *     <li>Instantiates and configures the {@link Algorithm} using the provided {@link AlgorithmFactory}.</li>
  *     <li>Obtains market data from the configured {@link MarketSupplierFactory}, ensuring time-aligned delivery.</li>
+ *     <li>Shares a single {@link InstrumentRegistry} among the data supplier, the algorithm, the price service
+ *         and the trading simulator, so that the instrument state is indexed by the dense instrument ids.</li>
  *     <li>Executes the backtest within a single-threaded, deterministic event loop.</li>
  *     <li>Tracks execution time, facilitating performance measurement and optimization.</li>
  * </ul>
@@ -62,16 +64,17 @@ public class AlgorithmBacktestRunner {
     public BacktestReport run(AlgorithmBacktestContext configuration) {
         var startTime = System.nanoTime();
         var clock = new PlaybackClock();
-        var queue = new QueuedMessageBuffer<>(1024);
+        var queue = RingMessageBuffer.singleProducer(1024);
         var engine = new AlgorithmEngine(clock);
-        var context = new DefaultAlgorithmContext(configuration.algorithmName(), clock, queue, engine, engine.getSequenceGenerator());
+        var instruments = new InstrumentRegistry();
+        var context = new DefaultAlgorithmContext(configuration.algorithmName(), clock, queue, engine, engine.getSequenceGenerator(), instruments);
         var algorithm = configuration.algorithmFactory().create(context);
-        var priceService = new PlaybackMarketPriceService();
-        var tradingContext = new TradeConnectorContext("SIMULATOR", clock, priceService, engine);
+        var priceService = new PlaybackMarketPriceService(instruments);
+        var tradingContext = new TradeConnectorContext("SIMULATOR", clock, priceService, engine, instruments);
         var tradingSimulator = new TradingSimulator(tradingContext);
-        var tradingServiceProxy = new TradeConnectorProxy(tradingSimulator, new ArrayBlockingQueue<>(1024));
+        var tradingServiceProxy = new TradeConnectorProxy(tradingSimulator, RingMessageBuffer.singleProducer(1024));
         var tradingWorker = tradingServiceProxy.getWorker();
-        var worker = new PlaybackAlgorithmWorker(algorithm, queue, configuration.marketSupplierFactory().create(), clock, priceService, tradingSimulator, tradingWorker);
+        var worker = new PlaybackAlgorithmWorker(algorithm, queue, configuration.marketSupplierFactory().create(instruments), clock, priceService, tradingSimulator, tradingWorker);
 
         context.addShutdownResponseHandler(engine);
         engine.addAlgorithm(algorithm);
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.engine;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.MarketMessageHandler;
+import one.chartsy.messaging.data.TradeBar;
+import one.chartsy.trade.algorithm.MarketSupplier;
+import one.chartsy.util.CloseHelper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * An immutable, primitive matrix of the bar-to-bar return factors of multiple symbols, aligned by the timestamps.
+ * <p>
+ * The matrix has a row for every distinct timestamp of the source stream and a column for every symbol.
+ * A cell of row {@code t} holds the open, high, low and close of the bar at {@code t} divided by the close of
+ * the previous bar of the same symbol, and the volume of the bar; the cells with no such pair of bars hold
+ * {@code NaN} factors. The first bar of every symbol is kept as is, to anchor the synthetic paths, and the
+ * presence of the bars is kept to reproduce the trading calendar of every symbol.
+ * <p>
+ * A single matrix is shared by any number of concurrently generated {@link BlockBootstrappedMarketFactory
+ * bootstrapped paths}.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class BarReturnMatrix {
+
+    private final long[] times;
+    private final SymbolIdentity[] symbols;
+    private final Candle[] firstBars;
+    private final int[] firstRows;
+    private final BitSet present;
+    private final double[] open, high, low, close, volume;
+
+
+    private BarReturnMatrix(Collector collector) {
+        int rows = collector.times.size(), columns = collector.registry.size();
+        this.times = new long[rows];
+        for (int t = 0; t < rows; t++)
+            times[t] = collector.times.get(t);
+        this.symbols = new SymbolIdentity[columns];
+        for (int s = 0; s < columns; s++)
+            symbols[s] = collector.registry.getSymbol(s);
+        this.firstBars = new Candle[columns];
+        this.firstRows = new int[columns];
+        this.present = new BitSet(rows * columns);
+        this.open = new double[rows * columns];
+        this.high = new double[rows * columns];
+        this.low = new double[rows * columns];
+        this.close = new double[rows * columns];
+        this.volume = new double[rows * columns];
+        Arrays.fill(open, Double.NaN);
+        Arrays.fill(high, Double.NaN);
+        Arrays.fill(low, Double.NaN);
+        Arrays.fill(close, Double.NaN);
+
+        double[] lastClose = new double[columns];
+        for (int i = 0; i < collector.bars.size(); i++) {
+            int t = collector.rows[i], s = collector.columns[i];
+            Candle bar = collector.bars.get(i);
+            int cell = t * columns + s;
+            if (firstBars[s] == null) {
+                firstBars[s] = bar;
+                firstRows[s] = t;
+            } else if (!present.get(cell)) {
+                double base = lastClose[s];
+                if (Double.isFinite(base) && base != 0.0) {
+                    double o = bar.open() / base, c = bar.close() / base;
+                    open[cell] = o;
+                    close[cell] = c;
+                    high[cell] = Math.max(bar.high() / base, Math.max(o, c));
+                    low[cell] = Math.min(bar.low() / base, Math.min(o, c));
+                    volume[cell] = bar.volume();
+                }
+            } else {
+                continue; // duplicate bar of the symbol at the same time, keep the first one
+            }
+            present.set(cell);
+            lastClose[s] = bar.close();
+        }
+    }
+
+    /**
+     * Drains the given supplier of {@code TradeBar}s into a new return matrix. The supplier is closed afterwards.
+     *
+     * @param source the market supplier, not opened yet
+     * @return the return matrix
+     * @throws IllegalStateException if the supplier delivers other events than {@code TradeBar}s,
+     *                               or the timestamps are not ascending
+     */
+    public static BarReturnMatrix createFrom(MarketSupplier source) {
+        var collector = new Collector();
+        source.open();
+        try {
+            while (source.poll(collector, Integer.MAX_VALUE) > 0)
+                ;
+        } finally {
+            CloseHelper.closeQuietly(source);
+        }
+        return new BarReturnMatrix(collector);
+    }
+
+    /** The number of rows, i.e. the distinct timestamps. */
+    public int rowCount() {
+        return times.length;
+    }
+
+    /** The number of columns, i.e. the symbols. */
+    public int columnCount() {
+        return symbols.length;
+    }
+
+    public long time(int row) {
+        return times[row];
+    }
+
+    public SymbolIdentity symbol(int column) {
+        return symbols[column];
+    }
+
+    /** Whether the source stream had a bar of the symbol at the row. */
+    public boolean isPresent(int row, int column) {
+        return present.get(row * symbols.length + column);
+    }
+
+    /** The row of the first bar of the symbol. */
+    public int firstRow(int column) {
+        return firstRows[column];
+    }
+
+    /** The first bar of the symbol, as supplied by the source stream. */
+    public Candle firstBar(int column) {
+        return firstBars[column];
+    }
+
+    /** Whether the cell holds the finite, positive return factors. */
+    public boolean isUsable(int row, int column) {
+        int cell = row * symbols.length + column;
+        return isFinitePositive(open[cell]) && isFinitePositive(high[cell])
+                && isFinitePositive(low[cell]) && isFinitePositive(close[cell]);
+    }
+
+    private static boolean isFinitePositive(double x) {
+        return Double.isFinite(x) && x > 0.0;
+    }
+
+    public double openFactor(int row, int column) {
+        return open[row * symbols.length + column];
+    }
+
+    public double highFactor(int row, int column) {
+        return high[row * symbols.length + column];
+    }
+
+    public double lowFactor(int row, int column) {
+        return low[row * symbols.length + column];
+    }
+
+    public double closeFactor(int row, int column) {
+        return close[row * symbols.length + column];
+    }
+
+    public double volume(int row, int column) {
+        return volume[row * symbols.length + column];
+    }
+
+    private static final class Collector implements MarketMessageHandler {
+        private final InstrumentRegistry registry = new InstrumentRegistry();
+        private final List<Long> times = new ArrayList<>();
+        private final List<Candle> bars = new ArrayList<>();
+        private int[] rows = new int[256], columns = new int[256];
+
+        @Override
+        public void onMarketMessage(MarketEvent event) {
+            if (!(event instanceof TradeBar tb))
+                throw new IllegalStateException("Only TradeBar events are supported: " + event.getClass().getName());
+
+            long time = tb.time();
+            int row = times.size() - 1;
+            if (row < 0 || time > times.get(row)) {
+                times.add(time);
+                row++;
+            } else if (time < times.get(row)) {
+                throw new IllegalStateException("Timestamps out of order: " + time + " after " + times.get(row));
+            }
+            int i = bars.size();
+            if (i == rows.length) {
+                rows = Arrays.copyOf(rows, i * 2);
+                columns = Arrays.copyOf(columns, i * 2);
+            }
+            rows[i] = row;
+            columns[i] = registry.resolve(tb);
+            bars.add(tb.snapshot().get());
+        }
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.engine;
+
+import one.chartsy.Candle;
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.MarketMessageHandler;
+import one.chartsy.messaging.data.TradeBar;
+import one.chartsy.trade.algorithm.MarketSupplier;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.SplittableRandom;
+
+/**
+ * A {@code MarketSupplierFactory} decorator that emits a multi-symbol stream of {@code TradeBar}s whose
+ * timestamps match the original stream, but whose bar returns are resampled from the original series
+ * using the circular block bootstrap.
+ * <p>
+ * Unlike the {@link BootstrappedTradeBarFactory}, the synthetic bars are generated on the fly, from the
+ * primitive {@link BarReturnMatrix} shared by all created suppliers, so the memory footprint of a path does
+ * not depend on its length. The resampling is cross-sectional: every synthetic timestamp takes the return
+ * factors of all symbols from the same, randomly drawn source timestamp, thus the correlation between the
+ * symbols on the same date is retained. Consecutive source timestamps are drawn in blocks of the given length,
+ * retaining the short-range serial dependence; the block length of {@code 1} gives the classical bootstrap.
+ * <p>
+ * Every symbol keeps its original trading calendar, i.e. a bar is emitted exactly when the original stream had
+ * a bar of the symbol, and its path is anchored to its first original bar. When the drawn source timestamp has
+ * no usable return factors of the symbol, a flat bar at the previous close and with zero volume is emitted.
+ *
+ * <p>Reusability and randomness:
+ * <ul>
+ *   <li>Each created supplier is reusable across multiple open/close cycles; every cycle replays the same path.</li>
+ *   <li>Using the no-seed constructor produces a different synthetic path for each {@link #create()}.</li>
+ *   <li>Using the seeded constructor yields reproducible paths.</li>
+ *   <li>The {@link #create(InstrumentRegistry, SplittableRandom)} gives a path of the given random generator,
+ *       e.g. {@link SplittableRandom#split() split} from a common seed for the paths generated in parallel.</li>
+ * </ul>
+ *
+ * @author Mariusz Bernacki
+ */
+public final class BlockBootstrappedMarketFactory implements MarketSupplierFactory {
+
+    private final MarketSupplierFactory delegate;
+    private final int blockLength;
+    private final SplittableRandom seedRandom;
+    private volatile BarReturnMatrix matrix;
+
+
+    public BlockBootstrappedMarketFactory(MarketSupplierFactory delegate, int blockLength) {
+        this(delegate, blockLength, null);
+    }
+
+    public BlockBootstrappedMarketFactory(MarketSupplierFactory delegate, int blockLength, long seed) {
+        this(delegate, blockLength, new SplittableRandom(seed));
+    }
+
+    private BlockBootstrappedMarketFactory(MarketSupplierFactory delegate, int blockLength, SplittableRandom seedRandom) {
+        if (blockLength < 1)
+            throw new IllegalArgumentException("blockLength must be positive: " + blockLength);
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+        this.blockLength = blockLength;
+        this.seedRandom = seedRandom;
+    }
+
+    public int getBlockLength() {
+        return blockLength;
+    }
+
+    /**
+     * Gives the return matrix of the original stream, loading it on the first call.
+     */
+    public BarReturnMatrix getReturnMatrix() {
+        BarReturnMatrix matrix = this.matrix;
+        if (matrix == null) {
+            synchronized (this) {
+                if ((matrix = this.matrix) == null)
+                    this.matrix = matrix = BarReturnMatrix.createFrom(delegate.create());
+            }
+        }
+        return matrix;
+    }
+
+    @Override
+    public MarketSupplier create() {
+        return create(null);
+    }
+
+    @Override
+    public MarketSupplier create(InstrumentRegistry registry) {
+        SplittableRandom rng;
+        if (seedRandom == null)
+            rng = new SplittableRandom();
+        else synchronized (seedRandom) {
+            rng = seedRandom.split();
+        }
+        return create(registry, rng);
+    }
+
+    /**
+     * Creates a supplier of the synthetic path drawn from the given random generator.
+     *
+     * @param registry the instrument registry of the current run, or {@code null} to supply the events without the ids
+     * @param rng      the random generator of the path
+     * @return the market supplier
+     */
+    public MarketSupplier create(InstrumentRegistry registry, SplittableRandom rng) {
+        return new BootstrappedSupplier(getReturnMatrix(), blockLength, rng.nextLong(), registry);
+    }
+
+    private static final class BootstrappedSupplier implements MarketSupplier {
+        private final BarReturnMatrix matrix;
+        private final int blockLength;
+        private final long pathSeed;
+        private final int[] instrumentIds;
+        private final double[] prevClose;
+        private SplittableRandom rng;
+        private boolean open;
+        private int row;
+        private int column;
+        private int sourceRow;
+        private int blockStart;
+        private int blockOffset;
+
+        BootstrappedSupplier(BarReturnMatrix matrix, int blockLength, long pathSeed, InstrumentRegistry registry) {
+            this.matrix = matrix;
+            this.blockLength = blockLength;
+            this.pathSeed = pathSeed;
+            this.instrumentIds = new int[matrix.columnCount()];
+            this.prevClose = new double[matrix.columnCount()];
+            for (int s = 0; s < instrumentIds.length; s++)
+                instrumentIds[s] = (registry == null)? MarketEvent.UNASSIGNED_ID : registry.register(matrix.symbol(s));
+        }
+
+        @Override
+        public void open() {
+            if (open)
+                throw new IllegalStateException("Already open");
+            rng = new SplittableRandom(pathSeed);
+            row = column = 0;
+            blockOffset = blockLength;
+            Arrays.fill(prevClose, Double.NaN);
+            open = true;
+        }
+
+        private int nextSourceRow() {
+            int returnRows = matrix.rowCount() - 1;
+            if (blockOffset == blockLength) {
+                blockStart = rng.nextInt(returnRows);
+                blockOffset = 0;
+            }
+            return 1 + (blockStart + blockOffset++) % returnRows;
+        }
+
+        @Override
+        public int poll(MarketMessageHandler handler, int pollLimit) {
+            if (!open)
+                throw new IllegalStateException("Supplier not open");
+
+            int limit = Math.max(1, pollLimit);
+            int delivered = 0;
+            int columns = matrix.columnCount();
+            while (row < matrix.rowCount()) {
+                if (column == 0 && row > 0)
+                    sourceRow = nextSourceRow();
+                for (; column < columns && delivered < limit; column++) {
+                    if (matrix.isPresent(row, column)) {
+                        handler.onMarketMessage(new TradeBar.Of(matrix.symbol(column), nextBar(column), instrumentIds[column]));
+                        delivered++;
+                    }
+                }
+                if (column < columns)
+                    return delivered;
+
+                row++;
+                column = 0;
+                if (delivered > 0)
+                    return delivered;
+            }
+            return delivered;
+        }
+
+        private Candle nextBar(int s) {
+            long time = matrix.time(row);
+            double base = prevClose[s];
+            Candle bar;
+            if (row == matrix.firstRow(s)) {
+                bar = matrix.firstBar(s);
+            } else if (matrix.isUsable(sourceRow, s)) {
+                double open = base * matrix.openFactor(sourceRow, s);
+                double close = base * matrix.closeFactor(sourceRow, s);
+                double high = Math.max(Math.max(open, close), base * matrix.highFactor(sourceRow, s));
+                double low = Math.min(Math.min(open, close), base * matrix.lowFactor(sourceRow, s));
+                bar = Candle.of(time, open, high, low, close, matrix.volume(sourceRow, s));
+            } else {
+                bar = Candle.of(time, base, base, base, base, 0.0);
+            }
+            prevClose[s] = bar.close();
+            return bar;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
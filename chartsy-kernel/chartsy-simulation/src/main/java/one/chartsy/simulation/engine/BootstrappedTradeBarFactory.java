@@ -210,7 +210,7 @@ public final class BootstrappedTradeBarFactory implements MarketSupplierFactory
             if (!(event instanceof TradeBar tb))
                 throw new IllegalStateException("Only TradeBar events are supported: " + event.getClass().getName());
 
-            Candle curr = tb.get();
+            Candle curr = tb.snapshot().get();
             if (last != null) {
                 double base = last.close();
                 if (Double.isFinite(base) && base != 0.0) {
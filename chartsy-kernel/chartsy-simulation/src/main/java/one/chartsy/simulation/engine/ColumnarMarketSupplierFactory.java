@@ -0,0 +1,128 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.engine;
+
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.MarketMessageHandler;
+import one.chartsy.messaging.data.MutableTradeBar;
+import one.chartsy.messaging.data.TradeBar;
+import one.chartsy.messaging.data.TradeBarColumns;
+import one.chartsy.trade.algorithm.MarketSupplier;
+import one.chartsy.util.CloseHelper;
+
+import java.util.Objects;
+
+/**
+ * A {@code MarketSupplierFactory} decorator replaying the {@code TradeBar}s of the original stream from the
+ * in-memory {@link TradeBarColumns}, without allocating any objects per bar.
+ * <p>
+ * The original stream is drained into the columns once, on the first {@link #create()}, and then shared by all
+ * created suppliers, which makes the factory suitable for repeated backtests of the same data, e.g. parameter
+ * sweeps. Every supplier delivers all bars in a single, recycled {@link MutableTradeBar}, so the handlers must
+ * follow the "copy if you retain" contract of the {@link MarketEvent#snapshot()}.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class ColumnarMarketSupplierFactory implements MarketSupplierFactory {
+
+    private final MarketSupplierFactory delegate;
+    private volatile TradeBarColumns columns;
+
+
+    public ColumnarMarketSupplierFactory(MarketSupplierFactory delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate");
+    }
+
+    /**
+     * Gives the columns of the original stream, loading them on the first call.
+     */
+    public TradeBarColumns getColumns() {
+        TradeBarColumns columns = this.columns;
+        if (columns == null) {
+            synchronized (this) {
+                if ((columns = this.columns) == null)
+                    this.columns = columns = load(delegate.create());
+            }
+        }
+        return columns;
+    }
+
+    private static TradeBarColumns load(MarketSupplier source) {
+        var columns = new TradeBarColumns();
+        MarketMessageHandler collector = event -> {
+            if (!(event instanceof TradeBar bar))
+                throw new IllegalStateException("Only TradeBar events are supported: " + event.getClass().getName());
+            columns.add(bar);
+        };
+        source.open();
+        try {
+            while (source.poll(collector, Integer.MAX_VALUE) > 0)
+                ;
+        } finally {
+            CloseHelper.closeQuietly(source);
+        }
+        return columns;
+    }
+
+    @Override
+    public MarketSupplier create() {
+        return create(null);
+    }
+
+    @Override
+    public MarketSupplier create(InstrumentRegistry registry) {
+        return new ColumnarSupplier(getColumns(), registry);
+    }
+
+    private static final class ColumnarSupplier implements MarketSupplier {
+        private final TradeBarColumns columns;
+        private final int[] instrumentIds;
+        private final MutableTradeBar event = new MutableTradeBar();
+        private boolean open;
+        private int row;
+
+        ColumnarSupplier(TradeBarColumns columns, InstrumentRegistry registry) {
+            this.columns = columns;
+            this.instrumentIds = new int[columns.symbolCount()];
+            for (int s = 0; s < instrumentIds.length; s++)
+                instrumentIds[s] = (registry == null)? MarketEvent.UNASSIGNED_ID : registry.register(columns.symbol(s));
+        }
+
+        @Override
+        public void open() {
+            if (open)
+                throw new IllegalStateException("Already open");
+            row = 0;
+            open = true;
+        }
+
+        @Override
+        public int poll(MarketMessageHandler handler, int pollLimit) {
+            if (!open)
+                throw new IllegalStateException("Supplier not open");
+
+            int size = columns.size();
+            if (row >= size)
+                return 0;
+
+            int limit = Math.max(1, pollLimit);
+            long time = columns.time(row);
+            int delivered = 0;
+            while (row < size && delivered < limit && columns.time(row) == time) {
+                int symbolIndex = columns.symbolIndex(row);
+                event.setInstrument(columns.symbol(symbolIndex), instrumentIds[symbolIndex]);
+                handler.onMarketMessage(columns.load(row++, event));
+                delivered++;
+            }
+            return delivered;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import one.chartsy.data.DataQuery;
 import one.chartsy.data.DataSubscription;
 import one.chartsy.data.provider.FlatFileDataProvider;
 import one.chartsy.data.structures.PriorityMap;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.messaging.MarketEvent;
 import one.chartsy.messaging.MarketMessageHandler;
 import one.chartsy.messaging.MarketMessageSource;
@@ -26,6 +27,7 @@ public class FlatFileDataMarketSupplier implements MarketSupplier {
     private final FlatFileDataProvider dataProvider;
     private final DataSubscription subscription;
     private final Instant startTime;
+    private final InstrumentRegistry registry;
 
     private final PriorityMap<MarketEvent, MarketMessageSource> subscribers;
 
@@ -34,12 +36,48 @@ public class FlatFileDataMarketSupplier implements MarketSupplier {
     }
 
     public FlatFileDataMarketSupplier(FlatFileDataProvider dataProvider, DataSubscription subscription, Instant startTime) {
+        this(dataProvider, subscription, startTime, null);
+    }
+
+    /**
+     * Constructs the supplier stamping the trade bars with the instrument ids assigned by the given registry.
+     *
+     * @param dataProvider the data provider
+     * @param subscription the subscribed symbols
+     * @param startTime the start time of the supplied data, or {@code null} if unbounded
+     * @param registry the instrument registry of the current run, or {@code null} to supply the events without ids
+     */
+    public FlatFileDataMarketSupplier(FlatFileDataProvider dataProvider, DataSubscription subscription, Instant startTime, InstrumentRegistry registry) {
         this.dataProvider = dataProvider;
         this.subscription = subscription;
         this.startTime = startTime;
+        this.registry = registry;
         this.subscribers = new PriorityMap<>();
     }
 
+    /**
+     * Gives the factory of the suppliers of the given data, stamping the trade bars with the instrument ids
+     * when created with the {@link MarketSupplierFactory#create(InstrumentRegistry) registry} of the run.
+     *
+     * @param dataProvider the data provider
+     * @param subscription the subscribed symbols
+     * @param startTime the start time of the supplied data, or {@code null} if unbounded
+     * @return the market supplier factory
+     */
+    public static MarketSupplierFactory factory(FlatFileDataProvider dataProvider, DataSubscription subscription, Instant startTime) {
+        return new MarketSupplierFactory() {
+            @Override
+            public MarketSupplier create() {
+                return create(null);
+            }
+
+            @Override
+            public MarketSupplier create(InstrumentRegistry registry) {
+                return new FlatFileDataMarketSupplier(dataProvider, subscription, startTime, registry);
+            }
+        };
+    }
+
     @Override
     public void open() {
         Set<String> symbols = !subscription.isSubscribedToAllSymbols() ? subscription.symbols() : dataProvider.listSymbols().stream()
@@ -56,7 +94,7 @@ public class FlatFileDataMarketSupplier implements MarketSupplier {
             var query = queryBuilder
                     .resource(SymbolResource.of(symbol, TimeFrame.Period.DAILY))
                     .build();
-            var messageSource = dataProvider.iterator(query, context);
+            var messageSource = dataProvider.iterator(query, context, registry);
             var firstMessage = messageSource.getMessage();
             if (firstMessage != null)
                 subscribers.put(firstMessage, messageSource);
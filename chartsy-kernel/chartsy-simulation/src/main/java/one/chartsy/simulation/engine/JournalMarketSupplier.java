@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.engine;
+
+import one.chartsy.data.stream.journal.BinaryJournalMessageSource;
+import one.chartsy.data.stream.journal.JournalCodecs;
+import one.chartsy.data.stream.journal.MarketEventCodecs;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.MarketMessageHandler;
+import one.chartsy.trade.algorithm.MarketSupplier;
+
+import java.nio.file.Path;
+import java.util.Objects;
+
+/**
+ * Supplies the market events replayed from a binary journal recorded with the
+ * {@link one.chartsy.data.stream.journal.BinaryJournalMessageChannel BinaryJournalMessageChannel}.
+ * <p>
+ * Only the market events are replayed; any other records in the journal, such as the order events,
+ * are skipped without being decoded. The events are expected to have been recorded in the
+ * chronological order.
+ *
+ * @author Mariusz Bernacki
+ */
+public class JournalMarketSupplier implements MarketSupplier {
+
+    private final Path directory;
+    private final JournalCodecs codecs;
+    private BinaryJournalMessageSource<MarketEvent> source;
+    private MarketEvent next;
+
+    public JournalMarketSupplier(Path directory) {
+        this(directory, MarketEventCodecs.create());
+    }
+
+    /**
+     * Constructs the supplier replaying the journal with the given codecs, which must decode market events only.
+     *
+     * @param directory the journal directory
+     * @param codecs the market event codecs
+     */
+    public JournalMarketSupplier(Path directory, JournalCodecs codecs) {
+        this.directory = Objects.requireNonNull(directory, "directory");
+        this.codecs = Objects.requireNonNull(codecs, "codecs");
+    }
+
+    @Override
+    public void open() {
+        close();
+        source = new BinaryJournalMessageSource<>(directory, codecs);
+        next = source.getMessage();
+    }
+
+    @Override
+    public int poll(MarketMessageHandler handler, int pollLimit) {
+        int count = 0;
+        MarketEvent current = next;
+        if (current != null) {
+            long time = current.time();
+            do {
+                handler.onMarketMessage(current);
+                count++;
+                current = source.getMessage();
+            } while (current != null && current.time() == time && count < pollLimit);
+            next = current;
+        }
+        return count;
+    }
+
+    @Override
+    public void close() {
+        if (source != null) {
+            source.close();
+            source = null;
+        }
+        next = null;
+    }
+}
@@ -3,6 +3,8 @@
  */
 package one.chartsy.simulation.engine;
 
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.MarketEvent;
 import one.chartsy.trade.algorithm.Algorithm;
 import one.chartsy.trade.algorithm.MarketSupplier;
 
@@ -31,4 +33,16 @@ public interface MarketSupplierFactory {
      * @return a fully-configured {@link MarketSupplier} instance, ready to supply sequential market messages
      */
     MarketSupplier create();
+
+    /**
+     * Creates a {@link MarketSupplier} stamping the supplied events with the {@link MarketEvent#instrumentId()
+     * instrument ids} assigned by the given registry of the current run. The default implementation ignores the
+     * registry and delegates to {@link #create()}, in which case the events are supplied without the ids.
+     *
+     * @param registry the instrument registry of the current run
+     * @return a fully-configured {@link MarketSupplier} instance
+     */
+    default MarketSupplier create(InstrumentRegistry registry) {
+        return create();
+    }
 }
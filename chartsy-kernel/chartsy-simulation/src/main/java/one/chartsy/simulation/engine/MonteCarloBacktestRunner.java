@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.engine;
+
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.simulation.reporting.BacktestReport;
+import one.chartsy.simulation.reporting.MonteCarloReport;
+import one.chartsy.trade.algorithm.MarketSupplier;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Runs an algorithm backtest over many synthetic, block-bootstrapped market paths in parallel.
+ * <p>
+ * The market data of the given configuration are loaded once into a shared {@link BarReturnMatrix}, and
+ * every path streams its bars on the fly from that matrix, as described by the {@link BlockBootstrappedMarketFactory}.
+ * The random generator of every path is {@link SplittableRandom#split() split} from the seed upfront, on the
+ * calling thread, thus the reports are reproducible regardless of the parallelism and the scheduling of the paths.
+ * Every path runs in its own {@link AlgorithmBacktestRunner}, so the algorithm factory must be safe to call
+ * concurrently.
+ *
+ * @see BlockBootstrappedMarketFactory
+ * @see MonteCarloReport
+ * @author Mariusz Bernacki
+ */
+public class MonteCarloBacktestRunner {
+
+    private final int pathCount;
+    private final int blockLength;
+    private final long seed;
+    private final int parallelism;
+
+    /**
+     * Constructs a runner using all the available processors.
+     *
+     * @param pathCount   the number of synthetic paths to run
+     * @param blockLength the length of the resampled blocks of consecutive timestamps
+     * @param seed        the seed of the random generators of the paths
+     */
+    public MonteCarloBacktestRunner(int pathCount, int blockLength, long seed) {
+        this(pathCount, blockLength, seed, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a runner.
+     *
+     * @param pathCount   the number of synthetic paths to run
+     * @param blockLength the length of the resampled blocks of consecutive timestamps
+     * @param seed        the seed of the random generators of the paths
+     * @param parallelism the maximum number of paths run concurrently
+     */
+    public MonteCarloBacktestRunner(int pathCount, int blockLength, long seed, int parallelism) {
+        if (pathCount < 0)
+            throw new IllegalArgumentException("pathCount must be non-negative: " + pathCount);
+        if (blockLength < 1)
+            throw new IllegalArgumentException("blockLength must be positive: " + blockLength);
+        if (parallelism < 1)
+            throw new IllegalArgumentException("parallelism must be positive: " + parallelism);
+        this.pathCount = pathCount;
+        this.blockLength = blockLength;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the backtest of the configured algorithm over the synthetic paths resampled from the configured market data.
+     *
+     * @param configuration the algorithm and the original market data configurations
+     * @return the reports of all paths
+     */
+    public MonteCarloReport run(AlgorithmBacktestContext configuration) {
+        var bootstrap = new BlockBootstrappedMarketFactory(configuration.marketSupplierFactory(), blockLength);
+        bootstrap.getReturnMatrix();
+
+        var seeds = new SplittableRandom(seed);
+        var pathContexts = new AlgorithmBacktestContext[pathCount];
+        for (int i = 0; i < pathCount; i++)
+            pathContexts[i] = new AlgorithmBacktestContext(
+                    configuration.algorithmName(),
+                    configuration.algorithmFactory(),
+                    new PathSupplierFactory(bootstrap, seeds.split()));
+
+        var reports = new BacktestReport[pathCount];
+        try (var pool = new ForkJoinPool(parallelism)) {
+            pool.submit(() -> IntStream.range(0, pathCount).parallel()
+                    .forEach(i -> reports[i] = new AlgorithmBacktestRunner().run(pathContexts[i])))
+                    .join();
+        }
+        return new MonteCarloReport(Arrays.asList(reports));
+    }
+
+    /** Gives the single path of the bootstrap, drawn from its own random generator. */
+    private record PathSupplierFactory(BlockBootstrappedMarketFactory bootstrap, SplittableRandom rng) implements MarketSupplierFactory {
+        @Override
+        public MarketSupplier create() {
+            return create(null);
+        }
+
+        @Override
+        public MarketSupplier create(InstrumentRegistry registry) {
+            return bootstrap.create(registry, rng.split());
+        }
+    }
+}
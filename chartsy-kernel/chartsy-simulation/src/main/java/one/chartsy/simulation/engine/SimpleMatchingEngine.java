@@ -6,6 +6,7 @@ package one.chartsy.simulation.engine;
 
 import one.chartsy.*;
 import one.chartsy.core.event.ListenerList;
+import one.chartsy.data.MutableCandle;
 import one.chartsy.data.Priced;
 import one.chartsy.simulation.*;
 import one.chartsy.time.Chronological;
@@ -15,6 +16,7 @@ import one.chartsy.trade.event.ExecutionListener;
 import one.chartsy.trade.event.PositionChangeListener;
 import one.chartsy.trade.strategy.SimulatorOptions;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -27,6 +29,8 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
     private final double spread;
     private final boolean allowSameBarExit;
     private final boolean allowTakeProfitSlippage;
+    /** The recycled single-price bar of the at-the-close and at-the-open fills, which do not retain it. */
+    private final MutableCandle fillCandle = new MutableCandle();
 
     public SimpleMatchingEngine(SimulatorOptions properties, SimulationResult.Builder result) {
         this.result = result;
@@ -37,7 +41,7 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
         this.allowTakeProfitSlippage = properties.allowTakeProfitSlippage();
     }
 
-    private final ListenerList<OrderStatusListener> orderStatusListeners = ListenerList.of(OrderStatusListener.class);
+    private final ListenerList<OrderStatusListener> orderStatusListeners = ListenerList.specialized(OrderStatusListener.class);
 
     public void addOrderStatusListener(OrderStatusListener listener) {
         orderStatusListeners.addListener(listener);
@@ -58,7 +62,7 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
             orderStatusListeners.fire().orderStatusChanged(new OrderStatusEvent(order));
     }
 
-    private final ListenerList<ExecutionListener> executionListeners = new ListenerList<>(ExecutionListener.class);
+    private final ListenerList<ExecutionListener> executionListeners = ListenerList.specialized(ExecutionListener.class);
 
     public void addExecutionListener(ExecutionListener listener) {
         executionListeners.addListener(listener);
@@ -108,9 +112,16 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
         return Math.max(acceptedTime, order.getValidSinceTime());
     }
 
-    protected int onDataAtTheClose(List<Order> transmitQueue, List<Order> workingOrders, double closePrice, long time) {
-        Candle closeCandle = null;
-        int orderCount = transmitQueue.size();
+    /**
+     * Processes the transmit queue at the close of the previous bar. The at-the-open and
+     * immediate-or-cancel orders are moved past the remaining (not yet accepted) orders, in reverse
+     * order, to be processed by the subsequent {@link #onDataAtTheOpen} call.
+     *
+     * @return the number of not yet accepted orders left at the beginning of the queue
+     */
+    protected int onDataAtTheClose(List<Order> transmitQueue, WorkingOrderBook workingOrders, double closePrice, long time) {
+        List<Order> deferred = null;
+        int orderCount = transmitQueue.size(), keptCount = 0;
         for (int i = 0; i < orderCount; i++) {
             Order order = transmitQueue.get(i);
 
@@ -118,30 +129,29 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
                 toCancelled(order, time);
             else if (order.getExpirationTime() < time)
                 toExpired(order);
-            else if (getOrSetAcceptedTime(order, time) > time)
-                continue;
-            else if (order.getTimeInForce() == TimeInForce.Standard.CLOSE) {
-                if (closeCandle == null)
-                    closeCandle = Candle.of(time, closePrice);
-                SimulatedExecution execution = fillOrder(order, closeCandle, closeCandle.open());
+            else if (getOrSetAcceptedTime(order, time) > time) {
+                transmitQueue.set(keptCount++, order);
+            } else if (order.getTimeInForce() == TimeInForce.Standard.CLOSE) {
+                SimulatedExecution execution = fillOrder(order, fillCandle.set(time, closePrice), closePrice);
                 if (execution != null)
                     fireOrderExecution(execution);
                 else
                     toRejected(order);
             } else if (order.getTimeInForce() == TimeInForce.Standard.OPEN || order.getType().isImmediateOrCancelOnly()) {
-                transmitQueue.add(orderCount, order); // move at-the-open or market order to the end of the queue
+                if (deferred == null)
+                    deferred = new ArrayList<>();
+                deferred.add(order); // move at-the-open or market order to the end of the queue
             } else
                 workingOrders.add(order);
-
-            transmitQueue.remove(i--);
-            orderCount--;
         }
-        return orderCount;
+        transmitQueue.subList(keptCount, orderCount).clear();
+        if (deferred != null)
+            transmitQueue.addAll(keptCount, deferred.reversed());
+        return keptCount;
     }
 
-    protected void onDataAtTheOpen(List<Order> transmitQueue, List<Order> workingOrders, double openPrice, long time, int fromIndex) {
-        Candle openCandle = null;
-        int orderCount = transmitQueue.size();
+    protected void onDataAtTheOpen(List<Order> transmitQueue, WorkingOrderBook workingOrders, double openPrice, long time, int fromIndex) {
+        int orderCount = transmitQueue.size(), keptCount = fromIndex;
         for (int i = fromIndex; i < orderCount; i++) {
             Order order = transmitQueue.get(i);
 
@@ -149,32 +159,30 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
                 toCancelled(order, time);
             else if (order.getExpirationTime() < time)
                 toExpired(order);
-            else if (getOrSetAcceptedTime(order, time) > time)
-                continue;
-            else if (order.getTimeInForce() == TimeInForce.Standard.CLOSE)
+            else if (getOrSetAcceptedTime(order, time) > time) {
+                transmitQueue.set(keptCount++, order);
+            } else if (order.getTimeInForce() == TimeInForce.Standard.CLOSE)
                 toRejected(order);
             else if (order.getTimeInForce() == TimeInForce.Standard.OPEN || order.getType().isImmediateOrCancelOnly()) {
-                if (openCandle == null)
-                    openCandle = Candle.of(time, openPrice);
-                SimulatedExecution execution = fillOrder(order, openCandle, openCandle.open());
+                SimulatedExecution execution = fillOrder(order, fillCandle.set(time, openPrice), openPrice);
                 if (execution != null)
                     fireOrderExecution(execution);
                 else
                     toRejected(order);
             } else
                 workingOrders.add(order);
-
-            transmitQueue.remove(i--);
-            orderCount--;
         }
+        transmitQueue.subList(keptCount, orderCount).clear();
     }
 
     long currentTime = Long.MIN_VALUE;
 
+    private final List<Order> triggeredOrders = new ArrayList<>();
+
     public void onData(When when, Candle ohlc) {
         SimulationInstrument instrument = account.getInstrument(when.getSymbol());
         List<Order> transmitQueue = instrument.getTransmitQueue();
-        List<Order> orders = instrument.orders();
+        WorkingOrderBook orders = instrument.getWorkingOrders();
         if (!transmitQueue.isEmpty()) {
             int orderCount = 0;
             Candle lastCandle = instrument.lastCandle();
@@ -185,7 +193,9 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
 
         currentTime = ohlc.time();
         instrument.setLastCandle(ohlc);
-        int orderCount = orders.size();
+        List<Order> triggeredOrders = this.triggeredOrders;
+        if (!orders.isEmpty())
+            orders.collect(ohlc, currentTime, triggeredOrders);
         Position position = instrument.position();
         if (position != null) {
             int type = position.getDirection().intValue();
@@ -206,20 +216,20 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
             }
         }
 
-        orderCount = Math.min(orderCount, orders.size());
-        for (int i = 0; i < orderCount; i++) {
-            Order order = orders.get(i);
+        for (int i = 0; i < triggeredOrders.size(); i++) {
+            Order order = triggeredOrders.get(i);
 
             if (order.isCancelled()) {
+                orders.remove(order);
                 toCancelled(order, ohlc.time());
             } else if (order.getExpirationTime() < currentTime) {
+                orders.remove(order);
                 toExpired(order);
             } else {
                 // process an order
                 Execution execution = order.getType().tryFill(order, ohlc, this);
                 if (order.isFilled()) {
-                    orders.remove(i--);
-                    orderCount--;
+                    orders.remove(order);
                     if (execution != null) {
                         fireOrderExecution(execution);
                         if (allowSameBarExit) {
@@ -237,11 +247,9 @@ public class SimpleMatchingEngine extends OrderStatusUpdater implements OrderBro
                         }
                     }
                 }
-                continue;
             }
-            orders.remove(i--);
-            orderCount--;
         }
+        triggeredOrders.clear();
         account.updateProfit(instrument.getSymbol(), ohlc);
     }
 
@@ -4,7 +4,10 @@ package one.chartsy.simulation.engine;
 
 import one.chartsy.*;
 import one.chartsy.core.event.ListenerList;
+import one.chartsy.financial.InstrumentMap;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.financial.SymbolIdentifier;
+import one.chartsy.simulation.reporting.EquityCurveRecorder;
 import one.chartsy.trade.event.LegacyPositionValueChangeListener;
 import one.chartsy.trade.strategy.SimulatorOptions;
 import one.chartsy.trade.Account;
@@ -27,31 +30,21 @@ public class SimulationAccount implements Account {
     private double profit;
     /** The account credit. */
     private double credit;
-    /** The collection of traded instruments. */
-    private final Map<SymbolIdentifier, SimulationInstrument> instruments = new HashMap<>();
-    /** The collection of traded instruments hashed by the symbol identity. */
-    private final Map<SymbolIdentity, SimulationInstrument> lookupCache = new IdentityHashMap<>() {
-
-        private final LinkedList<SymbolIdentity> currentKeys = new LinkedList<>();
-
-        @Override
-        public SimulationInstrument put(SymbolIdentity key, SimulationInstrument value) {
-            SimulationInstrument previousValue = super.put(key, value);
-            if (previousValue == null) {
-                currentKeys.add(key);
-                if (currentKeys.size() >= instruments.size()*4 + 4) {
-                    SymbolIdentity firstKey = currentKeys.removeFirst();
-                    if (firstKey != key)
-                        remove(firstKey);
-                }
-            }
-            return previousValue;
-        }
-    };
+    /** The recorder of the account equity curve, or {@code null} if not recorded. */
+    private EquityCurveRecorder equityCurve;
+    /** The traded instruments, indexed by the instrument ids. */
+    private final InstrumentMap<SimulationInstrument> instruments;
 
     public SimulationAccount(SimulatorOptions properties) {
+        this(properties, new InstrumentRegistry());
+    }
+
+    public SimulationAccount(SimulatorOptions properties, InstrumentRegistry registry) {
         this.properties = properties;
+        this.instruments = new InstrumentMap<>(registry);
         this.balance = this.initialBalance = properties.initialBalance();
+        if (properties.isEquityCurveEnabled())
+            this.equityCurve = new EquityCurveRecorder(initialBalance);
     }
 
     @Override
@@ -81,23 +74,55 @@ public class SimulationAccount implements Account {
         return getBalance() + getCredit() + getProfit();
     }
 
+    /**
+     * Gives the equity curve recorded by this account, if enabled either by the
+     * {@link SimulatorOptions#isEquityCurveEnabled() simulator options} or explicitly.
+     *
+     * @return the equity curve recorder
+     */
+    public Optional<EquityCurveRecorder> getEquityCurve() {
+        return Optional.ofNullable(equityCurve);
+    }
+
+    /**
+     * Sets the recorder of the account equity curve, e.g. a {@link EquityCurveRecorder#mapped memory-mapped}
+     * one, replacing any previously set recorder.
+     *
+     * @param equityCurve the equity curve recorder, or {@code null} to stop recording
+     */
+    public void setEquityCurve(EquityCurveRecorder equityCurve) {
+        this.equityCurve = equityCurve;
+    }
+
+    private void recordEquity(long time) {
+        EquityCurveRecorder curve = equityCurve;
+        if (curve != null) {
+            if (!curve.isEmpty())
+                time = Math.max(time, curve.getTime(curve.size() - 1));
+            curve.add(time, getEquity());
+        }
+    }
+
     @Override
     public SimulationInstrument getInstrument(SymbolIdentity symbol) {
-        SimulationInstrument instrument = lookupCache.get(symbol);
-        if (instrument == null) {
-            synchronized (lookupCache) {
-                if ((instrument = lookupCache.get(symbol)) == null)
-                    lookupCache.put(symbol, instrument = getInstrument(new SymbolIdentifier(symbol)));
-            }
-        }
-        return instrument;
+        return getInstrument(instruments.getRegistry().register(symbol));
     }
 
     public SimulationInstrument getInstrument(SymbolIdentifier symbol) {
-        SimulationInstrument instrument = instruments.get(symbol);
+        return getInstrument((SymbolIdentity) symbol);
+    }
+
+    /**
+     * Gives the traded instrument of the given id, creating it if not traded yet.
+     *
+     * @param instrumentId the instrument id assigned by the instrument registry of this account
+     * @return the traded instrument
+     */
+    public SimulationInstrument getInstrument(int instrumentId) {
+        SimulationInstrument instrument = instruments.get(instrumentId);
         if (instrument == null) {
             synchronized (instruments) {
-                instrument = instruments.computeIfAbsent(symbol, this::createInstrument);
+                instrument = instruments.computeIfAbsent(instrumentId, symbol -> createInstrument(new SymbolIdentifier(symbol)));
             }
         }
         return instrument;
@@ -110,10 +135,12 @@ public class SimulationAccount implements Account {
     @Override
     public Map<SymbolIdentity, List<Order>> getPendingOrders() {
         Map<SymbolIdentity, List<Order>> pendingOrders = new HashMap<>();
-        instruments.forEach((key, value) -> {
-            if (!value.orders().isEmpty())
-                pendingOrders.put(key, new ArrayList<>(value.orders()));
-        });
+        InstrumentRegistry registry = instruments.getRegistry();
+        for (int id = 0, count = registry.size(); id < count; id++) {
+            SimulationInstrument instrument = instruments.get(id);
+            if (instrument != null && !instrument.getWorkingOrders().isEmpty())
+                pendingOrders.put(new SymbolIdentifier(registry.getSymbol(id)), instrument.orders());
+        }
 
         return pendingOrders;
     }
@@ -147,6 +174,7 @@ public class SimulationAccount implements Account {
                 position.getCommission() + position.getExtraCommission() + execution.getClosingCommission()
         );
         getInstrument(position.getSymbol()).setPosition(null);
+        recordEquity(currTime);
         firePositionClosed(position, transaction);
     }
 
@@ -167,6 +195,7 @@ public class SimulationAccount implements Account {
             if (!positionValueChangeListeners.isEmpty())
                 firePositionValueChanged(this, position);
         }
+        recordEquity(ohlc.time());
     }
 
     private void firePositionValueChanged(Account account, Position position) {
@@ -184,9 +213,9 @@ public class SimulationAccount implements Account {
     }
 
     /** The list of registered position change listeners. */
-    private final ListenerList<PositionChangeListener> positionChangeListeners = ListenerList.of(PositionChangeListener.class);
+    private final ListenerList<PositionChangeListener> positionChangeListeners = ListenerList.specialized(PositionChangeListener.class);
     /** The list of registered position value change listeners. */
-    private final ListenerList<LegacyPositionValueChangeListener> positionValueChangeListeners = ListenerList.of(LegacyPositionValueChangeListener.class);
+    private final ListenerList<LegacyPositionValueChangeListener> positionValueChangeListeners = ListenerList.specialized(LegacyPositionValueChangeListener.class);
 
     @Override
     public void addPositionChangeListener(PositionChangeListener listener) {
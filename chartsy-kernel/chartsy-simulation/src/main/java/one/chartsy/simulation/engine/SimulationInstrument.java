@@ -13,7 +13,7 @@ import java.util.List;
 
 public class SimulationInstrument implements Instrument {
     private final Symbol symbol;
-    private final List<Order> orders = new ArrayList<>();
+    private final WorkingOrderBook workingOrders = new WorkingOrderBook();
     private final List<Order> transmitQueue = new ArrayList<>();
     private Position position;
     private Candle lastCandle;
@@ -30,7 +30,11 @@ public class SimulationInstrument implements Instrument {
 
     @Override
     public List<Order> orders() {
-        return orders;
+        return workingOrders.orders();
+    }
+
+    public WorkingOrderBook getWorkingOrders() {
+        return workingOrders;
     }
 
     public List<Order> getTransmitQueue() {
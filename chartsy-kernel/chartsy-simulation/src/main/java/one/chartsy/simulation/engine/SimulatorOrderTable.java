@@ -0,0 +1,221 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.engine;
+
+import one.chartsy.data.structures.IntArrayDeque;
+import one.chartsy.trade.Order;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The compact, simulator-internal table of the live orders.
+ * <p>
+ * Every live order occupies a slot, and its mutable order state is kept in a primitive array indexed by
+ * the slot, next to the immutable {@link Order.New} request carrying the remaining order attributes. The slots
+ * of the completed orders are {@link #release(int) released} and reused by the subsequent orders, so the table
+ * size follows the number of the working orders rather than the number of all orders of the run. The slots of
+ * the live orders are also indexed by the order ids, in an open-addressing table of the slots keyed by the ids
+ * of their requests, so that an order may be {@link #slotOf(String) looked up} in constant time without boxing.
+ * <p>
+ * The public {@link Order} objects are not created by the simulator. An {@code Order} is materialised lazily,
+ * only when {@link #getOrder(int) requested}, and then kept in sync with the slot until it is released.
+ *
+ * @implNote This implementation is not thread-safe.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class SimulatorOrderTable {
+
+    private static final Order.State[] STATES = Order.State.values();
+
+    private final Function<Order.New, Order> orderFactory;
+    private Order.New[] requests = new Order.New[64];
+    private byte[] states = new byte[64];
+    private Order[] materialized = new Order[64];
+    private final IntArrayDeque freeSlots = new IntArrayDeque(64);
+    /** The linear-probing hash table of the occupied slots, plus one, keyed by the ids of their requests. */
+    private int[] slotIndex = new int[128];
+    private int slotIndexShift = Integer.numberOfLeadingZeros(128) + 1;
+    private int slotCount;
+    private int size;
+
+
+    /**
+     * Constructs the table materialising the orders with the {@link Order#from(Order.New)}.
+     */
+    public SimulatorOrderTable() {
+        this(Order::from);
+    }
+
+    /**
+     * Constructs the table materialising the orders with the given factory.
+     *
+     * @param orderFactory the function creating the public {@code Order} from its request
+     */
+    public SimulatorOrderTable(Function<Order.New, Order> orderFactory) {
+        this.orderFactory = Objects.requireNonNull(orderFactory, "orderFactory");
+    }
+
+    /**
+     * Adds the order of the given request.
+     *
+     * @param request the order request
+     * @param state   the initial order state
+     * @return the slot of the order
+     */
+    public int add(Order.New request, Order.State state) {
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.pollLast();
+        } else {
+            slot = slotCount++;
+            if (slot == requests.length) {
+                int capacity = slot * 2;
+                requests = Arrays.copyOf(requests, capacity);
+                states = Arrays.copyOf(states, capacity);
+                materialized = Arrays.copyOf(materialized, capacity);
+            }
+        }
+        requests[slot] = Objects.requireNonNull(request, "request");
+        states[slot] = (byte) state.ordinal();
+        size++;
+        if (2 * size > slotIndex.length)
+            resizeSlotIndex(2 * slotIndex.length);
+        indexSlot(slot);
+        return slot;
+    }
+
+    /**
+     * Releases the slot of the completed order, for reuse by the subsequent orders.
+     *
+     * @param slot the order slot
+     */
+    public void release(int slot) {
+        unindexSlot(checkSlot(slot));
+        requests[slot] = null;
+        materialized[slot] = null;
+        freeSlots.offerLast(slot);
+        size--;
+    }
+
+    /** Gives the number of the live orders. */
+    public int size() {
+        return size;
+    }
+
+    public Order.New request(int slot) {
+        return requests[checkSlot(slot)];
+    }
+
+    public Order.State state(int slot) {
+        return STATES[states[checkSlot(slot)]];
+    }
+
+    /**
+     * Changes the state of the order, also of its materialised {@code Order}, if any.
+     */
+    public void setState(int slot, Order.State state) {
+        states[checkSlot(slot)] = (byte) state.ordinal();
+        Order order = materialized[slot];
+        if (order != null)
+            order.setState(state);
+    }
+
+    /**
+     * Gives the slot of the live order of the given id.
+     *
+     * @param orderId the order id
+     * @return the order slot, or {@code -1} if there is no such live order
+     */
+    public int slotOf(String orderId) {
+        int[] index = slotIndex;
+        int mask = index.length - 1;
+        for (int i = home(orderId); index[i] != 0; i = (i + 1) & mask) {
+            int slot = index[i] - 1;
+            if (orderId.equals(requests[slot].orderId()))
+                return slot;
+        }
+        return -1;
+    }
+
+    private int home(String orderId) {
+        return (orderId.hashCode() * 0x9E3779B9) >>> slotIndexShift;
+    }
+
+    /** Indexes the slot by its order id, replacing the slot of the live order of the same id, if any. */
+    private void indexSlot(int slot) {
+        String orderId = requests[slot].orderId();
+        int[] index = slotIndex;
+        int mask = index.length - 1;
+        int i = home(orderId);
+        while (index[i] != 0 && !orderId.equals(requests[index[i] - 1].orderId()))
+            i = (i + 1) & mask;
+        index[i] = slot + 1;
+    }
+
+    private void unindexSlot(int slot) {
+        int[] index = slotIndex;
+        int mask = index.length - 1;
+        int i = home(requests[slot].orderId());
+        while (index[i] != slot + 1) {
+            if (index[i] == 0)
+                return; // superseded by the later order of the same id
+            i = (i + 1) & mask;
+        }
+        // backward-shift deletion, moving the following entries of the probe sequence into the gap
+        for (int j = (i + 1) & mask; index[j] != 0; j = (j + 1) & mask) {
+            int home = home(requests[index[j] - 1].orderId());
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                index[i] = index[j];
+                i = j;
+            }
+        }
+        index[i] = 0;
+    }
+
+    private void resizeSlotIndex(int capacity) {
+        int[] oldIndex = slotIndex;
+        slotIndex = new int[capacity];
+        slotIndexShift = Integer.numberOfLeadingZeros(capacity) + 1;
+        for (int entry : oldIndex)
+            if (entry != 0)
+                indexSlot(entry - 1);
+    }
+
+    /**
+     * Gives the public {@code Order} of the given slot, materialising it on the first request.
+     *
+     * @param slot the order slot
+     * @return the order
+     */
+    public Order getOrder(int slot) {
+        Order order = materialized[checkSlot(slot)];
+        if (order == null) {
+            order = orderFactory.apply(requests[slot]);
+            order.setState(STATES[states[slot]]);
+            materialized[slot] = order;
+        }
+        return order;
+    }
+
+    /**
+     * Gives the public {@code Order} of the live order of the given id.
+     *
+     * @param orderId the order id
+     * @return the order, or {@code null} if there is no such live order
+     */
+    public Order getOrder(String orderId) {
+        int slot = slotOf(orderId);
+        return (slot < 0)? null : getOrder(slot);
+    }
+
+    private int checkSlot(int slot) {
+        if (slot < 0 || slot >= slotCount || requests[slot] == null)
+            throw new IllegalArgumentException("Slot " + slot + " is not occupied");
+        return slot;
+    }
+}
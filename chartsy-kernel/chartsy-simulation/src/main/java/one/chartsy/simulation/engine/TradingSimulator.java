@@ -4,6 +4,7 @@
 package one.chartsy.simulation.engine;
 
 import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentMap;
 import one.chartsy.financial.price.MarketPriceService;
 import one.chartsy.messaging.MarketEvent;
 import one.chartsy.messaging.MarketMessageHandler;
@@ -17,11 +18,20 @@ import one.chartsy.trade.service.connector.TradeConnectorContext;
 import one.chartsy.util.SequenceGenerator;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Consumer;
 
+/**
+ * Simulates the execution of the orders of the algorithms against the played back market data.
+ * <p>
+ * The simulator keeps the working orders in the compact {@link SimulatorOrderTable}, indexed by the order
+ * slots, rather than as the public {@link Order} objects, which are materialised lazily, only when
+ * {@link #getOrder(String) requested}. The immediate-or-cancel orders are filled directly from their requests,
+ * without occupying a slot.
+ */
 public class TradingSimulator extends AbstractTradeConnector implements MarketMessageHandler {
 
     private static final String DEFAULT_ACCOUNT_ID = "";
@@ -30,8 +40,8 @@ public class TradingSimulator extends AbstractTradeConnector implements MarketMe
     private final MarketPriceService priceService;
     private final SimulatorAccount defaultAccount;
     private final Map<String, SimulatorAccount> subAccounts = new HashMap<>();
-    private final Map<SymbolIdentity, InstrumentOrders> instrumentOrders = new HashMap<>();
-    private final Map<String, Order> orders = new HashMap<>();
+    private final InstrumentMap<InstrumentOrders> instrumentOrders;
+    private final SimulatorOrderTable orders = new SimulatorOrderTable(this::createOrderFrom);
     private final OrderReportHandler orderReportHandler;
 
     public TradingSimulator(TradeConnectorContext context) {
@@ -39,6 +49,7 @@ public class TradingSimulator extends AbstractTradeConnector implements MarketMe
         this.priceService = context.getPriceService();
         this.defaultAccount = createDefaultAccount();
         this.orderReportHandler = context.getOrderReportHandler();
+        this.instrumentOrders = new InstrumentMap<>(context.getInstrumentRegistry());
     }
 
     protected SimulatorAccount createDefaultAccount() {
@@ -80,13 +91,13 @@ public class TradingSimulator extends AbstractTradeConnector implements MarketMe
 
     @Override
     public void onMarketMessage(MarketEvent event) {
-        var orders = getInstrumentOrders(event.symbol());
+        var orders = instrumentOrders.computeIfAbsent(event, s -> new InstrumentOrders());
 
         if (!orders.inboundOrders.isEmpty()) {
             processInboundOrders(event.time(), orders.inboundOrders, event);
         }
-        if (!orders.workingOrders.isEmpty()) {
-            processWorkingOrders(event.time(), orders.workingOrders, event);
+        if (orders.workingOrderCount > 0) {
+            processWorkingOrders(event.time(), orders, event);
         }
         updateValuations(event);
     }
@@ -96,33 +107,49 @@ public class TradingSimulator extends AbstractTradeConnector implements MarketMe
             forEachAccount(account -> account.onTradeBar(bar));
     }
 
+    /**
+     * Creates the public {@code Order} of the given request, when the order is {@link #getOrder(String) requested}.
+     */
     protected Order createOrderFrom(Order.New request) {
         return Order.from(request);
     }
 
-    protected Order.Filled createOrderTradeReport(long time, Order order, double tradePrice, double tradeQuantity) {
+    /**
+     * Gives the public {@code Order} of the given working order, materialising it on the first request.
+     *
+     * @param orderId the order id
+     * @return the order, or {@code null} if there is no such working order
+     */
+    public Order getOrder(String orderId) {
+        return orders.getOrder(orderId);
+    }
+
+    /**
+     * Gives the number of the working orders.
+     */
+    public final int getWorkingOrderCount() {
+        return orders.size();
+    }
+
+    protected Order.Filled createOrderTradeReport(long time, Order.New order, double filledQuantity, double averageFillPrice, double tradePrice, double tradeQuantity) {
         var executionId = executionsIds.next();
-        var cumulativeQuantity = order.getFilledQuantity() + tradeQuantity;
+        var cumulativeQuantity = filledQuantity + tradeQuantity;
         var averagePrice = (cumulativeQuantity == 0.0)
-                ? order.getAverageFillPrice()
-                : ((order.getAverageFillPrice() * order.getFilledQuantity()) + (tradePrice * tradeQuantity)) / cumulativeQuantity;
-        return new Order.Filled(time, order.getId(), getId(), order.getSourceId(), executionId, order.getSymbol(), order.getSide(), tradeQuantity, tradePrice, cumulativeQuantity, averagePrice);
+                ? averageFillPrice
+                : ((averageFillPrice * filledQuantity) + (tradePrice * tradeQuantity)) / cumulativeQuantity;
+        return new Order.Filled(time, order.orderId(), getId(), order.sourceId(), executionId, order.symbol(), order.side(), tradeQuantity, tradePrice, cumulativeQuantity, averagePrice);
     }
 
-    protected void fillOrder(long time, Order order, double tradePrice, double tradeQuantity) {
-        var tradeReport = createOrderTradeReport(time, order, tradePrice, tradeQuantity);
-        var quantityLeft = Math.max(0.0, order.getQuantity() - tradeReport.cumulativeQuantity());
-        order.setFilledQuantity(tradeReport.cumulativeQuantity());
-        order.setAverageFillPrice(tradeReport.averagePrice());
+    protected Order.Filled fillOrder(long time, Order.New order, double filledQuantity, double averageFillPrice, double tradePrice, double tradeQuantity) {
+        var tradeReport = createOrderTradeReport(time, order, filledQuantity, averageFillPrice, tradePrice, tradeQuantity);
+        var quantityLeft = Math.max(0.0, order.quantity() - tradeReport.cumulativeQuantity());
 
-        getOrCreateNewAccount(order.getAccountId()).getOrCreateNewBalance(order.getCurrency()).onOrderFill(tradeReport);
-        if (quantityLeft == 0.0) {
-            order.setState(Order.State.FILLED);
+        getOrCreateNewAccount(order.accountId()).getOrCreateNewBalance(order.currency()).onOrderFill(tradeReport);
+        if (quantityLeft == 0.0)
             orderReportHandler.onOrderFilled(tradeReport);
-        } else {
-            order.setState(Order.State.PARTIALLY_FILLED);
+        else
             orderReportHandler.onOrderPartiallyFilled(new Order.PartiallyFilled(quantityLeft, tradeReport));
-        }
+        return tradeReport;
     }
 
     protected void processInboundOrders(long time, List<OrderRequestEvent> inboundQueue, MarketEvent event) {
@@ -143,16 +170,19 @@ public class TradingSimulator extends AbstractTradeConnector implements MarketMe
         }
     }
 
-    protected void processWorkingOrders(long time, List<Order> workingOrders, MarketEvent event) {
-        for (int i = 0; i < workingOrders.size(); i++) {
-            var order = workingOrders.get(i);
-            if (order.getExpirationTime() < time) {
-                changeOrderStatus(time, order, Order.State.EXPIRED);
-                workingOrders.remove(i--);
+    protected void processWorkingOrders(long time, InstrumentOrders workingOrders, MarketEvent event) {
+        int[] slots = workingOrders.workingOrders;
+        int count = workingOrders.workingOrderCount, kept = 0;
+        for (int i = 0; i < count; i++) {
+            int slot = slots[i];
+            if (orders.request(slot).expirationTime() < time) {
+                changeOrderStatus(time, slot, Order.State.EXPIRED);
+                orders.release(slot);
+            } else {
+                slots[kept++] = slot;
             }
-
-
         }
+        workingOrders.workingOrderCount = kept;
     }
 
     protected void rejectOrderRequest(long time, OrderRequestEvent req, String rejectionReason) {
@@ -160,35 +190,36 @@ public class TradingSimulator extends AbstractTradeConnector implements MarketMe
                 new Order.Rejected(time, req.orderId(), getId(), req.sourceId(), rejectionReason));
     }
 
-    protected void changeOrderStatus(long time, Order order, Order.State newState) {
-        order.setState(newState);
+    protected void changeOrderStatus(long time, int slot, Order.State newState) {
+        orders.setState(slot, newState);
+        changeOrderStatus(time, orders.request(slot), newState);
+    }
+
+    protected void changeOrderStatus(long time, Order.New order, Order.State newState) {
         orderReportHandler.onOrderStatusChanged(
-                new Order.StatusChanged(time, order.getId(), getId(), order.getSourceId(), newState));
+                new Order.StatusChanged(time, order.orderId(), getId(), order.sourceId(), newState));
     }
 
     protected boolean processOrderPlacement(long time, Order.New order, MarketEvent event) {
-        var simOrder = createOrderFrom(order);
-        if (simOrder.getExpirationTime() < time) {
-            changeOrderStatus(time, simOrder, Order.State.EXPIRED);
-        } else if (simOrder.getValidSinceTime() > time) {
+        if (order.expirationTime() < time) {
+            changeOrderStatus(time, order, Order.State.EXPIRED);
+        } else if (order.validSinceTime() > time) {
             return false;
-        } else if (simOrder.getType().isImmediateOrCancelOnly()) {
-            return tryFillIoCOrder(time, order, simOrder, event);
+        } else if (order.type().isImmediateOrCancelOnly()) {
+            return tryFillIoCOrder(time, order, event);
         } else {
-            orders.put(simOrder.getId(), simOrder);
-            var workingOrders = getInstrumentOrders(order.symbol()).workingOrders;
-            workingOrders.add(simOrder);
-            changeOrderStatus(time, simOrder, Order.State.SUBMITTED);
+            int slot = orders.add(order, Order.State.SUBMITTED);
+            getInstrumentOrders(order.symbol()).addWorkingOrder(slot);
+            changeOrderStatus(time, order, Order.State.SUBMITTED);
         }
 
         return true;
     }
 
-    protected boolean tryFillIoCOrder(long time, Order.New req, Order order, MarketEvent event) {
-        var tradeQuantity = order.getQuantity() - order.getFilledQuantity();
+    protected boolean tryFillIoCOrder(long time, Order.New req, MarketEvent event) {
         var filled = false;
         if (event instanceof TradeBar tradeBar) {
-            fillOrder(time, order, tradeBar.get().open(), tradeQuantity);
+            fillOrder(time, req, 0.0, 0.0, tradeBar.get().open(), req.quantity());
             filled = true;
         }
 
@@ -202,12 +233,20 @@ public class TradingSimulator extends AbstractTradeConnector implements MarketMe
         return instrumentOrders.computeIfAbsent(symbol, s -> new InstrumentOrders());
     }
 
-    private static class InstrumentOrders {
+    protected static class InstrumentOrders {
         private final List<OrderRequestEvent> inboundOrders = new ArrayList<>();
-        private final List<Order> workingOrders = new ArrayList<>();
+        /** The slots of the working orders in the {@link SimulatorOrderTable}, in the order of placement. */
+        private int[] workingOrders = new int[4];
+        private int workingOrderCount;
 
         void enqueue(OrderRequestEvent event) {
             inboundOrders.add(event);
         }
+
+        void addWorkingOrder(int slot) {
+            if (workingOrderCount == workingOrders.length)
+                workingOrders = Arrays.copyOf(workingOrders, workingOrderCount * 2);
+            workingOrders[workingOrderCount++] = slot;
+        }
     }
 }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.engine;
+
+import one.chartsy.Candle;
+import one.chartsy.trade.Order;
+import one.chartsy.trade.OrderStatusEvent;
+import one.chartsy.trade.OrderStatusListener;
+import one.chartsy.trade.PriceTriggeredOrderType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * The working (resting) orders of a single simulated instrument, indexed by their trigger prices.
+ * <p>
+ * Orders of the {@link PriceTriggeredOrderType price-triggered} types are kept in two price-ordered
+ * sets: the orders triggered above (buy stops, sell limits) and the orders triggered below the
+ * market (sell stops, buy limits). The {@link #collect(Candle, long, List) collect} method then
+ * visits only the orders whose trigger prices are within the bar's range, the orders that have
+ * expired or been cancelled since the last bar, and the orders of any other type, which still need
+ * to be tried on every bar. The collected orders are given in the order of their addition to the
+ * book, i.e. in the same order in which a plain list of working orders would be scanned.
+ * <p>
+ * The orders are queued by their expiration times as well. The book listens to its orders and
+ * re-queues an order whenever its expiration time {@link #orderExpirationChanged(Order) changes}
+ * after the order has been added.
+ * <p>
+ * The class is not thread-safe.
+ *
+ * @author Mariusz Bernacki
+ */
+public class WorkingOrderBook implements OrderStatusListener {
+
+    private final Map<Order, Entry> entries = new LinkedHashMap<>();
+    private final List<Order> orders = new ArrayList<>();
+    private final List<Order> ordersView = Collections.unmodifiableList(orders);
+    private final List<Entry> unconditional = new ArrayList<>();
+    private final NavigableSet<Entry> triggeredAbove = new TreeSet<>(Entry.BY_PRICE_ASCENDING);
+    private final NavigableSet<Entry> triggeredBelow = new TreeSet<>(Entry.BY_PRICE_DESCENDING);
+    private final PriorityQueue<Entry> expirations = new PriorityQueue<>(Entry.BY_EXPIRATION_TIME);
+    private final List<Entry> cancelled = new ArrayList<>();
+    private final List<Entry> candidates = new ArrayList<>();
+    private long nextSequence;
+    private int collectCount;
+
+
+    /**
+     * Adds the order to the book.
+     *
+     * @param order the working order
+     */
+    public void add(Order order) {
+        if (entries.containsKey(order))
+            return;
+
+        Entry entry = new Entry(order, nextSequence++);
+        entries.put(order, entry);
+        orders.add(order);
+        if (order.getType() instanceof PriceTriggeredOrderType type && !Double.isNaN(type.getTriggerPrice())) {
+            entry.price = type.getTriggerPrice();
+            entry.above = type.isTriggeredAbove(order);
+            (entry.above? triggeredAbove : triggeredBelow).add(entry);
+        } else {
+            unconditional.add(entry);
+        }
+        if (order.getExpirationTime() != Long.MAX_VALUE)
+            expirations.add(entry);
+        order.addOrderStatusListener(this);
+    }
+
+    /**
+     * Removes the order from the book.
+     *
+     * @param order the order to remove
+     * @return {@code true} if the order was present in the book
+     */
+    public boolean remove(Order order) {
+        Entry entry = entries.remove(order);
+        if (entry == null)
+            return false;
+
+        entry.removed = true;
+        orders.remove(order);
+        if (entry.price == entry.price)
+            (entry.above? triggeredAbove : triggeredBelow).remove(entry);
+        else
+            unconditional.remove(entry);
+        order.removeOrderStatusListener(this);
+        return true;
+    }
+
+    public boolean contains(Order order) {
+        return entries.containsKey(order);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean isEmpty() {
+        return entries.isEmpty();
+    }
+
+    /**
+     * Gives the unmodifiable live view of all orders in the book, in the order of their addition.
+     * The view reflects the later changes of the book, thus the callers iterating over the orders
+     * while the book changes should copy it first.
+     */
+    public List<Order> orders() {
+        return ordersView;
+    }
+
+    /**
+     * Collects the orders that need to be processed on the given bar: the orders whose trigger price
+     * is reached by the bar's range, the orders without trigger price, and the orders that have been
+     * cancelled or have expired before the given time. The orders remain in the book until they are
+     * explicitly {@link #remove(Order) removed}, however the cancelled and expired orders are
+     * collected only once, and the caller is expected to remove them.
+     *
+     * @param ohlc the current bar
+     * @param time the current time
+     * @param result the list to which the collected orders are appended, in the order of their addition to the book
+     * @return the {@code result} list
+     */
+    public List<Order> collect(Candle ohlc, long time, List<Order> result) {
+        int stamp = ++collectCount;
+        List<Entry> candidates = this.candidates;
+        for (Entry entry : triggeredAbove) {
+            if (entry.price > ohlc.high())
+                break;
+            addCandidate(entry, stamp);
+        }
+        for (Entry entry : triggeredBelow) {
+            if (entry.price < ohlc.low())
+                break;
+            addCandidate(entry, stamp);
+        }
+        for (Entry entry : unconditional)
+            addCandidate(entry, stamp);
+        for (Entry entry : cancelled)
+            addCandidate(entry, stamp);
+        cancelled.clear();
+
+        Entry expired;
+        while ((expired = expirations.peek()) != null && (expired.removed || expired.expirationTime < time)) {
+            expirations.poll();
+            addCandidate(expired, stamp);
+        }
+
+        if (candidates.size() > 1)
+            candidates.sort(Entry.BY_SEQUENCE);
+        for (Entry entry : candidates)
+            result.add(entry.order);
+        candidates.clear();
+        return result;
+    }
+
+    private void addCandidate(Entry entry, int stamp) {
+        if (!entry.removed && entry.stamp != stamp) {
+            entry.stamp = stamp;
+            candidates.add(entry);
+        }
+    }
+
+    @Override
+    public void orderStatusChanged(OrderStatusEvent e) {
+        Order order = e.getSource();
+        if (order.isCancelled()) {
+            Entry entry = entries.get(order);
+            if (entry != null)
+                cancelled.add(entry);
+        }
+    }
+
+    @Override
+    public void orderExpirationChanged(Order order) {
+        Entry entry = entries.get(order);
+        if (entry == null || entry.expirationTime == order.getExpirationTime())
+            return;
+
+        if (entry.expirationTime != Long.MAX_VALUE)
+            expirations.remove(entry);
+        entry.expirationTime = order.getExpirationTime();
+        if (entry.expirationTime != Long.MAX_VALUE)
+            expirations.add(entry);
+    }
+
+    private static final class Entry {
+        static final Comparator<Entry> BY_SEQUENCE = Comparator.comparingLong(entry -> entry.sequence);
+        static final Comparator<Entry> BY_PRICE_ASCENDING = Comparator.<Entry>comparingDouble(entry -> entry.price).thenComparing(BY_SEQUENCE);
+        static final Comparator<Entry> BY_PRICE_DESCENDING = Comparator.<Entry>comparingDouble(entry -> -entry.price).thenComparing(BY_SEQUENCE);
+        static final Comparator<Entry> BY_EXPIRATION_TIME = Comparator.comparingLong(entry -> entry.expirationTime);
+
+        final Order order;
+        final long sequence;
+        long expirationTime;
+        double price = Double.NaN;
+        boolean above;
+        boolean removed;
+        int stamp;
+
+        Entry(Order order, long sequence) {
+            this.order = order;
+            this.sequence = sequence;
+            this.expirationTime = order.getExpirationTime();
+        }
+    }
+}
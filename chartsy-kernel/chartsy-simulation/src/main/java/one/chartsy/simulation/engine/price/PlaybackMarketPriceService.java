@@ -4,23 +4,31 @@
 package one.chartsy.simulation.engine.price;
 
 import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentMap;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.financial.price.MarketPriceService;
 import one.chartsy.messaging.MarketEvent;
 import one.chartsy.messaging.MarketMessageHandler;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 
 /**
  * The {@code MarketPriceService} for playback/simulation mode.
- * Lazily creates and caches {@code PlaybackPriceHandle} per symbol.
+ * Lazily creates and caches {@code PlaybackPriceHandle} per symbol, indexed by the instrument ids of the run.
  *
  * @author Mariusz Bernacki
  */
 public class PlaybackMarketPriceService implements MarketPriceService, MarketMessageHandler {
 
-    protected final Map<SymbolIdentity, PlaybackPriceHandle> prices = new HashMap<>();
+    protected final InstrumentMap<PlaybackPriceHandle> prices;
+
+    public PlaybackMarketPriceService() {
+        this(new InstrumentRegistry());
+    }
+
+    public PlaybackMarketPriceService(InstrumentRegistry registry) {
+        this.prices = new InstrumentMap<>(registry);
+    }
 
     @Override
     public PlaybackPriceHandle getInstrumentPrices(SymbolIdentity symbol) {
@@ -38,6 +46,6 @@ public class PlaybackMarketPriceService implements MarketPriceService, MarketMes
 
     @Override
     public void onMarketMessage(MarketEvent event) {
-        getInstrumentPrices(event.symbol()).onMarketMessage(event);
+        prices.computeIfAbsent(event, PlaybackPriceHandle::new).onMarketMessage(event);
     }
 }
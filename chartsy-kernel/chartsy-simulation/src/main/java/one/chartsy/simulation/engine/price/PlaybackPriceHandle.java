@@ -3,7 +3,6 @@
  */
 package one.chartsy.simulation.engine.price;
 
-import one.chartsy.Candle;
 import one.chartsy.SymbolIdentity;
 import one.chartsy.financial.price.PriceHandle;
 import one.chartsy.messaging.MarketEvent;
@@ -15,7 +14,6 @@ public class PlaybackPriceHandle implements PriceHandle, MarketMessageHandler {
     protected final SymbolIdentity symbol;
     private double lastTradePrice;
     private long lastTradeTime;
-    private Candle lastBar;
 
 
     public PlaybackPriceHandle(SymbolIdentity symbol) {
@@ -41,7 +39,6 @@ public class PlaybackPriceHandle implements PriceHandle, MarketMessageHandler {
     public void onMarketMessage(MarketEvent event) {
         if (event instanceof TradeBar barEvent) {
             var bar = barEvent.get();
-            this.lastBar = bar;
             this.lastTradePrice = bar.close();
             this.lastTradeTime = bar.time();
         }
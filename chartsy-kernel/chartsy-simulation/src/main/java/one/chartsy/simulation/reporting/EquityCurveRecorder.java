@@ -0,0 +1,318 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.reporting;
+
+import one.chartsy.HLC;
+import one.chartsy.base.Dataset;
+import one.chartsy.base.dataset.ImmutableDataset;
+import one.chartsy.trade.Account;
+import one.chartsy.trade.data.Position;
+import one.chartsy.trade.event.LegacyPositionValueChangeListener;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Records the equity curve of a simulation in primitive columns of time, equity and drawdown.
+ * <p>
+ * Points are appended with {@link #add(long, double)} in the chronological order. Points sharing the
+ * same time are coalesced into a single point holding the most recent equity, thus an account may
+ * report its equity after each instrument update without inflating the curve. The columns are kept
+ * either in growable heap arrays, or in a {@link #mapped(double, Path) memory-mapped file}, so that
+ * long simulations and sweeps over many runs do not hold millions of point objects on the heap.
+ * <p>
+ * The recorded curve can be {@link #downsample(int) downsampled} for charting, and the
+ * {@link EquitySummaryStatistics} can be {@link #getSummaryStatistics(double) computed} from it in
+ * a single pass over the columns.
+ * <p>
+ * The columns are indexed in the chronological order, i.e. the oldest point is at index {@code 0}.
+ *
+ * @implNote This implementation is not thread-safe so synchronize it externally if used concurrently.
+ *
+ * @author Mariusz Bernacki
+ */
+public class EquityCurveRecorder implements LegacyPositionValueChangeListener, Closeable {
+
+    private final double startingEquity;
+    private final Columns columns;
+    private double equityHigh;
+    /** The equity high preceding the last recorded point, used when the last point is replaced. */
+    private double previousEquityHigh;
+    private int size;
+
+
+    /**
+     * Constructs a new recorder keeping the equity curve on the heap.
+     *
+     * @param startingEquity the initial equity value
+     */
+    public EquityCurveRecorder(double startingEquity) {
+        this(startingEquity, new HeapColumns());
+    }
+
+    protected EquityCurveRecorder(double startingEquity, Columns columns) {
+        this.startingEquity = startingEquity;
+        this.equityHigh = startingEquity;
+        this.columns = columns;
+    }
+
+    /**
+     * Constructs a new recorder keeping the equity curve in the given memory-mapped file. The file is
+     * created if it does not exist, and truncated otherwise.
+     *
+     * @param startingEquity the initial equity value
+     * @param file the file backing the recorded columns
+     * @return the new recorder, which should be {@link #close() closed} after use
+     * @throws IOException if the file cannot be opened
+     */
+    public static EquityCurveRecorder mapped(double startingEquity, Path file) throws IOException {
+        return new EquityCurveRecorder(startingEquity, new MappedColumns(file));
+    }
+
+    @Override
+    public void positionValueChanged(Account account, Position position) {
+        add(position.getMarketTime(), account.getEquity());
+    }
+
+    /**
+     * Adds the equity point to the curve. If the time is equal to the time of the last recorded point,
+     * the last point is replaced.
+     *
+     * @param time the time of the equity value
+     * @param equity the equity value
+     * @throws IllegalArgumentException if {@code time} is older than the last recorded point
+     */
+    public void add(long time, double equity) {
+        int index = size;
+        if (index > 0) {
+            long lastTime = columns.time(index - 1);
+            if (time < lastTime)
+                throw new IllegalArgumentException("Equity point time " + time + " is older than the last time " + lastTime);
+            if (time == lastTime)
+                index--;
+        }
+        if (index == size) {
+            columns.ensureCapacity(++size);
+            previousEquityHigh = equityHigh;
+        }
+        equityHigh = Math.max(previousEquityHigh, equity);
+        columns.set(index, time, equity, equity - equityHigh);
+    }
+
+    public final double getStartingEquity() {
+        return startingEquity;
+    }
+
+    /**
+     * Gives the highest equity recorded so far, including the starting equity.
+     */
+    public final double getEquityHigh() {
+        return equityHigh;
+    }
+
+    /**
+     * Gives the number of recorded points.
+     */
+    public final int size() {
+        return size;
+    }
+
+    public final boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long getTime(int index) {
+        return columns.time(checkIndex(index));
+    }
+
+    public double getEquity(int index) {
+        return columns.equity(checkIndex(index));
+    }
+
+    /**
+     * Gives the drawdown at the given point, i.e. the (non-positive) difference between the equity
+     * and the highest equity recorded up to that point.
+     */
+    public double getDrawdown(int index) {
+        return columns.drawdown(checkIndex(index));
+    }
+
+    private int checkIndex(int index) {
+        return Objects.checkIndex(index, size);
+    }
+
+    /**
+     * Gives the downsampled equity curve, suitable for charting. The recorded points are split into
+     * at most {@code maxPoints} consecutive buckets of equal size, each represented by the highest,
+     * lowest and last equity of the bucket, at the time of the last point in the bucket.
+     *
+     * @param maxPoints the maximum number of points in the result
+     * @return the downsampled equity curve, indexed in the reverse chronological order
+     */
+    public Dataset<HLC> downsample(int maxPoints) {
+        if (maxPoints <= 0)
+            throw new IllegalArgumentException("maxPoints must be positive: " + maxPoints);
+
+        int count = Math.min(size, maxPoints);
+        HLC[] points = new HLC[count];
+        int from = 0;
+        for (int b = 0; b < count; b++) {
+            int to = (int) ((long) size * (b + 1) / count);
+            double high = Double.NEGATIVE_INFINITY, low = Double.POSITIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double equity = columns.equity(i);
+                if (equity > high)
+                    high = equity;
+                if (equity < low)
+                    low = equity;
+            }
+            points[count - 1 - b] = new HLC(columns.time(to - 1), high, low, columns.equity(to - 1));
+            from = to;
+        }
+        return ImmutableDataset.ofReversedSameIndexingOrder(points);
+    }
+
+    /**
+     * Computes the equity summary statistics from the recorded curve.
+     *
+     * @param annualRiskFreeRate the assumed annual risk-free rate (e.g. 0.01 for 1%)
+     * @return the summary statistics
+     */
+    public EquitySummaryStatistics getSummaryStatistics(double annualRiskFreeRate) {
+        var stats = new EquitySummaryStatistics(startingEquity, annualRiskFreeRate);
+        for (int i = 0; i < size; i++)
+            stats.add(columns.equity(i), columns.time(i));
+        return stats;
+    }
+
+    @Override
+    public void close() throws IOException {
+        columns.close();
+    }
+
+    /**
+     * The storage of the recorded columns.
+     */
+    protected interface Columns extends Closeable {
+
+        void ensureCapacity(int capacity);
+
+        void set(int index, long time, double equity, double drawdown);
+
+        long time(int index);
+
+        double equity(int index);
+
+        double drawdown(int index);
+
+        @Override
+        default void close() throws IOException { }
+    }
+
+    static final class HeapColumns implements Columns {
+        private static final int DEFAULT_CAPACITY = 512;
+        private long[] times = new long[DEFAULT_CAPACITY];
+        private double[] equities = new double[DEFAULT_CAPACITY];
+        private double[] drawdowns = new double[DEFAULT_CAPACITY];
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            if (capacity > times.length) {
+                int newCapacity = Math.max(capacity, times.length + (times.length >> 1));
+                times = Arrays.copyOf(times, newCapacity);
+                equities = Arrays.copyOf(equities, newCapacity);
+                drawdowns = Arrays.copyOf(drawdowns, newCapacity);
+            }
+        }
+
+        @Override
+        public void set(int index, long time, double equity, double drawdown) {
+            times[index] = time;
+            equities[index] = equity;
+            drawdowns[index] = drawdown;
+        }
+
+        @Override
+        public long time(int index) {
+            return times[index];
+        }
+
+        @Override
+        public double equity(int index) {
+            return equities[index];
+        }
+
+        @Override
+        public double drawdown(int index) {
+            return drawdowns[index];
+        }
+    }
+
+    /**
+     * The columns mapped into a file in fixed-size chunks. Within each chunk the time, equity and
+     * drawdown values are laid out as three consecutive column blocks.
+     */
+    static final class MappedColumns implements Columns {
+        private static final int CHUNK_SHIFT = 16, CHUNK_SIZE = 1 << CHUNK_SHIFT, CHUNK_MASK = CHUNK_SIZE - 1;
+        private static final long CHUNK_BYTES = 3L * Long.BYTES * CHUNK_SIZE;
+
+        private final FileChannel channel;
+        private final List<MappedByteBuffer> chunks = new ArrayList<>();
+
+        MappedColumns(Path file) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        }
+
+        @Override
+        public void ensureCapacity(int capacity) {
+            try {
+                while ((long) chunks.size() * CHUNK_SIZE < capacity)
+                    chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, chunks.size() * CHUNK_BYTES, CHUNK_BYTES));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void set(int index, long time, double equity, double drawdown) {
+            MappedByteBuffer chunk = chunks.get(index >>> CHUNK_SHIFT);
+            int offset = (index & CHUNK_MASK) * Long.BYTES;
+            chunk.putLong(offset, time);
+            chunk.putDouble(offset + CHUNK_SIZE * Long.BYTES, equity);
+            chunk.putDouble(offset + 2 * CHUNK_SIZE * Long.BYTES, drawdown);
+        }
+
+        @Override
+        public long time(int index) {
+            return chunks.get(index >>> CHUNK_SHIFT).getLong((index & CHUNK_MASK) * Long.BYTES);
+        }
+
+        @Override
+        public double equity(int index) {
+            return chunks.get(index >>> CHUNK_SHIFT).getDouble((index & CHUNK_MASK) * Long.BYTES + CHUNK_SIZE * Long.BYTES);
+        }
+
+        @Override
+        public double drawdown(int index) {
+            return chunks.get(index >>> CHUNK_SHIFT).getDouble((index & CHUNK_MASK) * Long.BYTES + 2 * CHUNK_SIZE * Long.BYTES);
+        }
+
+        @Override
+        public void close() throws IOException {
+            chunks.clear();
+            channel.close();
+        }
+    }
+}
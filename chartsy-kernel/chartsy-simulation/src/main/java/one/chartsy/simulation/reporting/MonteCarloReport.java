@@ -0,0 +1,60 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.simulation.reporting;
+
+import one.chartsy.trade.reporting.statistics.inferential.BootstrappedEstimates;
+import one.chartsy.trade.reporting.statistics.inferential.BootstrappedEstimator;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * The reports of the backtests run over multiple synthetic market paths, in the order of the paths.
+ *
+ * @param paths the backtest reports of the paths
+ * @author Mariusz Bernacki
+ */
+public record MonteCarloReport(List<BacktestReport> paths) {
+
+    public MonteCarloReport {
+        paths = List.copyOf(paths);
+    }
+
+    public int pathCount() {
+        return paths.size();
+    }
+
+    /**
+     * Gives the distribution of the given equity statistic across the paths, sorted in ascending order,
+     * with the NaN values last.
+     *
+     * @param statistic the statistic, e.g. {@code EquitySummaryStatistics::getAnnualSharpeRatio}
+     * @return the sorted values of the statistic
+     */
+    public double[] distribution(ToDoubleFunction<EquitySummaryStatistics> statistic) {
+        double[] values = new double[paths.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = statistic.applyAsDouble(paths.get(i).equitySummary());
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Standardizes the equity statistics of the given, e.g. the original, backtest against their distributions
+     * across the paths.
+     *
+     * @param target the backtest report to standardize
+     * @return the standard scores of the equity statistics
+     */
+    public BootstrappedEstimates estimate(BacktestReport target) {
+        Objects.requireNonNull(target, "target");
+        var estimator = new BootstrappedEstimator<EquitySummaryStatistics>();
+        for (BacktestReport path : paths)
+            estimator.accept(path.equitySummary());
+        return estimator.estimate(target.equitySummary());
+    }
+}
@@ -0,0 +1,191 @@
+package one.chartsy.simulation.engine;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.MarketMessageHandler;
+import one.chartsy.messaging.data.TradeBar;
+import one.chartsy.simulation.reporting.EquitySummaryStatistics;
+import one.chartsy.trade.Order;
+import one.chartsy.trade.algorithm.AbstractAlgorithm;
+import one.chartsy.trade.algorithm.AlgorithmContext;
+import one.chartsy.trade.algorithm.MarketSupplier;
+import one.chartsy.trade.algorithm.data.InstrumentDataFactory;
+import one.chartsy.trade.algorithm.data.SimpleInstrumentPrices;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static one.chartsy.time.Chronological.toEpochNanos;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BlockBootstrappedMarketFactoryTest {
+
+    static final SymbolIdentity AAA = SymbolIdentity.of("AAA"), BBB = SymbolIdentity.of("BBB");
+
+    /** Two daily series, BBB at twice the price of AAA and listed from the third day on. */
+    static List<TradeBar> originalBars(int days) {
+        var rnd = new Random(7);
+        var bars = new ArrayList<TradeBar>();
+        var start = LocalDate.of(2020, 1, 1);
+        double price = 100.0;
+        for (int d = 0; d < days; d++) {
+            long time = toEpochNanos(start.plusDays(d).atStartOfDay());
+            double open = price * (1 + 0.01 * rnd.nextGaussian());
+            double close = price * (1 + 0.02 * rnd.nextGaussian());
+            double high = Math.max(open, close) * 1.01, low = Math.min(open, close) * 0.99;
+            bars.add(new TradeBar.Of(AAA, Candle.of(time, open, high, low, close, 1000 + d)));
+            if (d >= 2)
+                bars.add(new TradeBar.Of(BBB, Candle.of(time, 2 * open, 2 * high, 2 * low, 2 * close, 2000 + d)));
+            price = close;
+        }
+        return bars;
+    }
+
+    static MarketSupplierFactory factoryOf(List<TradeBar> bars) {
+        return () -> new MarketSupplier() {
+            int index;
+
+            @Override
+            public void open() {
+                index = 0;
+            }
+
+            @Override
+            public int poll(MarketMessageHandler handler, int pollLimit) {
+                int delivered = 0;
+                while (index < bars.size() && delivered < pollLimit
+                        && (delivered == 0 || bars.get(index).time() == bars.get(index - 1).time())) {
+                    handler.onMarketMessage(bars.get(index++));
+                    delivered++;
+                }
+                return delivered;
+            }
+
+            @Override
+            public void close() { }
+        };
+    }
+
+    static List<TradeBar> drain(MarketSupplier supplier, int pollLimit) {
+        var out = new ArrayList<TradeBar>();
+        supplier.open();
+        try {
+            int count;
+            while ((count = supplier.poll(event -> out.add((TradeBar) event), pollLimit)) > 0) {
+                int size = out.size();
+                assertThat(out.subList(size - count, size)).extracting(MarketEvent::time).containsOnly(out.getLast().time());
+            }
+        } finally {
+            supplier.close();
+        }
+        return out;
+    }
+
+    @Test
+    void keeps_calendar_of_every_symbol_and_anchors_to_first_bars() {
+        var original = originalBars(60);
+        var synthetic = drain(new BlockBootstrappedMarketFactory(factoryOf(original), 5, 42L).create(), 1);
+
+        assertThat(synthetic).hasSameSizeAs(original);
+        for (int i = 0; i < original.size(); i++) {
+            assertThat(synthetic.get(i).time()).isEqualTo(original.get(i).time());
+            assertThat(synthetic.get(i).symbol()).isEqualTo(original.get(i).symbol());
+            assertThat(synthetic.get(i).get().low()).isPositive();
+        }
+        assertThat(synthetic.get(0).get()).isEqualTo(original.get(0).get());
+        assertThat(synthetic.get(3).get()).isEqualTo(original.get(3).get()); // first BBB bar
+    }
+
+    @Test
+    void resamples_all_symbols_from_same_date() {
+        var synthetic = drain(new BlockBootstrappedMarketFactory(factoryOf(originalBars(100)), 1, 1L).create(), 1000);
+
+        int comoves = 0;
+        for (int i = 5; i < synthetic.size(); i += 2) {
+            Candle a0 = synthetic.get(i - 3).get(), a1 = synthetic.get(i - 1).get();
+            Candle b0 = synthetic.get(i - 2).get(), b1 = synthetic.get(i).get();
+            assertThat(synthetic.get(i).symbol()).isEqualTo(BBB);
+            if (b1.volume() == 0.0) {
+                assertThat(b1.close()).as("flat bar, no BBB return at the drawn date").isEqualTo(b0.close());
+            } else {
+                assertThat(b1.close() / b0.close()).isCloseTo(a1.close() / a0.close(), within(1e-9));
+                comoves++;
+            }
+        }
+        assertThat(comoves).isGreaterThan(80);
+    }
+
+    @Test
+    void block_of_full_length_gives_rotation_of_original_returns() {
+        var original = originalBars(40).stream().filter(bar -> bar.symbol().equals(AAA)).toList();
+        var bootstrap = new BlockBootstrappedMarketFactory(factoryOf(original), original.size() - 1, 3L);
+        var synthetic = drain(bootstrap.create(), 1000);
+
+        assertThat(returns(synthetic)).containsExactlyInAnyOrder(returns(original).toArray(new Double[0]))
+                .isNotEqualTo(returns(original));
+    }
+
+    static List<Double> returns(List<TradeBar> bars) {
+        var returns = new ArrayList<Double>();
+        for (int i = 1; i < bars.size(); i++)
+            returns.add(Math.round(1e9 * bars.get(i).get().close() / bars.get(i - 1).get().close()) / 1e9);
+        return returns;
+    }
+
+    @Test
+    void seeded_paths_are_reproducible_and_replayed_on_reopen() {
+        var original = originalBars(50);
+        var first = new BlockBootstrappedMarketFactory(factoryOf(original), 3, 9L);
+        var second = new BlockBootstrappedMarketFactory(factoryOf(original), 3, 9L);
+        var supplier = first.create();
+
+        var path = drain(supplier, 7);
+        assertThat(drain(supplier, 1000)).isEqualTo(path);
+        assertThat(drain(second.create(), 1)).isEqualTo(path);
+        assertThat(drain(first.create(), 1)).isNotEqualTo(path);
+    }
+
+    static class BuyAndHold extends AbstractAlgorithm {
+        private boolean ordered;
+
+        BuyAndHold(AlgorithmContext context) {
+            super(context);
+        }
+
+        @Override
+        protected InstrumentDataFactory createInstrumentDataFactory() {
+            return SimpleInstrumentPrices::new;
+        }
+
+        @Override
+        public void onMarketMessage(MarketEvent event) {
+            super.onMarketMessage(event);
+            if (!ordered) {
+                ordered = true;
+                submitOrder(makeMarketOrder(Order.Side.BUY, 1.0, event.symbol()).destinationId("SIMULATOR").toNewOrder());
+            }
+        }
+    }
+
+    @Test
+    void monte_carlo_runs_are_reproducible_regardless_of_parallelism() {
+        var configuration = AlgorithmBacktestContext.builder()
+                .algorithmFactory(BuyAndHold::new)
+                .marketSupplierFactory(factoryOf(originalBars(120)))
+                .build();
+
+        var sequential = new MonteCarloBacktestRunner(6, 5, 11L, 1).run(configuration);
+        var parallel = new MonteCarloBacktestRunner(6, 5, 11L, 3).run(configuration);
+
+        assertThat(parallel.pathCount()).isEqualTo(6);
+        double[] endingEquity = parallel.distribution(EquitySummaryStatistics::getEndingEquity);
+        assertThat(endingEquity).isEqualTo(sequential.distribution(EquitySummaryStatistics::getEndingEquity));
+        assertThat(Arrays.stream(endingEquity).distinct().count()).isGreaterThan(1);
+    }
+}
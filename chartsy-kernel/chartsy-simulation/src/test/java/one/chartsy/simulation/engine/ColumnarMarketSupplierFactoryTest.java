@@ -0,0 +1,46 @@
+package one.chartsy.simulation.engine;
+
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.data.MutableTradeBar;
+import one.chartsy.messaging.data.TradeBar;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static one.chartsy.simulation.engine.BlockBootstrappedMarketFactoryTest.BBB;
+import static one.chartsy.simulation.engine.BlockBootstrappedMarketFactoryTest.factoryOf;
+import static one.chartsy.simulation.engine.BlockBootstrappedMarketFactoryTest.originalBars;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarMarketSupplierFactoryTest {
+
+    @Test
+    void replays_original_bars_in_single_recycled_event() {
+        var original = originalBars(30);
+        var factory = new ColumnarMarketSupplierFactory(factoryOf(original));
+        var registry = new InstrumentRegistry();
+        registry.register(BBB);
+        var supplier = factory.create(registry);
+
+        for (int pass = 0; pass < 2; pass++) {
+            var events = new ArrayList<TradeBar>();
+            var snapshots = new ArrayList<TradeBar>();
+            supplier.open();
+            while (supplier.poll(event -> {
+                events.add((TradeBar) event);
+                snapshots.add((TradeBar) event.snapshot());
+            }, 1) > 0)
+                ;
+            supplier.close();
+
+            assertThat(events).hasSameSizeAs(original).allSatisfy(event -> assertThat(event).isSameAs(events.getFirst()));
+            assertThat(events.getFirst()).isInstanceOf(MutableTradeBar.class);
+            for (int i = 0; i < original.size(); i++) {
+                assertThat(snapshots.get(i).symbol()).isEqualTo(original.get(i).symbol());
+                assertThat(snapshots.get(i).get()).isEqualTo(original.get(i).get());
+                assertThat(snapshots.get(i).instrumentId()).isEqualTo(registry.getId(original.get(i).symbol()));
+            }
+        }
+        assertThat(registry.getId(BBB)).isZero();
+    }
+}
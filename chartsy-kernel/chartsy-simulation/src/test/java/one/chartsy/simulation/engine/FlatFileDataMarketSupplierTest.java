@@ -0,0 +1,115 @@
+package one.chartsy.simulation.engine;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.data.DataSubscription;
+import one.chartsy.data.provider.FlatFileDataProvider;
+import one.chartsy.data.provider.file.FlatFileFormat;
+import one.chartsy.data.provider.file.SimpleCandleLineMapper;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.trade.algorithm.AbstractAlgorithm;
+import one.chartsy.trade.algorithm.AlgorithmContext;
+import one.chartsy.trade.algorithm.data.InstrumentDataFactory;
+import one.chartsy.trade.algorithm.data.SimpleInstrumentPrices;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlatFileDataMarketSupplierTest {
+
+    static final FlatFileFormat FORMAT = FlatFileFormat.builder()
+            .skipFirstLines(1)
+            .lineMapper(new SimpleCandleLineMapper.Type(
+                    ',', List.of("DATE", "OPEN", "HIGH", "LOW", "CLOSE", "VOLUME"),
+                    DateTimeFormatter.ofPattern("yyyy-MM-dd")))
+            .build();
+
+    static Path writeArchive(Path dir, int days, String... symbols) throws IOException {
+        Path archive = dir.resolve("daily.zip");
+        try (var zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            for (String symbol : symbols) {
+                var csv = new StringBuilder("DATE,OPEN,HIGH,LOW,CLOSE,VOLUME\n");
+                for (int d = 0; d < days; d++)
+                    csv.append(LocalDate.of(2020, 1, 1).plusDays(d)).append(",10,11,9,10.5,100\n");
+                zip.putNextEntry(new ZipEntry(symbol + ".csv"));
+                zip.write(csv.toString().getBytes(StandardCharsets.UTF_8));
+                zip.closeEntry();
+            }
+        }
+        return archive;
+    }
+
+    /** Records the events, as seen by the consumers, and whether the registry resolves them without registration. */
+    static class RecordingAlgorithm extends AbstractAlgorithm {
+        static final List<MarketEvent> events = new ArrayList<>();
+        static final List<Boolean> resolvedById = new ArrayList<>();
+        static int registeredAtOpen;
+        static int registeredAtClose;
+
+        RecordingAlgorithm(AlgorithmContext context) {
+            super(context);
+        }
+
+        @Override
+        protected InstrumentDataFactory createInstrumentDataFactory() {
+            return SimpleInstrumentPrices::new;
+        }
+
+        @Override
+        public void onMarketMessage(MarketEvent event) {
+            var registry = context.getInstrumentRegistry();
+            if (events.isEmpty())
+                registeredAtOpen = registry.size();
+            int id = event.instrumentId();
+            resolvedById.add(id >= 0 && id < registry.size() && registry.getSymbol(id) == event.symbol());
+            events.add(event);
+            super.onMarketMessage(event);
+            registeredAtClose = registry.size();
+        }
+    }
+
+    @Test
+    void backtest_consumers_receive_stamped_ids_without_registering(@TempDir Path dir) throws IOException {
+        RecordingAlgorithm.events.clear();
+        RecordingAlgorithm.resolvedById.clear();
+        try (var provider = new FlatFileDataProvider(FORMAT, writeArchive(dir, 5, "AAA", "BBB", "CCC"))) {
+            var marketFactory = FlatFileDataMarketSupplier.factory(provider, DataSubscription.SUBSCRIBED_TO_ALL, null);
+
+            new AlgorithmBacktestRunner().run(RecordingAlgorithm::new, marketFactory, "ALGO");
+        }
+
+        assertThat(RecordingAlgorithm.events).hasSize(15)
+                .extracting(MarketEvent::instrumentId).doesNotContain(MarketEvent.UNASSIGNED_ID);
+        assertThat(RecordingAlgorithm.events).extracting(MarketEvent::symbol).extracting(SymbolIdentity::name)
+                .containsOnly("AAA", "BBB", "CCC");
+        assertThat(RecordingAlgorithm.resolvedById).containsOnly(true);
+        assertThat(RecordingAlgorithm.registeredAtOpen).isEqualTo(3);
+        assertThat(RecordingAlgorithm.registeredAtClose).isEqualTo(3);
+    }
+
+    @Test
+    void factory_supplies_unstamped_events_without_registry(@TempDir Path dir) throws IOException {
+        try (var provider = new FlatFileDataProvider(FORMAT, writeArchive(dir, 2, "AAA"))) {
+            var supplier = FlatFileDataMarketSupplier.factory(provider, DataSubscription.SUBSCRIBED_TO_ALL, null).create();
+            var events = new ArrayList<MarketEvent>();
+            supplier.open();
+            try {
+                while (supplier.poll(events::add, 10) > 0) { }
+            } finally {
+                supplier.close();
+            }
+            assertThat(events).hasSize(2).extracting(MarketEvent::instrumentId).containsOnly(MarketEvent.UNASSIGNED_ID);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package one.chartsy.simulation.engine;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.trade.Order;
+import one.chartsy.trade.OrderType;
+import one.chartsy.trade.TimeInForce;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimulatorOrderTableTest {
+
+    static final SymbolIdentity SYMBOL = SymbolIdentity.of("TEST_SYMBOL");
+    final SimulatorOrderTable table = new SimulatorOrderTable();
+
+    @Test
+    void released_slots_are_reused_by_subsequent_orders() {
+        int first = table.add(request("1"), Order.State.SUBMITTED);
+        int second = table.add(request("2"), Order.State.SUBMITTED);
+        table.release(first);
+
+        int third = table.add(request("3"), Order.State.SUBMITTED);
+
+        assertThat(third).isEqualTo(first);
+        assertThat(second).isNotEqualTo(first);
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.request(third).orderId()).isEqualTo("3");
+        assertThat(table.state(third)).isEqualTo(Order.State.SUBMITTED);
+        assertThat(table.slotOf("1")).isEqualTo(-1);
+        assertThat(table.slotOf("3")).isEqualTo(third);
+    }
+
+    @Test
+    void getOrder_materializes_current_state_and_keeps_it_in_sync() {
+        int slot = table.add(request("1"), Order.State.SUBMITTED);
+        table.setState(slot, Order.State.PARTIALLY_FILLED);
+
+        Order order = table.getOrder("1");
+        assertThat(order.getId()).isEqualTo("1");
+        assertThat(order.getState()).isEqualTo(Order.State.PARTIALLY_FILLED);
+
+        table.setState(slot, Order.State.FILLED);
+        assertThat(table.getOrder(slot)).isSameAs(order);
+        assertThat(order.getState()).isEqualTo(Order.State.FILLED);
+    }
+
+    @Test
+    void released_orders_are_no_longer_found() {
+        int slot = table.add(request("1"), Order.State.SUBMITTED);
+        table.release(slot);
+
+        assertThat(table.slotOf("1")).isEqualTo(-1);
+        assertThat(table.getOrder("1")).isNull();
+        assertThatThrownBy(() -> table.state(slot)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void table_grows_beyond_initial_capacity() {
+        for (int i = 0; i < 200; i++)
+            table.add(request(String.valueOf(i)), Order.State.SUBMITTED);
+
+        assertThat(table.size()).isEqualTo(200);
+        assertThat(table.request(table.slotOf("199")).orderId()).isEqualTo("199");
+    }
+
+    @Test
+    void id_index_follows_random_additions_and_releases() {
+        var rnd = new Random(3);
+        var live = new HashMap<String, Integer>();
+        int nextId = 0;
+        for (int step = 0; step < 20_000; step++) {
+            if (live.isEmpty() || rnd.nextInt(100) < 55 - live.size() / 20) {
+                String orderId = String.valueOf(nextId++);
+                live.put(orderId, table.add(request(orderId), Order.State.SUBMITTED));
+            } else {
+                var orderId = live.keySet().iterator().next();
+                table.release(live.remove(orderId));
+                assertThat(table.slotOf(orderId)).isEqualTo(-1);
+            }
+        }
+
+        assertThat(table.size()).isEqualTo(live.size());
+        live.forEach((orderId, slot) -> assertThat(table.slotOf(orderId)).as(orderId).isEqualTo(slot));
+        for (int i = 0; i < nextId; i++)
+            if (!live.containsKey(String.valueOf(i)))
+                assertThat(table.slotOf(String.valueOf(i))).isEqualTo(-1);
+    }
+
+    static Order.New request(String orderId) {
+        return new Order.New(1L, orderId, "source", null, "", SYMBOL, OrderType.limit(100), Order.Side.BUY,
+                10.0, "USD", TimeInForce.GTC, Long.MAX_VALUE, Long.MIN_VALUE, 0.0, null);
+    }
+}
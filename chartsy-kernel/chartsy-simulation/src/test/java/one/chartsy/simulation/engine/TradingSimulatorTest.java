@@ -0,0 +1,109 @@
+package one.chartsy.simulation.engine;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.data.TradeBar;
+import one.chartsy.simulation.engine.price.PlaybackMarketPriceService;
+import one.chartsy.simulation.time.PlaybackClock;
+import one.chartsy.trade.Order;
+import one.chartsy.trade.OrderType;
+import one.chartsy.trade.TimeInForce;
+import one.chartsy.trade.service.OrderReportHandler;
+import one.chartsy.trade.service.connector.TradeConnectorContext;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TradingSimulatorTest {
+
+    static final SymbolIdentity SYMBOL = SymbolIdentity.of("TEST_SYMBOL");
+
+    final List<Object> reports = new ArrayList<>();
+    final InstrumentRegistry registry = new InstrumentRegistry();
+    final TradingSimulator simulator = new TradingSimulator(new TradeConnectorContext("SIMULATOR",
+            new PlaybackClock(), new PlaybackMarketPriceService(registry), new RecordingReportHandler(), registry));
+
+    class RecordingReportHandler implements OrderReportHandler {
+        @Override
+        public void onOrderRejected(Order.Rejected rejection) {
+            reports.add(rejection);
+        }
+
+        @Override
+        public void onOrderStatusChanged(Order.StatusChanged change) {
+            reports.add(change);
+        }
+
+        @Override
+        public void onOrderFilled(Order.Filled fill) {
+            reports.add(fill);
+        }
+
+        @Override
+        public void onOrderPartiallyFilled(Order.PartiallyFilled partialFill) {
+            reports.add(partialFill);
+        }
+    }
+
+    @Test
+    void working_order_is_materialised_on_request_and_released_on_expiry() {
+        simulator.onOrderPlacement(request("1", OrderType.limit(50), 5L));
+        simulator.onMarketMessage(bar(2L));
+
+        assertThat(simulator.getWorkingOrderCount()).isEqualTo(1);
+        Order order = simulator.getOrder("1");
+        assertThat(order.getId()).isEqualTo("1");
+        assertThat(order.getState()).isEqualTo(Order.State.SUBMITTED);
+        assertThat(simulator.getOrder("1")).isSameAs(order);
+
+        simulator.onMarketMessage(bar(5L));
+        assertThat(simulator.getWorkingOrderCount()).isEqualTo(1);
+
+        simulator.onMarketMessage(bar(6L));
+        assertThat(simulator.getWorkingOrderCount()).isZero();
+        assertThat(simulator.getOrder("1")).isNull();
+        assertThat(order.getState()).isEqualTo(Order.State.EXPIRED);
+        assertThat(reports).extracting(report -> ((Order.StatusChanged) report).state())
+                .containsExactly(Order.State.SUBMITTED, Order.State.EXPIRED);
+    }
+
+    @Test
+    void expired_slots_are_reused_by_later_orders() {
+        for (int i = 0; i < 100; i++) {
+            long time = 2L * i + 1;
+            simulator.onOrderPlacement(request(String.valueOf(i), OrderType.limit(50), time + 1));
+            simulator.onMarketMessage(bar(time + 1));
+            assertThat(simulator.getWorkingOrderCount()).isEqualTo(1);
+            simulator.onMarketMessage(bar(time + 2));
+            assertThat(simulator.getWorkingOrderCount()).isZero();
+        }
+        assertThat(reports).hasSize(200);
+    }
+
+    @Test
+    void immediate_or_cancel_order_is_filled_without_slot() {
+        simulator.onOrderPlacement(request("1", OrderType.MARKET, Long.MAX_VALUE));
+        simulator.onMarketMessage(bar(2L));
+
+        assertThat(simulator.getWorkingOrderCount()).isZero();
+        assertThat(simulator.getOrder("1")).isNull();
+        assertThat(reports).singleElement().isInstanceOfSatisfying(Order.Filled.class, fill -> {
+            assertThat(fill.orderId()).isEqualTo("1");
+            assertThat(fill.tradePrice()).isEqualTo(100.0);
+            assertThat(fill.cumulativeQuantity()).isEqualTo(10.0);
+        });
+    }
+
+    static TradeBar bar(long time) {
+        return new TradeBar.Of(SYMBOL, Candle.of(time, 100, 101, 99, 100));
+    }
+
+    static Order.New request(String orderId, OrderType type, long expirationTime) {
+        return new Order.New(1L, orderId, "source", "SIMULATOR", "", SYMBOL, type, Order.Side.BUY,
+                10.0, "USD", TimeInForce.GTC, expirationTime, Long.MIN_VALUE, 0.0, null);
+    }
+}
@@ -0,0 +1,131 @@
+package one.chartsy.simulation.engine;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.trade.Order;
+import one.chartsy.trade.OrderType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static one.chartsy.time.Chronological.toEpochNanos;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class WorkingOrderBookTest {
+
+    static final SymbolIdentity SYMBOL = SymbolIdentity.of("TEST_SYMBOL");
+    final WorkingOrderBook book = new WorkingOrderBook();
+
+    @Test
+    void collect_gives_only_orders_triggered_within_bar_range() {
+        Order buyStop = order(OrderType.stop(105), Order.Side.BUY);
+        Order farBuyStop = order(OrderType.stop(120), Order.Side.BUY);
+        Order sellStop = order(OrderType.stop(95), Order.Side.SELL);
+        Order farSellStop = order(OrderType.stop(80), Order.Side.SELL);
+        Order buyLimit = order(OrderType.limit(98), Order.Side.BUY);
+        Order sellLimit = order(OrderType.limit(101), Order.Side.SELL);
+        Order farSellLimit = order(OrderType.limit(130), Order.Side.SELL);
+        List.of(buyStop, farBuyStop, sellStop, farSellStop, buyLimit, sellLimit, farSellLimit).forEach(book::add);
+
+        assertThat(collect(Candle.of(1L, 100, 106, 97, 100)))
+                .containsExactly(buyStop, buyLimit, sellLimit);
+        assertThat(collect(Candle.of(2L, 100, 100, 90, 92)))
+                .containsExactly(sellStop, buyLimit);
+    }
+
+    @Test
+    void collect_gives_orders_in_order_of_addition() {
+        var orders = new ArrayList<Order>();
+        for (int i = 0; i < 10; i++)
+            orders.add(order(OrderType.stop(100 + (i % 3)), (i % 2 == 0)? Order.Side.BUY : Order.Side.SELL_SHORT));
+        orders.add(order(OrderType.MARKET, Order.Side.BUY));
+        orders.forEach(book::add);
+
+        assertThat(collect(Candle.of(1L, 100, 110, 90, 100))).containsExactlyElementsOf(orders);
+    }
+
+    @Test
+    void collect_gives_cancelled_and_expired_orders_regardless_of_price() {
+        Order cancelled = order(OrderType.limit(50), Order.Side.BUY);
+        Order expired = order(OrderType.limit(60), Order.Side.BUY);
+        expired.setExpirationDateTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+        Order working = order(OrderType.limit(70), Order.Side.BUY);
+        List.of(cancelled, expired, working).forEach(book::add);
+
+        long time = toEpochNanos(LocalDateTime.of(2024, 1, 2, 0, 0));
+        assertThat(collect(Candle.of(time, 100))).containsExactly(expired);
+
+        cancelled.setState(Order.State.CANCELLED);
+        assertThat(collect(Candle.of(time + 1, 100))).containsExactly(cancelled);
+    }
+
+    @Test
+    void order_given_expiration_after_addition_expires() {
+        Order order = order(OrderType.limit(60), Order.Side.BUY);
+        book.add(order);
+        order.setExpirationDateTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        long time = toEpochNanos(LocalDateTime.of(2024, 1, 2, 0, 0));
+        assertThat(collect(Candle.of(time, 100))).containsExactly(order);
+    }
+
+    @Test
+    void order_with_expiration_moved_earlier_expires_at_new_time() {
+        Order order = order(OrderType.limit(60), Order.Side.BUY);
+        order.setExpirationDateTime(LocalDateTime.of(2024, 12, 31, 0, 0));
+        book.add(order);
+        order.setExpirationDateTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+
+        long time = toEpochNanos(LocalDateTime.of(2024, 1, 2, 0, 0));
+        assertThat(collect(Candle.of(time, 100))).containsExactly(order);
+    }
+
+    @Test
+    void order_with_expiration_moved_later_does_not_expire_at_old_time() {
+        Order order = order(OrderType.limit(60), Order.Side.BUY);
+        order.setExpirationDateTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+        book.add(order);
+        order.setExpirationDateTime(LocalDateTime.of(2024, 12, 31, 0, 0));
+
+        assertThat(collect(Candle.of(toEpochNanos(LocalDateTime.of(2024, 1, 2, 0, 0)), 100))).isEmpty();
+        assertThat(collect(Candle.of(toEpochNanos(LocalDateTime.of(2025, 1, 1, 0, 0)), 100))).containsExactly(order);
+    }
+
+    @Test
+    void removed_orders_are_not_collected() {
+        Order buyStop = order(OrderType.stop(105), Order.Side.BUY);
+        Order sellStop = order(OrderType.stop(95), Order.Side.SELL);
+        book.add(buyStop);
+        book.add(sellStop);
+
+        assertThat(book.remove(buyStop)).isTrue();
+        assertThat(book.remove(buyStop)).isFalse();
+        assertThat(book.orders()).containsExactly(sellStop);
+        assertThat(collect(Candle.of(1L, 100, 110, 90, 100))).containsExactly(sellStop);
+    }
+
+    @Test
+    void orders_gives_unmodifiable_live_view() {
+        Order first = order(OrderType.limit(60), Order.Side.BUY);
+        Order second = order(OrderType.MARKET, Order.Side.SELL);
+        var orders = book.orders();
+        book.add(first);
+        book.add(second);
+
+        assertThat(orders).containsExactly(first, second);
+        book.remove(first);
+        assertThat(orders).containsExactly(second).isSameAs(book.orders());
+        assertThatThrownBy(() -> orders.add(first)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private List<Order> collect(Candle ohlc) {
+        return book.collect(ohlc, ohlc.time(), new ArrayList<>());
+    }
+
+    private static Order order(OrderType type, Order.Side side) {
+        return new Order(SYMBOL, type, side, 1.0);
+    }
+}
@@ -0,0 +1,105 @@
+package one.chartsy.simulation.reporting;
+
+import one.chartsy.HLC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static one.chartsy.simulation.reporting.EquitySummaryStatisticsTest.day;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EquityCurveRecorderTest {
+
+    @Test
+    void records_equity_and_drawdown_columns() {
+        var curve = aCurve(new EquityCurveRecorder(2), 4, 4, 3, 1, 2, 6, 5);
+
+        assertEquals(7, curve.size());
+        assertEquals(day(1), curve.getTime(0));
+        assertEquals(5.0, curve.getEquity(6));
+        assertThat(drawdowns(curve)).containsExactly(0, 0, -1, -3, -2, 0, -1);
+        assertEquals(6.0, curve.getEquityHigh());
+    }
+
+    @Test
+    void coalesces_points_with_equal_time() {
+        var curve = new EquityCurveRecorder(10);
+        curve.add(day(1), 12);
+        curve.add(day(2), 15);
+        curve.add(day(2), 9);
+        curve.add(day(2), 11);
+
+        assertEquals(2, curve.size());
+        assertEquals(11.0, curve.getEquity(1));
+        assertEquals(-1.0, curve.getDrawdown(1));
+        assertEquals(12.0, curve.getEquityHigh());
+        assertThatThrownBy(() -> curve.add(day(1), 10)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void getSummaryStatistics_is_equal_to_statistics_collected_directly() {
+        var curve = aCurve(new EquityCurveRecorder(2), 4, 4, 3, 1, 2, 6, 5);
+        var expected = EquitySummaryStatisticsTest.aStatistics(2, 4, 4, 3, 1, 2, 6, 5);
+
+        var stats = curve.getSummaryStatistics(0.0);
+        assertAll(
+                () -> assertEquals(expected.getEndingEquity(), stats.getEndingEquity()),
+                () -> assertEquals(expected.getMaxDrawdown(), stats.getMaxDrawdown()),
+                () -> assertEquals(expected.getAverageDrawdownPercent(), stats.getAverageDrawdownPercent()),
+                () -> assertEquals(expected.getLongestDrawdownDuration(), stats.getLongestDrawdownDuration()),
+                () -> assertEquals(expected.getAnnualSharpeRatio(), stats.getAnnualSharpeRatio()),
+                () -> assertEquals(expected.getDataPoints(), stats.getDataPoints())
+        );
+    }
+
+    @Test
+    void downsample_keeps_extremes_and_last_value_of_each_bucket() {
+        var curve = aCurve(new EquityCurveRecorder(2), 4, 4, 3, 1, 2, 6, 5);
+
+        var points = curve.downsample(3);
+        assertEquals(3, points.length());
+        assertEquals(new HLC(day(2), 4, 4, 4), points.get(2));
+        assertEquals(new HLC(day(4), 3, 1, 1), points.get(1));
+        assertEquals(new HLC(day(7), 6, 2, 5), points.get(0));
+        assertEquals(7, curve.downsample(100).length());
+    }
+
+    @Test
+    void mapped_curve_spans_multiple_chunks(@TempDir Path dir) throws IOException {
+        int count = 200_000;
+        try (var mapped = EquityCurveRecorder.mapped(100, dir.resolve("equity.bin"))) {
+            var heap = new EquityCurveRecorder(100);
+            for (int i = 0; i < count; i++) {
+                double equity = 100 + Math.sin(i / 1000.0) * 10 + i / 10_000.0;
+                mapped.add(i, equity);
+                heap.add(i, equity);
+            }
+
+            assertEquals(count, mapped.size());
+            for (int i = 0; i < count; i += 997) {
+                assertEquals(heap.getTime(i), mapped.getTime(i));
+                assertEquals(heap.getEquity(i), mapped.getEquity(i));
+                assertEquals(heap.getDrawdown(i), mapped.getDrawdown(i));
+            }
+        }
+    }
+
+    static EquityCurveRecorder aCurve(EquityCurveRecorder curve, double... values) {
+        int dayNumber = 1;
+        for (double value : values)
+            curve.add(day(dayNumber++), value);
+        return curve;
+    }
+
+    static double[] drawdowns(EquityCurveRecorder curve) {
+        double[] drawdowns = new double[curve.size()];
+        for (int i = 0; i < drawdowns.length; i++)
+            drawdowns[i] = curve.getDrawdown(i);
+        return drawdowns;
+    }
+}
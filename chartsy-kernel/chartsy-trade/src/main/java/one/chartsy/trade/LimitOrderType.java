@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.trade;
+
+import one.chartsy.Candle;
+
+/**
+ * Specifies an order to buy a security at or below the limit price, or to sell a security at
+ * or above the limit price. When the bar opens beyond the limit price the order is filled at
+ * the (better) open price.
+ *
+ * @author Mariusz Bernacki
+ */
+public record LimitOrderType(double limitPrice) implements PriceTriggeredOrderType {
+
+    @Override
+    public double getTriggerPrice() {
+        return limitPrice;
+    }
+
+    @Override
+    public boolean isTriggeredAbove(Order order) {
+        return !order.isBuy();
+    }
+
+    @Override
+    public Execution tryFill(Order order, Candle ohlc, OrderFiller filler) {
+        if (order.isBuy()) {
+            if (ohlc.low() <= limitPrice)
+                return filler.fillOrder(order, ohlc, Math.min(ohlc.open(), limitPrice));
+        } else if (ohlc.high() >= limitPrice) {
+            return filler.fillOrder(order, ohlc, Math.max(ohlc.open(), limitPrice));
+        }
+        return null;
+    }
+}
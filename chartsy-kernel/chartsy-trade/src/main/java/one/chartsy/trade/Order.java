@@ -290,6 +290,11 @@ public class Order implements java.io.Serializable, Cloneable, CustomValuesHolde
         }
     }
     
+    protected void fireOrderExpirationChanged() {
+        for (OrderStatusListener listener : listeners)
+            listener.orderExpirationChanged(this);
+    }
+    
     /**
      * Returns the commission of opening or closing position by the given order.
      * 
@@ -481,8 +486,12 @@ public class Order implements java.io.Serializable, Cloneable, CustomValuesHolde
         if (expirationDate == null)
             throw new IllegalArgumentException("expirationDate cannot be NULL");
 
-        this.expirationTime = Chronological.toEpochNanos(expirationDate);
+        long expirationTime = Chronological.toEpochNanos(expirationDate);
+        boolean changed = (expirationTime != this.expirationTime);
+        this.expirationTime = expirationTime;
         this.timeInForce = TimeInForce.GTD;
+        if (changed)
+            fireOrderExpirationChanged();
     }
 
     public long getValidSinceTime() {
@@ -988,7 +997,7 @@ public class Order implements java.io.Serializable, Cloneable, CustomValuesHolde
 
         @Override
         public long time() {
-            return time();
+            return time;
         }
 
         @Override
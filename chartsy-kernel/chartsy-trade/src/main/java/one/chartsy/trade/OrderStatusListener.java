@@ -10,5 +10,12 @@ public interface OrderStatusListener extends java.util.EventListener {
      * @param e the order event
      */
     void orderStatusChanged(OrderStatusEvent e);
+
+    /**
+     * Indicates that the order expiration time has been changed
+     *
+     * @param order the order
+     */
+    default void orderExpirationChanged(Order order) { }
     
 }
@@ -13,6 +13,16 @@ import one.chartsy.Candle;
 public interface OrderType {
     /** Specifies the market order type (shared instance). */
     MarketOrderType MARKET = new MarketOrderType();
+
+    /** Gives the stop order type with the specified stop price. */
+    static StopOrderType stop(double stopPrice) {
+        return new StopOrderType(stopPrice);
+    }
+
+    /** Gives the limit order type with the specified limit price. */
+    static LimitOrderType limit(double limitPrice) {
+        return new LimitOrderType(limitPrice);
+    }
     
     Execution tryFill(Order order, Candle ohlc, OrderFiller filler);
 
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.trade;
+
+/**
+ * The type of order which can be filled only after the market price touches the order's trigger price.
+ * <p>
+ * Implementations must never fill an order on a bar whose price range does not reach the
+ * {@link #getTriggerPrice() trigger price}, i.e. for the orders {@link #isTriggeredAbove(Order) triggered
+ * above} the bar's high must be at or above the trigger price, and for the remaining orders the bar's
+ * low must be at or below it. Matching engines rely on this contract to keep such orders indexed by
+ * price and to consider only the orders whose trigger price lies within the current bar's range.
+ *
+ * @author Mariusz Bernacki
+ */
+public interface PriceTriggeredOrderType extends OrderType {
+
+    /**
+     * Gives the price at which the order becomes eligible for execution.
+     */
+    double getTriggerPrice();
+
+    /**
+     * Tells whether the given order is triggered when the market rises to the trigger price
+     * (e.g. buy stop or sell limit) or when it falls to the trigger price (e.g. sell stop or buy limit).
+     *
+     * @param order the order of this type
+     * @return {@code true} if the order is triggered by a price at or above the trigger price
+     */
+    boolean isTriggeredAbove(Order order);
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.trade;
+
+import one.chartsy.Candle;
+
+/**
+ * Specifies an order to buy a security when the market rises to the stop price, or to sell a
+ * security when the market falls to the stop price. When the bar opens beyond the stop price
+ * the order is filled at the open price.
+ *
+ * @author Mariusz Bernacki
+ */
+public record StopOrderType(double stopPrice) implements PriceTriggeredOrderType {
+
+    @Override
+    public double getTriggerPrice() {
+        return stopPrice;
+    }
+
+    @Override
+    public boolean isTriggeredAbove(Order order) {
+        return order.isBuy();
+    }
+
+    @Override
+    public Execution tryFill(Order order, Candle ohlc, OrderFiller filler) {
+        if (order.isBuy()) {
+            if (ohlc.high() >= stopPrice)
+                return filler.fillOrder(order, ohlc, Math.max(ohlc.open(), stopPrice));
+        } else if (ohlc.low() <= stopPrice) {
+            return filler.fillOrder(order, ohlc, Math.min(ohlc.open(), stopPrice));
+        }
+        return null;
+    }
+}
@@ -17,6 +17,7 @@ import one.chartsy.trade.algorithm.data.InstrumentData;
 import one.chartsy.trade.algorithm.data.InstrumentDataFactory;
 import one.chartsy.trade.algorithm.data.InstrumentRanker;
 import one.chartsy.trade.algorithm.data.MarketDataProcessor;
+import one.chartsy.trade.algorithm.data.ParallelMarketDataProcessor;
 import one.chartsy.trade.algorithm.data.RankingPostProcessor;
 import one.chartsy.trade.algorithm.data.RankingStrategy;
 import one.chartsy.trade.algorithm.data.RankingStrategy.RankingOrder;
@@ -37,6 +38,7 @@ public abstract class AbstractAlgorithm<I extends InstrumentData> implements Alg
     protected final List<InstrumentRanker<I>> rankers = new ArrayList<>();
     private PropertyAccessor propertyAccessor;
     private final DateChangeSignal dateChange = DateChangeSignal.create();
+    private long lastEventTime = Long.MIN_VALUE;
 
 
     public AbstractAlgorithm(AlgorithmContext context) {
@@ -75,8 +77,20 @@ public abstract class AbstractAlgorithm<I extends InstrumentData> implements Alg
      */
     protected abstract InstrumentDataFactory<I> createInstrumentDataFactory();
 
+    /**
+     * Creates the processor maintaining the instrument data. The default processor updates the instruments
+     * sequentially; the algorithms tracking many instruments may opt in to the parallel updates of the instruments
+     * sharing a timestamp by returning the {@link ParallelMarketDataProcessor} instead.
+     * <p>
+     * The parallel processor defers the updates until the time advances. The instrument data obtained from its
+     * {@code getOrCreate} methods are brought up to date on demand, but the {@code InstrumentData} references
+     * retained by the algorithm and the {@link MarketDataProcessor#getInstruments() instruments view} may still
+     * reflect the previous timestamp right after {@link #onMarketMessage(MarketEvent)} returns.
+     *
+     * @return the market data processor
+     */
     protected MarketDataProcessor<I> createMarketDataProcessor() {
-        return new DefaultMarketDataProcessor<>(createInstrumentDataFactory());
+        return new DefaultMarketDataProcessor<>(createInstrumentDataFactory(), context.getInstrumentRegistry());
     }
 
     protected OutboundOrderProcessor createOutboundOrderProcessor() {
@@ -116,7 +130,24 @@ public abstract class AbstractAlgorithm<I extends InstrumentData> implements Alg
     protected InstrumentRanker<I> createRanking(RankingStrategy<I> strategy,
                                                 RankingPostProcessor<I> postProcessor,
                                                 RankingOrder order) {
-        var ranker = new DefaultInstrumentRanker<>(this, marketDataProcessor, strategy, postProcessor, order);
+        return createRanking(strategy, postProcessor, order, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates an instrument ranking of only the top {@code limit} instruments, using the given strategy,
+     * rank post-processor, and the ranking order. The bottom instruments may be ranked using the reversed order.
+     *
+     * @param strategy      the {@code RankingStrategy} to compute scores
+     * @param postProcessor the {@code RankingPostProcessor} to assign rank numbers to the top instruments
+     * @param order         the {@code RankingOrder} (e.g., HIGHER_BETTER or LOWER_BETTER)
+     * @param limit         the maximum number of the ranked instruments
+     * @return the newly created and registered instrument ranker
+     */
+    protected InstrumentRanker<I> createRanking(RankingStrategy<I> strategy,
+                                                RankingPostProcessor<I> postProcessor,
+                                                RankingOrder order,
+                                                int limit) {
+        var ranker = new DefaultInstrumentRanker<>(this, marketDataProcessor, strategy, postProcessor, order, limit);
         this.rankers.add(ranker);
         return ranker;
     }
@@ -125,8 +156,25 @@ public abstract class AbstractAlgorithm<I extends InstrumentData> implements Alg
         // nothing to do here
     }
 
+    /**
+     * Handles the market message, updating the rankers and the instrument data.
+     * <p>
+     * With the {@link ParallelMarketDataProcessor parallel} {@link #createMarketDataProcessor() processor}, the
+     * message is only buffered by this method, and the overriding methods should obtain the data of the instrument
+     * through {@code marketDataProcessor.getOrCreate(event)}, which applies the buffered messages of the instrument
+     * first, rather than reading an {@code InstrumentData} reference retained earlier, which may still reflect the
+     * previous timestamp.
+     *
+     * @param event the market message
+     */
     @Override
     public void onMarketMessage(MarketEvent event) {
+        long time = event.time();
+        if (time != lastEventTime) {
+            // barrier: the cross-sectional logic below must see all updates of the previous timestamp
+            marketDataProcessor.awaitUpdates();
+            lastEventTime = time;
+        }
         if (dateChange.poll(event))
             onDateChange(event);
 
@@ -148,7 +196,7 @@ public abstract class AbstractAlgorithm<I extends InstrumentData> implements Alg
 
     @Override
     public void close() {
-        // nothing to do here
+        marketDataProcessor.awaitUpdates();
     }
 
     protected void validateOrderRequest(Order.New order) {
@@ -6,6 +6,7 @@ package one.chartsy.trade.algorithm;
 import one.chartsy.core.event.ListenerList;
 import one.chartsy.data.stream.MessageChannel;
 import one.chartsy.data.stream.MessageChannelException;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.kernel.data.stream.csv.CsvResourceMessageChannel;
 import one.chartsy.kernel.data.stream.json.JsonlResourceMessageChannel;
 import one.chartsy.messaging.common.handlers.ShutdownResponseHandler;
@@ -19,6 +20,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Objects;
 import java.util.UUID;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -37,11 +39,17 @@ public abstract class AbstractAlgorithmContext implements AlgorithmContext {
 
     private final ListenerList<ShutdownResponseHandler> shutdownResponseHandlers = ListenerList.of(ShutdownResponseHandler.class);
     private final String id;
+    private final InstrumentRegistry instrumentRegistry;
     private volatile boolean shutdown;
 
 
     protected AbstractAlgorithmContext(String id) {
+        this(id, new InstrumentRegistry());
+    }
+
+    protected AbstractAlgorithmContext(String id, InstrumentRegistry instrumentRegistry) {
         this.id = id;
+        this.instrumentRegistry = Objects.requireNonNull(instrumentRegistry, "instrumentRegistry");
         addShutdownResponseHandler(__ -> this.shutdown = true);
     }
 
@@ -50,6 +58,11 @@ public abstract class AbstractAlgorithmContext implements AlgorithmContext {
         return id;
     }
 
+    @Override
+    public final InstrumentRegistry getInstrumentRegistry() {
+        return instrumentRegistry;
+    }
+
     @Override
     public void addShutdownResponseHandler(ShutdownResponseHandler handler) {
         shutdownResponseHandlers.addListener(handler);
@@ -6,6 +6,7 @@ package one.chartsy.trade.algorithm;
 import one.chartsy.data.stream.Message;
 import one.chartsy.data.stream.MessageChannel;
 import one.chartsy.data.stream.MessageChannelException;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.messaging.common.handlers.ShutdownResponseHandler;
 import one.chartsy.time.Clock;
 import one.chartsy.trade.service.OrderHandler;
@@ -50,6 +51,14 @@ public interface AlgorithmContext {
      */
     SequenceGenerator getSequenceGenerator();
 
+    /**
+     * Provides the registry assigning dense integer ids to the instruments of the current run, shared with
+     * the market data suppliers stamping the events, and with the trade connectors of the same run.
+     *
+     * @return the {@link InstrumentRegistry} of the run
+     */
+    InstrumentRegistry getInstrumentRegistry();
+
     /**
      * Gives the primary message channel for sending or receiving generic algorithm messages.
      *
@@ -6,6 +6,7 @@ package one.chartsy.trade.algorithm;
 import lombok.Getter;
 import one.chartsy.base.OpenDisposable;
 import one.chartsy.core.event.AbstractInvoker;
+import one.chartsy.core.event.ListenerList;
 import one.chartsy.data.stream.Message;
 import one.chartsy.data.stream.MessageHandler;
 import one.chartsy.messaging.MarketMessageHandler;
@@ -24,6 +25,13 @@ public class AlgorithmInvoker extends AbstractInvoker implements MessageHandler
         super(algorithm.getClass());
     }
 
+    @Override
+    protected ListenerList<?> createListenerList(Class<?> type) {
+        if (type == MarketMessageHandler.class)
+            return ListenerList.specialized(MarketMessageHandler.class);
+        return super.createListenerList(type);
+    }
+
     @Override
     public void handleMessage(Message message) {
         switch (message) {
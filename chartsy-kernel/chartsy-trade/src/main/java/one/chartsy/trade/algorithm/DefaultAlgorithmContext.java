@@ -6,6 +6,7 @@ package one.chartsy.trade.algorithm;
 import lombok.Getter;
 import one.chartsy.data.stream.Message;
 import one.chartsy.data.stream.MessageChannel;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.time.Clock;
 import one.chartsy.trade.service.OrderHandler;
 import one.chartsy.util.SequenceGenerator;
@@ -26,7 +27,11 @@ public class DefaultAlgorithmContext extends AbstractAlgorithmContext {
     }
 
     public DefaultAlgorithmContext(String id, Clock clock, MessageChannel<Message> messageChannel, OrderHandler orderHandler, SequenceGenerator sequenceGenerator) {
-        super(id);
+        this(id, clock, messageChannel, orderHandler, sequenceGenerator, new InstrumentRegistry());
+    }
+
+    public DefaultAlgorithmContext(String id, Clock clock, MessageChannel<Message> messageChannel, OrderHandler orderHandler, SequenceGenerator sequenceGenerator, InstrumentRegistry instrumentRegistry) {
+        super(id, instrumentRegistry);
         this.clock = clock;
         this.messageChannel = messageChannel;
         this.orderHandler = orderHandler;
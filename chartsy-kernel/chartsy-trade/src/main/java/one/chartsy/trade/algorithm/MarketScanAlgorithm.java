@@ -77,7 +77,7 @@ public final class MarketScanAlgorithm<S, R> extends AbstractAlgorithm<MarketSca
         public void onMarketMessage(MarketEvent event) {
             if (event instanceof TradeBar tradeBar) {
                 Candle candle = tradeBar.get();
-                lastBar = candle;
+                lastBar = tradeBar.snapshot().get();
                 if (onBar != null)
                     onBar.accept(symbol, state, candle);
             }
@@ -9,15 +9,34 @@ import one.chartsy.trade.algorithm.Algorithm;
 import one.chartsy.trade.algorithm.data.RankingStrategy.RankingOrder;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Stream;
 
 /**
  * Default implementation of the {@code InstrumentRanker} encapsulating ranking of instrument data
  * based on the provided strategy and order. Recalculates ranks lazily upon data changes,
  * delegating rank assignments to the provided post-processor.
+ * <p>
+ * The scores are computed once per instrument on every re-ranking and kept in a primitive array, thus
+ * the {@link RankingStrategy#computeScore(InstrumentData)} is not called repeatedly by the comparisons.
+ * When the ranking is {@link #getLimit() limited} to the top {@code K} instruments, only the best
+ * {@code K} instruments are selected, using a bounded heap, and both the ranked list and the list passed
+ * to the post-processor contain just the ranked prefix. The instruments which were ranked previously, but
+ * are not in the new prefix, are passed to the {@link RankingPostProcessor#processRank(InstrumentData, int)
+ * post-processor} with the rank {@code 0} before the new ranks are assigned. The instruments are ordered by their scores according
+ * to the {@link RankingOrder}, the instruments with equal scores in the order of the source instruments, thus
+ * the ranking equals the prefix of the stable sort of all instruments by the default
+ * {@link RankingStrategy#comparator(RankingOrder) strategy comparator}.
+ * <p>
+ * A strategy overriding the {@link RankingStrategy#comparator(RankingOrder) comparator}, and opting in by the
+ * {@link RankingStrategy#isComparatorRanked()}, is honoured instead: the instruments are then stably sorted by the comparator of the strategy, without the precomputed scores,
+ * and the ranking is the prefix of that sort.
  *
  * @param <I> type of instrument data managed by the ranker
  */
@@ -29,8 +48,19 @@ public class DefaultInstrumentRanker<I extends InstrumentData> implements Instru
     private final RankingOrder order;
     private final DateChangeSignal dateChange = DateChangeSignal.create();
     private final Iterable<I> sourceInstruments;
+    private final int limit;
+    /** The comparator overriding the score order of the strategy, or {@code null} if not overridden. */
+    private final Comparator<I> customComparator;
+    /** The instruments of the current re-ranking, in the source order, and their sort keys. */
+    private Object[] candidates = new Object[0];
+    private long[] sortKeys = new long[0];
+    /** The heap of the candidate indexes selected so far, with the worst one at the root. */
+    private int[] selection = new int[0];
     private final List<I> rankedInstruments = new ArrayList<>();
     private final List<I> rankedInstrumentsView = Collections.unmodifiableList(rankedInstruments);
+    /** The instruments of the previous ranking, and the identity set of the new one, used to find the dropped ones. */
+    private final List<I> previouslyRanked = new ArrayList<>();
+    private final Set<I> newlyRanked = Collections.newSetFromMap(new IdentityHashMap<>());
     private boolean updated;
 
     /**
@@ -47,11 +77,34 @@ public class DefaultInstrumentRanker<I extends InstrumentData> implements Instru
                                    RankingStrategy<I> strategy,
                                    RankingPostProcessor<I> postProcessor,
                                    RankingOrder order) {
+        this(owner, instruments, strategy, postProcessor, order, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates a ranker instance ranking only the top {@code limit} instruments.
+     *
+     * @param owner         the {@code Algorithm} owning this ranker, providing contextual information for processing
+     * @param instruments   the instruments available to the ranker
+     * @param strategy      the {@code RankingStrategy} defining how scores are computed from instruments
+     * @param postProcessor the {@code RankingPostProcessor} callback invoked after ranking to assign numeric ranks to the top instruments
+     * @param order         the {@code RankingOrder} specifying sorting logic: higher scores better (descending) or lower better (ascending)
+     * @param limit         the maximum number of the ranked instruments, {@code Integer.MAX_VALUE} to rank all of them
+     */
+    public DefaultInstrumentRanker(Algorithm owner,
+                                   Iterable<I> instruments,
+                                   RankingStrategy<I> strategy,
+                                   RankingPostProcessor<I> postProcessor,
+                                   RankingOrder order,
+                                   int limit) {
+        if (limit < 0)
+            throw new IllegalArgumentException("limit must be non-negative: " + limit);
+        this.limit = limit;
         this.owner = Objects.requireNonNull(owner, "owner algorithm");
         this.strategy = Objects.requireNonNull(strategy, "ranking strategy");
         this.postProcessor = Objects.requireNonNull(postProcessor, "ranking post-processor");
         this.order = Objects.requireNonNull(order, "ranking order");
         this.sourceInstruments = Objects.requireNonNull(instruments, "instruments");
+        this.customComparator = strategy.isComparatorRanked()? strategy.comparator(order) : null;
     }
 
     @Override
@@ -66,12 +119,120 @@ public class DefaultInstrumentRanker<I extends InstrumentData> implements Instru
         doRankInstruments();
     }
 
+    /**
+     * Gives the maximum number of the ranked instruments.
+     */
+    public final int getLimit() {
+        return limit;
+    }
+
+    @SuppressWarnings("unchecked")
     protected void doRankInstruments() {
+        if (customComparator != null) {
+            doRankInstrumentsByComparator();
+            return;
+        }
+        int count = 0;
+        for (I instr : sourceInstruments) {
+            if (count == candidates.length) {
+                int length = Math.max(16, count * 2);
+                candidates = Arrays.copyOf(candidates, length);
+                sortKeys = Arrays.copyOf(sortKeys, length);
+            }
+            candidates[count] = instr;
+            sortKeys[count] = order.sortKey(strategy.computeScore(instr));
+            count++;
+        }
+
+        int size = Math.min(limit, count);
+        if (selection.length < size)
+            selection = new int[Math.max(size, Math.min(count, 2 * selection.length))];
+        int[] heap = selection;
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            siftUp(heap, i);
+        }
+        for (int i = size; i < count; i++) {
+            if (size > 0 && isBetter(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, 0, size);
+            }
+        }
+        // heap sort in place, moving the worst selected candidate to the end
+        for (int end = size - 1; end > 0; end--) {
+            int worst = heap[0];
+            heap[0] = heap[end];
+            heap[end] = worst;
+            siftDown(heap, 0, end);
+        }
+
+        previouslyRanked.addAll(rankedInstruments);
+        rankedInstruments.clear();
+        for (int i = 0; i < size; i++)
+            rankedInstruments.add((I) candidates[heap[i]]);
+        Arrays.fill(candidates, 0, count, null);
+        updated = true;
+        processDroppedRanks();
+        postProcessor.processAllRanks(rankedInstrumentsView, owner);
+    }
+
+    private void doRankInstrumentsByComparator() {
+        previouslyRanked.addAll(rankedInstruments);
         rankedInstruments.clear();
-        sourceInstruments.forEach(rankedInstruments::add);
-        rankedInstruments.sort(strategy.comparator(order));
+        for (I instr : sourceInstruments)
+            rankedInstruments.add(instr);
+        rankedInstruments.sort(customComparator);
+        if (rankedInstruments.size() > limit)
+            rankedInstruments.subList(limit, rankedInstruments.size()).clear();
         updated = true;
-        postProcessor.processAllRanks(rankedInstruments, owner);
+        processDroppedRanks();
+        postProcessor.processAllRanks(rankedInstrumentsView, owner);
+    }
+
+    /** Assigns the rank {@code 0} to the previously ranked instruments missing from the new ranking. */
+    private void processDroppedRanks() {
+        if (previouslyRanked.isEmpty())
+            return;
+
+        newlyRanked.addAll(rankedInstruments);
+        for (I instr : previouslyRanked)
+            if (!newlyRanked.contains(instr))
+                postProcessor.processRank(instr, 0);
+        newlyRanked.clear();
+        previouslyRanked.clear();
+    }
+
+    /** Whether the candidate {@code a} ranks before {@code b}, the ties broken by the source order. */
+    private boolean isBetter(int a, int b) {
+        long ka = sortKeys[a], kb = sortKeys[b];
+        return ka < kb || ka == kb && a < b;
+    }
+
+    private void siftUp(int[] heap, int pos) {
+        int x = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!isBetter(heap[parent], x))
+                break;
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = x;
+    }
+
+    private void siftDown(int[] heap, int pos, int size) {
+        int x = heap[pos];
+        int half = size >>> 1;
+        while (pos < half) {
+            int child = 2 * pos + 1;
+            if (child + 1 < size && isBetter(heap[child], heap[child + 1]))
+                child++;
+            if (!isBetter(x, heap[child]))
+                break;
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = x;
     }
 
     @Override
@@ -4,33 +4,46 @@
 package one.chartsy.trade.algorithm.data;
 
 import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentMap;
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.messaging.MarketEvent;
 
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.function.Consumer;
 
 /**
  * Default implementation of {@code MarketDataProcessor}.
+ * <p>
+ * The instrument data are kept in an {@link InstrumentMap}, indexed by the ids of the given {@link InstrumentRegistry},
+ * thus the events stamped with the {@link MarketEvent#instrumentId() instrument ids} are routed without hashing
+ * their symbols.
  *
  * @param <T> the type of instrument data
  */
 public class DefaultMarketDataProcessor<T extends InstrumentData> implements MarketDataProcessor<T> {
 
     private final InstrumentDataFactory<T> dataFactory;
-    private final Map<SymbolIdentity, T> instruments = new HashMap<>();
-    private final Collection<T> instrumentsView = Collections.unmodifiableCollection(instruments.values());
+    private final InstrumentMap<T> instruments;
 
     /**
-     * Constructs a processor with the specified factory and subscribed symbols.
+     * Constructs a processor with the specified factory and a private instrument registry.
      *
      * @param dataFactory           factory to create instrument data
      */
     public DefaultMarketDataProcessor(InstrumentDataFactory<T> dataFactory) {
+        this(dataFactory, new InstrumentRegistry());
+    }
+
+    /**
+     * Constructs a processor with the specified factory and the instrument registry of the current run.
+     *
+     * @param dataFactory           factory to create instrument data
+     * @param registry              the instrument registry
+     */
+    public DefaultMarketDataProcessor(InstrumentDataFactory<T> dataFactory, InstrumentRegistry registry) {
         this.dataFactory = dataFactory;
+        this.instruments = new InstrumentMap<>(registry);
     }
 
     @Override
@@ -40,31 +53,45 @@ public class DefaultMarketDataProcessor<T extends InstrumentData> implements Mar
 
     @Override
     public final Collection<T> getInstruments() {
-        return instrumentsView;
+        return instruments.values();
     }
 
     @Override
     public T getOrCreate(SymbolIdentity symbol) {
-        var instrument = instruments.get(symbol);
-        if (instrument == null) {
-            instruments.put(symbol, (instrument = dataFactory.create(symbol)));
-        }
+        return instruments.computeIfAbsent(symbol, dataFactory::create);
+    }
 
-        return instrument;
+    /**
+     * Returns the existing data for the instrument of the given id or creates it if missing.
+     *
+     * @param instrumentId the instrument id assigned by the {@link #getInstrumentRegistry() registry}
+     * @return the existing or newly created instrument data
+     */
+    protected T getOrCreate(int instrumentId) {
+        return instruments.computeIfAbsent(instrumentId, dataFactory::create);
+    }
+
+    protected final InstrumentRegistry getInstrumentRegistry() {
+        return instruments.getRegistry();
+    }
+
+    @Override
+    public T getOrCreate(MarketEvent event) {
+        return instruments.computeIfAbsent(event, dataFactory::create);
     }
 
     @Override
     public void onMarketMessage(MarketEvent event) {
-        getOrCreate(event.symbol()).onMarketMessage(event);
+        getOrCreate(event).onMarketMessage(event);
     }
 
     @Override
     public Iterator<T> iterator() {
-        return instruments.values().iterator();
+        return instruments.iterator();
     }
 
     @Override
     public void forEach(Consumer<? super T> action) {
-        instruments.values().forEach(action);
+        instruments.forEach(action);
     }
 }
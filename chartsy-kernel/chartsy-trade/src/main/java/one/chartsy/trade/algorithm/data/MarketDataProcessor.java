@@ -4,6 +4,7 @@
 package one.chartsy.trade.algorithm.data;
 
 import one.chartsy.SymbolIdentity;
+import one.chartsy.messaging.MarketEvent;
 import one.chartsy.messaging.MarketMessageHandler;
 
 import java.util.Collection;
@@ -36,4 +37,23 @@ public interface MarketDataProcessor<T extends InstrumentData> extends Iterable<
      * @return the existing or newly created instrument data
      */
     T getOrCreate(SymbolIdentity symbol);
+
+    /**
+     * Returns the existing data for the instrument of the event or creates it if missing.
+     *
+     * @param event the market event
+     * @return the existing or newly created instrument data
+     */
+    default T getOrCreate(MarketEvent event) {
+        return getOrCreate(event.symbol());
+    }
+
+    /**
+     * Waits until all market messages received so far are applied to the instrument data. The processors
+     * applying the updates synchronously, such as the {@link DefaultMarketDataProcessor}, return immediately,
+     * while the {@link ParallelMarketDataProcessor} completes the pending slice of updates. The callers run this
+     * barrier before any logic reading the state of multiple instruments, such as the ranking.
+     */
+    default void awaitUpdates() {
+    }
 }
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.trade.algorithm.data;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.MarketEvent;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+
+/**
+ * A {@code MarketDataProcessor} applying the updates of the instruments in parallel.
+ * <p>
+ * The market messages sharing a timestamp form a slice, which is buffered instead of being applied
+ * immediately. The slice is completed when a message of a later timestamp arrives, or when the
+ * {@link #awaitUpdates()} barrier is called, and then the instruments of the slice are updated in parallel
+ * on the given {@link ForkJoinPool}. The messages of a single instrument are always applied by a single task,
+ * in the order of their arrival, thus the resulting state is identical to the one of the sequential
+ * {@link DefaultMarketDataProcessor}, provided that the {@link InstrumentData#onMarketMessage(MarketEvent)}
+ * updates only the state of its own instrument. The instrument data are created on the calling thread,
+ * in the order of arrival. The slices smaller than the given threshold are updated on the calling thread.
+ * The buffered messages are {@link MarketEvent#snapshot() snapshots}, thus the processor may be fed by the
+ * suppliers recycling their events.
+ * <p>
+ * The instrument data handed out by the {@link #getOrCreate(SymbolIdentity) getOrCreate} methods are brought
+ * up to date first, by applying the pending messages of that instrument on the calling thread, so that an algorithm
+ * reading the data of the instrument of the message just received sees that message applied. Likewise, the
+ * {@link #iterator() iteration} over the instruments runs the barrier first. However, the instrument data
+ * references retained by the caller, as well as the {@link #getInstruments() instruments view}, may lag behind
+ * until the barrier. Any logic reading the state of multiple instruments, such as the ranking, must run after the
+ * barrier. The {@code AbstractAlgorithm} runs the barrier whenever the time of the market messages advances, i.e.
+ * before its ranking and date change logic, and when it is closed.
+ *
+ * @implNote This implementation is not thread-safe, except for the parallel updates it runs itself.
+ *
+ * @param <T> the type of instrument data
+ * @author Mariusz Bernacki
+ */
+public class ParallelMarketDataProcessor<T extends InstrumentData> extends DefaultMarketDataProcessor<T> {
+
+    /** The default minimum number of instruments in a slice worth updating in parallel. */
+    public static final int DEFAULT_PARALLEL_THRESHOLD = 64;
+
+    private final ForkJoinPool pool;
+    private final int parallelThreshold;
+    /** The instrument data and the messages of the pending slice, in the order of arrival. */
+    private InstrumentData[] pendingInstruments = new InstrumentData[256];
+    private MarketEvent[] pendingEvents = new MarketEvent[256];
+    /** The index of the subsequent pending message of the same instrument, or {@code -1}. */
+    private int[] nextOfInstrument = new int[256];
+    private int pendingCount;
+    /** The number of pending messages already applied ahead of the barrier. */
+    private int appliedCount;
+    private long pendingTime;
+    /** The index of the first pending message of every distinct instrument of the slice. */
+    private int[] firstOfInstrument = new int[256];
+    private int instrumentCount;
+    /** The index of the first and the last pending message, by the instrument id, valid if tagged with the current slice number. */
+    private int[] firstById = new int[256];
+    private int[] lastById = new int[256];
+    private int[] sliceById = new int[256];
+    private int slice = 1;
+
+
+    /**
+     * Constructs a processor updating the instruments on the common pool.
+     *
+     * @param dataFactory factory to create instrument data
+     * @param registry    the instrument registry
+     */
+    public ParallelMarketDataProcessor(InstrumentDataFactory<T> dataFactory, InstrumentRegistry registry) {
+        this(dataFactory, registry, ForkJoinPool.commonPool(), DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Constructs a processor updating the instruments on the given pool.
+     *
+     * @param dataFactory       factory to create instrument data
+     * @param registry          the instrument registry
+     * @param pool              the pool running the parallel updates
+     * @param parallelThreshold the minimum number of instruments in a slice worth updating in parallel
+     */
+    public ParallelMarketDataProcessor(InstrumentDataFactory<T> dataFactory, InstrumentRegistry registry, ForkJoinPool pool, int parallelThreshold) {
+        super(dataFactory, registry);
+        if (parallelThreshold < 1)
+            throw new IllegalArgumentException("parallelThreshold must be positive: " + parallelThreshold);
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Gives the number of buffered messages, not applied to the instrument data yet.
+     */
+    public final int getPendingCount() {
+        return pendingCount - appliedCount;
+    }
+
+    /**
+     * Gives the data of the instrument, with all messages of the instrument received so far applied.
+     */
+    @Override
+    public T getOrCreate(SymbolIdentity symbol) {
+        int id = getInstrumentRegistry().register(symbol);
+        applyPending(id);
+        return getOrCreate(id);
+    }
+
+    /**
+     * Gives the data of the instrument of the event, with all messages of the instrument received so far applied.
+     */
+    @Override
+    public T getOrCreate(MarketEvent event) {
+        int id = getInstrumentRegistry().resolve(event);
+        applyPending(id);
+        return getOrCreate(id);
+    }
+
+    /**
+     * Applies the pending messages of the given instrument on the calling thread, ahead of the rest of the slice.
+     */
+    private void applyPending(int id) {
+        if (appliedCount == pendingCount || id >= sliceById.length || sliceById[id] != slice)
+            return;
+
+        for (int index = firstById[id]; index >= 0; index = nextOfInstrument[index]) {
+            InstrumentData instrument = pendingInstruments[index];
+            if (instrument != null) {
+                MarketEvent event = pendingEvents[index];
+                pendingInstruments[index] = null;
+                pendingEvents[index] = null;
+                appliedCount++;
+                instrument.onMarketMessage(event);
+            }
+        }
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+        awaitUpdates();
+        return super.iterator();
+    }
+
+    @Override
+    public void forEach(Consumer<? super T> action) {
+        awaitUpdates();
+        super.forEach(action);
+    }
+
+    @Override
+    public void onMarketMessage(MarketEvent event) {
+        long time = event.time();
+        if (pendingCount > 0 && time != pendingTime)
+            awaitUpdates();
+
+        int id = getInstrumentRegistry().resolve(event);
+        T instrument = getOrCreate(id);
+        int index = pendingCount;
+        if (index == pendingEvents.length)
+            growPending();
+        pendingInstruments[index] = instrument;
+        pendingEvents[index] = event.snapshot(); // the event may be recycled by the supplier
+        nextOfInstrument[index] = -1;
+
+        if (id >= sliceById.length) {
+            int length = Math.max(id + 1, sliceById.length * 2);
+            sliceById = Arrays.copyOf(sliceById, length);
+            firstById = Arrays.copyOf(firstById, length);
+            lastById = Arrays.copyOf(lastById, length);
+        }
+        if (sliceById[id] == slice) {
+            nextOfInstrument[lastById[id]] = index;
+        } else {
+            sliceById[id] = slice;
+            firstById[id] = index;
+            if (instrumentCount == firstOfInstrument.length)
+                firstOfInstrument = Arrays.copyOf(firstOfInstrument, instrumentCount * 2);
+            firstOfInstrument[instrumentCount++] = index;
+        }
+        lastById[id] = index;
+        pendingCount = index + 1;
+        pendingTime = time;
+    }
+
+    private void growPending() {
+        int length = pendingEvents.length * 2;
+        pendingInstruments = Arrays.copyOf(pendingInstruments, length);
+        pendingEvents = Arrays.copyOf(pendingEvents, length);
+        nextOfInstrument = Arrays.copyOf(nextOfInstrument, length);
+    }
+
+    @Override
+    public void awaitUpdates() {
+        int count = pendingCount;
+        if (count == 0)
+            return;
+
+        try {
+            if (instrumentCount < parallelThreshold) {
+                // the messages already applied ahead of the barrier are cleared
+                for (int i = 0; i < count; i++)
+                    if (pendingInstruments[i] != null)
+                        pendingInstruments[i].onMarketMessage(pendingEvents[i]);
+            } else {
+                int grain = Math.max(1, instrumentCount / (4 * pool.getParallelism()));
+                pool.invoke(new UpdateTask(0, instrumentCount, grain));
+            }
+        } finally {
+            Arrays.fill(pendingInstruments, 0, count, null);
+            Arrays.fill(pendingEvents, 0, count, null);
+            pendingCount = 0;
+            appliedCount = 0;
+            instrumentCount = 0;
+            if (++slice == 0) {
+                Arrays.fill(sliceById, 0);
+                slice = 1;
+            }
+        }
+    }
+
+    private void updateInstruments(int from, int to) {
+        for (int i = from; i < to; i++)
+            for (int index = firstOfInstrument[i]; index >= 0; index = nextOfInstrument[index])
+                if (pendingInstruments[index] != null)
+                    pendingInstruments[index].onMarketMessage(pendingEvents[index]);
+    }
+
+    private final class UpdateTask extends RecursiveAction {
+        private final int from, to, grain;
+
+        UpdateTask(int from, int to, int grain) {
+            this.from = from;
+            this.to = to;
+            this.grain = grain;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= grain) {
+                updateInstruments(from, to);
+            } else {
+                int mid = (from + to) >>> 1;
+                invokeAll(new UpdateTask(from, mid, grain), new UpdateTask(mid, to, grain));
+            }
+        }
+    }
+}
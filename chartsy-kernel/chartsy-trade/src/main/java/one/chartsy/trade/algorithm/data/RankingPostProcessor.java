@@ -25,9 +25,14 @@ public interface RankingPostProcessor<I extends InstrumentData> {
 
     /**
      * Processes the rank assignment for a single instrument.
+     * <p>
+     * The rank {@code 0} is assigned to the instrument which was ranked previously, but is no longer ranked,
+     * e.g. when it has dropped out of the top instruments of the {@link DefaultInstrumentRanker#getLimit()
+     * limited} ranking.
      *
      * @param instr   the instrument data for which the rank is being assigned
-     * @param newRank the new rank to assign to the instrument (e.g., 1 for the top-ranked instrument)
+     * @param newRank the new rank to assign to the instrument (e.g., 1 for the top-ranked instrument), or
+     *                {@code 0} if the instrument is no longer ranked
      */
     void processRank(I instr, int newRank);
 
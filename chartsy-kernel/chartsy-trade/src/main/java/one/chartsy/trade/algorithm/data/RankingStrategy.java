@@ -37,6 +37,13 @@ public interface RankingStrategy<I extends InstrumentData> {
      * The comparator takes into account the desired ranking order by delegating the comparison
      * to the {@link RankingOrder#compare(double, double)} method.
      * </p>
+     * <p>
+     * The {@link DefaultInstrumentRanker} ranks the instruments by the precomputed scores, in agreement with this
+     * default comparator. A strategy may override this method to rank by a different criterion, e.g. to break
+     * the ties of the scores, and then must also return {@code true} from {@link #isComparatorRanked()}, in which
+     * case the ranker sorts the instruments by the overriding comparator instead, which is slower, since the scores
+     * may be recomputed by the comparisons.
+     * </p>
      *
      * @param order the ranking order to use for comparison
      * @return a comparator for comparing two instruments based on their ranking scores
@@ -49,6 +56,17 @@ public interface RankingStrategy<I extends InstrumentData> {
         };
     }
 
+    /**
+     * Tells whether the instruments are to be ranked by the {@link #comparator(RankingOrder) comparator} of the
+     * strategy rather than by the precomputed scores. The strategies overriding the comparator opt in by returning
+     * {@code true}, otherwise the overriding comparator is not used by the {@link DefaultInstrumentRanker}.
+     *
+     * @return {@code true} if ranked by the comparator, {@code false} by default
+     */
+    default boolean isComparatorRanked() {
+        return false;
+    }
+
     /**
      * RankingOrder defines the ordering criteria for ranking instruments.
      * <ul>
@@ -69,6 +87,11 @@ public interface RankingStrategy<I extends InstrumentData> {
                         : Double.isNaN(s2) ? -1
                         : Double.compare(s2, s1);
             }
+
+            @Override
+            public long sortKey(double score) {
+                return Double.isNaN(score) ? Long.MAX_VALUE : sortableBits(-score);
+            }
         },
         LOWER_BETTER {
             @Override
@@ -77,8 +100,27 @@ public interface RankingStrategy<I extends InstrumentData> {
                         : Double.isNaN(s2) ? -1
                         : Double.compare(s1, s2);
             }
+
+            @Override
+            public long sortKey(double score) {
+                return Double.isNaN(score) ? Long.MAX_VALUE : sortableBits(score);
+            }
         };
 
         public abstract int compare(double s1, double s2);
+
+        /**
+         * Maps the score to a primitive sort key, such that the better scores give the smaller keys.
+         * The {@code Long.compare} of the keys agrees with the {@link #compare(double, double)} of the scores.
+         *
+         * @param score the score, may be NaN
+         * @return the sort key
+         */
+        public abstract long sortKey(double score);
+
+        private static long sortableBits(double value) {
+            long bits = Double.doubleToLongBits(value);
+            return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+        }
     }
 }
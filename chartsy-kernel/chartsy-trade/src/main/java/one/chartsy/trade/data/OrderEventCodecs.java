@@ -0,0 +1,224 @@
+/*
+ * Copyright 2026 Mariusz Bernacki <consulting@didalgo.com>
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package one.chartsy.trade.data;
+
+import one.chartsy.data.stream.journal.JournalCodec;
+import one.chartsy.data.stream.journal.JournalCodecs;
+import one.chartsy.data.stream.journal.JournalInput;
+import one.chartsy.data.stream.journal.JournalOutput;
+import one.chartsy.trade.LimitOrderType;
+import one.chartsy.trade.MarketOrderType;
+import one.chartsy.trade.Order;
+import one.chartsy.trade.OrderType;
+import one.chartsy.trade.StopOrderType;
+import one.chartsy.trade.TimeInForce;
+
+/**
+ * The {@link JournalCodec}s of the order request and report events, occupying the type ids 32 to 47.
+ * <p>
+ * Orders of the {@link OrderType#MARKET market}, {@link StopOrderType stop} and {@link LimitOrderType limit}
+ * types with the {@link TimeInForce.Standard standard} time-in-force values are supported.
+ *
+ * @author Mariusz Bernacki
+ */
+public final class OrderEventCodecs {
+
+    public static final int NEW = 32;
+    public static final int REPLACEMENT = 33;
+    public static final int CANCELLATION = 34;
+    public static final int REJECTED = 35;
+    public static final int STATUS_CHANGED = 36;
+    public static final int FILLED = 37;
+    public static final int PARTIALLY_FILLED = 38;
+
+    private static final int MARKET_ORDER = 0, STOP_ORDER = 1, LIMIT_ORDER = 2;
+
+    /**
+     * Registers the order event codecs in the given registry.
+     *
+     * @param codecs the registry
+     * @return the {@code codecs} registry
+     */
+    public static JournalCodecs registerAll(JournalCodecs codecs) {
+        return codecs
+                .register(NEW, Order.New.class, new JournalCodec<>() {
+                    @Override
+                    public void encode(Order.New order, JournalOutput out) {
+                        encodeNew(order, out);
+                    }
+
+                    @Override
+                    public Order.New decode(long time, JournalInput in) {
+                        return decodeNew(time, in);
+                    }
+                })
+                .register(REPLACEMENT, Order.Replacement.class, new JournalCodec<>() {
+                    @Override
+                    public void encode(Order.Replacement replacement, JournalOutput out) {
+                        out.putString(replacement.originalOrderId());
+                        encodeNew(replacement.newOrder(), out);
+                    }
+
+                    @Override
+                    public Order.Replacement decode(long time, JournalInput in) {
+                        return new Order.Replacement(in.getString(), decodeNew(time, in));
+                    }
+                })
+                .register(CANCELLATION, Order.Cancellation.class, new JournalCodec<>() {
+                    @Override
+                    public void encode(Order.Cancellation cancellation, JournalOutput out) {
+                        out.putString(cancellation.orderId())
+                                .putString(cancellation.sourceId())
+                                .putString(cancellation.destinationId())
+                                .putString(cancellation.originalOrderId())
+                                .putString(cancellation.reason());
+                    }
+
+                    @Override
+                    public Order.Cancellation decode(long time, JournalInput in) {
+                        return new Order.Cancellation(time, in.getString(), in.getString(), in.getString(), in.getString(), in.getString());
+                    }
+                })
+                .register(REJECTED, Order.Rejected.class, new JournalCodec<>() {
+                    @Override
+                    public void encode(Order.Rejected rejection, JournalOutput out) {
+                        out.putString(rejection.orderId())
+                                .putString(rejection.sourceId())
+                                .putString(rejection.destinationId())
+                                .putString(rejection.rejectionReason());
+                    }
+
+                    @Override
+                    public Order.Rejected decode(long time, JournalInput in) {
+                        return new Order.Rejected(time, in.getString(), in.getString(), in.getString(), in.getString());
+                    }
+                })
+                .register(STATUS_CHANGED, Order.StatusChanged.class, new JournalCodec<>() {
+                    @Override
+                    public void encode(Order.StatusChanged change, JournalOutput out) {
+                        out.putString(change.orderId())
+                                .putString(change.sourceId())
+                                .putString(change.destinationId())
+                                .putEnum(change.state());
+                    }
+
+                    @Override
+                    public Order.StatusChanged decode(long time, JournalInput in) {
+                        return new Order.StatusChanged(time, in.getString(), in.getString(), in.getString(), in.getEnum(Order.State.class));
+                    }
+                })
+                .register(FILLED, Order.Filled.class, new JournalCodec<>() {
+                    @Override
+                    public void encode(Order.Filled fill, JournalOutput out) {
+                        encodeFilled(fill, out);
+                    }
+
+                    @Override
+                    public Order.Filled decode(long time, JournalInput in) {
+                        return decodeFilled(time, in);
+                    }
+                })
+                .register(PARTIALLY_FILLED, Order.PartiallyFilled.class, new JournalCodec<>() {
+                    @Override
+                    public void encode(Order.PartiallyFilled partialFill, JournalOutput out) {
+                        out.putDouble(partialFill.quantityLeft());
+                        encodeFilled(partialFill.filled(), out);
+                    }
+
+                    @Override
+                    public Order.PartiallyFilled decode(long time, JournalInput in) {
+                        return new Order.PartiallyFilled(in.getDouble(), decodeFilled(time, in));
+                    }
+                });
+    }
+
+    private static void encodeNew(Order.New order, JournalOutput out) {
+        out.putString(order.orderId())
+                .putString(order.sourceId())
+                .putString(order.destinationId())
+                .putString(order.accountId())
+                .putSymbol(order.symbol());
+        encodeOrderType(order.type(), out);
+        out.putEnum(order.side())
+                .putDouble(order.quantity())
+                .putString(order.currency())
+                .putEnum(standardTimeInForce(order.timeInForce()))
+                .putLong(order.expirationTime())
+                .putLong(order.validSinceTime())
+                .putDouble(order.minQuantity())
+                .putString(order.referenceOrderId());
+    }
+
+    private static Order.New decodeNew(long time, JournalInput in) {
+        return new Order.New(time,
+                in.getString(),
+                in.getString(),
+                in.getString(),
+                in.getString(),
+                in.getSymbol(),
+                decodeOrderType(in),
+                in.getEnum(Order.Side.class),
+                in.getDouble(),
+                in.getString(),
+                in.getEnum(TimeInForce.Standard.class),
+                in.getLong(),
+                in.getLong(),
+                in.getDouble(),
+                in.getString());
+    }
+
+    private static void encodeOrderType(OrderType type, JournalOutput out) {
+        switch (type) {
+            case StopOrderType stop -> out.putByte(STOP_ORDER).putDouble(stop.stopPrice());
+            case LimitOrderType limit -> out.putByte(LIMIT_ORDER).putDouble(limit.limitPrice());
+            case MarketOrderType market -> out.putByte(MARKET_ORDER);
+            default -> throw new IllegalArgumentException("Unsupported order type: " + type);
+        }
+    }
+
+    private static OrderType decodeOrderType(JournalInput in) {
+        return switch (in.getByte()) {
+            case MARKET_ORDER -> OrderType.MARKET;
+            case STOP_ORDER -> OrderType.stop(in.getDouble());
+            case LIMIT_ORDER -> OrderType.limit(in.getDouble());
+            default -> throw new IllegalArgumentException("Unsupported order type in journal record");
+        };
+    }
+
+    private static TimeInForce.Standard standardTimeInForce(TimeInForce timeInForce) {
+        if (timeInForce == null || timeInForce instanceof TimeInForce.Standard)
+            return (TimeInForce.Standard) timeInForce;
+        throw new IllegalArgumentException("Unsupported time-in-force: " + timeInForce);
+    }
+
+    private static void encodeFilled(Order.Filled fill, JournalOutput out) {
+        out.putString(fill.orderId())
+                .putString(fill.sourceId())
+                .putString(fill.destinationId())
+                .putString(fill.executionId())
+                .putSymbol(fill.symbol())
+                .putEnum(fill.side())
+                .putDouble(fill.tradeQuantity())
+                .putDouble(fill.tradePrice())
+                .putDouble(fill.cumulativeQuantity())
+                .putDouble(fill.averagePrice());
+    }
+
+    private static Order.Filled decodeFilled(long time, JournalInput in) {
+        return new Order.Filled(time,
+                in.getString(),
+                in.getString(),
+                in.getString(),
+                in.getString(),
+                in.getSymbol(),
+                in.getEnum(Order.Side.class),
+                in.getDouble(),
+                in.getDouble(),
+                in.getDouble(),
+                in.getDouble());
+    }
+
+    private OrderEventCodecs() { }
+}
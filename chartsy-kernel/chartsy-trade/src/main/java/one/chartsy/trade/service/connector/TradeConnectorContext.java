@@ -3,6 +3,7 @@
  */
 package one.chartsy.trade.service.connector;
 
+import one.chartsy.financial.InstrumentRegistry;
 import one.chartsy.financial.price.MarketPriceService;
 import one.chartsy.time.Clock;
 import one.chartsy.trade.service.OrderReportHandler;
@@ -13,12 +14,18 @@ public class TradeConnectorContext {
     private final Clock clock;
     private final MarketPriceService priceService;
     private final OrderReportHandler orderReportHandler;
+    private final InstrumentRegistry instrumentRegistry;
 
     public TradeConnectorContext(String id, Clock clock, MarketPriceService priceService, OrderReportHandler orderReportHandler) {
+        this(id, clock, priceService, orderReportHandler, new InstrumentRegistry());
+    }
+
+    public TradeConnectorContext(String id, Clock clock, MarketPriceService priceService, OrderReportHandler orderReportHandler, InstrumentRegistry instrumentRegistry) {
         this.id = id;
         this.clock = clock;
         this.priceService = priceService;
         this.orderReportHandler = orderReportHandler;
+        this.instrumentRegistry = instrumentRegistry;
     }
 
     public final String getId() {
@@ -36,4 +43,8 @@ public class TradeConnectorContext {
     public final OrderReportHandler getOrderReportHandler() {
         return orderReportHandler;
     }
+
+    public final InstrumentRegistry getInstrumentRegistry() {
+        return instrumentRegistry;
+    }
 }
@@ -4,7 +4,10 @@
 package one.chartsy.trade.service.connector;
 
 import one.chartsy.data.stream.Message;
+import one.chartsy.data.stream.MessageBuffer;
+import one.chartsy.data.stream.MessageChannel;
 import one.chartsy.data.stream.QueuedMessageBuffer;
+import one.chartsy.data.stream.RingMessageBuffer;
 import one.chartsy.trade.Order;
 
 import java.util.Queue;
@@ -12,21 +15,25 @@ import java.util.Queue;
 public class TradeConnectorProxy implements TradeConnector {
 
     private final String id;
-    private final Queue<Message> queue;
+    private final MessageChannel<Message> channel;
     private final TradeConnectorWorker worker;
 
     public TradeConnectorProxy(TradeConnector target, Queue<Message> queue) {
-        this(target.getId(), target, queue);
+        this(target.getId(), target, new QueuedMessageBuffer<>(queue));
     }
 
-    protected TradeConnectorProxy(String id, TradeConnector target, Queue<Message> queue) {
+    public TradeConnectorProxy(TradeConnector target, RingMessageBuffer<Message> buffer) {
+        this(target.getId(), target, buffer);
+    }
+
+    protected <B extends MessageBuffer & MessageChannel<Message>> TradeConnectorProxy(String id, TradeConnector target, B buffer) {
         this.id = id;
-        this.queue = queue;
-        this.worker = createWorker(target, queue);
+        this.channel = buffer;
+        this.worker = createWorker(target, buffer);
     }
 
-    private static TradeConnectorWorker createWorker(TradeConnector target, Queue<Message> queue) {
-        return new TradeConnectorWorker(target, new QueuedMessageBuffer<>(queue));
+    private static TradeConnectorWorker createWorker(TradeConnector target, MessageBuffer buffer) {
+        return new TradeConnectorWorker(target, buffer);
     }
 
     @Override
@@ -74,6 +81,6 @@ public class TradeConnectorProxy implements TradeConnector {
     }
 
     protected void offer(Message message) {
-        queue.offer(message);
+        channel.send(message);
     }
 }
@@ -42,7 +42,9 @@ public class HierarchicalTradingAlgorithm extends AbstractTradingAlgorithm {
         invokeAll(getAllSubStrategies(), TradingAlgorithm::onMarketUniverseChange, event);
     };
 
-    private final List<TradingSystem> childFactories = Collections.synchronizedList(new ArrayList<>());
+    /** The sub-strategy factories, in the order of addition. */
+    private TradingSystem[] childFactories = new TradingSystem[0];
+    /** The dispatch table of the sub-strategies, indexed by the {@link When#getId() series id}. */
     private ChildInvoker[] children = new ChildInvoker[0];
 
     private final List<TradingAlgorithm> allSubStrategies = new ArrayList<>();
@@ -121,9 +123,13 @@ public class HierarchicalTradingAlgorithm extends AbstractTradingAlgorithm {
         invokeAll(getSubStrategies(when), TradingAlgorithm::doLast, when);
     }
 
+    /**
+     * Routes the data event to the sub-strategies of the partitions matching the given series only, creating the
+     * sub-strategies lazily if the series is seen for the first time.
+     */
     @Override
     public void onData(When when, Chronological next, boolean timeTick) {
-        List<TradingAlgorithm> subStrategies = getAllSubStrategies();
+        List<TradingAlgorithm> subStrategies = getSubStrategies(when);
         for (int i = 0, count = subStrategies.size(); i < count; i++)
             subStrategies.get(i).onData(when, next, timeTick);
     }
@@ -149,7 +155,7 @@ public class HierarchicalTradingAlgorithm extends AbstractTradingAlgorithm {
             invoker = children[id] = new ChildInvoker(when, new ArrayList<>());
             marketUniverse.addMarket(when);
 
-            List<TradingAlgorithm> newlyCreated = new LinkedList<>();
+            List<TradingAlgorithm> newlyCreated = new ArrayList<>();
             for (TradingSystem factory : childFactories) {
                 var targetAlgorithm = factory.getTargetAlgorithm(context, when, newlyCreated);
                 if (targetAlgorithm != null)
@@ -172,9 +178,10 @@ public class HierarchicalTradingAlgorithm extends AbstractTradingAlgorithm {
 
     public void addSubStrategies(TradingAlgorithmFactory<?> factory, Function<Series<?>, ?> partitionFunction) {
         var childFactory = new TradingSystem(factory, partitionFunction);
-        childFactories.add(childFactory);
+        childFactories = Arrays.copyOf(childFactories, childFactories.length + 1);
+        childFactories[childFactories.length - 1] = childFactory;
 
-        List<TradingAlgorithm> newlyCreated = new LinkedList<>();
+        List<TradingAlgorithm> newlyCreated = new ArrayList<>();
         for (ChildInvoker slot : children) {
             if (slot != null) {
                 var targetAlgorithm = childFactory.getTargetAlgorithm(context, slot.when(), newlyCreated);
@@ -190,17 +197,18 @@ public class HierarchicalTradingAlgorithm extends AbstractTradingAlgorithm {
     }
 
     protected void invokeAll(List<TradingAlgorithm> targets, Consumer<? super TradingAlgorithm> method) {
-        targets.forEach(method);
+        for (int i = 0, count = targets.size(); i < count; i++)
+            method.accept(targets.get(i));
     }
 
     protected <P> void invokeAll(List<TradingAlgorithm> targets, BiConsumer<? super TradingAlgorithm, P> method, P arg1) {
-        for (var target : targets)
-            method.accept(target, arg1);
+        for (int i = 0, count = targets.size(); i < count; i++)
+            method.accept(targets.get(i), arg1);
     }
 
     protected <P1,P2> void invokeAll(List<TradingAlgorithm> targets, TriConsumer<? super TradingAlgorithm, P1, P2> method, P1 arg1, P2 arg2) {
-        for (var target : targets)
-            method.accept(target, arg1, arg2);
+        for (int i = 0, count = targets.size(); i < count; i++)
+            method.accept(targets.get(i), arg1, arg2);
     }
 
     protected Lookup createChildLookup(TradingAlgorithmContext context, ConcurrentMap<String, ?> sharedVariables) {
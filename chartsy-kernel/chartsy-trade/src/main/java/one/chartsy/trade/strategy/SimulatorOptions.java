@@ -20,6 +20,11 @@ public interface SimulatorOptions {
 
     boolean isTransactionHistoryEnabled();
 
+    /**
+     * Tells whether the simulation account should record its equity curve.
+     */
+    boolean isEquityCurveEnabled();
+
     static Builder builder() {
         return new Builder();
     }
@@ -0,0 +1,166 @@
+package one.chartsy.trade.algorithm.data;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.trade.algorithm.Algorithm;
+import one.chartsy.trade.algorithm.data.RankingStrategy.RankingOrder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Mockito.mock;
+
+class DefaultInstrumentRankerTest {
+
+    static class Scored extends AbstractInstrumentData {
+        final double score;
+
+        Scored(int i, double score) {
+            super(SymbolIdentity.of("S" + i));
+            this.score = score;
+        }
+
+        @Override
+        public void onMarketMessage(MarketEvent event) { }
+    }
+
+    static List<Scored> instruments(int count, long seed) {
+        var rnd = new Random(seed);
+        var list = new ArrayList<Scored>();
+        for (int i = 0; i < count; i++) {
+            double score = switch (rnd.nextInt(10)) {
+                case 0 -> Double.NaN;
+                case 1 -> 0.0;
+                case 2 -> -0.0;
+                case 3 -> Double.POSITIVE_INFINITY;
+                case 4 -> Double.NEGATIVE_INFINITY;
+                default -> rnd.nextInt(50) - 25; // plenty of ties
+            };
+            list.add(new Scored(i, score));
+        }
+        return list;
+    }
+
+    @ParameterizedTest
+    @EnumSource(RankingOrder.class)
+    void limited_ranking_gives_prefix_of_stable_full_sort(RankingOrder order) {
+        RankingStrategy<Scored> strategy = instr -> instr.score;
+        var source = instruments(1000, order.ordinal());
+        var expected = new ArrayList<>(source);
+        expected.sort(strategy.comparator(order));
+
+        for (int limit : new int[] { 0, 1, 7, 20, 999, 1000, Integer.MAX_VALUE }) {
+            var ranker = new DefaultInstrumentRanker<>(mock(Algorithm.class), source, strategy, RankingPostProcessor.noop(), order, limit);
+            ranker.rerankNow();
+
+            assertThat(ranker.getRankedInstruments())
+                    .as("limit %d", limit)
+                    .containsExactlyElementsOf(expected.subList(0, Math.min(limit, expected.size())));
+        }
+    }
+
+    @Test
+    void honours_comparator_overridden_by_strategy() {
+        var source = instruments(300, 5L);
+        var strategy = new RankingStrategy<Scored>() {
+            @Override
+            public double computeScore(Scored instr) {
+                return instr.score;
+            }
+
+            @Override
+            public Comparator<Scored> comparator(RankingOrder order) {
+                // break the ties by the symbol name, descending, instead of by the source order
+                return RankingStrategy.super.comparator(order)
+                        .thenComparing(instr -> instr.getSymbol().name(), Comparator.reverseOrder());
+            }
+
+            @Override
+            public boolean isComparatorRanked() {
+                return true;
+            }
+        };
+        var expected = new ArrayList<>(source);
+        expected.sort(strategy.comparator(RankingOrder.LOWER_BETTER));
+
+        var ranker = new DefaultInstrumentRanker<>(mock(Algorithm.class), source, strategy, RankingPostProcessor.noop(), RankingOrder.LOWER_BETTER, 50);
+        ranker.rerankNow();
+
+        assertThat(ranker.getRankedInstruments()).containsExactlyElementsOf(expected.subList(0, 50));
+    }
+
+    @Test
+    void ranks_by_scores_unless_strategy_opts_in_to_its_comparator() {
+        var source = instruments(300, 5L);
+        var strategy = new RankingStrategy<Scored>() {
+            @Override
+            public double computeScore(Scored instr) {
+                return instr.score;
+            }
+
+            @Override
+            public Comparator<Scored> comparator(RankingOrder order) {
+                return RankingStrategy.super.comparator(order).reversed();
+            }
+        };
+        RankingStrategy<Scored> byScore = instr -> instr.score;
+        var expected = new ArrayList<>(source);
+        expected.sort(byScore.comparator(RankingOrder.LOWER_BETTER));
+
+        var ranker = new DefaultInstrumentRanker<>(mock(Algorithm.class), source, strategy, RankingPostProcessor.noop(), RankingOrder.LOWER_BETTER, 50);
+        ranker.rerankNow();
+
+        assertThat(ranker.getRankedInstruments()).containsExactlyElementsOf(expected.subList(0, 50));
+    }
+
+    @ParameterizedTest
+    @EnumSource(RankingOrder.class)
+    void instruments_dropping_out_of_limited_ranking_get_rank_zero(RankingOrder order) {
+        var source = List.of(new Scored(0, 0), new Scored(1, 0), new Scored(2, 0), new Scored(3, 0));
+        var scores = new HashMap<Scored, Double>();
+        for (int i = 0; i < source.size(); i++)
+            scores.put(source.get(i), (order == RankingOrder.HIGHER_BETTER)? 4.0 - i : i);
+        var ranks = new HashMap<Scored, Integer>();
+        var ranker = new DefaultInstrumentRanker<>(mock(Algorithm.class), source, scores::get, ranks::put, order, 2);
+
+        ranker.rerankNow();
+        assertThat(ranks).containsOnly(entry(source.get(0), 1), entry(source.get(1), 2));
+
+        // reverse the scores, the top two instruments drop out
+        for (int i = 0; i < source.size(); i++)
+            scores.put(source.get(i), (order == RankingOrder.HIGHER_BETTER)? 1.0 + i : 4 - i);
+        ranker.rerankNow();
+        assertThat(ranks).containsOnly(
+                entry(source.get(0), 0), entry(source.get(1), 0), entry(source.get(3), 1), entry(source.get(2), 2));
+    }
+
+    @Test
+    void computes_each_score_once_and_post_processes_only_ranked_prefix() {
+        var source = instruments(500, 1L);
+        var calls = new AtomicInteger();
+        RankingStrategy<Scored> strategy = instr -> {
+            calls.incrementAndGet();
+            return instr.score;
+        };
+        var ranks = new HashMap<Scored, Integer>();
+        var ranker = new DefaultInstrumentRanker<>(mock(Algorithm.class), source, strategy, ranks::put, RankingOrder.HIGHER_BETTER, 20);
+
+        ranker.rerankNow();
+
+        assertThat(calls).hasValue(500);
+        assertThat(ranker.isUpdated()).isTrue();
+        assertThat(ranker.getRankedInstruments()).hasSize(20);
+        assertThat(ranks).hasSize(20);
+        for (int i = 0; i < 20; i++)
+            assertThat(ranks.get(ranker.getRankedInstruments().get(i))).isEqualTo(i + 1);
+    }
+}
@@ -0,0 +1,133 @@
+package one.chartsy.trade.algorithm.data;
+
+import one.chartsy.Candle;
+import one.chartsy.SymbolIdentity;
+import one.chartsy.financial.InstrumentRegistry;
+import one.chartsy.messaging.MarketEvent;
+import one.chartsy.messaging.data.TradeBar;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParallelMarketDataProcessorTest {
+
+    final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterEach
+    void shutdownPool() {
+        pool.shutdown();
+    }
+
+    static class RecordingInstrument extends AbstractInstrumentData {
+        final List<Double> closes = new ArrayList<>();
+        double ema = Double.NaN;
+
+        RecordingInstrument(SymbolIdentity symbol) {
+            super(symbol);
+        }
+
+        @Override
+        public void onMarketMessage(MarketEvent event) {
+            double close = ((TradeBar) event).get().close();
+            closes.add(close);
+            ema = (ema != ema)? close : 0.9 * ema + 0.1 * close;
+        }
+    }
+
+    static List<MarketEvent> randomSlices(int timestamps, int symbols, long seed) {
+        var rnd = new Random(seed);
+        var events = new ArrayList<MarketEvent>();
+        for (int t = 1; t <= timestamps; t++)
+            for (int s = 0; s < symbols; s++) {
+                int repeats = (rnd.nextInt(10) == 0)? 2 : (rnd.nextInt(10) == 0)? 0 : 1;
+                for (int r = 0; r < repeats; r++)
+                    events.add(new TradeBar.Of(SymbolIdentity.of("S" + s), Candle.of(t, 100 + rnd.nextGaussian())));
+            }
+        return events;
+    }
+
+    @Test
+    void gives_the_same_state_as_sequential_processor() {
+        var events = randomSlices(20, 500, 42);
+        var sequential = new DefaultMarketDataProcessor<>(RecordingInstrument::new);
+        var parallel = new ParallelMarketDataProcessor<>(RecordingInstrument::new, new InstrumentRegistry(), pool, 1);
+
+        events.forEach(sequential::onMarketMessage);
+        events.forEach(parallel::onMarketMessage);
+        parallel.awaitUpdates();
+
+        assertThat(parallel.getInstrumentCount()).isEqualTo(sequential.getInstrumentCount());
+        assertThat(parallel.getInstruments()).extracting(RecordingInstrument::getSymbol)
+                .containsExactlyElementsOf(sequential.getInstruments().stream().map(RecordingInstrument::getSymbol).toList());
+        for (var instrument : sequential) {
+            var other = parallel.getOrCreate(instrument.getSymbol());
+            assertThat(other.closes).isEqualTo(instrument.closes);
+            assertThat(other.ema).isEqualTo(instrument.ema);
+        }
+    }
+
+    @Test
+    void applies_pending_slice_when_time_advances() {
+        var parallel = new ParallelMarketDataProcessor<>(RecordingInstrument::new, new InstrumentRegistry(), pool, 1);
+        var aaa = SymbolIdentity.of("AAA");
+
+        var aaaData = parallel.getOrCreate(aaa);
+
+        parallel.onMarketMessage(new TradeBar.Of(aaa, Candle.of(1L, 1.0)));
+        parallel.onMarketMessage(new TradeBar.Of(aaa, Candle.of(1L, 2.0)));
+        assertThat(parallel.getPendingCount()).isEqualTo(2);
+        assertThat(aaaData.closes).isEmpty();
+
+        parallel.onMarketMessage(new TradeBar.Of(aaa, Candle.of(2L, 3.0)));
+        assertThat(parallel.getPendingCount()).isEqualTo(1);
+        assertThat(aaaData.closes).containsExactly(1.0, 2.0);
+
+        parallel.awaitUpdates();
+        assertThat(parallel.getPendingCount()).isZero();
+        assertThat(aaaData.closes).containsExactly(1.0, 2.0, 3.0);
+    }
+
+    @Test
+    void applies_pending_messages_of_instrument_before_handing_out_its_data() {
+        var parallel = new ParallelMarketDataProcessor<>(RecordingInstrument::new, new InstrumentRegistry(), pool, 1);
+        var aaa = SymbolIdentity.of("AAA");
+        var bbb = SymbolIdentity.of("BBB");
+        var bbbData = parallel.getOrCreate(bbb);
+
+        parallel.onMarketMessage(new TradeBar.Of(aaa, Candle.of(1L, 1.0)));
+        parallel.onMarketMessage(new TradeBar.Of(bbb, Candle.of(1L, 5.0)));
+        var aaaEvent = new TradeBar.Of(aaa, Candle.of(1L, 2.0));
+        parallel.onMarketMessage(aaaEvent);
+
+        assertThat(parallel.getOrCreate(aaaEvent).closes).containsExactly(1.0, 2.0);
+        assertThat(parallel.getPendingCount()).isEqualTo(1);
+        assertThat(bbbData.closes).isEmpty();
+
+        parallel.onMarketMessage(new TradeBar.Of(aaa, Candle.of(1L, 3.0)));
+        assertThat(parallel.getOrCreate(aaa).closes).containsExactly(1.0, 2.0, 3.0);
+
+        parallel.awaitUpdates();
+        assertThat(parallel.getPendingCount()).isZero();
+        assertThat(parallel.getOrCreate(aaa).closes).containsExactly(1.0, 2.0, 3.0);
+        assertThat(bbbData.closes).containsExactly(5.0);
+    }
+
+    @Test
+    void iteration_applies_the_pending_slice() {
+        var parallel = new ParallelMarketDataProcessor<>(RecordingInstrument::new, new InstrumentRegistry(), pool, 1);
+        parallel.onMarketMessage(new TradeBar.Of(SymbolIdentity.of("AAA"), Candle.of(1L, 1.0)));
+        parallel.onMarketMessage(new TradeBar.Of(SymbolIdentity.of("BBB"), Candle.of(1L, 2.0)));
+
+        var closes = new ArrayList<Double>();
+        for (var instrument : parallel)
+            closes.addAll(instrument.closes);
+        assertThat(closes).containsExactly(1.0, 2.0);
+        assertThat(parallel.getPendingCount()).isZero();
+    }
+}
@@ -0,0 +1,53 @@
+package one.chartsy.trade.data;
+
+import one.chartsy.SymbolIdentity;
+import one.chartsy.data.stream.journal.BinaryJournalMessageChannel;
+import one.chartsy.data.stream.journal.BinaryJournalMessageSource;
+import one.chartsy.data.stream.journal.JournalCodecs;
+import one.chartsy.trade.Order;
+import one.chartsy.trade.OrderType;
+import one.chartsy.trade.TimeInForce;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventCodecsTest {
+
+    static final SymbolIdentity SYMBOL = SymbolIdentity.of("TEST_SYMBOL");
+
+    @Test
+    void order_events_survive_journal_round_trip(@TempDir Path dir) {
+        var newOrder = new Order.New(1L, "O1", "algo", "broker", "ACC", SYMBOL, OrderType.limit(99.5), Order.Side.BUY,
+                10, "USD", TimeInForce.GTC, Long.MAX_VALUE, 0L, 0.0, null);
+        var filled = new Order.Filled(4L, "O1", "broker", "algo", "E1", SYMBOL, Order.Side.BUY, 4, 99.5, 10, 99.45);
+        List<OrderEvent> events = List.of(
+                newOrder,
+                new Order.Replacement("O1", new Order.New(2L, "O2", "algo", "broker", null, SYMBOL, OrderType.MARKET,
+                        Order.Side.SELL_SHORT, 5, null, TimeInForce.DAY, 100L, 1L, 1.0, "O1")),
+                new Order.StatusChanged(3L, "O1", "broker", "algo", Order.State.ACCEPTED),
+                new Order.PartiallyFilled(6, new Order.Filled(3L, "O1", "broker", "algo", "E0", SYMBOL, Order.Side.BUY, 6, 99.4, 6, 99.4)),
+                filled,
+                new Order.Rejected(5L, "O3", "broker", "algo", "No funds"),
+                new Order.Cancellation(6L, "O4", "algo", "broker", "O2", null)
+        );
+
+        var codecs = OrderEventCodecs.registerAll(new JournalCodecs());
+        try (var journal = new BinaryJournalMessageChannel<OrderEvent>(dir, codecs)) {
+            journal.sendAll(events);
+        }
+
+        var replayed = new ArrayList<OrderEvent>();
+        try (var source = new BinaryJournalMessageSource<OrderEvent>(dir, codecs)) {
+            OrderEvent event;
+            while ((event = source.getMessage()) != null)
+                replayed.add(event);
+        }
+        assertThat(replayed).isEqualTo(events);
+        assertThat(filled.time()).isEqualTo(4L);
+    }
+}
@@ -117,6 +117,28 @@ class HierarchicalTradingAlgorithmTest {
         inOrder.verify(subStrategy, Mockito.times(1)).entryOrders(when1, null);
     }
 
+    @Test
+    void onData_is_routed_only_to_subStrategies_of_matching_partition() {
+        algorithm.addSubStrategies(subStrategies, PARTITION_BY_SYMBOL);
+        algorithm.onInit(new HostTradingAlgorithmContext());
+        algorithm.onAfterInit();
+
+        When when1 = when(1, SYMBOL_1);
+        algorithm.onData(when1, null, false);
+        assertThat( algorithm.getAllSubStrategies() ).hasSize(1);
+
+        When when2 = when(2, SYMBOL_2);
+        algorithm.onData(when2, null, true);
+        assertThat( algorithm.getAllSubStrategies() ).hasSize(2);
+
+        var subStrategy1 = algorithm.getAllSubStrategies().get(0);
+        var subStrategy2 = algorithm.getAllSubStrategies().get(1);
+        Mockito.verify(subStrategy1).onData(when1, null, false);
+        Mockito.verify(subStrategy1, never()).onData(when2, null, true);
+        Mockito.verify(subStrategy2).onData(when2, null, true);
+        Mockito.verify(subStrategy2, never()).onData(when1, null, false);
+    }
+
     static class MyAlgorithm extends AbstractTradingAlgorithm {
         @Override
         public void exitOrders(When when, Position position) { }
@@ -32,9 +32,8 @@ public class RunMultiStockBacktest {
         // Factories for algorithm and market data.
         AlgorithmFactory<MyAlgorithm> algoFactory = MyAlgorithm::new;
         LocalDate startDate = LocalDate.parse("2011-06-01");
-        MarketSupplierFactory marketFactory =
-                () -> new FlatFileDataMarketSupplier(provider, subscription,
-                        startDate.atStartOfDay().atZone(ZoneOffset.UTC).toInstant());
+        MarketSupplierFactory marketFactory = FlatFileDataMarketSupplier.factory(provider, subscription,
+                startDate.atStartOfDay().atZone(ZoneOffset.UTC).toInstant());
 
         // Run the backtest.
         var result = new AlgorithmBacktestRunner().run(algoFactory, marketFactory, "ALGO");